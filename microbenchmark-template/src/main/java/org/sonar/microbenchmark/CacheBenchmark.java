@@ -0,0 +1,224 @@
+/*
+ * SonarQube, open source software quality management tool.
+ * Copyright (C) 2008-2014 SonarSource
+ * mailto:contact AT sonarsource DOT com
+ *
+ * SonarQube is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * SonarQube is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.microbenchmark;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.io.Files;
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.sonar.api.CoreProperties;
+import org.sonar.api.batch.measure.MetricFinder;
+import org.sonar.api.measures.CoreMetrics;
+import org.sonar.api.measures.Measure;
+import org.sonar.api.measures.Metric;
+import org.sonar.api.resources.File;
+import org.sonar.api.resources.Resource;
+import org.sonar.batch.bootstrap.BootstrapProperties;
+import org.sonar.batch.bootstrap.TempFolderProvider;
+import org.sonar.batch.index.Caches;
+import org.sonar.batch.scan.measure.MeasureCache;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the storages of batch caches on the keys and values of {@link MeasureCache}:
+ * off-heap memory (default) versus the Persistit temporary volume (off-heap memory set to 0).
+ */
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.Throughput)
+public class CacheBenchmark {
+
+  private static final Metric[] METRICS = {CoreMetrics.LINES, CoreMetrics.NCLOC, CoreMetrics.COMPLEXITY, CoreMetrics.FUNCTIONS,
+    CoreMetrics.CLASSES, CoreMetrics.STATEMENTS, CoreMetrics.COMMENT_LINES, CoreMetrics.DUPLICATED_LINES,
+    CoreMetrics.VIOLATIONS, CoreMetrics.COVERAGE};
+
+  /**
+   * Off-heap memory of caches in MB, 0 to store caches on disk
+   */
+  @Param({"0", "256"})
+  public String offHeapMemoryMb;
+
+  @Param({"10000"})
+  public int files;
+
+  java.io.File workDir;
+  Caches caches;
+  MeasureCache measureCache;
+  List<Resource> resources = Lists.newArrayList();
+  Random random = new Random(42);
+
+  @Setup
+  public void setup() throws Exception {
+    for (int i = 0; i < files; i++) {
+      Resource file = File.create("src/main/java/org/sonar/batch/index/Component" + i + ".java");
+      file.setEffectiveKey("org.codehaus.sonar:sonar-batch:src/main/java/org/sonar/batch/index/Component" + i + ".java");
+      resources.add(file);
+    }
+    workDir = Files.createTempDir();
+    caches = createCaches(workDir, offHeapMemoryMb);
+    measureCache = new MeasureCache(caches, new CoreMetricFinder());
+    putAll(measureCache, resources);
+  }
+
+  @TearDown
+  public void tearDown() {
+    caches.stop();
+    FileUtils.deleteQuietly(workDir);
+  }
+
+  /**
+   * Empty caches, created for each invocation of benchmark, so that replaced values
+   * do not consume off-heap memory.
+   */
+  @State(Scope.Thread)
+  public static class EmptyCaches {
+    java.io.File workDir;
+    Caches caches;
+    MeasureCache measureCache;
+
+    @Setup(Level.Invocation)
+    public void setup(CacheBenchmark benchmark) {
+      workDir = Files.createTempDir();
+      caches = createCaches(workDir, benchmark.offHeapMemoryMb);
+      measureCache = new MeasureCache(caches, new CoreMetricFinder());
+    }
+
+    @TearDown(Level.Invocation)
+    public void tearDown() {
+      caches.stop();
+      FileUtils.deleteQuietly(workDir);
+    }
+  }
+
+  private static Caches createCaches(java.io.File workDir, String offHeapMemoryMb) {
+    BootstrapProperties props = new BootstrapProperties(ImmutableMap.of(
+      CoreProperties.WORKING_DIRECTORY, workDir.getAbsolutePath(),
+      Caches.OFF_HEAP_MEMORY_PROPERTY, offHeapMemoryMb));
+    return new Caches(new TempFolderProvider().provide(props), props);
+  }
+
+  private static void putAll(MeasureCache measureCache, List<Resource> resources) {
+    for (Resource resource : resources) {
+      for (Metric metric : METRICS) {
+        measureCache.put(resource, new Measure(metric, 42.0));
+      }
+    }
+  }
+
+  /**
+   * Puts all the measures of all files
+   */
+  @Benchmark
+  public void putAll(EmptyCaches empty) {
+    putAll(empty.measureCache, resources);
+  }
+
+  @Benchmark
+  public void getByMetric(Blackhole blackhole) {
+    Resource resource = resources.get(random.nextInt(files));
+    for (Metric metric : METRICS) {
+      for (Measure measure : measureCache.byMetric(resource, metric.key())) {
+        blackhole.consume(measure);
+      }
+    }
+  }
+
+  @Benchmark
+  public void iterateByResource(Blackhole blackhole) {
+    Resource resource = resources.get(random.nextInt(files));
+    for (Measure measure : measureCache.byResource(resource)) {
+      blackhole.consume(measure);
+    }
+  }
+
+  @Benchmark
+  public void iterateAll(Blackhole blackhole) {
+    for (Measure measure : measureCache.all()) {
+      blackhole.consume(measure);
+    }
+  }
+
+  private static class CoreMetricFinder implements MetricFinder {
+    private final Map<String, org.sonar.api.batch.measure.Metric> metricsByKey = Maps.newHashMap();
+
+    CoreMetricFinder() {
+      for (Metric metric : CoreMetrics.getMetrics()) {
+        metricsByKey.put(metric.key(), metric);
+      }
+    }
+
+    @Override
+    public org.sonar.api.batch.measure.Metric findByKey(String key) {
+      return metricsByKey.get(key);
+    }
+
+    @Override
+    public Collection<org.sonar.api.batch.measure.Metric> findAll(List<String> metricKeys) {
+      List<org.sonar.api.batch.measure.Metric> result = Lists.newArrayList();
+      for (String metricKey : metricKeys) {
+        result.add(metricsByKey.get(metricKey));
+      }
+      return result;
+    }
+
+    @Override
+    public Collection<org.sonar.api.batch.measure.Metric> findAll() {
+      return metricsByKey.values();
+    }
+  }
+
+  /**
+   * You can this benchmark with maven command-line (see run.sh) or by executing this method
+   * in IDE
+   */
+  public static void main(String[] args) throws RunnerException {
+    Options opt = new OptionsBuilder()
+      .include(CacheBenchmark.class.getSimpleName())
+      .build();
+    new Runner(opt).run();
+  }
+}
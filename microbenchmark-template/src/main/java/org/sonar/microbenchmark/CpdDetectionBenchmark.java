@@ -0,0 +1,123 @@
+/*
+ * SonarQube, open source software quality management tool.
+ * Copyright (C) 2008-2014 SonarSource
+ * mailto:contact AT sonarsource DOT com
+ *
+ * SonarQube is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * SonarQube is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.microbenchmark;
+
+import com.google.common.collect.Lists;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.sonar.api.batch.fs.InputFile;
+import org.sonar.api.batch.fs.internal.DeprecatedDefaultInputFile;
+import org.sonar.batch.cpd.CpdExecutor;
+import org.sonar.batch.cpd.index.SonarDuplicationsIndex;
+import org.sonar.duplications.block.Block;
+import org.sonar.duplications.block.ByteArray;
+import org.sonar.duplications.index.CloneGroup;
+
+import javax.annotation.Nullable;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Detection of duplications of a generated project, depending on the number of threads
+ * of {@link CpdExecutor}.
+ */
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.AverageTime)
+public class CpdDetectionBenchmark {
+
+  @Param({"1", "2", "4", "8"})
+  public int threads;
+
+  @Param({"2000"})
+  public int files;
+
+  @Param({"200"})
+  public int blocksPerFile;
+
+  /**
+   * Number of distinct hashes. The lower, the more duplications.
+   */
+  @Param({"20000"})
+  public int distinctHashes;
+
+  SonarDuplicationsIndex index;
+  List<InputFile> inputFiles = Lists.newArrayList();
+
+  @Setup
+  public void setup() {
+    Random random = new Random(42);
+    index = new SonarDuplicationsIndex();
+    for (int i = 0; i < files; i++) {
+      DeprecatedDefaultInputFile inputFile = new DeprecatedDefaultInputFile("foo", "src/main/java/Component" + i + ".java");
+      List<Block> blocks = Lists.newArrayList();
+      for (int j = 0; j < blocksPerFile; j++) {
+        blocks.add(Block.builder()
+          .setResourceId(inputFile.key())
+          .setBlockHash(new ByteArray((long) random.nextInt(distinctHashes)))
+          .setIndexInFile(j)
+          .setLines(j + 1, j + 10)
+          .build());
+      }
+      index.insert(inputFile, blocks);
+      inputFiles.add(inputFile);
+    }
+  }
+
+  @Benchmark
+  public void detect(final Blackhole blackhole) {
+    new CpdExecutor(index, threads).detect(inputFiles, new CpdExecutor.Callback() {
+      @Override
+      public void onDetection(InputFile inputFile, @Nullable List<CloneGroup> clones) {
+        blackhole.consume(clones);
+      }
+    });
+  }
+
+  /**
+   * You can this benchmark with maven command-line (see run.sh) or by executing this method
+   * in IDE
+   */
+  public static void main(String[] args) throws RunnerException {
+    Options opt = new OptionsBuilder()
+      .include(CpdDetectionBenchmark.class.getSimpleName())
+      .build();
+    new Runner(opt).run();
+  }
+}
@@ -0,0 +1,151 @@
+/*
+ * SonarQube, open source software quality management tool.
+ * Copyright (C) 2008-2014 SonarSource
+ * mailto:contact AT sonarsource DOT com
+ *
+ * SonarQube is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * SonarQube is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.microbenchmark;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.sonar.api.issue.Issue;
+import org.sonar.api.issue.internal.DefaultIssue;
+import org.sonar.api.rule.RuleKey;
+import org.sonar.batch.issue.tracking.FileHashes;
+import org.sonar.batch.issue.tracking.IssueTracking;
+import org.sonar.batch.issue.tracking.ServerIssue;
+import org.sonar.batch.issue.tracking.ServerIssueFromDb;
+import org.sonar.batch.issue.tracking.SourceHashHolder;
+import org.sonar.core.issue.db.IssueDto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tracking of the issues of a generated file, depending on its number of lines. Lines are inserted, changed
+ * and duplicated between the two analyses. Time should grow nearly linearly with the number of lines.
+ */
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.AverageTime)
+public class IssueTrackingBenchmark {
+
+  @Param({"10", "1000", "20000"})
+  public int lines;
+
+  IssueTracking tracking = new IssueTracking();
+  SourceHashHolder sourceHashHolder;
+  List<ServerIssue> previousIssues = new ArrayList<>();
+  List<DefaultIssue> newIssues = new ArrayList<>();
+
+  @Setup
+  public void setup() {
+    List<String> reference = new ArrayList<>();
+    List<String> source = new ArrayList<>();
+    for (int i = 0; i < lines; i++) {
+      // one line out of 10 is duplicated all over the file
+      String line = i % 10 == 9 ? "}" : ("line " + i);
+      reference.add(line);
+      previousIssues.add(newPreviousIssue(i, reference.size(), line));
+
+      if (i % 50 == 0) {
+        // inserted line, with an issue of a rule that did not exist in previous analysis
+        source.add("inserted " + i);
+        newIssues.add(newIssue(i, source.size(), "Inserted", "NewRule"));
+      }
+      // one line out of 7 is changed, one message out of 3 is changed
+      source.add(i % 7 == 3 ? (line + " changed") : line);
+      newIssues.add(newIssue(i, source.size(), i % 3 == 0 ? ("Changed message " + i) : ("Message " + i), "Rule" + (i % 5)));
+    }
+    final FileHashes hashedReference = FileHashes.create(hashes(reference));
+    final FileHashes hashedSource = FileHashes.create(hashes(source));
+    sourceHashHolder = new SourceHashHolder(null, null, null) {
+      @Override
+      public FileHashes getHashedReference() {
+        return hashedReference;
+      }
+
+      @Override
+      public FileHashes getHashedSource() {
+        return hashedSource;
+      }
+    };
+  }
+
+  @Benchmark
+  public Object track() {
+    return tracking.track(sourceHashHolder, previousIssues, newIssues);
+  }
+
+  private static String[] hashes(List<String> lines) {
+    String[] hashes = new String[lines.size()];
+    for (int i = 0; i < hashes.length; i++) {
+      hashes[i] = DigestUtils.md5Hex(lines.get(i));
+    }
+    return hashes;
+  }
+
+  private static ServerIssue newPreviousIssue(int index, int line, String content) {
+    IssueDto dto = new IssueDto();
+    dto.setId((long) index);
+    dto.setKee("issue" + index);
+    dto.setLine(line);
+    dto.setMessage("Message " + index);
+    dto.setRuleKey("squid", "Rule" + (index % 5));
+    dto.setChecksum(DigestUtils.md5Hex(content));
+    dto.setStatus(Issue.STATUS_OPEN);
+    return new ServerIssueFromDb(dto);
+  }
+
+  private static DefaultIssue newIssue(int index, int line, String message, String rule) {
+    // checksum is set by tracking, from the hashes of source
+    return new DefaultIssue()
+      .setKey("new" + index + "-" + line)
+      .setMessage(message)
+      .setLine(line)
+      .setRuleKey(RuleKey.of("squid", rule))
+      .setStatus(Issue.STATUS_OPEN);
+  }
+
+  /**
+   * You can this benchmark with maven command-line (see run.sh) or by executing this method
+   * in IDE
+   */
+  public static void main(String[] args) throws RunnerException {
+    Options opt = new OptionsBuilder()
+      .include(IssueTrackingBenchmark.class.getSimpleName())
+      .build();
+    new Runner(opt).run();
+  }
+}
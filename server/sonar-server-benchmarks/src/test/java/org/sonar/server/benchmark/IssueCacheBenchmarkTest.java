@@ -0,0 +1,158 @@
+/*
+ * SonarQube, open source software quality management tool.
+ * Copyright (C) 2008-2014 SonarSource
+ * mailto:contact AT sonarsource DOT com
+ *
+ * SonarQube is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * SonarQube is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.server.benchmark;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.sonar.api.issue.Issue;
+import org.sonar.api.issue.internal.DefaultIssue;
+import org.sonar.api.issue.internal.IssueChangeContext;
+import org.sonar.api.rule.RuleKey;
+import org.sonar.api.rule.Severity;
+import org.sonar.api.utils.Duration;
+import org.sonar.api.utils.System2;
+import org.sonar.server.computation.issue.IssueCache;
+import org.sonar.server.util.CloseableIterator;
+import org.sonar.server.util.cache.DiskCache;
+
+import java.io.File;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares the generic {@link DiskCache}, based on Java serialization, with the binary encoding of {@link IssueCache}
+ */
+public class IssueCacheBenchmarkTest {
+
+  public static final Logger LOGGER = LoggerFactory.getLogger("benchmarkIssueCache");
+
+  public static final int NUMBER_OF_FILES = 2000;
+  public static final int ISSUES_PER_FILE = 100;
+  public static final int NUMBER_OF_ISSUES = NUMBER_OF_FILES * ISSUES_PER_FILE;
+
+  @Rule
+  public TemporaryFolder temp = new TemporaryFolder();
+
+  @Rule
+  public Benchmark benchmark = new Benchmark();
+
+  @Test
+  public void benchmark() throws Exception {
+    benchmarkDiskCache();
+    benchmarkIssueCache();
+  }
+
+  private void benchmarkDiskCache() throws Exception {
+    File file = temp.newFile();
+    DiskCache<DefaultIssue> cache = new DiskCache<>(file, System2.INSTANCE);
+
+    long start = System.currentTimeMillis();
+    DiskCache<DefaultIssue>.DiskAppender appender = cache.newAppender();
+    for (int i = 0; i < NUMBER_OF_ISSUES; i++) {
+      appender.append(newIssue(i));
+    }
+    appender.close();
+    long writeDuration = System.currentTimeMillis() - start;
+
+    start = System.currentTimeMillis();
+    int count = count(cache.traverse());
+    long readDuration = System.currentTimeMillis() - start;
+
+    assertThat(count).isEqualTo(NUMBER_OF_ISSUES);
+    log("DiskCache", file.length(), writeDuration, readDuration);
+  }
+
+  private void benchmarkIssueCache() throws Exception {
+    IssueCache cache = new IssueCache(temp.newFile(), System2.INSTANCE);
+
+    long start = System.currentTimeMillis();
+    IssueCache.IssueAppender appender = cache.newAppender();
+    for (int i = 0; i < NUMBER_OF_ISSUES; i++) {
+      appender.append(newIssue(i));
+    }
+    appender.close();
+    long writeDuration = System.currentTimeMillis() - start;
+
+    start = System.currentTimeMillis();
+    int count = count(cache.traverse());
+    long readDuration = System.currentTimeMillis() - start;
+    assertThat(count).isEqualTo(NUMBER_OF_ISSUES);
+    log("IssueCache", cache.bytes(), writeDuration, readDuration);
+
+    start = System.currentTimeMillis();
+    count = count(cache.traverseNewOrChanged());
+    LOGGER.info(String.format("IssueCache: %d new or changed issues read in %d ms", count, System.currentTimeMillis() - start));
+
+    start = System.currentTimeMillis();
+    count = count(cache.traverse("FILE_" + (NUMBER_OF_FILES / 2)));
+    assertThat(count).isEqualTo(ISSUES_PER_FILE);
+    LOGGER.info(String.format("IssueCache: %d issues of a single file read in %d ms", count, System.currentTimeMillis() - start));
+  }
+
+  private static int count(CloseableIterator<DefaultIssue> issues) {
+    int count = 0;
+    try {
+      while (issues.hasNext()) {
+        issues.next();
+        count++;
+      }
+    } finally {
+      issues.close();
+    }
+    return count;
+  }
+
+  private static void log(String label, long bytes, long writeDuration, long readDuration) {
+    LOGGER.info(String.format("%s: %d bytes (%d bytes/issue)", label, bytes, bytes / NUMBER_OF_ISSUES));
+    LOGGER.info(String.format("%s: %d issues written in %d ms (%d issues/second)", label, NUMBER_OF_ISSUES, writeDuration,
+      1000L * NUMBER_OF_ISSUES / Math.max(1L, writeDuration)));
+    LOGGER.info(String.format("%s: %d issues read in %d ms (%d issues/second)", label, NUMBER_OF_ISSUES, readDuration,
+      1000L * NUMBER_OF_ISSUES / Math.max(1L, readDuration)));
+  }
+
+  private static DefaultIssue newIssue(int i) {
+    DefaultIssue issue = new DefaultIssue()
+      .setKey("ISSUE_" + i)
+      .setComponentUuid("FILE_" + (i / ISSUES_PER_FILE))
+      .setComponentKey("PROJECT:src/main/java/File" + (i / ISSUES_PER_FILE) + ".java")
+      .setProjectUuid("PROJECT")
+      .setProjectKey("PROJECT")
+      .setRuleKey(RuleKey.of("squid", "S" + (i % 50)))
+      .setSeverity(Severity.MAJOR)
+      .setMessage("Message of issue " + i)
+      .setLine(1 + i % 1000)
+      .setEffortToFix(2.0)
+      .setDebt(Duration.create(10L))
+      .setStatus(Issue.STATUS_OPEN)
+      .setChecksum("c7a5a8ffb2e9d9d7f9a38bc9a48d2e1a")
+      .setCreationDate(new Date())
+      .setUpdateDate(new Date())
+      .setNew(i % 10 == 0);
+    if (i % 10 == 1) {
+      issue.setFieldChange(IssueChangeContext.createUser(new Date(), "john"), "severity", Severity.MAJOR, Severity.BLOCKER);
+      issue.setChanged(true);
+    }
+    return issue;
+  }
+}
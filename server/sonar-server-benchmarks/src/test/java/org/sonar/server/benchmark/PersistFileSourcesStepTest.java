@@ -26,6 +26,7 @@ import org.junit.Test;
 import org.junit.rules.TemporaryFolder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.sonar.api.config.Settings;
 import org.sonar.api.utils.System2;
 import org.sonar.api.utils.internal.Uuids;
 import org.sonar.batch.protocol.Constants;
@@ -39,6 +40,8 @@ import org.sonar.server.computation.step.PersistFileSourcesStep;
 import org.sonar.server.db.DbClient;
 import org.sonar.server.source.db.FileSourceDao;
 
+import javax.annotation.Nullable;
+
 import java.io.File;
 import java.io.IOException;
 import java.sql.SQLException;
@@ -67,25 +70,31 @@ public class PersistFileSourcesStepTest {
   @Test
   public void benchmark() throws Exception {
     File reportDir = prepareReport();
-    persistFileSources(reportDir);
+    persistFileSources(reportDir, 1, 105000);
+    persistFileSources(reportDir, 4, null);
+    persistFileSources(reportDir, 8, null);
   }
 
-  private void persistFileSources(File reportDir) throws SQLException {
-    LOGGER.info("Persist file sources");
+  private void persistFileSources(File reportDir, int threads, @Nullable Integer expectedDuration) throws SQLException {
+    LOGGER.info(String.format("Persist file sources with %d threads", threads));
+    dbTester.truncateTables();
     DbClient dbClient = new DbClient(dbTester.database(), dbTester.myBatis(), new FileSourceDao(dbTester.myBatis()));
+    Settings settings = new Settings().setProperty(PersistFileSourcesStep.THREADS_PROPERTY, threads);
 
     long start = System.currentTimeMillis();
 
-    PersistFileSourcesStep step = new PersistFileSourcesStep(dbClient, System2.INSTANCE);
+    PersistFileSourcesStep step = new PersistFileSourcesStep(dbClient, System2.INSTANCE, settings);
     step.execute(new ComputationContext(new BatchReportReader(reportDir), ComponentTesting.newProjectDto(PROJECT_UUID)));
 
     long end = System.currentTimeMillis();
     long duration = end - start;
 
     assertThat(dbTester.countRowsOfTable("file_sources")).isEqualTo(NUMBER_OF_FILES);
-    LOGGER.info(String.format("File sources has been persisted in %d ms", duration));
+    LOGGER.info(String.format("File sources has been persisted in %d ms with %d threads (%d files/second)", duration, threads, NUMBER_OF_FILES * 1000L / Math.max(1L, duration)));
 
-    benchmark.expectAround("Duration to persist FILE_SOURCES", duration, 105000, Benchmark.DEFAULT_ERROR_MARGIN_PERCENTS);
+    if (expectedDuration != null) {
+      benchmark.expectAround("Duration to persist FILE_SOURCES", duration, expectedDuration, Benchmark.DEFAULT_ERROR_MARGIN_PERCENTS);
+    }
   }
 
   private File prepareReport() throws IOException {
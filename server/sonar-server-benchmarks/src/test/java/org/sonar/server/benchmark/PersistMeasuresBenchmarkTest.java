@@ -0,0 +1,113 @@
+/*
+ * SonarQube, open source software quality management tool.
+ * Copyright (C) 2008-2014 SonarSource
+ * mailto:contact AT sonarsource DOT com
+ *
+ * SonarQube is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * SonarQube is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.server.benchmark;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.sonar.core.measure.db.MeasureDto;
+import org.sonar.core.persistence.DbSession;
+import org.sonar.core.persistence.DbTester;
+import org.sonar.core.persistence.MyBatis;
+import org.sonar.server.computation.measure.BulkMeasureWriter;
+import org.sonar.server.db.DbClient;
+import org.sonar.server.measure.persistence.MeasureDao;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares insertion of measures with MyBatis batch sessions and with {@link BulkMeasureWriter}
+ */
+public class PersistMeasuresBenchmarkTest {
+
+  public static final Logger LOGGER = LoggerFactory.getLogger("benchmarkPersistMeasures");
+
+  public static final int NUMBER_OF_FILES = 5000;
+  public static final int NUMBER_OF_METRICS = 40;
+  public static final int NUMBER_OF_MEASURES = NUMBER_OF_FILES * NUMBER_OF_METRICS;
+
+  @Rule
+  public DbTester dbTester = new DbTester();
+
+  @Rule
+  public Benchmark benchmark = new Benchmark();
+
+  @Test
+  public void benchmark() throws Exception {
+    long mybatisDuration = insertWithMyBatis();
+    long bulkDuration = insertWithBulkWriter();
+
+    LOGGER.info(String.format("Bulk writer is %.1f times faster than MyBatis", (double) mybatisDuration / Math.max(1L, bulkDuration)));
+  }
+
+  private long insertWithMyBatis() {
+    LOGGER.info("Insert measures with MyBatis");
+    dbTester.truncateTables();
+    DbClient dbClient = new DbClient(dbTester.database(), dbTester.myBatis(), new MeasureDao());
+
+    long start = System.currentTimeMillis();
+    DbSession session = dbClient.openSession(true);
+    try {
+      for (int i = 0; i < NUMBER_OF_MEASURES; i++) {
+        dbClient.measureDao().insert(session, newMeasure(i));
+      }
+      session.commit();
+    } finally {
+      MyBatis.closeQuietly(session);
+    }
+    return logDuration("MyBatis", start);
+  }
+
+  private long insertWithBulkWriter() {
+    LOGGER.info("Insert measures with bulk writer");
+    dbTester.truncateTables();
+
+    long start = System.currentTimeMillis();
+    BulkMeasureWriter writer = new BulkMeasureWriter(dbTester.database(), BulkMeasureWriter.DEFAULT_CHUNK_SIZE);
+    try {
+      for (int i = 0; i < NUMBER_OF_MEASURES; i++) {
+        writer.add(newMeasure(i));
+      }
+      writer.commit();
+    } finally {
+      writer.close();
+    }
+    return logDuration("Bulk writer", start);
+  }
+
+  private long logDuration(String label, long start) {
+    long duration = System.currentTimeMillis() - start;
+    assertThat(dbTester.countRowsOfTable("project_measures")).isEqualTo(NUMBER_OF_MEASURES);
+    LOGGER.info(String.format("%s: %d measures inserted in %d ms (%d measures/second)", label, NUMBER_OF_MEASURES, duration,
+      1000L * NUMBER_OF_MEASURES / Math.max(1L, duration)));
+    return duration;
+  }
+
+  private static MeasureDto newMeasure(int i) {
+    return new MeasureDto()
+      .setMetricId(i % NUMBER_OF_METRICS)
+      .setSnapshotId((long) i / NUMBER_OF_METRICS)
+      .setComponentId((long) i / NUMBER_OF_METRICS)
+      .setValue((double) i)
+      .setVariation(1, 1.0d)
+      .setVariation(2, 2.0d);
+  }
+}
@@ -20,7 +20,6 @@
 
 package org.sonar.server.batch;
 
-import org.apache.commons.io.IOUtils;
 import org.sonar.api.server.ws.Request;
 import org.sonar.api.server.ws.Response;
 import org.sonar.api.server.ws.WebService;
@@ -36,6 +35,9 @@ import org.sonar.server.exceptions.ForbiddenException;
 import org.sonar.server.plugins.MimeTypes;
 import org.sonar.server.user.UserSession;
 
+import java.io.IOException;
+import java.io.OutputStream;
+
 public class GlobalRepositoryAction implements BatchAction {
 
   private final DbClient dbClient;
@@ -48,11 +50,13 @@ public class GlobalRepositoryAction implements BatchAction {
 
   @Override
   public void define(WebService.NewController controller) {
-    controller.createAction("global")
+    WebService.NewAction action = controller.createAction("global")
       .setDescription("Return metrics and global properties")
       .setSince("4.5")
       .setInternal(true)
       .setHandler(this);
+
+    RepositoryResponse.defineParams(action, "GlobalRepositories#readFrom(InputStream)");
   }
 
   @Override
@@ -66,12 +70,20 @@ public class GlobalRepositoryAction implements BatchAction {
 
     DbSession session = dbClient.openSession(false);
     try {
-      GlobalRepositories ref = new GlobalRepositories();
+      final GlobalRepositories ref = new GlobalRepositories();
       addMetrics(ref, session);
       addSettings(ref, hasScanPerm, hasPreviewPerm, session);
 
-      response.stream().setMediaType(MimeTypes.JSON);
-      IOUtils.write(ref.toJson(), response.stream().output());
+      if (RepositoryResponse.isProtobuf(request)) {
+        RepositoryResponse.write(request, response, MimeTypes.PROTOBUF, new RepositoryResponse.Content() {
+          @Override
+          public void writeTo(OutputStream output) throws IOException {
+            ref.writeTo(output);
+          }
+        });
+      } else {
+        RepositoryResponse.write(request, response, MimeTypes.JSON, RepositoryResponse.json(ref.toJson()));
+      }
     } finally {
       MyBatis.closeQuietly(session);
     }
@@ -20,13 +20,15 @@
 
 package org.sonar.server.batch;
 
-import org.apache.commons.io.IOUtils;
 import org.sonar.api.server.ws.Request;
 import org.sonar.api.server.ws.Response;
 import org.sonar.api.server.ws.WebService;
 import org.sonar.batch.protocol.input.ProjectRepositories;
 import org.sonar.server.plugins.MimeTypes;
 
+import java.io.IOException;
+import java.io.OutputStream;
+
 public class ProjectRepositoryAction implements BatchAction {
 
   private static final String PARAM_KEY = "key";
@@ -63,16 +65,26 @@ public class ProjectRepositoryAction implements BatchAction {
       .setDescription("Preview mode or not")
       .setDefaultValue(false)
       .setBooleanPossibleValues();
+
+    RepositoryResponse.defineParams(action, "ProjectRepositories#readFrom(InputStream)");
   }
 
   @Override
   public void handle(Request request, Response response) throws Exception {
-    ProjectRepositories ref = projectReferentialsLoader.load(ProjectRepositoryQuery.create()
+    final ProjectRepositories ref = projectReferentialsLoader.load(ProjectRepositoryQuery.create()
       .setModuleKey(request.mandatoryParam(PARAM_KEY))
       .setProfileName(request.param(PARAM_PROFILE))
       .setPreview(request.mandatoryParamAsBoolean(PARAM_PREVIEW)));
-    response.stream().setMediaType(MimeTypes.JSON);
-    IOUtils.write(ref.toJson(), response.stream().output());
+    if (RepositoryResponse.isProtobuf(request)) {
+      RepositoryResponse.write(request, response, MimeTypes.PROTOBUF, new RepositoryResponse.Content() {
+        @Override
+        public void writeTo(OutputStream output) throws IOException {
+          ref.writeTo(output);
+        }
+      });
+    } else {
+      RepositoryResponse.write(request, response, MimeTypes.JSON, RepositoryResponse.json(ref.toJson()));
+    }
   }
 
 }
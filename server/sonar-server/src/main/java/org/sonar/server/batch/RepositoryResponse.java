@@ -0,0 +1,112 @@
+/*
+ * SonarQube, open source software quality management tool.
+ * Copyright (C) 2008-2014 SonarSource
+ * mailto:contact AT sonarsource DOT com
+ *
+ * SonarQube is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * SonarQube is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.server.batch;
+
+import com.google.common.base.Charsets;
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.output.DeferredFileOutputStream;
+import org.sonar.api.server.ws.Request;
+import org.sonar.api.server.ws.Response;
+import org.sonar.api.server.ws.WebService;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+
+/**
+ * Response of the actions returning batch repositories. The MD5 hash of the content is the validator of the response:
+ * batch keeps the content in its cache and sends back its hash in the parameter {@value #PARAM_HASH}. If the content
+ * did not change in the meantime, the status 304 is returned without content.
+ * <p/>
+ * The content is serialized once, and hashed while it is written to a buffer. The buffer is moved to a temporary file
+ * when it exceeds {@value #MEMORY_THRESHOLD} bytes, so large repositories are not held as a whole in memory.
+ *
+ * @since 5.2
+ */
+class RepositoryResponse {
+
+  static final String PARAM_FORMAT = "format";
+  static final String PARAM_HASH = "hash";
+  static final String FORMAT_JSON = "json";
+  static final String FORMAT_PROTOBUF = "protobuf";
+  static final int MEMORY_THRESHOLD = 1024 * 1024;
+
+  private RepositoryResponse() {
+    // only static methods
+  }
+
+  static void defineParams(WebService.NewAction action, String reader) {
+    action
+      .createParam(PARAM_FORMAT)
+      .setDescription("Response format. Since 5.2, format protobuf returns a compressed binary stream read by " + reader)
+      .setDefaultValue(FORMAT_JSON)
+      .setPossibleValues(FORMAT_JSON, FORMAT_PROTOBUF);
+
+    action
+      .createParam(PARAM_HASH)
+      .setDescription("Since 5.2. MD5 hash of the content already known by client. Status 304 is returned without content if it did not change.")
+      .setExampleValue("d41d8cd98f00b204e9800998ecf8427e");
+  }
+
+  static boolean isProtobuf(Request request) {
+    return FORMAT_PROTOBUF.equals(request.mandatoryParam(PARAM_FORMAT));
+  }
+
+  static void write(Request request, Response response, String mediaType, Content content) throws IOException {
+    MessageDigest digest = DigestUtils.getMd5Digest();
+    DeferredFileOutputStream buffer = new DeferredFileOutputStream(MEMORY_THRESHOLD, "batch-repository", ".tmp", null);
+    try {
+      try (OutputStream out = new DigestOutputStream(buffer, digest)) {
+        content.writeTo(out);
+      }
+      if (Hex.encodeHexString(digest.digest()).equals(request.param(PARAM_HASH))) {
+        response.stream().setStatus(HttpURLConnection.HTTP_NOT_MODIFIED).output().close();
+      } else {
+        response.stream().setMediaType(mediaType);
+        buffer.writeTo(response.stream().output());
+      }
+    } finally {
+      if (!buffer.isInMemory()) {
+        FileUtils.deleteQuietly(buffer.getFile());
+      }
+    }
+  }
+
+  static Content json(final String json) {
+    return new Content() {
+      @Override
+      public void writeTo(OutputStream output) throws IOException {
+        IOUtils.write(json, output, Charsets.UTF_8);
+      }
+    };
+  }
+
+  /**
+   * Content of the response, written to the stream given by {@link #write(Request, Response, String, Content)}.
+   */
+  interface Content {
+    void writeTo(OutputStream output) throws IOException;
+  }
+}
@@ -38,6 +38,13 @@ public class ComponentLinkDao implements ServerComponent, DaoComponent {
     session.getMapper(ComponentLinkMapper.class).insert(item);
   }
 
+  /**
+   * Same as {@link #insert(DbSession, ComponentLinkDto)} but compatible with batch sessions. The id of the link is not set.
+   */
+  public void batchInsert(DbSession session, ComponentLinkDto item) {
+    session.getMapper(ComponentLinkMapper.class).batchInsert(item);
+  }
+
   public void update(DbSession session, ComponentLinkDto item) {
     session.getMapper(ComponentLinkMapper.class).update(item);
   }
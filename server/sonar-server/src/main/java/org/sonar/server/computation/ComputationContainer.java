@@ -65,10 +65,9 @@ public class ComputationContainer {
     try {
       child.getComponentByType(ComputationService.class).process(item);
     } finally {
+      // removes only this child from the platform container, so that
+      // the containers of the other computation workers are kept
       child.stopComponents();
-      // TODO not possible to have multiple children -> will be
-      // a problem when we will have multiple concurrent computation workers
-      container.removeChild();
     }
   }
 }
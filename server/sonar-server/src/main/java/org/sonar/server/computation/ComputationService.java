@@ -20,13 +20,11 @@
 
 package org.sonar.server.computation;
 
+import com.google.common.base.Joiner;
 import com.google.common.base.Throwables;
-import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang.ArrayUtils;
 import org.sonar.api.ServerComponent;
 import org.sonar.api.utils.System2;
-import org.sonar.api.utils.TempFolder;
-import org.sonar.api.utils.ZipUtils;
 import org.sonar.api.utils.log.Logger;
 import org.sonar.api.utils.log.Loggers;
 import org.sonar.api.utils.log.Profiler;
@@ -38,14 +36,16 @@ import org.sonar.core.persistence.DbSession;
 import org.sonar.core.persistence.MyBatis;
 import org.sonar.server.activity.Activity;
 import org.sonar.server.activity.ActivityService;
+import org.sonar.server.computation.step.ComponentVisitorStep;
 import org.sonar.server.computation.step.ComputationStep;
 import org.sonar.server.computation.step.ComputationSteps;
 import org.sonar.server.db.DbClient;
 import org.sonar.server.properties.ProjectSettingsFactory;
 
 import javax.annotation.Nullable;
-import java.io.File;
-import java.io.IOException;
+
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.sonar.api.utils.DateUtils.formatDateTimeNullSafe;
 import static org.sonar.api.utils.DateUtils.longToDate;
@@ -59,16 +59,14 @@ public class ComputationService implements ServerComponent {
   private final ComputationSteps steps;
   private final ActivityService activityService;
   private final ProjectSettingsFactory projectSettingsFactory;
-  private final TempFolder tempFolder;
   private final System2 system;
 
   public ComputationService(DbClient dbClient, ComputationSteps steps, ActivityService activityService, 
-                            ProjectSettingsFactory projectSettingsFactory, TempFolder tempFolder, System2 system) {
+                            ProjectSettingsFactory projectSettingsFactory, System2 system) {
     this.dbClient = dbClient;
     this.steps = steps;
     this.activityService = activityService;
     this.projectSettingsFactory = projectSettingsFactory;
-    this.tempFolder = tempFolder;
     this.system = system;
   }
 
@@ -77,47 +75,70 @@ public class ComputationService implements ServerComponent {
       "Analysis of project %s (report %d)", item.dto.getProjectKey(), item.dto.getId()));
 
     ComponentDto project = null;
+    BatchReportReader reader = null;
 
     try {
       project = loadProject(item);
-      File reportDir = extractReportInDir(item);
-      BatchReportReader reader = new BatchReportReader(reportDir);
+      // entries are read directly from the zip file, without extracting the report on disk
+      reader = BatchReportReader.openZip(item.zipFile);
       if (isSnapshotMissing(item, reader.readMetadata().getSnapshotId())) {
         return;
       }
       ComputationContext context = new ComputationContext(reader, project);
       context.setProjectSettings(projectSettingsFactory.newProjectSettings(project.getId()));
-      for (ComputationStep step : steps.orderedSteps()) {
-        if (ArrayUtils.contains(step.supportedProjectQualifiers(), context.getProject().qualifier())) {
-          Profiler stepProfiler = Profiler.createIfDebug(LOG).startDebug(step.getDescription());
-          step.execute(context);
-          stepProfiler.stopDebug();
-        }
-      }
+      executeSteps(context);
       item.dto.setStatus(SUCCESS);
     } catch (Throwable e) {
       item.dto.setStatus(FAILED);
       throw Throwables.propagate(e);
     } finally {
+      closeQuietly(reader);
       item.dto.setFinishedAt(system.now());
       saveActivity(item.dto, project);
       profiler.stopInfo();
     }
   }
 
-  private File extractReportInDir(ReportQueue.Item item) {
-    File dir = tempFolder.newDir();
-    try {
-      Profiler profiler = Profiler.createIfDebug(LOG).start();
-      ZipUtils.unzip(item.zipFile, dir);
-      if (profiler.isDebugEnabled()) {
-        String message = String.format("Report extracted | size=%s | project=%s",
-          FileUtils.byteCountToDisplaySize(FileUtils.sizeOf(dir)), item.dto.getProjectKey());
-        profiler.stopDebug(message);
+  /**
+   * Consecutive {@link ComponentVisitorStep}s share the same traversal of the component tree
+   */
+  private void executeSteps(ComputationContext context) {
+    List<ComponentVisitorStep> visitorSteps = new ArrayList<>();
+    for (ComputationStep step : steps.orderedSteps()) {
+      if (ArrayUtils.contains(step.supportedProjectQualifiers(), context.getProject().qualifier())) {
+        if (step instanceof ComponentVisitorStep) {
+          visitorSteps.add((ComponentVisitorStep) step);
+        } else {
+          executeVisitorSteps(context, visitorSteps);
+          visitorSteps.clear();
+          Profiler stepProfiler = Profiler.createIfDebug(LOG).startDebug(step.getDescription());
+          step.execute(context);
+          stepProfiler.stopDebug();
+        }
+      }
+    }
+    executeVisitorSteps(context, visitorSteps);
+  }
+
+  private void executeVisitorSteps(ComputationContext context, List<ComponentVisitorStep> visitorSteps) {
+    if (!visitorSteps.isEmpty()) {
+      List<String> descriptions = new ArrayList<>();
+      for (ComponentVisitorStep visitorStep : visitorSteps) {
+        descriptions.add(visitorStep.getDescription());
+      }
+      Profiler stepProfiler = Profiler.createIfDebug(LOG).startDebug(Joiner.on(", ").join(descriptions));
+      ComponentVisitorStep.execute(context, visitorSteps, dbClient);
+      stepProfiler.stopDebug();
+    }
+  }
+
+  private static void closeQuietly(@Nullable BatchReportReader reader) {
+    if (reader != null) {
+      try {
+        reader.close();
+      } catch (Exception e) {
+        LOG.warn("Fail to close analysis report", e);
       }
-      return dir;
-    } catch (IOException e) {
-      throw new IllegalStateException(String.format("Fail to unzip %s into %s", item.zipFile, dir), e);
     }
   }
 
@@ -24,6 +24,8 @@ import com.google.common.annotations.VisibleForTesting;
 import org.sonar.api.utils.log.Logger;
 import org.sonar.api.utils.log.Loggers;
 
+import javax.annotation.CheckForNull;
+
 /**
  * This thread pops a report from the queue and integrate it.
  */
@@ -32,36 +34,53 @@ public class ComputationThread implements Runnable {
   private static final Logger LOG = Loggers.get(ComputationThread.class);
 
   private final ReportQueue queue;
+  private final ComputationWorkers workers;
   private final ComputationContainer container;
 
-  public ComputationThread(ReportQueue queue) {
-    this.queue = queue;
-    this.container = new ComputationContainer();
+  public ComputationThread(ReportQueue queue, ComputationWorkers workers) {
+    this(queue, workers, new ComputationContainer());
   }
 
   @VisibleForTesting
-  ComputationThread(ReportQueue queue, ComputationContainer container) {
+  ComputationThread(ReportQueue queue, ComputationWorkers workers, ComputationContainer container) {
     this.queue = queue;
+    this.workers = workers;
     this.container = container;
   }
 
+  /**
+   * Processes the available reports until the queue is empty, so that the reports
+   * submitted while processing are not delayed until the next scheduled execution.
+   */
   @Override
   public void run() {
-    ReportQueue.Item item = null;
+    ReportQueue.Item item = popSilently();
+    while (item != null) {
+      process(item);
+      item = popSilently();
+    }
+  }
+
+  @CheckForNull
+  private ReportQueue.Item popSilently() {
     try {
-      item = queue.pop();
+      return queue.pop();
     } catch (Exception e) {
       LOG.error("Failed to pop the queue of analysis reports", e);
+      return null;
     }
-    if (item != null) {
-      try {
-        container.execute(item);
-      } catch (Throwable e) {
-        LOG.error(String.format(
-          "Failed to process analysis report %d of project %s", item.dto.getId(), item.dto.getProjectKey()), e);
-      } finally {
-        removeSilentlyFromQueue(item);
-      }
+  }
+
+  private void process(ReportQueue.Item item) {
+    workers.onStart(item);
+    try {
+      container.execute(item);
+    } catch (Throwable e) {
+      LOG.error(String.format(
+        "Failed to process analysis report %d of project %s", item.dto.getId(), item.dto.getProjectKey()), e);
+    } finally {
+      removeSilentlyFromQueue(item);
+      workers.onFinish();
     }
   }
 
@@ -23,6 +23,7 @@ package org.sonar.server.computation;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import org.picocontainer.Startable;
+import org.sonar.api.config.Settings;
 import org.sonar.api.platform.Server;
 import org.sonar.api.platform.ServerStartHandler;
 
@@ -30,37 +31,57 @@ import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Launches the pool of computation workers. Each worker processes the analysis reports
+ * of the queue until it's empty, every 10 seconds and each time a report is submitted.
+ * Reports of different projects are processed concurrently, but reports of the same project are
+ * processed one at a time (see {@link ReportQueue#pop()}).
+ */
 public class ComputationThreadLauncher implements Startable, ServerStartHandler {
 
   public static final String THREAD_NAME_PREFIX = "computation-";
+  public static final String WORKER_COUNT_PROPERTY = "sonar.computation.workers";
+  static final int DEFAULT_WORKER_COUNT = 1;
 
   private final ReportQueue queue;
+  private final ComputationWorkers workers;
+  private final int workerCount;
   private final ScheduledExecutorService executorService;
+  private final AtomicInteger pendingImmediateTasks = new AtomicInteger(0);
 
   private final long delayBetweenTasks;
   private final long delayForFirstStart;
   private final TimeUnit timeUnit;
 
-  public ComputationThreadLauncher(ReportQueue queue) {
-    this.queue = queue;
-    this.executorService = Executors.newSingleThreadScheduledExecutor(newThreadFactory());
-
-    this.delayBetweenTasks = 10;
-    this.delayForFirstStart = 0;
-    this.timeUnit = TimeUnit.SECONDS;
+  public ComputationThreadLauncher(ReportQueue queue, ComputationWorkers workers, Settings settings) {
+    this(queue, workers, workerCount(settings), 0, 10, TimeUnit.SECONDS);
   }
 
   @VisibleForTesting
-  ComputationThreadLauncher(ReportQueue queue, long delayForFirstStart, long delayBetweenTasks, TimeUnit timeUnit) {
+  ComputationThreadLauncher(ReportQueue queue, ComputationWorkers workers, int workerCount,
+    long delayForFirstStart, long delayBetweenTasks, TimeUnit timeUnit) {
+    checkArgument(workerCount > 0, "Number of computation workers must be strictly positive: %s", workerCount);
     this.queue = queue;
-    this.executorService = Executors.newSingleThreadScheduledExecutor(newThreadFactory());
+    this.workers = workers;
+    this.workerCount = workerCount;
+    this.executorService = Executors.newScheduledThreadPool(workerCount, newThreadFactory());
 
     this.delayBetweenTasks = delayBetweenTasks;
     this.delayForFirstStart = delayForFirstStart;
     this.timeUnit = timeUnit;
   }
 
+  private static int workerCount(Settings settings) {
+    if (settings.hasKey(WORKER_COUNT_PROPERTY)) {
+      return settings.getInt(WORKER_COUNT_PROPERTY);
+    }
+    return DEFAULT_WORKER_COUNT;
+  }
+
   @Override
   public void start() {
     // do nothing because we want to wait for the server to finish startup
@@ -71,17 +92,51 @@ public class ComputationThreadLauncher implements Startable, ServerStartHandler
     executorService.shutdown();
   }
 
+  public int workerCount() {
+    return workerCount;
+  }
+
+  /**
+   * Wakes up an idle worker, if any. Otherwise the report will be processed by
+   * the first worker that finishes its current report.
+   */
   public void startAnalysisTaskNow() {
-    executorService.execute(new ComputationThread(queue));
+    // a task processes all the available reports, so there's no need
+    // to enqueue more tasks than workers
+    if (pendingImmediateTasks.incrementAndGet() > workerCount) {
+      pendingImmediateTasks.decrementAndGet();
+      return;
+    }
+    executorService.execute(new Runnable() {
+      @Override
+      public void run() {
+        pendingImmediateTasks.decrementAndGet();
+        newComputationThread().run();
+      }
+    });
   }
 
   @Override
   public void onServerStart(Server server) {
-    executorService.scheduleAtFixedRate(new ComputationThread(queue), delayForFirstStart, delayBetweenTasks, timeUnit);
+    for (int i = 0; i < workerCount; i++) {
+      executorService.scheduleAtFixedRate(newComputationThread(), delayForFirstStart, delayBetweenTasks, timeUnit);
+    }
+  }
+
+  private ComputationThread newComputationThread() {
+    return new ComputationThread(queue, workers);
   }
 
   private ThreadFactory newThreadFactory() {
-    return new ThreadFactoryBuilder()
+    final ThreadFactory delegate = new ThreadFactoryBuilder()
       .setNameFormat(THREAD_NAME_PREFIX + "%d").setPriority(Thread.MIN_PRIORITY).build();
+    return new ThreadFactory() {
+      @Override
+      public Thread newThread(Runnable runnable) {
+        Thread thread = delegate.newThread(runnable);
+        workers.register(thread.getName());
+        return thread;
+      }
+    };
   }
 }
@@ -0,0 +1,166 @@
+/*
+ * SonarQube, open source software quality management tool.
+ * Copyright (C) 2008-2014 SonarSource
+ * mailto:contact AT sonarsource DOT com
+ *
+ * SonarQube is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * SonarQube is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package org.sonar.server.computation;
+
+import com.google.common.collect.ImmutableList;
+import org.sonar.api.ServerComponent;
+import org.sonar.api.utils.System2;
+
+import javax.annotation.CheckForNull;
+import javax.annotation.Nullable;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * State of the computation workers, as exposed by the web service api/computation/queue
+ * and by the MBean {@link org.sonar.server.platform.monitoring.ComputationMonitor}.
+ * Workers are identified by the name of their thread.
+ */
+public class ComputationWorkers implements ServerComponent {
+
+  private final System2 system;
+  private final ConcurrentNavigableMap<String, Worker> workersByName = new ConcurrentSkipListMap<>();
+  private final AtomicLong processedReports = new AtomicLong(0L);
+  private final AtomicLong waitingReports = new AtomicLong(0L);
+  private final AtomicLong totalWaitTimeMs = new AtomicLong(0L);
+  private final AtomicLong maxWaitTimeMs = new AtomicLong(0L);
+
+  public ComputationWorkers(System2 system) {
+    this.system = system;
+  }
+
+  /**
+   * Declares a worker, so that it is listed even if it never processed any report
+   */
+  void register(String workerName) {
+    workersByName.putIfAbsent(workerName, new Worker(workerName, null, null, null));
+  }
+
+  /**
+   * Called by the worker of the current thread when it starts processing the report
+   */
+  void onStart(ReportQueue.Item item) {
+    long now = system.now();
+    Long startedAt = item.dto.getStartedAt() != null ? item.dto.getStartedAt() : now;
+    String name = Thread.currentThread().getName();
+    workersByName.put(name, new Worker(name, item.dto.getId(), item.dto.getProjectKey(), startedAt));
+
+    Long submittedAt = item.dto.getCreatedAt();
+    if (submittedAt != null) {
+      long waitTime = Math.max(0L, startedAt - submittedAt);
+      waitingReports.incrementAndGet();
+      totalWaitTimeMs.addAndGet(waitTime);
+      updateMaxWaitTime(waitTime);
+    }
+  }
+
+  /**
+   * Called by the worker of the current thread when the report is processed, whatever the result
+   */
+  void onFinish() {
+    String name = Thread.currentThread().getName();
+    workersByName.put(name, new Worker(name, null, null, null));
+    processedReports.incrementAndGet();
+  }
+
+  private void updateMaxWaitTime(long waitTime) {
+    long max = maxWaitTimeMs.get();
+    while (waitTime > max && !maxWaitTimeMs.compareAndSet(max, waitTime)) {
+      max = maxWaitTimeMs.get();
+    }
+  }
+
+  /**
+   * Workers sorted by name
+   */
+  public List<Worker> workers() {
+    return ImmutableList.copyOf(workersByName.values());
+  }
+
+  public int activeWorkerCount() {
+    int count = 0;
+    for (Worker worker : workersByName.values()) {
+      if (worker.isWorking()) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Number of reports processed since server startup, whether they succeeded or not
+   */
+  public long processedReportCount() {
+    return processedReports.get();
+  }
+
+  /**
+   * Mean duration between the submission of a report and the beginning of its processing
+   */
+  public long meanWaitTimeMs() {
+    long count = waitingReports.get();
+    return count == 0L ? 0L : (totalWaitTimeMs.get() / count);
+  }
+
+  public long maxWaitTimeMs() {
+    return maxWaitTimeMs.get();
+  }
+
+  public static class Worker {
+    private final String name;
+    private final Long reportId;
+    private final String projectKey;
+    private final Long startedAt;
+
+    public Worker(String name, @Nullable Long reportId, @Nullable String projectKey, @Nullable Long startedAt) {
+      this.name = name;
+      this.reportId = reportId;
+      this.projectKey = projectKey;
+      this.startedAt = startedAt;
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    public boolean isWorking() {
+      return reportId != null;
+    }
+
+    @CheckForNull
+    public Long getReportId() {
+      return reportId;
+    }
+
+    @CheckForNull
+    public String getProjectKey() {
+      return projectKey;
+    }
+
+    @CheckForNull
+    public Long getStartedAt() {
+      return startedAt;
+    }
+  }
+}
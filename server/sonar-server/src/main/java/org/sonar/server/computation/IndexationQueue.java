@@ -0,0 +1,252 @@
+/*
+ * SonarQube, open source software quality management tool.
+ * Copyright (C) 2008-2014 SonarSource
+ * mailto:contact AT sonarsource DOT com
+ *
+ * SonarQube is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * SonarQube is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.server.computation;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.common.util.concurrent.Uninterruptibles;
+import org.picocontainer.Startable;
+import org.sonar.api.ServerComponent;
+import org.sonar.api.config.Settings;
+import org.sonar.api.utils.System2;
+import org.sonar.api.utils.log.Logger;
+import org.sonar.api.utils.log.Loggers;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Applies the indexation of analysis reports in background, so that a report is processed as soon
+ * as it is persisted in database. Tasks of a given project are executed in the order of submission.
+ * Tasks of different projects can be executed concurrently, depending on the property {@link #THREADS_PROPERTY}.
+ * <p/>
+ * The number of pending tasks is limited by {@link #CAPACITY_PROPERTY}. When the limit is reached, because
+ * Elasticsearch lags behind, the submission blocks the computation worker.
+ */
+public class IndexationQueue implements ServerComponent, Startable {
+
+  public static final String THREADS_PROPERTY = "sonar.computation.indexation.threads";
+  public static final String CAPACITY_PROPERTY = "sonar.computation.indexation.queueSize";
+  static final int DEFAULT_THREADS = 1;
+  static final int DEFAULT_CAPACITY = 100;
+  private static final long STOP_TIMEOUT_SECONDS = 30L;
+
+  private static final Logger LOG = Loggers.get(IndexationQueue.class);
+
+  private final System2 system;
+  // tasks of a project are always executed by the same single-threaded lane
+  private final List<ExecutorService> lanes = new ArrayList<>();
+  private final Semaphore capacity;
+  private final Set<Task> pendingTasks = Collections.newSetFromMap(new ConcurrentHashMap<Task, Boolean>());
+  private final AtomicLong processedTasks = new AtomicLong(0L);
+  private final AtomicLong failedTasks = new AtomicLong(0L);
+  private final AtomicLong totalLagMs = new AtomicLong(0L);
+  private final AtomicLong maxLagMs = new AtomicLong(0L);
+
+  public IndexationQueue(Settings settings, System2 system) {
+    this(system, intProperty(settings, THREADS_PROPERTY, DEFAULT_THREADS), intProperty(settings, CAPACITY_PROPERTY, DEFAULT_CAPACITY));
+  }
+
+  @VisibleForTesting
+  IndexationQueue(System2 system, int threads, int capacity) {
+    checkArgument(threads > 0, "Number of indexation threads must be strictly positive: %s", threads);
+    checkArgument(capacity > 0, "Size of indexation queue must be strictly positive: %s", capacity);
+    this.system = system;
+    this.capacity = new Semaphore(capacity);
+    for (int i = 0; i < threads; i++) {
+      lanes.add(Executors.newSingleThreadExecutor(new ThreadFactoryBuilder()
+        .setNameFormat("indexation-" + i).setDaemon(true).build()));
+    }
+  }
+
+  private static int intProperty(Settings settings, String key, int defaultValue) {
+    return settings.hasKey(key) ? settings.getInt(key) : defaultValue;
+  }
+
+  @Override
+  public void start() {
+    // nothing to do
+  }
+
+  /**
+   * Pending tasks are executed before stopping, within a timeout of 30 seconds
+   */
+  @Override
+  public void stop() {
+    for (ExecutorService lane : lanes) {
+      lane.shutdown();
+    }
+    try {
+      for (ExecutorService lane : lanes) {
+        if (!lane.awaitTermination(STOP_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+          LOG.warn("Indexation is interrupted, " + pendingTasks.size() + " tasks are not executed");
+          lane.shutdownNow();
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Enqueues the indexation of a project. Blocks if the queue is full. Errors are logged.
+   */
+  public void submit(String projectUuid, String description, Runnable indexation) {
+    Task task = new Task(projectUuid, description, indexation, system.now());
+    capacity.acquireUninterruptibly();
+    pendingTasks.add(task);
+    try {
+      lane(projectUuid).execute(task);
+    } catch (RuntimeException e) {
+      pendingTasks.remove(task);
+      capacity.release();
+      throw e;
+    }
+  }
+
+  /**
+   * Blocks until the tasks submitted so far are executed
+   */
+  public void flush() {
+    List<Future<?>> barriers = new ArrayList<>();
+    for (ExecutorService lane : lanes) {
+      barriers.add(lane.submit(new Barrier()));
+    }
+    for (Future<?> barrier : barriers) {
+      await(barrier);
+    }
+  }
+
+  /**
+   * Blocks until the tasks submitted so far for the given project are executed. Tasks of other
+   * projects executed by the same thread may be waited for too.
+   */
+  public void flush(String projectUuid) {
+    await(lane(projectUuid).submit(new Barrier()));
+  }
+
+  private static void await(Future<?> barrier) {
+    try {
+      Uninterruptibles.getUninterruptibly(barrier);
+    } catch (ExecutionException e) {
+      throw new IllegalStateException("Fail to wait for indexation", e);
+    }
+  }
+
+  private static class Barrier implements Runnable {
+    @Override
+    public void run() {
+      // tasks of lane are executed in order, so all the previous tasks are done
+    }
+  }
+
+  private ExecutorService lane(String projectUuid) {
+    return lanes.get((projectUuid.hashCode() & Integer.MAX_VALUE) % lanes.size());
+  }
+
+  public int pendingTaskCount() {
+    return pendingTasks.size();
+  }
+
+  /**
+   * Number of tasks executed since server startup, whether they succeeded or not
+   */
+  public long processedTaskCount() {
+    return processedTasks.get();
+  }
+
+  public long failedTaskCount() {
+    return failedTasks.get();
+  }
+
+  /**
+   * Age of the oldest pending task, in milliseconds. Zero if the queue is empty.
+   */
+  public long currentLagMs() {
+    long now = system.now();
+    long lag = 0L;
+    for (Task task : pendingTasks) {
+      lag = Math.max(lag, now - task.submittedAt);
+    }
+    return lag;
+  }
+
+  /**
+   * Mean duration between the submission of a task and the end of its execution
+   */
+  public long meanLagMs() {
+    long count = processedTasks.get();
+    return count == 0L ? 0L : (totalLagMs.get() / count);
+  }
+
+  public long maxLagMs() {
+    return maxLagMs.get();
+  }
+
+  private void onFinish(Task task) {
+    long lag = Math.max(0L, system.now() - task.submittedAt);
+    totalLagMs.addAndGet(lag);
+    long max = maxLagMs.get();
+    while (lag > max && !maxLagMs.compareAndSet(max, lag)) {
+      max = maxLagMs.get();
+    }
+    processedTasks.incrementAndGet();
+    pendingTasks.remove(task);
+    capacity.release();
+  }
+
+  private class Task implements Runnable {
+    private final String projectUuid;
+    private final String description;
+    private final Runnable indexation;
+    private final long submittedAt;
+
+    Task(String projectUuid, String description, Runnable indexation, long submittedAt) {
+      this.projectUuid = projectUuid;
+      this.description = description;
+      this.indexation = indexation;
+      this.submittedAt = submittedAt;
+    }
+
+    @Override
+    public void run() {
+      try {
+        indexation.run();
+      } catch (Throwable e) {
+        failedTasks.incrementAndGet();
+        LOG.error(String.format("Fail to execute indexation '%s' of project %s", description, projectUuid), e);
+      } finally {
+        onFinish(this);
+      }
+    }
+  }
+}
@@ -20,9 +20,12 @@
 
 package org.sonar.server.computation;
 
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.io.FileUtils;
 import org.sonar.api.ServerComponent;
 import org.sonar.api.config.Settings;
+import org.sonar.api.utils.System2;
 import org.sonar.api.utils.internal.Uuids;
 import org.sonar.api.utils.log.Loggers;
 import org.sonar.core.computation.db.AnalysisReportDto;
@@ -33,10 +36,13 @@ import org.sonar.server.computation.db.AnalysisReportDao;
 import org.sonar.server.db.DbClient;
 
 import javax.annotation.CheckForNull;
+import javax.annotation.Nullable;
 
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
 import java.util.List;
 
 import static org.sonar.core.computation.db.AnalysisReportDto.Status.PENDING;
@@ -44,13 +50,24 @@ import static org.sonar.core.computation.db.AnalysisReportDto.Status.PENDING;
 public class ReportQueue implements ServerComponent {
   private final DbClient dbClient;
   private final Settings settings;
+  private final System2 system2;
 
-  public ReportQueue(DbClient dbClient, Settings settings) {
+  public ReportQueue(DbClient dbClient, Settings settings, System2 system2) {
     this.dbClient = dbClient;
     this.settings = settings;
+    this.system2 = system2;
   }
 
   public Item add(String projectKey, InputStream reportData) {
+    return add(projectKey, reportData, null);
+  }
+
+  /**
+   * @param reportMd5 MD5 hash of report, if known by client. Report is rejected with {@link IllegalArgumentException}
+   *                  if the data received do not match.
+   * @since 5.2
+   */
+  public Item add(String projectKey, InputStream reportData, @Nullable String reportMd5) {
     String uuid = Uuids.create();
     File file = reportFileForUuid(uuid);
 
@@ -58,10 +75,13 @@ public class ReportQueue implements ServerComponent {
     try {
       checkThatProjectExistsInDatabase(projectKey, session);
 
-      saveReportOnDisk(reportData, file);
+      saveReportOnDisk(projectKey, reportData, file, reportMd5);
       AnalysisReportDto dto = saveReportMetadataInDatabase(projectKey, uuid, session);
 
       return new Item(dto, file);
+    } catch (IllegalArgumentException e) {
+      FileUtils.deleteQuietly(file);
+      throw e;
     } catch (Exception e) {
       FileUtils.deleteQuietly(file);
       throw new IllegalStateException("Fail to store analysis report of project " + projectKey, e);
@@ -84,8 +104,21 @@ public class ReportQueue implements ServerComponent {
     return dbClient.analysisReportDao();
   }
 
-  private void saveReportOnDisk(InputStream reportData, File file) throws IOException {
-    FileUtils.copyInputStreamToFile(reportData, file);
+  /**
+   * Report is copied to {data}/analysis while its hash is computed, so that it is read only once
+   */
+  private void saveReportOnDisk(String projectKey, InputStream reportData, File file, @Nullable String reportMd5) throws IOException {
+    long startTime = system2.now();
+    MessageDigest digest = DigestUtils.getMd5Digest();
+    FileUtils.copyInputStreamToFile(new DigestInputStream(reportData, digest), file);
+    String md5 = Hex.encodeHexString(digest.digest());
+    if (reportMd5 != null && !reportMd5.equalsIgnoreCase(md5)) {
+      throw new IllegalArgumentException(String.format("Analysis report of project %s is corrupted. Its MD5 hash is %s instead of %s", projectKey, md5, reportMd5));
+    }
+    long duration = Math.max(1L, system2.now() - startTime);
+    long size = file.length();
+    Loggers.get(getClass()).info(String.format("Analysis report of project %s stored in %dms, size=%s (%s/s)", projectKey, duration,
+      FileUtils.byteCountToDisplaySize(size), FileUtils.byteCountToDisplaySize(size * 1000L / duration)));
   }
 
   private void checkThatProjectExistsInDatabase(String projectKey, DbSession session) {
@@ -103,8 +136,13 @@ public class ReportQueue implements ServerComponent {
     }
   }
 
+  /**
+   * Books the oldest pending report whose project has no other report being processed.
+   * Calls are serialized so that concurrent computation workers never process two reports
+   * of the same project at the same time.
+   */
   @CheckForNull
-  public Item pop() {
+  public synchronized Item pop() {
     DbSession session = dbClient.openSession(false);
     try {
       AnalysisReportDto dto = dao().pop(session);
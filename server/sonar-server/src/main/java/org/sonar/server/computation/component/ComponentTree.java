@@ -0,0 +1,123 @@
+/*
+ * SonarQube, open source software quality management tool.
+ * Copyright (C) 2008-2014 SonarSource
+ * mailto:contact AT sonarsource DOT com
+ *
+ * SonarQube is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * SonarQube is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package org.sonar.server.computation.component;
+
+import org.sonar.batch.protocol.Constants;
+import org.sonar.batch.protocol.output.BatchReport;
+import org.sonar.batch.protocol.output.BatchReportReader;
+
+import javax.annotation.CheckForNull;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Components of the analysis report. They are decoded only once, then shared by all the computation steps
+ * instead of being read from the report each time they are needed.
+ */
+public class ComponentTree {
+
+  private final int rootRef;
+  // ordered by depth-first traversal, parents before children
+  private final Map<Integer, BatchReport.Component> componentsByRef = new LinkedHashMap<>();
+  private final Map<Integer, Integer> parentRefsByRef = new HashMap<>();
+
+  public ComponentTree(BatchReportReader reader, int rootRef) {
+    this.rootRef = rootRef;
+    load(reader, rootRef);
+  }
+
+  private void load(BatchReportReader reader, int componentRef) {
+    BatchReport.Component component = reader.readComponent(componentRef);
+    componentsByRef.put(componentRef, component);
+    for (Integer childRef : component.getChildRefList()) {
+      parentRefsByRef.put(childRef, componentRef);
+      load(reader, childRef);
+    }
+  }
+
+  public BatchReport.Component getRoot() {
+    return get(rootRef);
+  }
+
+  public BatchReport.Component get(int componentRef) {
+    BatchReport.Component component = componentsByRef.get(componentRef);
+    if (component == null) {
+      throw new IllegalStateException(String.format("Component with ref '%d' is not in the tree of the analysis report", componentRef));
+    }
+    return component;
+  }
+
+  /**
+   * @return null on the root component
+   */
+  @CheckForNull
+  public BatchReport.Component getParent(int componentRef) {
+    Integer parentRef = parentRefsByRef.get(componentRef);
+    return parentRef == null ? null : get(parentRef);
+  }
+
+  /**
+   * Closest ancestor which is a project or a module. The root is its own parent module.
+   */
+  public BatchReport.Component getParentModule(int componentRef) {
+    BatchReport.Component parent = getParent(componentRef);
+    while (parent != null && !isProjectOrModule(parent)) {
+      parent = getParent(parent.getRef());
+    }
+    return parent == null ? getRoot() : parent;
+  }
+
+  private static boolean isProjectOrModule(BatchReport.Component component) {
+    return component.getType() == Constants.ComponentType.PROJECT || component.getType() == Constants.ComponentType.MODULE;
+  }
+
+  /**
+   * All the components, parents being before their children
+   */
+  public Collection<BatchReport.Component> getComponents() {
+    return Collections.unmodifiableCollection(componentsByRef.values());
+  }
+
+  public int size() {
+    return componentsByRef.size();
+  }
+
+  /**
+   * Executes the visitors on each component, then calls {@link ComponentVisitor#afterVisit()}.
+   * Visitors are executed in the given order on a component before moving to the next component.
+   * It's the responsibility of the caller to close the visitors.
+   */
+  public void visit(List<? extends ComponentVisitor> visitors) {
+    for (BatchReport.Component component : componentsByRef.values()) {
+      for (ComponentVisitor visitor : visitors) {
+        visitor.visit(component);
+      }
+    }
+    for (ComponentVisitor visitor : visitors) {
+      visitor.afterVisit();
+    }
+  }
+}
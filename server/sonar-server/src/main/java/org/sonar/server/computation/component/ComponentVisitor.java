@@ -0,0 +1,47 @@
+/*
+ * SonarQube, open source software quality management tool.
+ * Copyright (C) 2008-2014 SonarSource
+ * mailto:contact AT sonarsource DOT com
+ *
+ * SonarQube is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * SonarQube is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package org.sonar.server.computation.component;
+
+import org.sonar.batch.protocol.output.BatchReport;
+
+/**
+ * Processes the components of {@link ComponentTree} one by one. A visitor is created
+ * for a single traversal, so it can keep the state of the traversal, for example a database session.
+ */
+public abstract class ComponentVisitor {
+
+  public abstract void visit(BatchReport.Component component);
+
+  /**
+   * Called once all the components are visited, for example to commit database changes.
+   * It is not called if the traversal fails.
+   */
+  public void afterVisit() {
+    // nothing to do by default
+  }
+
+  /**
+   * Called at the end of traversal, even on failure, to release resources
+   */
+  public void close() {
+    // nothing to do by default
+  }
+}
@@ -19,27 +19,386 @@
  */
 package org.sonar.server.computation.issue;
 
+import com.google.common.annotations.VisibleForTesting;
+import org.apache.commons.io.IOUtils;
 import org.sonar.api.issue.internal.DefaultIssue;
 import org.sonar.api.utils.System2;
 import org.sonar.api.utils.TempFolder;
-import org.sonar.server.util.cache.DiskCache;
+import org.sonar.server.util.CloseableIterator;
 
+import javax.annotation.CheckForNull;
+import javax.annotation.Nullable;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Cache of all the issues involved in the analysis. Their state is as it will be
  * persisted in database (after issue tracking, auto-assignment, ...)
- *
+ * <p/>
+ * Issues are stored on disk with the binary encoding of {@link IssueSerializer}. Each record
+ * starts with its length and the flags new/changed, so that issues can be skipped without being decoded.
+ * The offsets of the records of each component are kept in memory, so the issues of a component
+ * are read without traversing the whole file.
+ * <p/>
+ * Appenders buffer records in blocks. Each block is written at a range of the file that is reserved
+ * atomically, so the records of concurrent appenders never overlap. A block is registered only once
+ * its bytes are written, and traversals read registered blocks only. A range that is reserved but not
+ * written yet is therefore never read, even if a block written after it is already registered.
  */
-public class IssueCache extends DiskCache<DefaultIssue> {
+public class IssueCache {
+
+  // size of the blocks of records written by appenders
+  private static final int BLOCK_SIZE = 64 * 1024;
+
+  private final File file;
+  private final System2 system2;
+  // records of each component, in the order of appending
+  private final Map<String, List<Segment>> segmentsByComponentUuid = new LinkedHashMap<>();
+  // blocks written by appenders, by offset in file
+  private final NavigableMap<Long, Block> blocksByOffset = new TreeMap<>();
+  private long size = 0L;
+  // end of the records that are written or being written. Appenders reserve ranges of file from this position.
+  private final AtomicLong position = new AtomicLong(0L);
+  // pending writes are flushed before traversing
+  private final List<IssueAppender> openAppenders = new ArrayList<>();
 
   // this constructor is used by picocontainer
   public IssueCache(TempFolder tempFolder, System2 system2) throws IOException {
-    super(tempFolder.newFile("issues", ".dat"), system2);
+    this(tempFolder.newFile("issues", ".dat"), system2);
   }
 
   public IssueCache(File file, System2 system2) {
-    super(file, system2);
+    this.system2 = system2;
+    this.file = file;
+    FileOutputStream output = null;
+    try {
+      // truncates the file if it already exists
+      output = new FileOutputStream(file);
+      system2.close(output);
+    } catch (IOException e) {
+      IOUtils.closeQuietly(output);
+      throw new IllegalStateException("Fail to write into file: " + file, e);
+    }
+  }
+
+  /**
+   * Issues are expected to be appended component by component. Issues appended
+   * before a traversal are visible to it, even if the appender is not closed.
+   * Appenders can be used concurrently by different threads.
+   */
+  public synchronized IssueAppender newAppender() {
+    IssueAppender appender = new IssueAppender();
+    openAppenders.add(appender);
+    return appender;
+  }
+
+  /**
+   * Number of issues
+   */
+  public synchronized long size() {
+    return size;
+  }
+
+  /**
+   * Size of file on disk, in bytes
+   */
+  public long bytes() {
+    return file.length();
+  }
+
+  /**
+   * Uuids of the components having issues, in order of appending
+   */
+  public synchronized Set<String> componentUuids() {
+    return Collections.unmodifiableSet(new LinkedHashSet<>(segmentsByComponentUuid.keySet()));
+  }
+
+  /**
+   * All the issues, in order of appending
+   */
+  public CloseableIterator<DefaultIssue> traverse() {
+    flushOpenAppenders();
+    return new IssueIterator(writtenSegments(), (byte) 0);
+  }
+
+  /**
+   * Issues of the given component. The file is not fully traversed.
+   */
+  public CloseableIterator<DefaultIssue> traverse(@Nullable String componentUuid) {
+    flushOpenAppenders();
+    return new IssueIterator(segments(componentUuid), (byte) 0);
+  }
+
+  /**
+   * New or changed issues. Other issues are skipped without being decoded.
+   */
+  public CloseableIterator<DefaultIssue> traverseNewOrChanged() {
+    flushOpenAppenders();
+    return new IssueIterator(writtenSegments(), (byte) (IssueSerializer.FLAG_NEW | IssueSerializer.FLAG_CHANGED));
+  }
+
+  public class IssueAppender implements AutoCloseable {
+    private final FileChannel channel;
+    private final ByteArrayOutputStream record = new ByteArrayOutputStream();
+    private final DataOutputStream recordOutput = new DataOutputStream(record);
+    // records not flushed yet, with their offsets relative to the start of block
+    private final ByteArrayOutputStream block = new ByteArrayOutputStream();
+    private final DataOutputStream blockOutput = new DataOutputStream(block);
+    private final List<PendingSegment> pendingSegments = new ArrayList<>();
+    private PendingSegment currentSegment = null;
+
+    private IssueAppender() {
+      try {
+        this.channel = new RandomAccessFile(file, "rw").getChannel();
+      } catch (IOException e) {
+        throw new IllegalStateException("Fail to open file " + file, e);
+      }
+    }
+
+    public synchronized IssueAppender append(DefaultIssue issue) {
+      try {
+        record.reset();
+        IssueSerializer.write(recordOutput, issue);
+        index(issue.componentUuid(), block.size());
+        blockOutput.writeInt(record.size());
+        blockOutput.writeByte(IssueSerializer.flags(issue));
+        record.writeTo(blockOutput);
+        if (block.size() >= BLOCK_SIZE) {
+          flush();
+        }
+        return this;
+      } catch (IOException e) {
+        throw new IllegalStateException("Fail to write into file " + file, e);
+      }
+    }
+
+    private void index(@Nullable String componentUuid, long offsetInBlock) {
+      if (currentSegment == null || !equal(componentUuid, currentSegment.componentUuid)) {
+        currentSegment = new PendingSegment(componentUuid, offsetInBlock);
+        pendingSegments.add(currentSegment);
+      }
+      currentSegment.count++;
+    }
+
+    /**
+     * The range of the block in file is reserved atomically, so that appenders
+     * used by different threads never write at the same offsets.
+     */
+    private synchronized void flush() {
+      if (block.size() == 0) {
+        return;
+      }
+      long offset = reserve(block.size());
+      try {
+        ByteBuffer buffer = ByteBuffer.wrap(block.toByteArray());
+        while (buffer.hasRemaining()) {
+          channel.write(buffer, offset + buffer.position());
+        }
+      } catch (IOException e) {
+        throw new IllegalStateException("Fail to write into file " + file, e);
+      }
+      register(offset, block.size(), pendingSegments);
+      pendingSegments.clear();
+      currentSegment = null;
+      block.reset();
+    }
+
+    @Override
+    public void close() {
+      try {
+        flush();
+      } finally {
+        synchronized (IssueCache.this) {
+          openAppenders.remove(this);
+        }
+        system2.close(channel);
+      }
+    }
+  }
+
+  /**
+   * Reserves a range of file for a block
+   *
+   * @return offset of the range
+   */
+  @VisibleForTesting
+  long reserve(int length) {
+    return position.getAndAdd(length);
+  }
+
+  private synchronized void register(long blockOffset, int blockLength, List<PendingSegment> pendingSegments) {
+    long blockCount = 0L;
+    for (PendingSegment pendingSegment : pendingSegments) {
+      List<Segment> segments = segmentsByComponentUuid.get(pendingSegment.componentUuid);
+      if (segments == null) {
+        segments = new ArrayList<>();
+        segmentsByComponentUuid.put(pendingSegment.componentUuid, segments);
+      }
+      segments.add(new Segment(blockOffset + pendingSegment.offsetInBlock, pendingSegment.count));
+      blockCount += pendingSegment.count;
+    }
+    blocksByOffset.put(blockOffset, new Block(blockLength, blockCount));
+    size += blockCount;
+  }
+
+  /**
+   * Records of the written blocks, in the order of the file. Contiguous blocks are merged
+   * into a single segment, so that they are read without moving into the file.
+   */
+  private synchronized List<Segment> writtenSegments() {
+    List<Segment> segments = new ArrayList<>();
+    long start = 0L;
+    long end = 0L;
+    long count = 0L;
+    for (Map.Entry<Long, Block> entry : blocksByOffset.entrySet()) {
+      if (entry.getKey() != end) {
+        segments.add(new Segment(start, count));
+        start = entry.getKey();
+        count = 0L;
+      }
+      count += entry.getValue().count;
+      end = entry.getKey() + entry.getValue().length;
+    }
+    segments.add(new Segment(start, count));
+    return segments;
+  }
+
+  private synchronized List<Segment> segments(@Nullable String componentUuid) {
+    List<Segment> segments = segmentsByComponentUuid.get(componentUuid);
+    return segments == null ? Collections.<Segment>emptyList() : new ArrayList<>(segments);
+  }
+
+  private void flushOpenAppenders() {
+    List<IssueAppender> appenders;
+    synchronized (this) {
+      appenders = new ArrayList<>(openAppenders);
+    }
+    for (IssueAppender appender : appenders) {
+      appender.flush();
+    }
+  }
+
+  private static boolean equal(@Nullable String s1, @Nullable String s2) {
+    return s1 == null ? s2 == null : s1.equals(s2);
+  }
+
+  /**
+   * Consecutive records in file
+   */
+  private static class Segment {
+    private final long offset;
+    private final long count;
+
+    Segment(long offset, long count) {
+      this.offset = offset;
+      this.count = count;
+    }
+  }
+
+  /**
+   * Range of file written by a flush of an appender
+   */
+  private static class Block {
+    private final long length;
+    private final long count;
+
+    Block(long length, long count) {
+      this.length = length;
+      this.count = count;
+    }
+  }
+
+  /**
+   * Consecutive records of a component in the block of an appender
+   */
+  private static class PendingSegment {
+    private final String componentUuid;
+    private final long offsetInBlock;
+    private long count = 0L;
+
+    PendingSegment(@Nullable String componentUuid, long offsetInBlock) {
+      this.componentUuid = componentUuid;
+      this.offsetInBlock = offsetInBlock;
+    }
+  }
+
+  private class IssueIterator extends CloseableIterator<DefaultIssue> {
+    private final Iterator<Segment> segments;
+    private final byte requiredFlags;
+    private FileInputStream fileInput = null;
+    private DataInputStream input = null;
+    private long remainingInSegment = 0L;
+
+    /**
+     * @param requiredFlags zero if all issues are read, else issues must have at least one of the flags
+     */
+    IssueIterator(List<Segment> segments, byte requiredFlags) {
+      this.segments = segments.iterator();
+      this.requiredFlags = requiredFlags;
+    }
+
+    @Override
+    @CheckForNull
+    protected DefaultIssue doNext() {
+      try {
+        while (true) {
+          if (remainingInSegment == 0L && !openNextSegment()) {
+            return null;
+          }
+          remainingInSegment--;
+          int length = input.readInt();
+          byte flags = input.readByte();
+          if (requiredFlags == 0 || (flags & requiredFlags) != 0) {
+            return IssueSerializer.read(input);
+          }
+          IOUtils.skipFully(input, length);
+        }
+      } catch (IOException e) {
+        throw new IllegalStateException("Fail to read file " + file, e);
+      }
+    }
+
+    private boolean openNextSegment() throws IOException {
+      while (segments.hasNext()) {
+        Segment segment = segments.next();
+        if (segment.count > 0L) {
+          if (fileInput == null) {
+            fileInput = new FileInputStream(file);
+          }
+          fileInput.getChannel().position(segment.offset);
+          // buffer must be dropped when moving into the file
+          input = new DataInputStream(new BufferedInputStream(fileInput));
+          remainingInSegment = segment.count;
+          return true;
+        }
+      }
+      return false;
+    }
+
+    @Override
+    protected void doClose() {
+      IOUtils.closeQuietly(fileInput);
+    }
   }
 }
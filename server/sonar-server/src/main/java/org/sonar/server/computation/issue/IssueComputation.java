@@ -34,7 +34,6 @@ import org.sonar.core.rule.RuleDto;
 import org.sonar.server.computation.ComputationContext;
 import org.sonar.server.user.index.UserDoc;
 import org.sonar.server.user.index.UserIndex;
-import org.sonar.server.util.cache.DiskCache;
 
 import javax.annotation.Nullable;
 
@@ -47,7 +46,7 @@ public class IssueComputation {
   private final RuleCache ruleCache;
   private final ScmAccountCache scmAccountCache;
   private final SourceLinesCache linesCache;
-  private final DiskCache<DefaultIssue>.DiskAppender diskIssuesAppender;
+  private final IssueCache.IssueAppender diskIssuesAppender;
   private final UserIndex userIndex;
   private boolean hasAssigneeBeenComputed = false;
   private String defaultAssignee = null;
@@ -0,0 +1,461 @@
+/*
+ * SonarQube, open source software quality management tool.
+ * Copyright (C) 2008-2014 SonarSource
+ * mailto:contact AT sonarsource DOT com
+ *
+ * SonarQube is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * SonarQube is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.server.computation.issue;
+
+import com.google.common.base.Charsets;
+import org.apache.commons.lang.SerializationUtils;
+import org.sonar.api.issue.IssueComment;
+import org.sonar.api.issue.internal.DefaultIssue;
+import org.sonar.api.issue.internal.DefaultIssueComment;
+import org.sonar.api.issue.internal.FieldDiffs;
+import org.sonar.api.rule.RuleKey;
+import org.sonar.api.utils.Duration;
+
+import javax.annotation.CheckForNull;
+import javax.annotation.Nullable;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Binary encoding of {@link DefaultIssue}, much more compact and faster than Java serialization.
+ * Fields are written in a fixed order, without names. Any change of the order requires
+ * to change both {@link #write(DataOutput, DefaultIssue)} and {@link #read(DataInput)}.
+ */
+final class IssueSerializer {
+
+  static final byte FLAG_NEW = 1;
+  static final byte FLAG_CHANGED = 2;
+
+  // types of the values of field diffs
+  private static final byte NULL = 0;
+  private static final byte STRING = 1;
+  private static final byte LONG = 2;
+  private static final byte INTEGER = 3;
+  private static final byte DOUBLE = 4;
+  private static final byte BOOLEAN = 5;
+  private static final byte DATE = 6;
+  private static final byte SERIALIZED = 7;
+
+  private IssueSerializer() {
+    // only static methods
+  }
+
+  static byte flags(DefaultIssue issue) {
+    byte flags = 0;
+    if (issue.isNew()) {
+      flags |= FLAG_NEW;
+    }
+    if (issue.isChanged()) {
+      flags |= FLAG_CHANGED;
+    }
+    return flags;
+  }
+
+  static void write(DataOutput out, DefaultIssue issue) throws IOException {
+    writeString(out, issue.key());
+    writeString(out, issue.componentUuid());
+    writeString(out, issue.componentKey());
+    writeString(out, issue.moduleUuid());
+    writeString(out, issue.moduleUuidPath());
+    writeString(out, issue.projectUuid());
+    writeString(out, issue.projectKey());
+    writeString(out, issue.ruleKey() == null ? null : issue.ruleKey().toString());
+    writeString(out, issue.language());
+    writeString(out, issue.severity());
+    out.writeBoolean(issue.manualSeverity());
+    writeString(out, issue.message());
+    writeLong(out, issue.line() == null ? null : issue.line().longValue());
+    writeDouble(out, issue.effortToFix());
+    writeLong(out, issue.debtInMinutes());
+    writeString(out, issue.status());
+    writeString(out, issue.resolution());
+    writeString(out, issue.reporter());
+    writeString(out, issue.assignee());
+    writeString(out, issue.checksum());
+    writeStringMap(out, issue.attributes());
+    writeString(out, issue.authorLogin());
+    writeString(out, issue.actionPlanKey());
+    writeComments(out, issue.comments());
+    writeStrings(out, issue.tags());
+    writeDate(out, issue.creationDate());
+    writeDate(out, issue.updateDate());
+    writeDate(out, issue.closeDate());
+    writeChanges(out, issue.changes());
+    writeCurrentChange(out, issue.currentChange(), issue.changes());
+    out.writeBoolean(issue.isNew());
+    out.writeBoolean(issue.isEndOfLife());
+    out.writeBoolean(issue.isOnDisabledRule());
+    out.writeBoolean(issue.isChanged());
+    out.writeBoolean(issue.mustSendNotifications());
+    writeLong(out, issue.selectedAt());
+  }
+
+  static DefaultIssue read(DataInput in) throws IOException {
+    DefaultIssue issue = new DefaultIssue();
+    issue.setKey(readString(in));
+    issue.setComponentUuid(readString(in));
+    issue.setComponentKey(readString(in));
+    issue.setModuleUuid(readString(in));
+    issue.setModuleUuidPath(readString(in));
+    issue.setProjectUuid(readString(in));
+    issue.setProjectKey(readString(in));
+    String ruleKey = readString(in);
+    issue.setRuleKey(ruleKey == null ? null : RuleKey.parse(ruleKey));
+    issue.setLanguage(readString(in));
+    issue.setSeverity(readString(in));
+    issue.setManualSeverity(in.readBoolean());
+    issue.setMessage(readString(in));
+    Long line = readLong(in);
+    issue.setLine(line == null ? null : line.intValue());
+    issue.setEffortToFix(readDouble(in));
+    Long debt = readLong(in);
+    issue.setDebt(debt == null ? null : Duration.create(debt));
+    String status = readString(in);
+    if (status != null) {
+      issue.setStatus(status);
+    }
+    issue.setResolution(readString(in));
+    issue.setReporter(readString(in));
+    issue.setAssignee(readString(in));
+    issue.setChecksum(readString(in));
+    issue.setAttributes(readStringMap(in));
+    issue.setAuthorLogin(readString(in));
+    issue.setActionPlanKey(readString(in));
+    readComments(in, issue);
+    List<String> tags = readStrings(in);
+    if (tags != null) {
+      issue.setTags(tags);
+    }
+    issue.setCreationDate(readDate(in));
+    issue.setUpdateDate(readDate(in));
+    issue.setCloseDate(readDate(in));
+    List<FieldDiffs> changes = readChanges(in);
+    FieldDiffs currentChange = readCurrentChange(in, changes);
+    if (currentChange != null) {
+      // also appends the change to the list, which is then replaced
+      issue.setCurrentChange(currentChange);
+    }
+    if (!changes.isEmpty()) {
+      issue.setChanges(changes);
+    }
+    issue.setNew(in.readBoolean());
+    issue.setEndOfLife(in.readBoolean());
+    issue.setOnDisabledRule(in.readBoolean());
+    issue.setChanged(in.readBoolean());
+    issue.setSendNotifications(in.readBoolean());
+    issue.setSelectedAt(readLong(in));
+    return issue;
+  }
+
+  private static void writeComments(DataOutput out, @Nullable List<IssueComment> comments) throws IOException {
+    if (comments == null) {
+      out.writeInt(0);
+      return;
+    }
+    out.writeInt(comments.size());
+    for (IssueComment comment : comments) {
+      DefaultIssueComment c = (DefaultIssueComment) comment;
+      writeString(out, c.key());
+      writeString(out, c.issueKey());
+      writeString(out, c.userLogin());
+      writeString(out, c.markdownText());
+      writeDate(out, c.createdAt());
+      writeDate(out, c.updatedAt());
+      out.writeBoolean(c.isNew());
+    }
+  }
+
+  private static void readComments(DataInput in, DefaultIssue issue) throws IOException {
+    int size = in.readInt();
+    for (int i = 0; i < size; i++) {
+      DefaultIssueComment comment = new DefaultIssueComment()
+        .setKey(readString(in))
+        .setIssueKey(readString(in))
+        .setUserLogin(readString(in))
+        .setMarkdownText(readString(in))
+        .setCreatedAt(readDate(in))
+        .setUpdatedAt(readDate(in))
+        .setNew(in.readBoolean());
+      issue.addComment(comment);
+    }
+  }
+
+  private static void writeChanges(DataOutput out, @Nullable List<FieldDiffs> changes) throws IOException {
+    if (changes == null) {
+      out.writeInt(0);
+      return;
+    }
+    out.writeInt(changes.size());
+    for (FieldDiffs change : changes) {
+      writeFieldDiffs(out, change);
+    }
+  }
+
+  private static List<FieldDiffs> readChanges(DataInput in) throws IOException {
+    int size = in.readInt();
+    List<FieldDiffs> changes = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      changes.add(readFieldDiffs(in));
+    }
+    return changes;
+  }
+
+  /**
+   * The current change is usually the last element of changes. Its index is written
+   * so that the same instance is shared after decoding.
+   */
+  private static void writeCurrentChange(DataOutput out, @Nullable FieldDiffs currentChange, @Nullable List<FieldDiffs> changes) throws IOException {
+    int index = -1;
+    if (currentChange != null && changes != null) {
+      for (int i = 0; i < changes.size(); i++) {
+        if (changes.get(i) == currentChange) {
+          index = i;
+          break;
+        }
+      }
+    }
+    out.writeInt(index);
+    if (index < 0) {
+      writeFieldDiffs(out, currentChange);
+    }
+  }
+
+  @CheckForNull
+  private static FieldDiffs readCurrentChange(DataInput in, List<FieldDiffs> changes) throws IOException {
+    int index = in.readInt();
+    if (index >= 0) {
+      return changes.get(index);
+    }
+    return readFieldDiffs(in);
+  }
+
+  private static void writeFieldDiffs(DataOutput out, @Nullable FieldDiffs diffs) throws IOException {
+    out.writeBoolean(diffs != null);
+    if (diffs != null) {
+      writeString(out, diffs.issueKey());
+      writeString(out, diffs.userLogin());
+      writeDate(out, diffs.creationDate());
+      out.writeInt(diffs.diffs().size());
+      for (String field : diffs.diffs().keySet()) {
+        FieldDiffs.Diff<?> diff = diffs.get(field);
+        writeString(out, field);
+        writeValue(out, diff.oldValue());
+        writeValue(out, diff.newValue());
+      }
+    }
+  }
+
+  @CheckForNull
+  private static FieldDiffs readFieldDiffs(DataInput in) throws IOException {
+    if (!in.readBoolean()) {
+      return null;
+    }
+    FieldDiffs diffs = new FieldDiffs()
+      .setIssueKey(readString(in))
+      .setUserLogin(readString(in))
+      .setCreationDate(readDate(in));
+    int size = in.readInt();
+    for (int i = 0; i < size; i++) {
+      diffs.setDiff(readString(in), readValue(in), readValue(in));
+    }
+    return diffs;
+  }
+
+  private static void writeValue(DataOutput out, @Nullable Serializable value) throws IOException {
+    if (value == null) {
+      out.writeByte(NULL);
+    } else if (value instanceof String) {
+      out.writeByte(STRING);
+      writeString(out, (String) value);
+    } else if (value instanceof Long) {
+      out.writeByte(LONG);
+      out.writeLong((Long) value);
+    } else if (value instanceof Integer) {
+      out.writeByte(INTEGER);
+      out.writeInt((Integer) value);
+    } else if (value instanceof Double) {
+      out.writeByte(DOUBLE);
+      out.writeDouble((Double) value);
+    } else if (value instanceof Boolean) {
+      out.writeByte(BOOLEAN);
+      out.writeBoolean((Boolean) value);
+    } else if (value instanceof Date) {
+      out.writeByte(DATE);
+      out.writeLong(((Date) value).getTime());
+    } else {
+      // not expected, but still supported
+      out.writeByte(SERIALIZED);
+      writeBytes(out, SerializationUtils.serialize(value));
+    }
+  }
+
+  @CheckForNull
+  private static Serializable readValue(DataInput in) throws IOException {
+    byte type = in.readByte();
+    switch (type) {
+      case NULL:
+        return null;
+      case STRING:
+        return readString(in);
+      case LONG:
+        return in.readLong();
+      case INTEGER:
+        return in.readInt();
+      case DOUBLE:
+        return in.readDouble();
+      case BOOLEAN:
+        return in.readBoolean();
+      case DATE:
+        return new Date(in.readLong());
+      case SERIALIZED:
+        return (Serializable) SerializationUtils.deserialize(readBytes(in));
+      default:
+        throw new IllegalStateException("Unknown type of value: " + type);
+    }
+  }
+
+  private static void writeStringMap(DataOutput out, @Nullable Map<String, String> map) throws IOException {
+    if (map == null) {
+      out.writeInt(-1);
+      return;
+    }
+    out.writeInt(map.size());
+    for (Map.Entry<String, String> entry : map.entrySet()) {
+      writeString(out, entry.getKey());
+      writeString(out, entry.getValue());
+    }
+  }
+
+  @CheckForNull
+  private static Map<String, String> readStringMap(DataInput in) throws IOException {
+    int size = in.readInt();
+    if (size < 0) {
+      return null;
+    }
+    Map<String, String> map = new LinkedHashMap<>();
+    for (int i = 0; i < size; i++) {
+      map.put(readString(in), readString(in));
+    }
+    return map;
+  }
+
+  private static void writeStrings(DataOutput out, @Nullable Iterable<String> strings) throws IOException {
+    if (strings == null) {
+      out.writeInt(-1);
+      return;
+    }
+    List<String> list = new ArrayList<>();
+    for (String s : strings) {
+      list.add(s);
+    }
+    out.writeInt(list.size());
+    for (String s : list) {
+      writeString(out, s);
+    }
+  }
+
+  @CheckForNull
+  private static List<String> readStrings(DataInput in) throws IOException {
+    int size = in.readInt();
+    if (size < 0) {
+      return null;
+    }
+    List<String> list = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      list.add(readString(in));
+    }
+    return list;
+  }
+
+  /**
+   * Unlike {@link DataOutput#writeUTF(String)}, the length of string is not limited to 65535 bytes
+   */
+  private static void writeString(DataOutput out, @Nullable String s) throws IOException {
+    writeBytes(out, s == null ? null : s.getBytes(Charsets.UTF_8));
+  }
+
+  @CheckForNull
+  private static String readString(DataInput in) throws IOException {
+    byte[] bytes = readBytes(in);
+    return bytes == null ? null : new String(bytes, Charsets.UTF_8);
+  }
+
+  private static void writeBytes(DataOutput out, @Nullable byte[] bytes) throws IOException {
+    if (bytes == null) {
+      out.writeInt(-1);
+    } else {
+      out.writeInt(bytes.length);
+      out.write(bytes);
+    }
+  }
+
+  @CheckForNull
+  private static byte[] readBytes(DataInput in) throws IOException {
+    int length = in.readInt();
+    if (length < 0) {
+      return null;
+    }
+    byte[] bytes = new byte[length];
+    in.readFully(bytes);
+    return bytes;
+  }
+
+  private static void writeLong(DataOutput out, @Nullable Long l) throws IOException {
+    out.writeBoolean(l != null);
+    if (l != null) {
+      out.writeLong(l);
+    }
+  }
+
+  @CheckForNull
+  private static Long readLong(DataInput in) throws IOException {
+    return in.readBoolean() ? in.readLong() : null;
+  }
+
+  private static void writeDouble(DataOutput out, @Nullable Double d) throws IOException {
+    out.writeBoolean(d != null);
+    if (d != null) {
+      out.writeDouble(d);
+    }
+  }
+
+  @CheckForNull
+  private static Double readDouble(DataInput in) throws IOException {
+    return in.readBoolean() ? in.readDouble() : null;
+  }
+
+  private static void writeDate(DataOutput out, @Nullable Date date) throws IOException {
+    writeLong(out, date == null ? null : date.getTime());
+  }
+
+  @CheckForNull
+  private static Date readDate(DataInput in) throws IOException {
+    Long time = readLong(in);
+    return time == null ? null : new Date(time);
+  }
+}
@@ -19,8 +19,10 @@
  */
 package org.sonar.server.computation.issue;
 
+import org.sonar.api.config.Settings;
 import org.sonar.api.rule.RuleKey;
 import org.sonar.core.rule.RuleDto;
+import org.sonar.server.util.cache.CacheStatistics;
 import org.sonar.server.util.cache.MemoryCache;
 
 import javax.annotation.CheckForNull;
@@ -30,8 +32,8 @@ import javax.annotation.CheckForNull;
  */
 public class RuleCache extends MemoryCache<RuleKey, RuleDto> {
 
-  public RuleCache(RuleCacheLoader loader) {
-    super(loader);
+  public RuleCache(RuleCacheLoader loader, Settings settings, CacheStatistics statistics) {
+    super(loader, Options.fromSettings(settings).setName("Rules").setStatistics(statistics));
   }
 
   @CheckForNull
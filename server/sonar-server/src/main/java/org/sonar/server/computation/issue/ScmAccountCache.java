@@ -19,13 +19,15 @@
  */
 package org.sonar.server.computation.issue;
 
+import org.sonar.api.config.Settings;
+import org.sonar.server.util.cache.CacheStatistics;
 import org.sonar.server.util.cache.MemoryCache;
 
 /**
  * Cache of dictionary {SCM account -> SQ user login}
  */
 public class ScmAccountCache extends MemoryCache<String,String> {
-  public ScmAccountCache(ScmAccountCacheLoader loader) {
-    super(loader);
+  public ScmAccountCache(ScmAccountCacheLoader loader, Settings settings, CacheStatistics statistics) {
+    super(loader, Options.fromSettings(settings).setName("SCM Accounts").setStatistics(statistics));
   }
 }
@@ -0,0 +1,230 @@
+/*
+ * SonarQube, open source software quality management tool.
+ * Copyright (C) 2008-2014 SonarSource
+ * mailto:contact AT sonarsource DOT com
+ *
+ * SonarQube is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * SonarQube is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.server.computation.measure;
+
+import org.apache.commons.dbutils.DbUtils;
+import org.sonar.api.rule.Severity;
+import org.sonar.core.measure.db.MeasureDto;
+
+import javax.annotation.Nullable;
+
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Arrays;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Inserts rows in table PROJECT_MEASURES with JDBC batches, without the overhead of MyBatis mappers.
+ * Measures are buffered in columns of primitive arrays, then flushed every {@code chunkSize} measures,
+ * so memory does not depend on the number of measures.
+ * <p/>
+ * The writer does not own the connection, which is committed or rolled back by the caller.
+ * It is not thread-safe.
+ */
+public class BulkMeasureWriter implements Closeable {
+
+  public static final int DEFAULT_CHUNK_SIZE = 1000;
+
+  private static final String INSERT_SQL = "INSERT INTO project_measures (value, metric_id, snapshot_id, rule_id, text_value, project_id, " +
+    "alert_status, alert_text, description, rule_priority, characteristic_id, person_id, " +
+    "variation_value_1, variation_value_2, variation_value_3, variation_value_4, variation_value_5, measure_data) " +
+    "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+  private static final int NB_VARIATIONS = 5;
+
+  // values used for NULL in numerical columns
+  private static final double NULL_DOUBLE = Double.NaN;
+  private static final int NULL_INT = Integer.MIN_VALUE;
+  private static final long NULL_LONG = Long.MIN_VALUE;
+
+  private final PreparedStatement statement;
+  private final int chunkSize;
+  private int size = 0;
+  private long count = 0L;
+
+  private final double[] values;
+  private final int[] metricIds;
+  private final long[] snapshotIds;
+  private final long[] componentIds;
+  private final int[] ruleIds;
+  private final int[] severityIndexes;
+  private final int[] characteristicIds;
+  private final int[] personIds;
+  private final double[][] variations;
+  // textual columns are most of the time null
+  private final String[] textValues;
+  private final byte[][] dataValues;
+  private final String[] alertStatuses;
+  private final String[] alertTexts;
+  private final String[] descriptions;
+
+  public BulkMeasureWriter(Connection connection, int chunkSize) {
+    checkArgument(chunkSize > 0, "Chunk size must be strictly positive: %s", chunkSize);
+    this.chunkSize = chunkSize;
+    this.values = new double[chunkSize];
+    this.metricIds = new int[chunkSize];
+    this.snapshotIds = new long[chunkSize];
+    this.componentIds = new long[chunkSize];
+    this.ruleIds = new int[chunkSize];
+    this.severityIndexes = new int[chunkSize];
+    this.characteristicIds = new int[chunkSize];
+    this.personIds = new int[chunkSize];
+    this.variations = new double[NB_VARIATIONS][chunkSize];
+    this.textValues = new String[chunkSize];
+    this.dataValues = new byte[chunkSize][];
+    this.alertStatuses = new String[chunkSize];
+    this.alertTexts = new String[chunkSize];
+    this.descriptions = new String[chunkSize];
+
+    try {
+      this.statement = connection.prepareStatement(INSERT_SQL);
+    } catch (SQLException e) {
+      throw new IllegalStateException("Fail to prepare insertion of measures", e);
+    }
+  }
+
+  /**
+   * The measure is copied, so the instance can be reused or garbage collected after the call
+   */
+  public void add(MeasureDto measure) {
+    int i = size;
+    values[i] = measure.getValue() == null ? NULL_DOUBLE : measure.getValue();
+    metricIds[i] = toInt(measure.getMetricId());
+    snapshotIds[i] = toLong(measure.getSnapshotId());
+    componentIds[i] = toLong(measure.getComponentId());
+    ruleIds[i] = toInt(measure.getRuleId());
+    severityIndexes[i] = measure.getSeverity() == null ? NULL_INT : Severity.ALL.indexOf(measure.getSeverity());
+    characteristicIds[i] = toInt(measure.getCharacteristicId());
+    personIds[i] = toInt(measure.getPersonId());
+    for (int v = 0; v < NB_VARIATIONS; v++) {
+      Double variation = measure.getVariation(v + 1);
+      variations[v][i] = variation == null ? NULL_DOUBLE : variation;
+    }
+    textValues[i] = measure.getTextValue();
+    dataValues[i] = measure.getDataValue();
+    alertStatuses[i] = measure.getAlertStatus();
+    alertTexts[i] = measure.getAlertText();
+    descriptions[i] = measure.getDescription();
+    size++;
+    if (size == chunkSize) {
+      flush();
+    }
+  }
+
+  /**
+   * Sends the buffered measures to database. It's automatically called when the buffer is full.
+   */
+  public void flush() {
+    if (size == 0) {
+      return;
+    }
+    try {
+      for (int i = 0; i < size; i++) {
+        setDouble(1, values[i]);
+        setInt(2, metricIds[i]);
+        setLong(3, snapshotIds[i]);
+        setInt(4, ruleIds[i]);
+        statement.setString(5, textValues[i]);
+        setLong(6, componentIds[i]);
+        statement.setString(7, alertStatuses[i]);
+        statement.setString(8, alertTexts[i]);
+        statement.setString(9, descriptions[i]);
+        setInt(10, severityIndexes[i]);
+        setInt(11, characteristicIds[i]);
+        setInt(12, personIds[i]);
+        for (int v = 0; v < NB_VARIATIONS; v++) {
+          setDouble(13 + v, variations[v][i]);
+        }
+        if (dataValues[i] == null) {
+          statement.setNull(18, Types.BINARY);
+        } else {
+          statement.setBytes(18, dataValues[i]);
+        }
+        statement.addBatch();
+      }
+      statement.executeBatch();
+      count += size;
+    } catch (SQLException e) {
+      throw new IllegalStateException("Fail to insert measures", e);
+    } finally {
+      clearBuffer();
+    }
+  }
+
+  /**
+   * Number of measures sent to database
+   */
+  public long count() {
+    return count;
+  }
+
+  /**
+   * Measures that are not flushed are lost. The connection is not closed.
+   */
+  @Override
+  public void close() {
+    DbUtils.closeQuietly(statement);
+  }
+
+  private void clearBuffer() {
+    // release references to strings
+    Arrays.fill(textValues, 0, size, null);
+    Arrays.fill(dataValues, 0, size, null);
+    Arrays.fill(alertStatuses, 0, size, null);
+    Arrays.fill(alertTexts, 0, size, null);
+    Arrays.fill(descriptions, 0, size, null);
+    size = 0;
+  }
+
+  private void setDouble(int index, double value) throws SQLException {
+    if (Double.isNaN(value)) {
+      statement.setNull(index, Types.DOUBLE);
+    } else {
+      statement.setDouble(index, value);
+    }
+  }
+
+  private void setInt(int index, int value) throws SQLException {
+    if (value == NULL_INT) {
+      statement.setNull(index, Types.INTEGER);
+    } else {
+      statement.setInt(index, value);
+    }
+  }
+
+  private void setLong(int index, long value) throws SQLException {
+    if (value == NULL_LONG) {
+      statement.setNull(index, Types.INTEGER);
+    } else {
+      statement.setLong(index, value);
+    }
+  }
+
+  private static int toInt(@Nullable Integer i) {
+    return i == null ? NULL_INT : i;
+  }
+
+  private static long toLong(@Nullable Long l) {
+    return l == null ? NULL_LONG : l;
+  }
+}
@@ -45,6 +45,14 @@ public class ReportIterator<E> extends CloseableIterator<E> {
     }
   }
 
+  /**
+   * The stream of delimited messages is closed when closing the iterator
+   */
+  public ReportIterator(InputStream stream, Parser<E> parser) {
+    this.parser = parser;
+    this.stream = stream;
+  }
+
   @Override
   protected E doNext() {
     try {
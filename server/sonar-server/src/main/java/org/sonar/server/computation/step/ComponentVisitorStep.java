@@ -0,0 +1,92 @@
+/*
+ * SonarQube, open source software quality management tool.
+ * Copyright (C) 2008-2014 SonarSource
+ * mailto:contact AT sonarsource DOT com
+ *
+ * SonarQube is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * SonarQube is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package org.sonar.server.computation.step;
+
+import org.sonar.core.persistence.DbSession;
+import org.sonar.core.persistence.MyBatis;
+import org.sonar.server.computation.ComputationContext;
+import org.sonar.server.computation.component.ComponentVisitor;
+import org.sonar.server.db.DbClient;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Step that processes the components one by one. Consecutive steps of this kind are executed
+ * in a single traversal of the component tree by {@link org.sonar.server.computation.ComputationService}.
+ * The visitors of a traversal share the same database session, so a traversal holds a single connection.
+ */
+public abstract class ComponentVisitorStep implements ComputationStep {
+
+  private final DbClient dbClient;
+
+  protected ComponentVisitorStep(DbClient dbClient) {
+    this.dbClient = dbClient;
+  }
+
+  /**
+   * Called before each traversal of the component tree. The batch session is shared by all the visitors
+   * of the traversal. It is committed after {@link ComponentVisitor#afterVisit()} and closed at the end
+   * of the traversal, so visitors must not close it.
+   */
+  public abstract ComponentVisitor newVisitor(ComputationContext context, DbSession session);
+
+  @Override
+  public void execute(ComputationContext context) {
+    execute(context, Collections.singletonList(this), dbClient);
+  }
+
+  /**
+   * Executes the visitors of the given steps during the same traversal of the component tree
+   */
+  public static void execute(ComputationContext context, List<? extends ComponentVisitorStep> steps, DbClient dbClient) {
+    DbSession session = dbClient.openSession(true);
+    List<ComponentVisitor> visitors = new ArrayList<>();
+    try {
+      for (ComponentVisitorStep step : steps) {
+        visitors.add(step.newVisitor(context, session));
+      }
+      context.getComponentTree().visit(visitors);
+      // forced because some rows are inserted through the JDBC connection of the session, out of MyBatis
+      session.commit(true);
+    } finally {
+      try {
+        close(visitors, 0);
+      } finally {
+        MyBatis.closeQuietly(session);
+      }
+    }
+  }
+
+  /**
+   * Each visitor is closed even if the previous ones fail to close
+   */
+  private static void close(List<ComponentVisitor> visitors, int index) {
+    if (index < visitors.size()) {
+      try {
+        visitors.get(index).close();
+      } finally {
+        close(visitors, index + 1);
+      }
+    }
+  }
+}
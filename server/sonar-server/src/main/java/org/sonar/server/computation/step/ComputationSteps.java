@@ -37,34 +37,34 @@ public class ComputationSteps {
    */
   public static List<Class<? extends ComputationStep>> orderedStepClasses() {
     return Arrays.asList(
-      // Read report
+      // Read report and persist data. These steps are executed during a single traversal of the component tree.
       ParseReportStep.class,
-
-      // Persist data
       PersistNumberOfDaysSinceLastCommitStep.class,
       PersistMeasuresStep.class,
-      PersistIssuesStep.class,
       PersistComponentLinksStep.class,
       PersistEventsStep.class,
       PersistDuplicationMeasuresStep.class,
       PersistFileSourcesStep.class,
       PersistFileDependenciesStep.class,
 
+      // Issues are computed during the traversal
+      PersistIssuesStep.class,
+
       // Switch snapshot and purge
       SwitchSnapshotStep.class,
       IndexComponentsStep.class,
       PurgeDatastoresStep.class,
 
-      // ES indexing is done after all db changes
+      // ES indexing is done after all db changes. Indices are updated in background by IndexationQueue.
       ApplyPermissionsStep.class,
       IndexIssuesStep.class,
       IndexSourceLinesStep.class,
       IndexViewsStep.class,
 
-      // Purge of removed views has to be done after Views has been indexed
+      // Purge of removed views waits for Views to be indexed
       PurgeRemovedViewsStep.class,
 
-      // notifications are sent at the end, so that webapp displays up-to-date information
+      // notifications are sent at the end, from the data of the report. They do not wait for background indexation.
       SendIssueNotificationsStep.class);
   }
 
@@ -22,17 +22,23 @@ package org.sonar.server.computation.step;
 
 import org.sonar.api.resources.Qualifiers;
 import org.sonar.server.computation.ComputationContext;
+import org.sonar.server.computation.IndexationQueue;
 import org.sonar.server.issue.index.IssueAuthorizationIndexer;
 import org.sonar.server.issue.index.IssueIndexer;
 
+/**
+ * Issues are indexed in background by {@link IndexationQueue}
+ */
 public class IndexIssuesStep implements ComputationStep {
 
   private final IssueAuthorizationIndexer authorizationIndexer;
   private final IssueIndexer indexer;
+  private final IndexationQueue indexationQueue;
 
-  public IndexIssuesStep(IssueAuthorizationIndexer authorizationIndexer, IssueIndexer indexer) {
+  public IndexIssuesStep(IssueAuthorizationIndexer authorizationIndexer, IssueIndexer indexer, IndexationQueue indexationQueue) {
     this.authorizationIndexer = authorizationIndexer;
     this.indexer = indexer;
+    this.indexationQueue = indexationQueue;
   }
 
   @Override
@@ -42,8 +48,13 @@ public class IndexIssuesStep implements ComputationStep {
 
   @Override
   public void execute(ComputationContext context) {
-    authorizationIndexer.index();
-    indexer.index();
+    indexationQueue.submit(context.getProject().uuid(), getDescription(), new Runnable() {
+      @Override
+      public void run() {
+        authorizationIndexer.index();
+        indexer.index();
+      }
+    });
   }
 
   @Override
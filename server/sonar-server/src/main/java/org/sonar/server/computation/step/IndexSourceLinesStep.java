@@ -21,14 +21,20 @@ package org.sonar.server.computation.step;
 
 import org.sonar.api.resources.Qualifiers;
 import org.sonar.server.computation.ComputationContext;
+import org.sonar.server.computation.IndexationQueue;
 import org.sonar.server.source.index.SourceLineIndexer;
 
+/**
+ * Source lines are indexed in background by {@link IndexationQueue}
+ */
 public class IndexSourceLinesStep implements ComputationStep {
 
   private final SourceLineIndexer indexer;
+  private final IndexationQueue indexationQueue;
 
-  public IndexSourceLinesStep(SourceLineIndexer indexer) {
+  public IndexSourceLinesStep(SourceLineIndexer indexer, IndexationQueue indexationQueue) {
     this.indexer = indexer;
+    this.indexationQueue = indexationQueue;
   }
 
   @Override
@@ -38,7 +44,13 @@ public class IndexSourceLinesStep implements ComputationStep {
 
   @Override
   public void execute(ComputationContext context) {
-    indexer.index(context.getProject().uuid());
+    final String projectUuid = context.getProject().uuid();
+    indexationQueue.submit(projectUuid, getDescription(), new Runnable() {
+      @Override
+      public void run() {
+        indexer.index(projectUuid);
+      }
+    });
   }
 
   @Override
@@ -22,14 +22,20 @@ package org.sonar.server.computation.step;
 
 import org.sonar.api.resources.Qualifiers;
 import org.sonar.server.computation.ComputationContext;
+import org.sonar.server.computation.IndexationQueue;
 import org.sonar.server.view.index.ViewIndexer;
 
+/**
+ * Views are indexed in background by {@link IndexationQueue}
+ */
 public class IndexViewsStep implements ComputationStep {
 
   private final ViewIndexer indexer;
+  private final IndexationQueue indexationQueue;
 
-  public IndexViewsStep(ViewIndexer indexer) {
+  public IndexViewsStep(ViewIndexer indexer, IndexationQueue indexationQueue) {
     this.indexer = indexer;
+    this.indexationQueue = indexationQueue;
   }
 
   @Override
@@ -39,7 +45,13 @@ public class IndexViewsStep implements ComputationStep {
 
   @Override
   public void execute(ComputationContext context) {
-    indexer.index(context.getProject().uuid());
+    final String viewUuid = context.getProject().uuid();
+    indexationQueue.submit(viewUuid, getDescription(), new Runnable() {
+      @Override
+      public void run() {
+        indexer.index(viewUuid);
+      }
+    });
   }
 
   @Override
@@ -22,17 +22,20 @@ package org.sonar.server.computation.step;
 
 import org.sonar.api.resources.Qualifiers;
 import org.sonar.batch.protocol.output.BatchReport;
-import org.sonar.batch.protocol.output.BatchReportReader;
+import org.sonar.core.persistence.DbSession;
 import org.sonar.server.computation.ComputationContext;
+import org.sonar.server.computation.component.ComponentVisitor;
 import org.sonar.server.computation.issue.IssueComputation;
+import org.sonar.server.db.DbClient;
 
 import java.util.List;
 
-public class ParseReportStep implements ComputationStep {
+public class ParseReportStep extends ComponentVisitorStep {
 
   private final IssueComputation issueComputation;
 
-  public ParseReportStep(IssueComputation issueComputation) {
+  public ParseReportStep(DbClient dbClient, IssueComputation issueComputation) {
+    super(dbClient);
     this.issueComputation = issueComputation;
   }
 
@@ -42,21 +45,20 @@ public class ParseReportStep implements ComputationStep {
   }
 
   @Override
-  public void execute(ComputationContext context) {
-    int rootComponentRef = context.getReportMetadata().getRootComponentRef();
-    recursivelyProcessComponent(context, rootComponentRef);
-    processDeletedComponents(context);
-    issueComputation.afterReportProcessing();
-  }
+  public ComponentVisitor newVisitor(final ComputationContext context, DbSession session) {
+    return new ComponentVisitor() {
+      @Override
+      public void visit(BatchReport.Component component) {
+        List<BatchReport.Issue> issues = context.getReportReader().readComponentIssues(component.getRef());
+        issueComputation.processComponentIssues(context, issues, component.getUuid(), component.getRef());
+      }
 
-  private void recursivelyProcessComponent(ComputationContext context, int componentRef) {
-    BatchReportReader reportReader = context.getReportReader();
-    BatchReport.Component component = reportReader.readComponent(componentRef);
-    List<BatchReport.Issue> issues = reportReader.readComponentIssues(componentRef);
-    issueComputation.processComponentIssues(context, issues, component.getUuid(), componentRef);
-    for (Integer childRef : component.getChildRefList()) {
-      recursivelyProcessComponent(context, childRef);
-    }
+      @Override
+      public void afterVisit() {
+        processDeletedComponents(context);
+        issueComputation.afterReportProcessing();
+      }
+    };
   }
 
   private void processDeletedComponents(ComputationContext context) {
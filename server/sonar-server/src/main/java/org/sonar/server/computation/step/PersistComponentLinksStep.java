@@ -27,11 +27,10 @@ import org.sonar.api.i18n.I18n;
 import org.sonar.api.resources.Qualifiers;
 import org.sonar.batch.protocol.Constants;
 import org.sonar.batch.protocol.output.BatchReport;
-import org.sonar.batch.protocol.output.BatchReportReader;
 import org.sonar.core.component.ComponentLinkDto;
 import org.sonar.core.persistence.DbSession;
-import org.sonar.core.persistence.MyBatis;
 import org.sonar.server.computation.ComputationContext;
+import org.sonar.server.computation.component.ComponentVisitor;
 import org.sonar.server.db.DbClient;
 
 import javax.annotation.Nullable;
@@ -43,7 +42,7 @@ import java.util.Set;
 
 import static com.google.common.collect.Sets.newHashSet;
 
-public class PersistComponentLinksStep implements ComputationStep {
+public class PersistComponentLinksStep extends ComponentVisitorStep {
 
   private final DbClient dbClient;
   private final I18n i18n;
@@ -57,6 +56,7 @@ public class PersistComponentLinksStep implements ComputationStep {
     );
 
   public PersistComponentLinksStep(DbClient dbClient, I18n i18n) {
+    super(dbClient);
     this.dbClient = dbClient;
     this.i18n = i18n;
   }
@@ -67,25 +67,13 @@ public class PersistComponentLinksStep implements ComputationStep {
   }
 
   @Override
-  public void execute(ComputationContext context) {
-    DbSession session = dbClient.openSession(false);
-    try {
-      int rootComponentRef = context.getReportMetadata().getRootComponentRef();
-      recursivelyProcessComponent(session, context, rootComponentRef);
-      session.commit();
-    } finally {
-      MyBatis.closeQuietly(session);
-    }
-  }
-
-  private void recursivelyProcessComponent(DbSession session, ComputationContext context, int componentRef) {
-    BatchReportReader reportReader = context.getReportReader();
-    BatchReport.Component component = reportReader.readComponent(componentRef);
-    processLinks(session, component);
-
-    for (Integer childRef : component.getChildRefList()) {
-      recursivelyProcessComponent(session, context, childRef);
-    }
+  public ComponentVisitor newVisitor(ComputationContext context, final DbSession session) {
+    return new ComponentVisitor() {
+      @Override
+      public void visit(BatchReport.Component component) {
+        processLinks(session, component);
+      }
+    };
   }
 
   private void processLinks(DbSession session, BatchReport.Component component) {
@@ -113,7 +101,7 @@ public class PersistComponentLinksStep implements ComputationStep {
         }
       }, null);
       if (previousLink == null) {
-        dbClient.componentLinkDao().insert(session,
+        dbClient.componentLinkDao().batchInsert(session,
           new ComponentLinkDto()
             .setComponentUuid(componentUuid)
             .setType(type)
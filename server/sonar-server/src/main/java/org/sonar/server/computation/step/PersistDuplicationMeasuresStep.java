@@ -23,25 +23,24 @@ package org.sonar.server.computation.step;
 import org.apache.commons.lang.StringEscapeUtils;
 import org.sonar.api.measures.CoreMetrics;
 import org.sonar.api.resources.Qualifiers;
-import org.sonar.batch.protocol.Constants;
 import org.sonar.batch.protocol.output.BatchReport;
 import org.sonar.batch.protocol.output.BatchReport.Range;
-import org.sonar.batch.protocol.output.BatchReportReader;
 import org.sonar.core.component.ComponentKeys;
 import org.sonar.core.measure.db.MeasureDto;
 import org.sonar.core.measure.db.MetricDto;
 import org.sonar.core.persistence.DbSession;
-import org.sonar.core.persistence.MyBatis;
 import org.sonar.server.computation.ComputationContext;
+import org.sonar.server.computation.component.ComponentVisitor;
 import org.sonar.server.db.DbClient;
 
 import java.util.List;
 
-public class PersistDuplicationMeasuresStep implements ComputationStep {
+public class PersistDuplicationMeasuresStep extends ComponentVisitorStep {
 
   private final DbClient dbClient;
 
   public PersistDuplicationMeasuresStep(DbClient dbClient) {
+    super(dbClient);
     this.dbClient = dbClient;
   }
 
@@ -51,33 +50,18 @@ public class PersistDuplicationMeasuresStep implements ComputationStep {
   }
 
   @Override
-  public void execute(ComputationContext context) {
-    DbSession session = dbClient.openSession(true);
-    try {
-      MetricDto duplicationMetric = dbClient.metricDao().selectByKey(session, CoreMetrics.DUPLICATIONS_DATA_KEY);
-      DuplicationContext duplicationContext = new DuplicationContext(context, duplicationMetric, session);
-      int rootComponentRef = context.getReportMetadata().getRootComponentRef();
-      recursivelyProcessComponent(duplicationContext, rootComponentRef, rootComponentRef);
-      session.commit();
-    } finally {
-      MyBatis.closeQuietly(session);
-    }
-  }
-
-  private void recursivelyProcessComponent(DuplicationContext duplicationContext, int parentModuleRef, int componentRef) {
-    BatchReportReader reportReader = duplicationContext.context().getReportReader();
-    BatchReport.Component component = reportReader.readComponent(componentRef);
-    List<BatchReport.Duplication> duplications = reportReader.readComponentDuplications(componentRef);
-    if (!duplications.isEmpty()) {
-      saveDuplications(duplicationContext, reportReader.readComponent(parentModuleRef), component, duplications);
-    }
-
-    for (Integer childRef : component.getChildRefList()) {
-      // If current component is a folder, we need to keep the parent reference to module parent
-      int nextParent = !component.getType().equals(Constants.ComponentType.PROJECT) && !component.getType().equals(Constants.ComponentType.MODULE) ?
-        parentModuleRef : componentRef;
-      recursivelyProcessComponent(duplicationContext, nextParent, childRef);
-    }
+  public ComponentVisitor newVisitor(final ComputationContext context, DbSession session) {
+    MetricDto duplicationMetric = dbClient.metricDao().selectByKey(session, CoreMetrics.DUPLICATIONS_DATA_KEY);
+    final DuplicationContext duplicationContext = new DuplicationContext(context, duplicationMetric, session);
+    return new ComponentVisitor() {
+      @Override
+      public void visit(BatchReport.Component component) {
+        List<BatchReport.Duplication> duplications = context.getReportReader().readComponentDuplications(component.getRef());
+        if (!duplications.isEmpty()) {
+          saveDuplications(duplicationContext, context.getComponentTree().getParentModule(component.getRef()), component, duplications);
+        }
+      }
+    };
   }
 
   private void saveDuplications(DuplicationContext duplicationContext, BatchReport.Component parentComponent, BatchReport.Component component,
@@ -121,7 +105,7 @@ public class PersistDuplicationMeasuresStep implements ComputationStep {
       String branch = duplicationContext.context().getReportMetadata().getBranch();
       if (duplicate.hasOtherFileRef()) {
         // Duplication is on a different file
-        BatchReport.Component duplicationComponent = duplicationContext.context().getReportReader().readComponent(duplicate.getOtherFileRef());
+        BatchReport.Component duplicationComponent = duplicationContext.context().getComponentTree().get(duplicate.getOtherFileRef());
         appendDuplication(xml, ComponentKeys.createKey(parentComponentKey, duplicationComponent.getPath(), branch), duplicate);
       } else {
         // Duplication is on a the same file
@@ -24,21 +24,21 @@ import org.sonar.api.resources.Qualifiers;
 import org.sonar.api.utils.System2;
 import org.sonar.batch.protocol.Constants;
 import org.sonar.batch.protocol.output.BatchReport;
-import org.sonar.batch.protocol.output.BatchReportReader;
 import org.sonar.core.event.EventDto;
 import org.sonar.core.persistence.DbSession;
-import org.sonar.core.persistence.MyBatis;
 import org.sonar.server.computation.ComputationContext;
+import org.sonar.server.computation.component.ComponentVisitor;
 import org.sonar.server.db.DbClient;
 
 import java.util.List;
 
-public class PersistEventsStep implements ComputationStep {
+public class PersistEventsStep extends ComponentVisitorStep {
 
   private final DbClient dbClient;
   private final System2 system2;
 
   public PersistEventsStep(DbClient dbClient, System2 system2) {
+    super(dbClient);
     this.dbClient = dbClient;
     this.system2 = system2;
   }
@@ -49,33 +49,22 @@ public class PersistEventsStep implements ComputationStep {
   }
 
   @Override
-  public void execute(ComputationContext context) {
-    DbSession session = dbClient.openSession(false);
-    try {
-      int rootComponentRef = context.getReportMetadata().getRootComponentRef();
-      recursivelyProcessComponent(session, context, rootComponentRef);
-      session.commit();
-    } finally {
-      MyBatis.closeQuietly(session);
-    }
-  }
-
-  private void recursivelyProcessComponent(DbSession session, ComputationContext context, int componentRef) {
-    BatchReportReader reportReader = context.getReportReader();
-    BatchReport.Component component = reportReader.readComponent(componentRef);
-    processEvents(session, component, context.getReportMetadata().getAnalysisDate());
-    saveVersionEvent(session, component, context.getReportMetadata().getAnalysisDate());
-
-    for (Integer childRef : component.getChildRefList()) {
-      recursivelyProcessComponent(session, context, childRef);
-    }
+  public ComponentVisitor newVisitor(ComputationContext context, final DbSession session) {
+    final Long analysisDate = context.getReportMetadata().getAnalysisDate();
+    return new ComponentVisitor() {
+      @Override
+      public void visit(BatchReport.Component component) {
+        processEvents(session, component, analysisDate);
+        saveVersionEvent(session, component, analysisDate);
+      }
+    };
   }
 
   private void processEvents(DbSession session, BatchReport.Component component, Long analysisDate) {
     List<BatchReport.Event> events = component.getEventList();
     if (!events.isEmpty()) {
       for (BatchReport.Event event : component.getEventList()) {
-        dbClient.eventDao().insert(session, newBaseEvent(component, analysisDate)
+        dbClient.eventDao().batchInsert(session, newBaseEvent(component, analysisDate)
           .setName(event.getName())
           .setCategory(convertCategory(event.getCategory()))
           .setDescription(event.hasDescription() ? event.getDescription() : null)
@@ -88,7 +77,7 @@ public class PersistEventsStep implements ComputationStep {
   private void saveVersionEvent(DbSession session, BatchReport.Component component, Long analysisDate) {
     if (component.hasVersion()) {
       deletePreviousEventsHavingSameVersion(session, component);
-      dbClient.eventDao().insert(session, newBaseEvent(component, analysisDate)
+      dbClient.eventDao().batchInsert(session, newBaseEvent(component, analysisDate)
         .setName(component.getVersion())
         .setCategory(EventDto.CATEGORY_VERSION)
         );
@@ -24,24 +24,25 @@ import org.sonar.api.resources.Qualifiers;
 import org.sonar.api.utils.System2;
 import org.sonar.batch.protocol.Constants;
 import org.sonar.batch.protocol.output.BatchReport;
-import org.sonar.batch.protocol.output.BatchReportReader;
 import org.sonar.core.design.FileDependencyDto;
 import org.sonar.core.persistence.DbSession;
-import org.sonar.core.persistence.MyBatis;
 import org.sonar.server.computation.ComputationContext;
+import org.sonar.server.computation.component.ComponentTree;
+import org.sonar.server.computation.component.ComponentVisitor;
 import org.sonar.server.computation.source.ReportIterator;
 import org.sonar.server.db.DbClient;
 
-import java.io.File;
-import java.util.HashMap;
-import java.util.Map;
+import javax.annotation.CheckForNull;
 
-public class PersistFileDependenciesStep implements ComputationStep {
+import java.io.InputStream;
+
+public class PersistFileDependenciesStep extends ComponentVisitorStep {
 
   private final DbClient dbClient;
   private final System2 system2;
 
   public PersistFileDependenciesStep(DbClient dbClient, System2 system2) {
+    super(dbClient);
     this.dbClient = dbClient;
     this.system2 = system2;
   }
@@ -52,38 +53,26 @@ public class PersistFileDependenciesStep implements ComputationStep {
   }
 
   @Override
-  public void execute(ComputationContext context) {
-    DbSession session = dbClient.openSession(true);
-    try {
-      FileDependenciesContext fileDependenciesContext = new FileDependenciesContext(context, session);
-      int rootComponentRef = context.getReportMetadata().getRootComponentRef();
-      recursivelyProcessComponent(fileDependenciesContext, rootComponentRef, rootComponentRef);
-      session.commit();
-    } finally {
-      MyBatis.closeQuietly(session);
-    }
-  }
-
-  private void recursivelyProcessComponent(FileDependenciesContext fileDependenciesContext, int componentRef, int parentModuleRef) {
-    BatchReportReader reportReader = fileDependenciesContext.context.getReportReader();
-    BatchReport.Component component = reportReader.readComponent(componentRef);
-    if (component.getType().equals(Constants.ComponentType.FILE)) {
-      processFileDependenciesReport(fileDependenciesContext, component);
-    }
-
-    for (Integer childRef : component.getChildRefList()) {
-      recursivelyProcessComponent(fileDependenciesContext, childRef, componentRef);
-    }
+  public ComponentVisitor newVisitor(ComputationContext context, DbSession session) {
+    final FileDependenciesContext fileDependenciesContext = new FileDependenciesContext(context, session);
+    return new ComponentVisitor() {
+      @Override
+      public void visit(BatchReport.Component component) {
+        if (component.getType().equals(Constants.ComponentType.FILE)) {
+          processFileDependenciesReport(fileDependenciesContext, component);
+        }
+      }
+    };
   }
 
   private void processFileDependenciesReport(FileDependenciesContext fileDependenciesContext, BatchReport.Component component){
-    File fileDependencyReport = fileDependenciesContext.context.getReportReader().readFileDependencies(component.getRef());
+    InputStream fileDependencyReport = fileDependenciesContext.context.getReportReader().openFileDependencies(component.getRef());
     if (fileDependencyReport != null) {
       ReportIterator<BatchReport.FileDependency> fileDependenciesIterator = new ReportIterator<>(fileDependencyReport, BatchReport.FileDependency.PARSER);
       try {
         while (fileDependenciesIterator.hasNext()) {
           BatchReport.FileDependency fileDependency = fileDependenciesIterator.next();
-          persistFileDependency(fileDependenciesContext, fileDependency, component.getRef());
+          persistFileDependency(fileDependenciesContext, fileDependency, component);
         }
       } finally {
         fileDependenciesIterator.close();
@@ -91,48 +80,35 @@ public class PersistFileDependenciesStep implements ComputationStep {
     }
   }
 
-  private void persistFileDependency(FileDependenciesContext fileDependenciesContext, BatchReport.FileDependency fileDependency, int fromRef){
-    int toFileRef = fileDependency.getToFileRef();
-    String fromComponentUuid = fileDependenciesContext.uuidsByRef.getUuidFromRef(fromRef);
-    String toComponentUuid = fileDependenciesContext.uuidsByRef.getUuidFromRef(toFileRef);
+  private void persistFileDependency(FileDependenciesContext fileDependenciesContext, BatchReport.FileDependency fileDependency, BatchReport.Component from){
+    ComponentTree tree = fileDependenciesContext.context.getComponentTree();
+    BatchReport.Component to = tree.get(fileDependency.getToFileRef());
     dbClient.fileDependencyDao().insert(fileDependenciesContext.session, new FileDependencyDto()
-        .setFromComponentUuid(fileDependenciesContext.uuidsByRef.getUuidFromRef(fromRef))
-        .setToComponentUuid(fileDependenciesContext.uuidsByRef.getUuidFromRef(toFileRef))
-        .setFromParentUuid(fileDependenciesContext.parentUuidsByComponentUuid.get(fromComponentUuid))
-        .setToParentUuid(fileDependenciesContext.parentUuidsByComponentUuid.get(toComponentUuid))
+        .setFromComponentUuid(from.getUuid())
+        .setToComponentUuid(to.getUuid())
+        .setFromParentUuid(parentUuid(tree, from))
+        .setToParentUuid(parentUuid(tree, to))
         .setRootProjectSnapshotId(fileDependenciesContext.rootSnapshotId)
         .setWeight(fileDependency.getWeight())
         .setCreatedAt(system2.now())
     );
   }
 
+  @CheckForNull
+  private static String parentUuid(ComponentTree tree, BatchReport.Component component) {
+    BatchReport.Component parent = tree.getParent(component.getRef());
+    return component.getType().equals(Constants.ComponentType.FILE) && parent != null ? parent.getUuid() : null;
+  }
+
   private static class FileDependenciesContext {
     private final Long rootSnapshotId;
-    private final ComponentUuidsCache uuidsByRef;
     private final ComputationContext context;
-    private final Map<String, String> parentUuidsByComponentUuid = new HashMap<>();
     private final DbSession session;
 
     public FileDependenciesContext(ComputationContext context, DbSession session) {
       this.context = context;
       this.rootSnapshotId = context.getReportMetadata().getSnapshotId();
       this.session = session;
-      this.uuidsByRef = new ComponentUuidsCache(context.getReportReader());
-      int rootComponentRef = context.getReportMetadata().getRootComponentRef();
-      recursivelyProcessParentByComponentCache(rootComponentRef, rootComponentRef);
-    }
-
-    private void recursivelyProcessParentByComponentCache(int componentRef, int parentModuleRef){
-      BatchReportReader reportReader = context.getReportReader();
-      BatchReport.Component component = reportReader.readComponent(componentRef);
-      BatchReport.Component parent = reportReader.readComponent(parentModuleRef);
-      if (component.getType().equals(Constants.ComponentType.FILE)) {
-        parentUuidsByComponentUuid.put(component.getUuid(), parent.getUuid());
-      }
-
-      for (Integer childRef : component.getChildRefList()) {
-        recursivelyProcessParentByComponentCache(childRef, componentRef);
-      }
     }
   }
 
@@ -20,24 +20,26 @@
 
 package org.sonar.server.computation.step;
 
+import com.google.common.base.Throwables;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.io.Charsets;
-import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.io.LineIterator;
 import org.apache.ibatis.session.ResultContext;
 import org.apache.ibatis.session.ResultHandler;
+import org.sonar.api.config.Settings;
 import org.sonar.api.resources.Qualifiers;
 import org.sonar.api.utils.System2;
 import org.sonar.batch.protocol.Constants;
 import org.sonar.batch.protocol.output.BatchReport;
 import org.sonar.batch.protocol.output.BatchReportReader;
 import org.sonar.core.persistence.DbSession;
-import org.sonar.core.persistence.MyBatis;
 import org.sonar.core.source.db.FileSourceDto;
 import org.sonar.core.source.db.FileSourceDto.Type;
 import org.sonar.server.computation.ComputationContext;
+import org.sonar.server.computation.component.ComponentVisitor;
 import org.sonar.server.computation.source.ComputeFileSourceData;
 import org.sonar.server.computation.source.CoverageLineReader;
 import org.sonar.server.computation.source.DuplicationLineReader;
@@ -47,23 +49,52 @@ import org.sonar.server.computation.source.ReportIterator;
 import org.sonar.server.computation.source.ScmLineReader;
 import org.sonar.server.computation.source.SymbolsLineReader;
 import org.sonar.server.db.DbClient;
-import org.sonar.server.source.db.FileSourceDb;
 
-import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
-public class PersistFileSourcesStep implements ComputationStep {
+/**
+ * Sources of files are computed and encoded by a pool of threads, whereas rows are written by
+ * the computation thread, using a JDBC batch committed every {@link #COMMIT_INTERVAL_PROPERTY} files.
+ * The number of files being computed and waiting to be written is bounded, so that memory
+ * does not depend on the number of files of the project.
+ */
+public class PersistFileSourcesStep extends ComponentVisitorStep {
+
+  public static final String THREADS_PROPERTY = "sonar.computation.fileSources.threads";
+  public static final String COMMIT_INTERVAL_PROPERTY = "sonar.computation.fileSources.commitInterval";
+  private static final int DEFAULT_THREADS = 1;
+  private static final int DEFAULT_COMMIT_INTERVAL = 20;
+  // maximum number of files being computed or waiting for being persisted, per thread
+  private static final int PENDING_FILES_PER_THREAD = 2;
 
   private final DbClient dbClient;
   private final System2 system2;
+  private final int threads;
+  private final int commitInterval;
 
-  public PersistFileSourcesStep(DbClient dbClient, System2 system2) {
+  public PersistFileSourcesStep(DbClient dbClient, System2 system2, Settings settings) {
+    super(dbClient);
     this.dbClient = dbClient;
     this.system2 = system2;
+    this.threads = positiveIntOrDefault(settings, THREADS_PROPERTY, DEFAULT_THREADS);
+    this.commitInterval = positiveIntOrDefault(settings, COMMIT_INTERVAL_PROPERTY, DEFAULT_COMMIT_INTERVAL);
+  }
+
+  private static int positiveIntOrDefault(Settings settings, String key, int defaultValue) {
+    int value = settings.getInt(key);
+    return value > 0 ? value : defaultValue;
   }
 
   @Override
@@ -72,65 +103,113 @@ public class PersistFileSourcesStep implements ComputationStep {
   }
 
   @Override
-  public void execute(ComputationContext context) {
-    int rootComponentRef = context.getReportMetadata().getRootComponentRef();
-    // Don't use batch insert for file_sources since keeping all data in memory can produce OOM for big files
-    DbSession session = dbClient.openSession(false);
-    try {
-      final Map<String, FileSourceDto> previousFileSourcesByUuid = new HashMap<>();
-      session.select("org.sonar.core.source.db.FileSourceMapper.selectHashesForProject", ImmutableMap.of("projectUuid", context.getProject().uuid(), "dataType", Type.SOURCE),
-        new ResultHandler() {
+  public ComponentVisitor newVisitor(ComputationContext context, DbSession session) {
+    final Map<String, FileSourceDto> previousFileSourcesByUuid = new HashMap<>();
+    session.select("org.sonar.core.source.db.FileSourceMapper.selectHashesForProject", ImmutableMap.of("projectUuid", context.getProject().uuid(), "dataType", Type.SOURCE),
+      new ResultHandler() {
+        @Override
+        public void handleResult(ResultContext context) {
+          FileSourceDto dto = (FileSourceDto) context.getResultObject();
+          previousFileSourcesByUuid.put(dto.getFileUuid(), dto);
+        }
+      });
+    return new FileSourcesVisitor(new FileSourcesContext(session, context, previousFileSourcesByUuid));
+  }
+
+  private class FileSourcesVisitor extends ComponentVisitor {
+    private final FileSourcesContext fileSourcesContext;
+    private final ExecutorService executor;
+    // files are persisted in the order of the traversal
+    private final Deque<Future<EncodedFileSource>> pendingFiles = new ArrayDeque<>();
+    private int uncommittedFiles = 0;
+
+    FileSourcesVisitor(FileSourcesContext fileSourcesContext) {
+      this.fileSourcesContext = fileSourcesContext;
+      this.executor = Executors.newFixedThreadPool(threads, new ThreadFactoryBuilder()
+        .setNameFormat("file-sources-%d")
+        .setDaemon(true)
+        .build());
+    }
+
+    @Override
+    public void visit(final BatchReport.Component component) {
+      if (component.getType().equals(Constants.ComponentType.FILE)) {
+        if (pendingFiles.size() >= threads * PENDING_FILES_PER_THREAD) {
+          // back-pressure: the traversal waits for the oldest file
+          persistNextFile();
+        }
+        pendingFiles.add(executor.submit(new Callable<EncodedFileSource>() {
           @Override
-          public void handleResult(ResultContext context) {
-            FileSourceDto dto = (FileSourceDto) context.getResultObject();
-            previousFileSourcesByUuid.put(dto.getFileUuid(), dto);
+          public EncodedFileSource call() {
+            return encode(fileSourcesContext.context.getReportReader(), component);
           }
-        });
+        }));
+      }
+    }
 
-      recursivelyProcessComponent(new FileSourcesContext(session, context, previousFileSourcesByUuid), rootComponentRef);
-    } finally {
-      MyBatis.closeQuietly(session);
+    @Override
+    public void afterVisit() {
+      while (!pendingFiles.isEmpty()) {
+        persistNextFile();
+      }
     }
-  }
 
-  private void recursivelyProcessComponent(FileSourcesContext fileSourcesContext, int componentRef) {
-    BatchReportReader reportReader = fileSourcesContext.context.getReportReader();
-    BatchReport.Component component = reportReader.readComponent(componentRef);
-    if (component.getType().equals(Constants.ComponentType.FILE)) {
-      LineIterator linesIterator = sourceLinesIterator(reportReader.readFileSource(componentRef));
-      LineReaders lineReaders = new LineReaders(reportReader, componentRef);
-      try {
-        ComputeFileSourceData computeFileSourceData = new ComputeFileSourceData(linesIterator, lineReaders.readers(), component.getLines());
-        ComputeFileSourceData.Data fileSourceData = computeFileSourceData.compute();
-        persistSource(fileSourcesContext, fileSourceData, component);
-      } catch (Exception e) {
-        throw new IllegalStateException(String.format("Cannot persist sources of %s", component.getPath()), e);
-      } finally {
-        linesIterator.close();
-        lineReaders.close();
+    @Override
+    public void close() {
+      executor.shutdownNow();
+    }
+
+    private void persistNextFile() {
+      persistSource(fileSourcesContext, waitFor(pendingFiles.poll()));
+      uncommittedFiles++;
+      if (uncommittedFiles >= commitInterval) {
+        fileSourcesContext.session.commit();
+        uncommittedFiles = 0;
       }
     }
+  }
 
-    for (Integer childRef : component.getChildRefList()) {
-      recursivelyProcessComponent(fileSourcesContext, childRef);
+  private static EncodedFileSource waitFor(Future<EncodedFileSource> future) {
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while computing file sources", e);
+    } catch (ExecutionException e) {
+      Throwables.propagateIfPossible(e.getCause());
+      throw new IllegalStateException("Fail to compute file sources", e.getCause());
     }
   }
 
-  private static LineIterator sourceLinesIterator(File file) {
+  /**
+   * Executed by the threads of the pool. It must not access database.
+   */
+  private static EncodedFileSource encode(BatchReportReader reportReader, BatchReport.Component component) {
+    int componentRef = component.getRef();
+    LineIterator linesIterator = sourceLinesIterator(reportReader.openFileSource(componentRef), component);
+    LineReaders lineReaders = new LineReaders(reportReader, componentRef);
     try {
-      return IOUtils.lineIterator(FileUtils.openInputStream(file), Charsets.UTF_8);
-    } catch (IOException e) {
-      throw new IllegalStateException("Fail to traverse file: " + file, e);
+      ComputeFileSourceData computeFileSourceData = new ComputeFileSourceData(linesIterator, lineReaders.readers(), component.getLines());
+      return new EncodedFileSource(component, computeFileSourceData.compute());
+    } catch (Exception e) {
+      throw new IllegalStateException(String.format("Cannot persist sources of %s", component.getPath()), e);
+    } finally {
+      linesIterator.close();
+      lineReaders.close();
     }
   }
 
-  private void persistSource(FileSourcesContext fileSourcesContext, ComputeFileSourceData.Data fileSourceData, BatchReport.Component component) {
-    FileSourceDb.Data fileData = fileSourceData.getFileSourceData();
+  private static LineIterator sourceLinesIterator(InputStream source, BatchReport.Component component) {
+    try {
+      return IOUtils.lineIterator(source, Charsets.UTF_8);
+    } catch (IOException e) {
+      IOUtils.closeQuietly(source);
+      throw new IllegalStateException("Fail to traverse source of " + component.getPath(), e);
+    }
+  }
 
-    byte[] data = FileSourceDto.encodeSourceData(fileData);
-    String dataHash = DigestUtils.md5Hex(data);
-    String srcHash = fileSourceData.getSrcHash();
-    String lineHashes = fileSourceData.getLineHashes();
+  private void persistSource(FileSourcesContext fileSourcesContext, EncodedFileSource fileSource) {
+    BatchReport.Component component = fileSource.component;
     FileSourceDto previousDto = fileSourcesContext.previousFileSourcesByUuid.get(component.getUuid());
 
     if (previousDto == null) {
@@ -138,30 +217,28 @@ public class PersistFileSourcesStep implements ComputationStep {
         .setProjectUuid(fileSourcesContext.context.getProject().uuid())
         .setFileUuid(component.getUuid())
         .setDataType(Type.SOURCE)
-        .setBinaryData(data)
-        .setSrcHash(srcHash)
-        .setDataHash(dataHash)
-        .setLineHashes(lineHashes)
+        .setBinaryData(fileSource.data)
+        .setSrcHash(fileSource.srcHash)
+        .setDataHash(fileSource.dataHash)
+        .setLineHashes(fileSource.lineHashes)
         .setCreatedAt(system2.now())
         .setUpdatedAt(system2.now());
       dbClient.fileSourceDao().insert(fileSourcesContext.session, dto);
-      fileSourcesContext.session.commit();
     } else {
       // Update only if data_hash has changed or if src_hash is missing (progressive migration)
-      boolean binaryDataUpdated = !dataHash.equals(previousDto.getDataHash());
-      boolean srcHashUpdated = !srcHash.equals(previousDto.getSrcHash());
+      boolean binaryDataUpdated = !fileSource.dataHash.equals(previousDto.getDataHash());
+      boolean srcHashUpdated = !fileSource.srcHash.equals(previousDto.getSrcHash());
       if (binaryDataUpdated || srcHashUpdated) {
         previousDto
-          .setBinaryData(data)
-          .setDataHash(dataHash)
-          .setSrcHash(srcHash)
-          .setLineHashes(lineHashes);
+          .setBinaryData(fileSource.data)
+          .setDataHash(fileSource.dataHash)
+          .setSrcHash(fileSource.srcHash)
+          .setLineHashes(fileSource.lineHashes);
         // Optimization only change updated at when updating binary data to avoid unnecessary indexation by E/S
         if (binaryDataUpdated) {
           previousDto.setUpdatedAt(system2.now());
         }
-        dbClient.fileSourceDao().update(previousDto);
-        fileSourcesContext.session.commit();
+        dbClient.fileSourceDao().update(fileSourcesContext.session, previousDto);
       }
     }
   }
@@ -178,27 +255,46 @@ public class PersistFileSourcesStep implements ComputationStep {
     }
   }
 
+  /**
+   * Source data of a file, ready to be persisted
+   */
+  private static class EncodedFileSource {
+    final BatchReport.Component component;
+    final byte[] data;
+    final String dataHash;
+    final String srcHash;
+    final String lineHashes;
+
+    EncodedFileSource(BatchReport.Component component, ComputeFileSourceData.Data fileSourceData) {
+      this.component = component;
+      this.data = FileSourceDto.encodeSourceData(fileSourceData.getFileSourceData());
+      this.dataHash = DigestUtils.md5Hex(data);
+      this.srcHash = fileSourceData.getSrcHash();
+      this.lineHashes = fileSourceData.getLineHashes();
+    }
+  }
+
   private static class LineReaders {
     private final List<LineReader> readers = new ArrayList<>();
     private final List<ReportIterator> iterators = new ArrayList<>();
 
     LineReaders(BatchReportReader reportReader, int componentRef) {
-      File coverageFile = reportReader.readComponentCoverage(componentRef);
+      InputStream coverageStream = reportReader.openComponentCoverage(componentRef);
       BatchReport.Changesets scmReport = reportReader.readChangesets(componentRef);
-      File highlightingFile = reportReader.readComponentSyntaxHighlighting(componentRef);
+      InputStream highlightingStream = reportReader.openComponentSyntaxHighlighting(componentRef);
       List<BatchReport.Symbols.Symbol> symbols = reportReader.readComponentSymbols(componentRef);
       List<BatchReport.Duplication> duplications = reportReader.readComponentDuplications(componentRef);
 
-      if (coverageFile != null) {
-        ReportIterator<BatchReport.Coverage> coverageReportIterator = new ReportIterator<>(coverageFile, BatchReport.Coverage.PARSER);
+      if (coverageStream != null) {
+        ReportIterator<BatchReport.Coverage> coverageReportIterator = new ReportIterator<>(coverageStream, BatchReport.Coverage.PARSER);
         iterators.add(coverageReportIterator);
         readers.add(new CoverageLineReader(coverageReportIterator));
       }
       if (scmReport != null) {
         readers.add(new ScmLineReader(scmReport));
       }
-      if (highlightingFile != null) {
-        ReportIterator<BatchReport.SyntaxHighlighting> syntaxHighlightingReportIterator = new ReportIterator<>(highlightingFile, BatchReport.SyntaxHighlighting.PARSER);
+      if (highlightingStream != null) {
+        ReportIterator<BatchReport.SyntaxHighlighting> syntaxHighlightingReportIterator = new ReportIterator<>(highlightingStream, BatchReport.SyntaxHighlighting.PARSER);
         iterators.add(syntaxHighlightingReportIterator);
         readers.add(new HighlightingLineReader(syntaxHighlightingReportIterator));
       }
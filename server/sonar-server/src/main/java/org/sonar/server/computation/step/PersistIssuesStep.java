@@ -63,7 +63,8 @@ public class PersistIssuesStep implements ComputationStep {
     IssueMapper mapper = session.getMapper(IssueMapper.class);
     IssueChangeMapper changeMapper = session.getMapper(IssueChangeMapper.class);
 
-    CloseableIterator<DefaultIssue> issues = issueCache.traverse();
+    // issues which are neither new nor changed are not decoded
+    CloseableIterator<DefaultIssue> issues = issueCache.traverseNewOrChanged();
     try {
       while (issues.hasNext()) {
         DefaultIssue issue = issues.next();
@@ -21,15 +21,17 @@
 package org.sonar.server.computation.step;
 
 import com.google.common.annotations.VisibleForTesting;
+import org.sonar.api.config.Settings;
 import org.sonar.api.measures.CoreMetrics;
 import org.sonar.api.resources.Qualifiers;
 import org.sonar.api.rule.RuleKey;
 import org.sonar.batch.protocol.output.BatchReport;
-import org.sonar.batch.protocol.output.BatchReportReader;
 import org.sonar.core.measure.db.MeasureDto;
 import org.sonar.core.persistence.DbSession;
 import org.sonar.server.computation.ComputationContext;
+import org.sonar.server.computation.component.ComponentVisitor;
 import org.sonar.server.computation.issue.RuleCache;
+import org.sonar.server.computation.measure.BulkMeasureWriter;
 import org.sonar.server.computation.measure.MetricCache;
 import org.sonar.server.db.DbClient;
 
@@ -39,21 +41,28 @@ import java.util.List;
 
 import static com.google.common.collect.Lists.newArrayList;
 
-public class PersistMeasuresStep implements ComputationStep {
+public class PersistMeasuresStep extends ComponentVisitorStep {
 
   /**
    * List of metrics that should not be received from the report, as they should only by fed by the compute engine
    */
   private static final List<String> FORBIDDEN_METRIC_KEYS = newArrayList(CoreMetrics.DUPLICATIONS_DATA_KEY);
 
-  private final DbClient dbClient;
+  /**
+   * Number of measures sent to database in each JDBC batch
+   */
+  public static final String BATCH_SIZE_PROPERTY = "sonar.computation.measures.batchSize";
+
   private final RuleCache ruleCache;
   private final MetricCache metricCache;
+  private final int batchSize;
 
-  public PersistMeasuresStep(DbClient dbClient, RuleCache ruleCache, MetricCache metricCache) {
-    this.dbClient = dbClient;
+  public PersistMeasuresStep(DbClient dbClient, RuleCache ruleCache, MetricCache metricCache, Settings settings) {
+    super(dbClient);
     this.ruleCache = ruleCache;
     this.metricCache = metricCache;
+    int size = settings.getInt(BATCH_SIZE_PROPERTY);
+    this.batchSize = size > 0 ? size : BulkMeasureWriter.DEFAULT_CHUNK_SIZE;
   }
 
   @Override
@@ -67,30 +76,32 @@ public class PersistMeasuresStep implements ComputationStep {
   }
 
   @Override
-  public void execute(ComputationContext context) {
-    int rootComponentRef = context.getReportMetadata().getRootComponentRef();
-    try (DbSession dbSession = dbClient.openSession(true)) {
-      recursivelyProcessComponent(dbSession, context, rootComponentRef);
-      dbSession.commit();
-    }
-  }
+  public ComponentVisitor newVisitor(final ComputationContext context, DbSession session) {
+    final BulkMeasureWriter writer = new BulkMeasureWriter(session.getConnection(), batchSize);
+    return new ComponentVisitor() {
+      @Override
+      public void visit(BatchReport.Component component) {
+        persistMeasures(writer, context.getReportReader().readComponentMeasures(component.getRef()), component);
+      }
 
-  private void recursivelyProcessComponent(DbSession dbSession, ComputationContext context, int componentRef) {
-    BatchReportReader reportReader = context.getReportReader();
-    BatchReport.Component component = reportReader.readComponent(componentRef);
-    List<BatchReport.Measure> measures = reportReader.readComponentMeasures(componentRef);
-    persistMeasures(dbSession, measures, component);
-    for (Integer childRef : component.getChildRefList()) {
-      recursivelyProcessComponent(dbSession, context, childRef);
-    }
+      @Override
+      public void afterVisit() {
+        writer.flush();
+      }
+
+      @Override
+      public void close() {
+        writer.close();
+      }
+    };
   }
 
-  private void persistMeasures(DbSession dbSession, List<BatchReport.Measure> batchReportMeasures, final BatchReport.Component component) {
+  private void persistMeasures(BulkMeasureWriter writer, List<BatchReport.Measure> batchReportMeasures, BatchReport.Component component) {
     for (BatchReport.Measure measure : batchReportMeasures) {
       if (FORBIDDEN_METRIC_KEYS.contains(measure.getMetricKey())) {
         throw new IllegalStateException(String.format("Measures on metric '%s' cannot be send in the report", measure.getMetricKey()));
       }
-      dbClient.measureDao().insert(dbSession, toMeasureDto(measure, component));
+      writer.add(toMeasureDto(measure, component));
     }
   }
 
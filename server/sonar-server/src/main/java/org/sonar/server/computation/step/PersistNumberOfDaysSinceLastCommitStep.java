@@ -24,11 +24,10 @@ import org.sonar.api.measures.CoreMetrics;
 import org.sonar.api.resources.Qualifiers;
 import org.sonar.api.utils.System2;
 import org.sonar.batch.protocol.output.BatchReport;
-import org.sonar.batch.protocol.output.BatchReportReader;
 import org.sonar.core.measure.db.MeasureDto;
 import org.sonar.core.persistence.DbSession;
-import org.sonar.core.persistence.MyBatis;
 import org.sonar.server.computation.ComputationContext;
+import org.sonar.server.computation.component.ComponentVisitor;
 import org.sonar.server.computation.measure.MetricCache;
 import org.sonar.server.db.DbClient;
 import org.sonar.server.source.index.SourceLineIndex;
@@ -41,7 +40,7 @@ import java.util.Date;
 import static com.google.common.base.Objects.firstNonNull;
 import static com.google.common.base.Preconditions.checkState;
 
-public class PersistNumberOfDaysSinceLastCommitStep implements ComputationStep {
+public class PersistNumberOfDaysSinceLastCommitStep extends ComponentVisitorStep {
 
   private static final long MILLISECONDS_PER_DAY = 1000 * 60 * 60 * 24L;
 
@@ -50,9 +49,8 @@ public class PersistNumberOfDaysSinceLastCommitStep implements ComputationStep {
   private final MetricCache metricCache;
   private final System2 system;
 
-  private long lastCommitTimestamp = 0L;
-
   public PersistNumberOfDaysSinceLastCommitStep(System2 system, DbClient dbClient, SourceLineIndex sourceLineIndex, MetricCache metricCache) {
+    super(dbClient);
     this.dbClient = dbClient;
     this.sourceLineIndex = sourceLineIndex;
     this.metricCache = metricCache;
@@ -70,66 +68,67 @@ public class PersistNumberOfDaysSinceLastCommitStep implements ComputationStep {
   }
 
   @Override
-  public void execute(ComputationContext context) {
-    int rootComponentRef = context.getReportMetadata().getRootComponentRef();
-    recursivelyProcessComponent(context, rootComponentRef);
+  public ComponentVisitor newVisitor(ComputationContext context, DbSession session) {
+    return new LastCommitVisitor(context, session);
+  }
+
+  private class LastCommitVisitor extends ComponentVisitor {
+    private final ComputationContext context;
+    private final DbSession session;
+    private long lastCommitTimestamp = 0L;
 
-    if (!commitFound()) {
-      Long lastCommitFromIndex = lastCommitFromIndex(context.getProject().uuid());
-      lastCommitTimestamp = firstNonNull(lastCommitFromIndex, lastCommitTimestamp);
+    LastCommitVisitor(ComputationContext context, DbSession session) {
+      this.context = context;
+      this.session = session;
     }
 
-    if (commitFound()) {
-      persistNumberOfDaysSinceLastCommit(context);
+    @Override
+    public void visit(BatchReport.Component component) {
+      processScm(context.getReportReader().readChangesets(component.getRef()));
     }
-  }
 
-  private void recursivelyProcessComponent(ComputationContext context, int componentRef) {
-    BatchReportReader reportReader = context.getReportReader();
-    BatchReport.Component component = reportReader.readComponent(componentRef);
-    BatchReport.Changesets scm = reportReader.readChangesets(componentRef);
-    processScm(scm);
+    @Override
+    public void afterVisit() {
+      if (!commitFound()) {
+        Long lastCommitFromIndex = lastCommitFromIndex(context.getProject().uuid());
+        lastCommitTimestamp = firstNonNull(lastCommitFromIndex, lastCommitTimestamp);
+      }
 
-    for (Integer childRef : component.getChildRefList()) {
-      recursivelyProcessComponent(context, childRef);
+      if (commitFound()) {
+        persistNumberOfDaysSinceLastCommit();
+      }
     }
-  }
 
-  private void processScm(@Nullable BatchReport.Changesets scm) {
-    if (scm == null) {
-      return;
-    }
+    private void processScm(@Nullable BatchReport.Changesets scm) {
+      if (scm == null) {
+        return;
+      }
 
-    for (BatchReport.Changesets.Changeset changeset : scm.getChangesetList()) {
-      if (changeset.hasDate() && changeset.getDate() > lastCommitTimestamp) {
-        lastCommitTimestamp = changeset.getDate();
+      for (BatchReport.Changesets.Changeset changeset : scm.getChangesetList()) {
+        if (changeset.hasDate() && changeset.getDate() > lastCommitTimestamp) {
+          lastCommitTimestamp = changeset.getDate();
+        }
       }
     }
-  }
-
-  @CheckForNull
-  private Long lastCommitFromIndex(String projectUuid) {
-    Date lastCommitDate = sourceLineIndex.lastCommitDateOnProject(projectUuid);
-    return lastCommitDate == null ? null : lastCommitDate.getTime();
-  }
 
-  private void persistNumberOfDaysSinceLastCommit(ComputationContext context) {
-    checkState(commitFound(), "The last commit time should exist");
+    private void persistNumberOfDaysSinceLastCommit() {
+      checkState(commitFound(), "The last commit time should exist");
 
-    long numberOfDaysSinceLastCommit = (system.now() - lastCommitTimestamp) / MILLISECONDS_PER_DAY;
-    DbSession dbSession = dbClient.openSession(true);
-    try {
-      dbClient.measureDao().insert(dbSession, new MeasureDto()
+      long numberOfDaysSinceLastCommit = (system.now() - lastCommitTimestamp) / MILLISECONDS_PER_DAY;
+      dbClient.measureDao().insert(session, new MeasureDto()
         .setValue((double) numberOfDaysSinceLastCommit)
         .setMetricId(metricCache.get(CoreMetrics.DAYS_SINCE_LAST_COMMIT_KEY).getId())
         .setSnapshotId(context.getReportMetadata().getSnapshotId()));
-      dbSession.commit();
-    } finally {
-      MyBatis.closeQuietly(dbSession);
+    }
+
+    private boolean commitFound() {
+      return lastCommitTimestamp != 0L;
     }
   }
 
-  private boolean commitFound() {
-    return lastCommitTimestamp != 0L;
+  @CheckForNull
+  private Long lastCommitFromIndex(String projectUuid) {
+    Date lastCommitDate = sourceLineIndex.lastCommitDateOnProject(projectUuid);
+    return lastCommitDate == null ? null : lastCommitDate.getTime();
   }
 }
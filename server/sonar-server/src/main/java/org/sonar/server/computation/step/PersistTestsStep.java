@@ -36,15 +36,15 @@ import org.sonar.api.utils.log.Loggers;
 import org.sonar.batch.protocol.output.BatchReport;
 import org.sonar.batch.protocol.output.BatchReportReader;
 import org.sonar.core.persistence.DbSession;
-import org.sonar.core.persistence.MyBatis;
 import org.sonar.core.source.db.FileSourceDto;
 import org.sonar.core.source.db.FileSourceDto.Type;
 import org.sonar.server.computation.ComputationContext;
+import org.sonar.server.computation.component.ComponentVisitor;
 import org.sonar.server.computation.source.ReportIterator;
 import org.sonar.server.db.DbClient;
 import org.sonar.server.source.db.FileSourceDb;
 
-import java.io.File;
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
@@ -53,7 +53,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
-public class PersistTestsStep implements ComputationStep {
+public class PersistTestsStep extends ComponentVisitorStep {
 
   private static final Logger LOG = Loggers.get(PersistTestsStep.class);
 
@@ -61,6 +61,7 @@ public class PersistTestsStep implements ComputationStep {
   private final System2 system;
 
   public PersistTestsStep(DbClient dbClient, System2 system) {
+    super(dbClient);
     this.dbClient = dbClient;
     this.system = system;
   }
@@ -71,32 +72,23 @@ public class PersistTestsStep implements ComputationStep {
   }
 
   @Override
-  public void execute(ComputationContext computationContext) {
-    DbSession session = dbClient.openSession(true);
-    try {
-      int rootComponentRef = computationContext.getReportMetadata().getRootComponentRef();
-      TestContext context = new TestContext(computationContext, session);
-
-      recursivelyProcessComponent(context, rootComponentRef);
-      session.commit();
-      if (context.hasUnprocessedCoverageDetails) {
-        LOG.warn("Some coverage tests are not taken into account during analysis of project '{}'", computationContext.getProject().getKey());
+  public ComponentVisitor newVisitor(final ComputationContext computationContext, DbSession session) {
+    final TestContext context = new TestContext(computationContext, session);
+    return new ComponentVisitor() {
+      @Override
+      public void visit(BatchReport.Component component) {
+        if (component.getIsTest()) {
+          persistTestResults(component, context);
+        }
       }
-    } finally {
-      MyBatis.closeQuietly(session);
-    }
-  }
 
-  private void recursivelyProcessComponent(TestContext context, int componentRef) {
-    BatchReportReader reportReader = context.reader;
-    BatchReport.Component component = reportReader.readComponent(componentRef);
-    if (component.getIsTest()) {
-      persistTestResults(component, context);
-    }
-
-    for (Integer childRef : component.getChildRefList()) {
-      recursivelyProcessComponent(context, childRef);
-    }
+      @Override
+      public void afterVisit() {
+        if (context.hasUnprocessedCoverageDetails) {
+          LOG.warn("Some coverage tests are not taken into account during analysis of project '{}'", computationContext.getProject().getKey());
+        }
+      }
+    };
   }
 
   private void persistTestResults(BatchReport.Component component, TestContext context) {
@@ -162,11 +154,11 @@ public class PersistTestsStep implements ComputationStep {
 
   private Multimap<String, FileSourceDb.Test.Builder> buildDbTests(TestContext context, BatchReport.Component component) {
     Multimap<String, FileSourceDb.Test.Builder> tests = ArrayListMultimap.create();
-    File testsFile = context.reader.readTests(component.getRef());
-    if (testsFile == null) {
+    InputStream testsStream = context.reader.openTests(component.getRef());
+    if (testsStream == null) {
       return tests;
     }
-    ReportIterator<BatchReport.Test> testIterator = new ReportIterator<>(testsFile, BatchReport.Test.PARSER);
+    ReportIterator<BatchReport.Test> testIterator = new ReportIterator<>(testsStream, BatchReport.Test.PARSER);
     try {
       while (testIterator.hasNext()) {
         BatchReport.Test batchTest = testIterator.next();
@@ -200,12 +192,12 @@ public class PersistTestsStep implements ComputationStep {
    */
   private Table<String, String, FileSourceDb.Test.CoveredFile.Builder> loadCoverageDetails(int testFileRef, TestContext context) {
     Table<String, String, FileSourceDb.Test.CoveredFile.Builder> nameToCoveredFiles = HashBasedTable.create();
-    File coverageDetailsFile = context.reader.readCoverageDetails(testFileRef);
-    if (coverageDetailsFile == null) {
+    InputStream coverageDetailsStream = context.reader.openCoverageDetails(testFileRef);
+    if (coverageDetailsStream == null) {
       return nameToCoveredFiles;
     }
 
-    ReportIterator<BatchReport.CoverageDetail> coverageIterator = new ReportIterator<>(coverageDetailsFile, BatchReport.CoverageDetail.PARSER);
+    ReportIterator<BatchReport.CoverageDetail> coverageIterator = new ReportIterator<>(coverageDetailsStream, BatchReport.CoverageDetail.PARSER);
     try {
       while (coverageIterator.hasNext()) {
         BatchReport.CoverageDetail batchCoverageDetail = coverageIterator.next();
@@ -241,7 +233,6 @@ public class PersistTestsStep implements ComputationStep {
     final DbSession session;
     final ComputationContext context;
     final BatchReportReader reader;
-    final ComponentUuidsCache componentRefToUuidCache;
     final Map<String, FileSourceDto> existingFileSourcesByUuid;
     boolean hasUnprocessedCoverageDetails = false;
 
@@ -249,7 +240,6 @@ public class PersistTestsStep implements ComputationStep {
       this.session = session;
       this.context = context;
       this.reader = context.getReportReader();
-      this.componentRefToUuidCache = new ComponentUuidsCache(context.getReportReader());
       this.existingFileSourcesByUuid = new HashMap<>();
       session.select("org.sonar.core.source.db.FileSourceMapper.selectHashesForProject",
         ImmutableMap.of("projectUuid", context.getProject().uuid(), "dataType", Type.TEST),
@@ -263,7 +253,7 @@ public class PersistTestsStep implements ComputationStep {
     }
 
     public String getUuid(int fileRef) {
-      return componentRefToUuidCache.getUuidFromRef(fileRef);
+      return context.getComponentTree().get(fileRef).getUuid();
     }
   }
 }
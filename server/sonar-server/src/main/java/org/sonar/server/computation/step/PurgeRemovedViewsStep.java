@@ -24,6 +24,7 @@ import com.google.common.collect.Sets;
 import org.sonar.api.resources.Qualifiers;
 import org.sonar.core.persistence.DbSession;
 import org.sonar.server.computation.ComputationContext;
+import org.sonar.server.computation.IndexationQueue;
 import org.sonar.server.db.DbClient;
 import org.sonar.server.view.index.ViewIndex;
 
@@ -41,10 +42,12 @@ public class PurgeRemovedViewsStep implements ComputationStep {
 
   private final DbClient dbClient;
   private final ViewIndex index;
+  private final IndexationQueue indexationQueue;
 
-  public PurgeRemovedViewsStep(ViewIndex index, DbClient dbClient) {
+  public PurgeRemovedViewsStep(ViewIndex index, DbClient dbClient, IndexationQueue indexationQueue) {
     this.index = index;
     this.dbClient = dbClient;
+    this.indexationQueue = indexationQueue;
   }
 
   @Override
@@ -54,6 +57,8 @@ public class PurgeRemovedViewsStep implements ComputationStep {
 
   @Override
   public void execute(ComputationContext context) {
+    // views are indexed in background by IndexViewsStep
+    indexationQueue.flush(context.getProject().uuid());
     DbSession session = dbClient.openSession(false);
     try {
       Set<String> viewUuidsInIndex = newHashSet(index.findAllViewUuids());
@@ -71,7 +71,8 @@ public class SendIssueNotificationsStep implements ComputationStep {
 
   private void doExecute(ComputationContext context) {
     NewIssuesStatistics newIssuesStats = new NewIssuesStatistics();
-    CloseableIterator<DefaultIssue> issues = issueCache.traverse();
+    // notifications are sent only for new or changed issues, other issues are not decoded
+    CloseableIterator<DefaultIssue> issues = issueCache.traverseNewOrChanged();
     try {
       while (issues.hasNext()) {
         DefaultIssue issue = issues.next();
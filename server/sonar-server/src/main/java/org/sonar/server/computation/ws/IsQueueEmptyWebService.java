@@ -26,6 +26,7 @@ import org.sonar.api.server.ws.RequestHandler;
 import org.sonar.api.server.ws.Response;
 import org.sonar.api.server.ws.WebService;
 import org.sonar.core.computation.db.AnalysisReportDto;
+import org.sonar.server.computation.IndexationQueue;
 import org.sonar.server.computation.ReportQueue;
 
 import java.util.List;
@@ -38,8 +39,8 @@ public class IsQueueEmptyWebService implements WebService {
 
   private final IsQueueEmptyWsAction action;
 
-  public IsQueueEmptyWebService(ReportQueue queue) {
-    this.action = new IsQueueEmptyWsAction(queue);
+  public IsQueueEmptyWebService(ReportQueue queue, IndexationQueue indexationQueue) {
+    this.action = new IsQueueEmptyWsAction(queue, indexationQueue);
   }
 
   @Override
@@ -53,15 +54,17 @@ public class IsQueueEmptyWebService implements WebService {
 
   static class IsQueueEmptyWsAction implements RequestHandler {
     private final ReportQueue queue;
+    private final IndexationQueue indexationQueue;
 
-    public IsQueueEmptyWsAction(ReportQueue queue) {
+    public IsQueueEmptyWsAction(ReportQueue queue, IndexationQueue indexationQueue) {
       this.queue = queue;
+      this.indexationQueue = indexationQueue;
     }
 
     public void define(WebService.NewController controller) {
       controller
         .createAction("is_queue_empty")
-        .setDescription("Check if the analysis report queue is empty")
+        .setDescription("Check if the analysis report queue is empty, including the background indexation of processed reports")
         .setInternal(true)
         .setHandler(this);
     }
@@ -69,7 +72,7 @@ public class IsQueueEmptyWebService implements WebService {
     @Override
     public void handle(Request request, Response response) throws Exception {
       List<AnalysisReportDto> reports = queue.all();
-      boolean isQueueEmpty = reports.isEmpty();
+      boolean isQueueEmpty = reports.isEmpty() && indexationQueue.pendingTaskCount() == 0;
 
       IOUtils.write(String.valueOf(isQueueEmpty), response.stream().output());
     }
@@ -26,6 +26,7 @@ import org.sonar.api.server.ws.Response;
 import org.sonar.api.server.ws.WebService;
 import org.sonar.api.utils.text.JsonWriter;
 import org.sonar.core.computation.db.AnalysisReportDto;
+import org.sonar.server.computation.ComputationWorkers;
 import org.sonar.server.computation.ReportQueue;
 
 import java.util.List;
@@ -37,16 +38,18 @@ import static org.sonar.api.utils.DateUtils.longToDate;
  */
 public class QueueWsAction implements ComputationWsAction, RequestHandler {
   private final ReportQueue queue;
+  private final ComputationWorkers workers;
 
-  public QueueWsAction(ReportQueue queue) {
+  public QueueWsAction(ReportQueue queue, ComputationWorkers workers) {
     this.queue = queue;
+    this.workers = workers;
   }
 
   @Override
   public void define(WebService.NewController controller) {
     controller
       .createAction("queue")
-      .setDescription("List all the active analysis reports")
+      .setDescription("List all the active analysis reports and the state of the computation workers")
       .setSince("5.0")
       .setInternal(true)
       .setHandler(this);
@@ -58,6 +61,7 @@ public class QueueWsAction implements ComputationWsAction, RequestHandler {
 
     JsonWriter json = response.newJsonWriter().beginObject();
     writeReports(reports, json);
+    writeWorkers(json);
     json.endObject();
     json.close();
   }
@@ -78,4 +82,21 @@ public class QueueWsAction implements ComputationWsAction, RequestHandler {
     json.endArray();
   }
 
+  private void writeWorkers(JsonWriter json) {
+    json.prop("meanWaitTimeMs", workers.meanWaitTimeMs());
+    json.prop("maxWaitTimeMs", workers.maxWaitTimeMs());
+    json.name("workers").beginArray();
+    for (ComputationWorkers.Worker worker : workers.workers()) {
+      json.beginObject();
+      json.prop("name", worker.getName());
+      json.prop("status", worker.isWorking() ? "WORKING" : "IDLE");
+      if (worker.isWorking()) {
+        json.prop("reportKey", String.valueOf(worker.getReportId()));
+        json.prop("projectKey", worker.getProjectKey());
+        json.propDateTime("startedAt", longToDate(worker.getStartedAt()));
+      }
+      json.endObject();
+    }
+    json.endArray();
+  }
 }
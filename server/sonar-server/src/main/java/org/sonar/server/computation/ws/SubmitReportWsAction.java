@@ -37,6 +37,7 @@ public class SubmitReportWsAction implements ComputationWsAction, RequestHandler
   public static final String ACTION = "submit_report";
   public static final String PARAM_PROJECT_KEY = "projectKey";
   public static final String PARAM_REPORT_DATA = "report";
+  public static final String PARAM_REPORT_MD5 = "reportMd5";
 
   private final ReportQueue queue;
   private final ComputationThreadLauncher workerLauncher;
@@ -64,6 +65,11 @@ public class SubmitReportWsAction implements ComputationWsAction, RequestHandler
       .createParam(PARAM_REPORT_DATA)
       .setRequired(true)
       .setDescription("Report file. Format is not an API, it changes among SonarQube versions.");
+
+    action
+      .createParam(PARAM_REPORT_MD5)
+      .setDescription("Since 5.2. MD5 hash of report file. Report is rejected if the data received do not match.")
+      .setExampleValue("d41d8cd98f00b204e9800998ecf8427e");
   }
 
   @Override
@@ -72,7 +78,7 @@ public class SubmitReportWsAction implements ComputationWsAction, RequestHandler
     String projectKey = request.mandatoryParam(PARAM_PROJECT_KEY);
     InputStream reportData = request.paramAsInputStream(PARAM_REPORT_DATA);
     try {
-      ReportQueue.Item item = queue.add(projectKey, reportData);
+      ReportQueue.Item item = queue.add(projectKey, reportData, request.param(PARAM_REPORT_MD5));
       workerLauncher.startAnalysisTaskNow();
       response.newJsonWriter()
         .beginObject()
@@ -21,6 +21,7 @@ package org.sonar.server.es;
 
 import com.google.common.base.Preconditions;
 import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import org.elasticsearch.action.ActionListener;
 import org.elasticsearch.action.ActionRequest;
 import org.elasticsearch.action.admin.indices.settings.get.GetSettingsResponse;
@@ -35,14 +36,19 @@ import org.elasticsearch.cluster.metadata.IndexMetaData;
 import org.elasticsearch.common.unit.ByteSizeUnit;
 import org.elasticsearch.common.unit.ByteSizeValue;
 import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.common.util.concurrent.EsRejectedExecutionException;
+import org.elasticsearch.rest.RestStatus;
 import org.elasticsearch.search.SearchHit;
 import org.picocontainer.Startable;
 import org.sonar.api.utils.log.Logger;
 import org.sonar.api.utils.log.Loggers;
 import org.sonar.server.util.ProgressLogger;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
-import java.util.concurrent.Semaphore;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -52,6 +58,8 @@ import java.util.concurrent.atomic.AtomicLong;
  *   <li>bulk request is sent on the wire when its size is higher than 5Mb</li>
  *   <li>on large table indexing, replicas and automatic refresh can be temporarily disabled</li>
  *   <li>index refresh is optional (enabled by default)</li>
+ *   <li>in adaptive mode, bulk size and concurrency are tuned according to latency and rejections, see {@link BulkSizing}</li>
+ *   <li>requests rejected by Elasticsearch are retried with exponential backoff</li>
  * </ul>
  */
 public class BulkIndexer implements Startable {
@@ -60,18 +68,29 @@ public class BulkIndexer implements Startable {
   private static final long FLUSH_BYTE_SIZE = new ByteSizeValue(1, ByteSizeUnit.MB).bytes();
   private static final String REFRESH_INTERVAL_SETTING = "index.refresh_interval";
   private static final String ALREADY_STARTED_MESSAGE = "Bulk indexing is already started";
+  static final int MAX_RETRIES = 5;
+  static final long INITIAL_BACKOFF_MS = 100L;
 
   private final EsClient client;
   private final String indexName;
   private boolean large = false;
+  private Boolean adaptive = null;
   private long flushByteSize = FLUSH_BYTE_SIZE;
   private boolean disableRefresh = false;
   private BulkRequestBuilder bulkRequest = null;
   private Map<String, Object> largeInitialSettings = null;
   private final AtomicLong counter = new AtomicLong(0L);
+  private final AtomicLong sentBytes = new AtomicLong(0L);
   private final int concurrentRequests;
-  private final Semaphore semaphore;
+  private BulkSizing sizing = null;
   private final ProgressLogger progress;
+  private long startedAt;
+
+  // in-flight bulk requests and scheduled retries, guarded by lock
+  private final Object lock = new Object();
+  private int inFlightRequests = 0;
+  private int scheduledRetries = 0;
+  private ScheduledExecutorService retryExecutor = null;
 
   public BulkIndexer(EsClient client, String indexName) {
     this.client = client;
@@ -80,12 +99,12 @@ public class BulkIndexer implements Startable {
       .setPluralLabel("requests");
 
     this.concurrentRequests = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
-    this.semaphore = new Semaphore(concurrentRequests);
   }
 
   /**
    * Large indexing is an heavy operation that populates an index generally from scratch. Replicas and
    * automatic refresh are disabled during bulk indexing and lucene segments are optimized at the end.
+   * Adaptive mode is enabled, unless {@link #setAdaptive(boolean)} is explicitly called.
    */
   public BulkIndexer setLarge(boolean b) {
     Preconditions.checkState(bulkRequest == null, ALREADY_STARTED_MESSAGE);
@@ -93,6 +112,24 @@ public class BulkIndexer implements Startable {
     return this;
   }
 
+  /**
+   * Adapts size of bulks and number of concurrent requests to the latency of Elasticsearch
+   * and to rejections. The value set by {@link #setFlushByteSize(long)} is the initial size.
+   */
+  public BulkIndexer setAdaptive(boolean b) {
+    Preconditions.checkState(bulkRequest == null, ALREADY_STARTED_MESSAGE);
+    this.adaptive = b;
+    return this;
+  }
+
+  /**
+   * Expected number of documents, used to log progress and remaining time
+   */
+  public BulkIndexer setEstimatedTotal(long total) {
+    progress.setTotal(total);
+    return this;
+  }
+
   public BulkIndexer setFlushByteSize(long flushByteSize) {
     this.flushByteSize = flushByteSize;
     return this;
@@ -129,18 +166,33 @@ public class BulkIndexer implements Startable {
 
       updateSettings(bulkSettings);
     }
+    boolean isAdaptive = adaptive != null ? adaptive : large;
+    sizing = isAdaptive ? new BulkSizing(flushByteSize, concurrentRequests, Runtime.getRuntime().availableProcessors()) : null;
     bulkRequest = client.prepareBulk().setRefresh(false);
     counter.set(0L);
+    sentBytes.set(0L);
+    startedAt = System.currentTimeMillis();
     progress.start();
   }
 
-  public void add(ActionRequest request) {
+  /**
+   * Can be called concurrently by several threads
+   */
+  public synchronized void add(ActionRequest request) {
     bulkRequest.request().add(request);
-    if (bulkRequest.request().estimatedSizeInBytes() >= flushByteSize) {
+    if (bulkRequest.request().estimatedSizeInBytes() >= currentFlushByteSize()) {
       executeBulk();
     }
   }
 
+  private long currentFlushByteSize() {
+    return sizing != null ? sizing.flushByteSize() : flushByteSize;
+  }
+
+  private int currentConcurrentRequests() {
+    return sizing != null ? sizing.concurrency() : concurrentRequests;
+  }
+
   public void addDeletion(SearchRequestBuilder searchRequest) {
     searchRequest
       .setScroll(TimeValue.timeValueMinutes(5))
@@ -151,7 +203,7 @@ public class BulkIndexer implements Startable {
 
     // this search is synchronous. An optimization would be to be non-blocking,
     // but it requires to tracking pending requests in close().
-    // Same semaphore can't be reused because of potential deadlock (requires to acquire
+    // Limit of in-flight requests can't be used because of potential deadlock (requires to acquire
     // two locks)
     SearchResponse searchResponse = searchRequest.get();
 
@@ -181,18 +233,14 @@ public class BulkIndexer implements Startable {
   }
 
   @Override
-  public void stop() {
+  public synchronized void stop() {
     if (bulkRequest.numberOfActions() > 0) {
       executeBulk();
     }
-    try {
-      if (semaphore.tryAcquire(concurrentRequests, 10, TimeUnit.MINUTES)) {
-        semaphore.release(concurrentRequests);
-      }
-    } catch (InterruptedException e) {
-      throw new IllegalStateException("Elasticsearch bulk requests still being executed after 10 minutes", e);
-    }
+    waitForPendingRequests();
+    shutdownRetries();
     progress.stop();
+    logThroughput();
 
     if (!disableRefresh) {
       client.prepareRefresh(indexName).get();
@@ -217,37 +265,191 @@ public class BulkIndexer implements Startable {
   private void executeBulk() {
     final BulkRequestBuilder req = this.bulkRequest;
     this.bulkRequest = client.prepareBulk().setRefresh(false);
-    semaphore.acquireUninterruptibly();
-    req.execute(new BulkResponseActionListener(req));
+    execute(req, 0);
+  }
+
+  private void execute(BulkRequestBuilder req, int attempt) {
+    acquireRequest();
+    long bytes = req.request().estimatedSizeInBytes();
+    sentBytes.addAndGet(bytes);
+    req.execute(new BulkResponseActionListener(req, attempt, System.currentTimeMillis()));
+  }
+
+  private void acquireRequest() {
+    synchronized (lock) {
+      boolean interrupted = false;
+      while (inFlightRequests >= currentConcurrentRequests()) {
+        try {
+          lock.wait();
+        } catch (InterruptedException e) {
+          interrupted = true;
+        }
+      }
+      inFlightRequests++;
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  private void releaseRequest() {
+    synchronized (lock) {
+      inFlightRequests--;
+      lock.notifyAll();
+    }
+  }
+
+  private void waitForPendingRequests() {
+    long deadline = System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(10);
+    synchronized (lock) {
+      while (inFlightRequests > 0 || scheduledRetries > 0) {
+        long remaining = deadline - System.currentTimeMillis();
+        if (remaining <= 0L) {
+          LOGGER.warn("Elasticsearch bulk requests still being executed after 10 minutes");
+          return;
+        }
+        try {
+          lock.wait(remaining);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new IllegalStateException("Elasticsearch bulk requests still being executed after 10 minutes", e);
+        }
+      }
+    }
+  }
+
+  /**
+   * Rejected requests are sent again after a delay, which is doubled at each attempt
+   */
+  private void scheduleRetry(final List<ActionRequest<?>> requests, final int attempt) {
+    ScheduledExecutorService executor;
+    synchronized (lock) {
+      if (retryExecutor == null) {
+        retryExecutor = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+          .setNameFormat("BulkIndexer[" + indexName + "]-retry").setDaemon(true).build());
+      }
+      executor = retryExecutor;
+      scheduledRetries++;
+    }
+    executor.schedule(new Runnable() {
+      @Override
+      public void run() {
+        try {
+          BulkRequestBuilder retry = client.prepareBulk().setRefresh(false);
+          for (ActionRequest<?> request : requests) {
+            retry.request().add(request);
+          }
+          execute(retry, attempt);
+        } finally {
+          synchronized (lock) {
+            scheduledRetries--;
+            lock.notifyAll();
+          }
+        }
+      }
+    }, INITIAL_BACKOFF_MS << (attempt - 1), TimeUnit.MILLISECONDS);
+  }
+
+  private void shutdownRetries() {
+    synchronized (lock) {
+      if (retryExecutor != null) {
+        retryExecutor.shutdown();
+        retryExecutor = null;
+      }
+    }
+  }
+
+  private void logThroughput() {
+    long durationMs = Math.max(1L, System.currentTimeMillis() - startedAt);
+    long docs = counter.get();
+    double megaBytes = sentBytes.get() / (1024.0 * 1024.0);
+    String message = String.format("%s: %d documents indexed in %d ms (%d docs/second, %.1f MB/second)",
+      indexName, docs, durationMs, 1000L * docs / durationMs, 1000.0 * megaBytes / durationMs);
+    if (sizing != null) {
+      message += String.format(", final bulk size %d KB, %d concurrent requests", sizing.flushByteSize() / 1024L, sizing.concurrency());
+    }
+    if (large) {
+      LOGGER.info(message);
+    } else {
+      LOGGER.debug(message);
+    }
+  }
+
+  private static boolean isRejection(Throwable e) {
+    Throwable cause = e;
+    while (cause != null) {
+      if (cause instanceof EsRejectedExecutionException) {
+        return true;
+      }
+      cause = cause.getCause();
+    }
+    return false;
   }
 
   private class BulkResponseActionListener implements ActionListener<BulkResponse> {
     private final BulkRequestBuilder req;
+    private final int attempt;
+    private final long sentAt;
 
-    public BulkResponseActionListener(BulkRequestBuilder req) {
+    public BulkResponseActionListener(BulkRequestBuilder req, int attempt, long sentAt) {
       this.req = req;
+      this.attempt = attempt;
+      this.sentAt = sentAt;
     }
 
     @Override
     public void onResponse(BulkResponse response) {
-      semaphore.release();
-      counter.addAndGet(response.getItems().length);
-
-      for (BulkItemResponse item : response.getItems()) {
-        if (item.isFailed()) {
-          StringBuilder sb = new StringBuilder();
-          String msg = sb
-            .append("index [").append(item.getIndex()).append("], type [").append(item.getType()).append("], id [").append(item.getId())
-            .append("], message [").append(item.getFailureMessage()).append("]").toString();
-          LOGGER.error(msg);
+      try {
+        List<ActionRequest<?>> rejected = new ArrayList<>();
+        for (BulkItemResponse item : response.getItems()) {
+          if (item.isFailed()) {
+            if (item.getFailure().getStatus() == RestStatus.TOO_MANY_REQUESTS && attempt < MAX_RETRIES) {
+              rejected.add(req.request().requests().get(item.getItemId()));
+            } else {
+              StringBuilder sb = new StringBuilder();
+              String msg = sb
+                .append("index [").append(item.getIndex()).append("], type [").append(item.getType()).append("], id [").append(item.getId())
+                .append("], message [").append(item.getFailureMessage()).append("]").toString();
+              LOGGER.error(msg);
+            }
+          }
         }
+        counter.addAndGet(response.getItems().length - rejected.size());
+        if (rejected.isEmpty()) {
+          if (sizing != null) {
+            sizing.onSuccess(System.currentTimeMillis() - sentAt);
+          }
+        } else {
+          onRejection(rejected);
+        }
+      } finally {
+        releaseRequest();
       }
     }
 
     @Override
     public void onFailure(Throwable e) {
-      semaphore.release();
-      LOGGER.error("Fail to execute bulk index request: " + req, e);
+      try {
+        if (isRejection(e) && attempt < MAX_RETRIES) {
+          List<ActionRequest<?>> rejected = new ArrayList<>();
+          for (ActionRequest<?> request : req.request().requests()) {
+            rejected.add(request);
+          }
+          onRejection(rejected);
+        } else {
+          LOGGER.error("Fail to execute bulk index request: " + req, e);
+        }
+      } finally {
+        releaseRequest();
+      }
+    }
+
+    private void onRejection(List<ActionRequest<?>> requests) {
+      if (sizing != null) {
+        sizing.onRejection();
+      }
+      LOGGER.debug(String.format("%d requests rejected by Elasticsearch, attempt %d", requests.size(), attempt + 1));
+      scheduleRetry(requests, attempt + 1);
     }
   }
 }
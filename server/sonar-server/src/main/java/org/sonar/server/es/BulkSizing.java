@@ -0,0 +1,89 @@
+/*
+ * SonarQube, open source software quality management tool.
+ * Copyright (C) 2008-2014 SonarSource
+ * mailto:contact AT sonarsource DOT com
+ *
+ * SonarQube is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * SonarQube is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.server.es;
+
+import com.google.common.annotations.VisibleForTesting;
+
+/**
+ * Adapts the size of bulk requests and the number of concurrent requests to the feedback of
+ * Elasticsearch, with an additive-increase/multiplicative-decrease policy :
+ * <ul>
+ *   <li>bulk size is halved when latency exceeds the target, and increased by steps when latency is low</li>
+ *   <li>concurrency is halved when requests are rejected, and increased by one after some fast bulks</li>
+ * </ul>
+ */
+class BulkSizing {
+
+  static final long MIN_BYTE_SIZE = 256L * 1024L;
+  static final long MAX_BYTE_SIZE = 16L * 1024L * 1024L;
+  static final long BYTE_SIZE_INCREMENT = 256L * 1024L;
+  static final long TARGET_LATENCY_MS = 1000L;
+  static final int FAST_BULKS_BEFORE_MORE_CONCURRENCY = 4;
+
+  private final int maxConcurrency;
+  private long flushByteSize;
+  private int concurrency;
+  private int consecutiveFastBulks = 0;
+
+  BulkSizing(long initialByteSize, int initialConcurrency, int maxConcurrency) {
+    this.maxConcurrency = Math.max(1, maxConcurrency);
+    this.flushByteSize = bound(initialByteSize, MIN_BYTE_SIZE, MAX_BYTE_SIZE);
+    this.concurrency = (int) bound(initialConcurrency, 1, this.maxConcurrency);
+  }
+
+  synchronized void onSuccess(long latencyMs) {
+    if (latencyMs > TARGET_LATENCY_MS) {
+      flushByteSize = Math.max(MIN_BYTE_SIZE, flushByteSize / 2);
+      consecutiveFastBulks = 0;
+    } else if (latencyMs < TARGET_LATENCY_MS / 2) {
+      flushByteSize = Math.min(MAX_BYTE_SIZE, flushByteSize + BYTE_SIZE_INCREMENT);
+      consecutiveFastBulks++;
+      if (consecutiveFastBulks >= FAST_BULKS_BEFORE_MORE_CONCURRENCY) {
+        concurrency = Math.min(maxConcurrency, concurrency + 1);
+        consecutiveFastBulks = 0;
+      }
+    }
+  }
+
+  /**
+   * Elasticsearch rejected some requests because its bulk queue is full
+   */
+  synchronized void onRejection() {
+    concurrency = Math.max(1, concurrency / 2);
+    consecutiveFastBulks = 0;
+  }
+
+  synchronized long flushByteSize() {
+    return flushByteSize;
+  }
+
+  synchronized int concurrency() {
+    return concurrency;
+  }
+
+  @VisibleForTesting
+  int maxConcurrency() {
+    return maxConcurrency;
+  }
+
+  private static long bound(long value, long min, long max) {
+    return Math.max(min, Math.min(max, value));
+  }
+}
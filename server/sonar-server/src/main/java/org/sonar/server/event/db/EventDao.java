@@ -38,6 +38,13 @@ public class EventDao implements ServerComponent, DaoComponent {
     session.getMapper(EventMapper.class).insert(dto);
   }
 
+  /**
+   * Same as {@link #insert(DbSession, EventDto)} but compatible with batch sessions. The id of the event is not set.
+   */
+  public void batchInsert(DbSession session, EventDto dto) {
+    session.getMapper(EventMapper.class).batchInsert(dto);
+  }
+
   public void delete(DbSession session, Long id) {
     session.getMapper(EventMapper.class).delete(id);
   }
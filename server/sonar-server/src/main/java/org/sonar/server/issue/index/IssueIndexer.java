@@ -19,6 +19,7 @@
  */
 package org.sonar.server.issue.index;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import org.apache.commons.dbutils.DbUtils;
 import org.elasticsearch.action.search.SearchRequestBuilder;
 import org.elasticsearch.action.update.UpdateRequest;
@@ -31,11 +32,31 @@ import org.sonar.server.es.BulkIndexer;
 import org.sonar.server.es.EsClient;
 
 import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static com.google.common.base.Preconditions.checkArgument;
 
 public class IssueIndexer extends BaseIndexer {
 
+  private static final String SQL_COUNT_BY_PROJECT = "select project_uuid, count(*) from issues group by project_uuid";
+
   private final DbClient dbClient;
+  private volatile int threads = 1;
 
   public IssueIndexer(DbClient dbClient, EsClient esClient) {
     super(esClient, 300, IssueIndexDefinition.INDEX, IssueIndexDefinition.TYPE_ISSUE, IssueIndexDefinition.FIELD_ISSUE_TECHNICAL_UPDATED_AT);
@@ -51,6 +72,17 @@ public class IssueIndexer extends BaseIndexer {
     doIndex(createBulkIndexer(true), 0L);
   }
 
+  /**
+   * Number of threads used when indexing all the issues, for example after a reset of the index.
+   * Issues are then read project by project, each thread using its own database connection.
+   * Default is 1.
+   */
+  public IssueIndexer setThreads(int threads) {
+    checkArgument(threads > 0, "Number of threads must be strictly positive: %s", threads);
+    this.threads = threads;
+    return this;
+  }
+
   /**
    * For benchmarks
    */
@@ -59,6 +91,9 @@ public class IssueIndexer extends BaseIndexer {
   }
 
   private long doIndex(BulkIndexer bulk, long lastUpdatedAt) {
+    if (lastUpdatedAt == 0L && threads > 1) {
+      return doIndexByProject(bulk);
+    }
     DbSession dbSession = dbClient.openSession(false);
     Connection dbConnection = dbSession.getConnection();
     long maxDate;
@@ -88,6 +123,137 @@ public class IssueIndexer extends BaseIndexer {
     return maxDate;
   }
 
+  private long doIndexByProject(BulkIndexer bulk) {
+    Map<String, Long> countByProject = countIssuesByProject();
+    // rows without project are read in a dedicated pass, as the queue of projects does not accept null
+    boolean hasIssuesWithoutProject = countByProject.containsKey(null);
+    countByProject.remove(null);
+    long total = 0L;
+    for (Long count : countByProject.values()) {
+      total += count;
+    }
+    // biggest projects first, so that they don't delay the end of indexing
+    List<Map.Entry<String, Long>> projects = new ArrayList<>(countByProject.entrySet());
+    Collections.sort(projects, new Comparator<Map.Entry<String, Long>>() {
+      @Override
+      public int compare(Map.Entry<String, Long> e1, Map.Entry<String, Long> e2) {
+        return e2.getValue().compareTo(e1.getValue());
+      }
+    });
+    final ConcurrentLinkedQueue<String> projectUuids = new ConcurrentLinkedQueue<>();
+    for (Map.Entry<String, Long> project : projects) {
+      projectUuids.add(project.getKey());
+    }
+
+    bulk.setEstimatedTotal(total);
+    bulk.start();
+    int threadCount = Math.max(1, Math.min(threads, projectUuids.size()));
+    ExecutorService executor = Executors.newFixedThreadPool(threadCount,
+      new ThreadFactoryBuilder().setNameFormat("IssueIndexer-%d").build());
+    try {
+      List<Future<Long>> futures = new ArrayList<>();
+      for (int i = 0; i < threadCount; i++) {
+        futures.add(executor.submit(new ProjectsIndexer(bulk, projectUuids)));
+      }
+      long maxDate = 0L;
+      if (hasIssuesWithoutProject) {
+        maxDate = indexIssuesWithoutProject(bulk);
+      }
+      for (Future<Long> future : futures) {
+        maxDate = Math.max(maxDate, future.get());
+      }
+      return maxDate;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while indexing issues", e);
+    } catch (ExecutionException e) {
+      throw new IllegalStateException("Fail to index issues", e.getCause());
+    } finally {
+      executor.shutdownNow();
+      bulk.stop();
+    }
+  }
+
+  private Map<String, Long> countIssuesByProject() {
+    DbSession dbSession = dbClient.openSession(false);
+    Connection dbConnection = dbSession.getConnection();
+    PreparedStatement stmt = null;
+    ResultSet rs = null;
+    try {
+      Map<String, Long> result = new LinkedHashMap<>();
+      stmt = dbConnection.prepareStatement(SQL_COUNT_BY_PROJECT);
+      rs = stmt.executeQuery();
+      while (rs.next()) {
+        result.put(rs.getString(1), rs.getLong(2));
+      }
+      return result;
+    } catch (SQLException e) {
+      throw new IllegalStateException("Fail to count issues by project", e);
+    } finally {
+      DbUtils.closeQuietly(dbConnection, stmt, rs);
+      dbSession.close();
+    }
+  }
+
+  private long indexIssuesWithoutProject(BulkIndexer bulk) {
+    DbSession dbSession = dbClient.openSession(false);
+    Connection dbConnection = dbSession.getConnection();
+    try {
+      return index(bulk, IssueResultSetIterator.createWithoutProject(dbClient, dbConnection));
+    } finally {
+      DbUtils.closeQuietly(dbConnection);
+      dbSession.close();
+    }
+  }
+
+  /**
+   * Closes the iterator
+   */
+  private long index(BulkIndexer bulk, IssueResultSetIterator rowIt) {
+    long maxDate = 0L;
+    try {
+      while (rowIt.hasNext()) {
+        IssueDoc issue = rowIt.next();
+        bulk.add(newUpsertRequest(issue));
+        maxDate = Math.max(maxDate, issue.getTechnicalUpdateDate().getTime());
+      }
+      return maxDate;
+    } finally {
+      rowIt.close();
+    }
+  }
+
+  /**
+   * Indexes the issues of projects until the queue is empty
+   */
+  private class ProjectsIndexer implements Callable<Long> {
+    private final BulkIndexer bulk;
+    private final ConcurrentLinkedQueue<String> projectUuids;
+
+    ProjectsIndexer(BulkIndexer bulk, ConcurrentLinkedQueue<String> projectUuids) {
+      this.bulk = bulk;
+      this.projectUuids = projectUuids;
+    }
+
+    @Override
+    public Long call() {
+      long maxDate = 0L;
+      DbSession dbSession = dbClient.openSession(false);
+      Connection dbConnection = dbSession.getConnection();
+      try {
+        String projectUuid = projectUuids.poll();
+        while (projectUuid != null && !Thread.currentThread().isInterrupted()) {
+          maxDate = Math.max(maxDate, index(bulk, IssueResultSetIterator.createForProject(dbClient, dbConnection, projectUuid)));
+          projectUuid = projectUuids.poll();
+        }
+        return maxDate;
+      } finally {
+        DbUtils.closeQuietly(dbConnection);
+        dbSession.close();
+      }
+    }
+  }
+
   public void deleteProject(String uuid, boolean refresh) {
     BulkIndexer bulk = new BulkIndexer(esClient, IssueIndexDefinition.INDEX);
     bulk.setDisableRefresh(!refresh);
@@ -92,6 +92,10 @@ class IssueResultSetIterator extends ResultSetIterator<IssueDoc> {
 
   private static final String SQL_AFTER_DATE = SQL_ALL + " where i.updated_at>?";
 
+  private static final String SQL_PROJECT = SQL_ALL + " where i.project_uuid=?";
+
+  private static final String SQL_WITHOUT_PROJECT = SQL_ALL + " where i.project_uuid is null";
+
   private static final Splitter TAGS_SPLITTER = Splitter.on(',').trimResults().omitEmptyStrings();
 
   private static final Splitter MODULE_PATH_SPLITTER = Splitter.on('.').trimResults().omitEmptyStrings();
@@ -113,6 +117,30 @@ class IssueResultSetIterator extends ResultSetIterator<IssueDoc> {
     }
   }
 
+  /**
+   * All the issues of the given project
+   */
+  static IssueResultSetIterator createForProject(DbClient dbClient, Connection connection, String projectUuid) {
+    try {
+      PreparedStatement stmt = dbClient.newScrollingSelectStatement(connection, SQL_PROJECT);
+      stmt.setString(1, projectUuid);
+      return new IssueResultSetIterator(stmt);
+    } catch (SQLException e) {
+      throw new IllegalStateException("Fail to prepare SQL request to select issues of project " + projectUuid, e);
+    }
+  }
+
+  /**
+   * Issues that are not grouped by {@link #createForProject(DbClient, Connection, String)}
+   */
+  static IssueResultSetIterator createWithoutProject(DbClient dbClient, Connection connection) {
+    try {
+      return new IssueResultSetIterator(dbClient.newScrollingSelectStatement(connection, SQL_WITHOUT_PROJECT));
+    } catch (SQLException e) {
+      throw new IllegalStateException("Fail to prepare SQL request to select issues without project", e);
+    }
+  }
+
   @CheckForNull
   private static String extractDirPath(@Nullable String filePath, String scope) {
     if (filePath != null) {
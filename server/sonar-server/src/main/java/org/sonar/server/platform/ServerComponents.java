@@ -111,6 +111,8 @@ import org.sonar.server.component.ws.EventsWs;
 import org.sonar.server.component.ws.ProjectsWs;
 import org.sonar.server.component.ws.ResourcesWs;
 import org.sonar.server.computation.ComputationThreadLauncher;
+import org.sonar.server.computation.ComputationWorkers;
+import org.sonar.server.computation.IndexationQueue;
 import org.sonar.server.computation.ReportQueue;
 import org.sonar.server.computation.ReportQueueCleaner;
 import org.sonar.server.computation.db.AnalysisReportDao;
@@ -206,6 +208,8 @@ import org.sonar.server.permission.InternalPermissionService;
 import org.sonar.server.permission.InternalPermissionTemplateService;
 import org.sonar.server.permission.PermissionFinder;
 import org.sonar.server.permission.ws.PermissionsWs;
+import org.sonar.server.platform.monitoring.CacheMonitor;
+import org.sonar.server.platform.monitoring.ComputationMonitor;
 import org.sonar.server.platform.monitoring.DatabaseMonitor;
 import org.sonar.server.platform.monitoring.EsMonitor;
 import org.sonar.server.platform.monitoring.JvmPropertiesMonitor;
@@ -392,6 +396,7 @@ import org.sonar.server.util.StringListTypeValidation;
 import org.sonar.server.util.StringTypeValidation;
 import org.sonar.server.util.TextTypeValidation;
 import org.sonar.server.util.TypeValidations;
+import org.sonar.server.util.cache.CacheStatistics;
 import org.sonar.server.view.index.ViewIndex;
 import org.sonar.server.view.index.ViewIndexDefinition;
 import org.sonar.server.view.index.ViewIndexer;
@@ -934,7 +939,9 @@ class ServerComponents {
       EsMonitor.class,
       PluginsMonitor.class,
       JvmPropertiesMonitor.class,
-      DatabaseMonitor.class
+      DatabaseMonitor.class,
+      ComputationMonitor.class,
+      CacheMonitor.class
       ));
 
     // Plugins WS
@@ -952,6 +959,9 @@ class ServerComponents {
 
     // Compute engine
     pico.addSingleton(ReportQueue.class);
+    pico.addSingleton(ComputationWorkers.class);
+    pico.addSingleton(IndexationQueue.class);
+    pico.addSingleton(CacheStatistics.class);
     pico.addSingleton(ComputationThreadLauncher.class);
     pico.addSingleton(ComputationWebService.class);
     pico.addSingleton(IsQueueEmptyWebService.class);
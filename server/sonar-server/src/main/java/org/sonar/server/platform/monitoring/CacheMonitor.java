@@ -0,0 +1,110 @@
+/*
+ * SonarQube, open source software quality management tool.
+ * Copyright (C) 2008-2014 SonarSource
+ * mailto:contact AT sonarsource DOT com
+ *
+ * SonarQube is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * SonarQube is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.server.platform.monitoring;
+
+import org.sonar.server.util.cache.CacheStatistics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Statistics of the in-memory caches used by compute engine, for example the cache of rules
+ */
+public class CacheMonitor extends BaseMonitorMBean implements CacheMonitorMBean {
+
+  private final CacheStatistics statistics;
+
+  public CacheMonitor(CacheStatistics statistics) {
+    this.statistics = statistics;
+  }
+
+  @Override
+  public String name() {
+    return "Compute Engine Caches";
+  }
+
+  @Override
+  public long getHitCount() {
+    long count = 0L;
+    for (CacheStatistics.Counters counters : statistics.all().values()) {
+      count += counters.hitCount();
+    }
+    return count;
+  }
+
+  @Override
+  public long getMissCount() {
+    long count = 0L;
+    for (CacheStatistics.Counters counters : statistics.all().values()) {
+      count += counters.missCount();
+    }
+    return count;
+  }
+
+  @Override
+  public double getHitRatePercent() {
+    long hits = getHitCount();
+    long requests = hits + getMissCount();
+    return requests == 0L ? 100.0 : 100.0 * hits / requests;
+  }
+
+  @Override
+  public long getLoadCount() {
+    long count = 0L;
+    for (CacheStatistics.Counters counters : statistics.all().values()) {
+      count += counters.loadCount();
+    }
+    return count;
+  }
+
+  @Override
+  public long getTotalLoadTimeMillis() {
+    long time = 0L;
+    for (CacheStatistics.Counters counters : statistics.all().values()) {
+      time += counters.totalLoadTimeMillis();
+    }
+    return time;
+  }
+
+  @Override
+  public long getEvictionCount() {
+    long count = 0L;
+    for (CacheStatistics.Counters counters : statistics.all().values()) {
+      count += counters.evictionCount();
+    }
+    return count;
+  }
+
+  @Override
+  public LinkedHashMap<String, Object> attributes() {
+    LinkedHashMap<String, Object> attributes = new LinkedHashMap<>();
+    for (Map.Entry<String, CacheStatistics.Counters> entry : statistics.all().entrySet()) {
+      String name = entry.getKey();
+      CacheStatistics.Counters counters = entry.getValue();
+      attributes.put(name + " Hits", counters.hitCount());
+      attributes.put(name + " Misses", counters.missCount());
+      attributes.put(name + " Hit Rate (%)", Math.round(100.0 * counters.hitRate()));
+      attributes.put(name + " Loads", counters.loadCount());
+      attributes.put(name + " Load Time (ms)", counters.totalLoadTimeMillis());
+      attributes.put(name + " Evictions", counters.evictionCount());
+    }
+    return attributes;
+  }
+}
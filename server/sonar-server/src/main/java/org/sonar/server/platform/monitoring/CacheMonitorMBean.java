@@ -0,0 +1,53 @@
+/*
+ * SonarQube, open source software quality management tool.
+ * Copyright (C) 2008-2014 SonarSource
+ * mailto:contact AT sonarsource DOT com
+ *
+ * SonarQube is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * SonarQube is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.server.platform.monitoring;
+
+public interface CacheMonitorMBean {
+
+  /**
+   * Number of requests of the in-memory caches of compute engine that did not require loading, since server startup
+   */
+  long getHitCount();
+
+  /**
+   * Number of requests of the in-memory caches of compute engine that required loading, since server startup
+   */
+  long getMissCount();
+
+  /**
+   * Percentage of requests that did not require loading, between 0 and 100
+   */
+  double getHitRatePercent();
+
+  /**
+   * Number of calls to loaders, since server startup
+   */
+  long getLoadCount();
+
+  /**
+   * Total duration in milliseconds of calls to loaders, since server startup
+   */
+  long getTotalLoadTimeMillis();
+
+  /**
+   * Number of entries removed because of size limit or expiration, since server startup
+   */
+  long getEvictionCount();
+}
@@ -0,0 +1,140 @@
+/*
+ * SonarQube, open source software quality management tool.
+ * Copyright (C) 2008-2014 SonarSource
+ * mailto:contact AT sonarsource DOT com
+ *
+ * SonarQube is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * SonarQube is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package org.sonar.server.platform.monitoring;
+
+import org.sonar.core.computation.db.AnalysisReportDto;
+import org.sonar.server.computation.ComputationThreadLauncher;
+import org.sonar.server.computation.ComputationWorkers;
+import org.sonar.server.computation.IndexationQueue;
+import org.sonar.server.computation.ReportQueue;
+
+import java.util.LinkedHashMap;
+
+/**
+ * Information about the queue of analysis reports, the computation workers and the background indexation
+ */
+public class ComputationMonitor extends BaseMonitorMBean implements ComputationMonitorMBean {
+
+  private final ReportQueue queue;
+  private final ComputationWorkers workers;
+  private final ComputationThreadLauncher launcher;
+  private final IndexationQueue indexationQueue;
+
+  public ComputationMonitor(ReportQueue queue, ComputationWorkers workers, ComputationThreadLauncher launcher, IndexationQueue indexationQueue) {
+    this.queue = queue;
+    this.workers = workers;
+    this.launcher = launcher;
+    this.indexationQueue = indexationQueue;
+  }
+
+  @Override
+  public String name() {
+    return "Compute Engine";
+  }
+
+  @Override
+  public int getPendingReportCount() {
+    return countReports(AnalysisReportDto.Status.PENDING);
+  }
+
+  @Override
+  public int getInProgressReportCount() {
+    return countReports(AnalysisReportDto.Status.WORKING);
+  }
+
+  private int countReports(AnalysisReportDto.Status status) {
+    int count = 0;
+    for (AnalysisReportDto report : queue.all()) {
+      if (report.getStatus() == status) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  @Override
+  public int getWorkerCount() {
+    return launcher.workerCount();
+  }
+
+  @Override
+  public int getActiveWorkerCount() {
+    return workers.activeWorkerCount();
+  }
+
+  @Override
+  public long getProcessedReportCount() {
+    return workers.processedReportCount();
+  }
+
+  @Override
+  public long getMeanWaitTimeMillis() {
+    return workers.meanWaitTimeMs();
+  }
+
+  @Override
+  public long getMaxWaitTimeMillis() {
+    return workers.maxWaitTimeMs();
+  }
+
+  @Override
+  public int getPendingIndexationCount() {
+    return indexationQueue.pendingTaskCount();
+  }
+
+  @Override
+  public long getFailedIndexationCount() {
+    return indexationQueue.failedTaskCount();
+  }
+
+  @Override
+  public long getIndexationLagMillis() {
+    return indexationQueue.currentLagMs();
+  }
+
+  @Override
+  public long getMeanIndexationLagMillis() {
+    return indexationQueue.meanLagMs();
+  }
+
+  @Override
+  public long getMaxIndexationLagMillis() {
+    return indexationQueue.maxLagMs();
+  }
+
+  @Override
+  public LinkedHashMap<String, Object> attributes() {
+    LinkedHashMap<String, Object> attributes = new LinkedHashMap<>();
+    attributes.put("Pending Reports", getPendingReportCount());
+    attributes.put("In Progress Reports", getInProgressReportCount());
+    attributes.put("Workers", getWorkerCount());
+    attributes.put("Active Workers", getActiveWorkerCount());
+    attributes.put("Processed Reports", getProcessedReportCount());
+    attributes.put("Mean Wait Time (ms)", getMeanWaitTimeMillis());
+    attributes.put("Max Wait Time (ms)", getMaxWaitTimeMillis());
+    attributes.put("Pending Indexations", getPendingIndexationCount());
+    attributes.put("Failed Indexations", getFailedIndexationCount());
+    attributes.put("Indexation Lag (ms)", getIndexationLagMillis());
+    attributes.put("Mean Indexation Lag (ms)", getMeanIndexationLagMillis());
+    attributes.put("Max Indexation Lag (ms)", getMaxIndexationLagMillis());
+    return attributes;
+  }
+}
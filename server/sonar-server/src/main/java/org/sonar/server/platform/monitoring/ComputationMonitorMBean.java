@@ -0,0 +1,84 @@
+/*
+ * SonarQube, open source software quality management tool.
+ * Copyright (C) 2008-2014 SonarSource
+ * mailto:contact AT sonarsource DOT com
+ *
+ * SonarQube is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * SonarQube is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package org.sonar.server.platform.monitoring;
+
+public interface ComputationMonitorMBean {
+
+  /**
+   * Number of analysis reports waiting to be processed
+   */
+  int getPendingReportCount();
+
+  /**
+   * Number of analysis reports being processed
+   */
+  int getInProgressReportCount();
+
+  /**
+   * Size of the pool of computation workers, as defined by the property sonar.computation.workers
+   */
+  int getWorkerCount();
+
+  /**
+   * Number of workers currently processing a report
+   */
+  int getActiveWorkerCount();
+
+  /**
+   * Number of reports processed since server startup, whether they succeeded or not
+   */
+  long getProcessedReportCount();
+
+  /**
+   * Mean duration in milliseconds between the submission of a report and the beginning of its processing
+   */
+  long getMeanWaitTimeMillis();
+
+  /**
+   * Max duration in milliseconds between the submission of a report and the beginning of its processing
+   */
+  long getMaxWaitTimeMillis();
+
+  /**
+   * Number of indexations of processed reports that are waiting to be applied
+   */
+  int getPendingIndexationCount();
+
+  /**
+   * Number of indexations that failed since server startup
+   */
+  long getFailedIndexationCount();
+
+  /**
+   * Age in milliseconds of the oldest pending indexation. Search results can be outdated by this duration.
+   */
+  long getIndexationLagMillis();
+
+  /**
+   * Mean duration in milliseconds between the end of the processing of a report and the end of its indexation
+   */
+  long getMeanIndexationLagMillis();
+
+  /**
+   * Max duration in milliseconds between the end of the processing of a report and the end of its indexation
+   */
+  long getMaxIndexationLagMillis();
+}
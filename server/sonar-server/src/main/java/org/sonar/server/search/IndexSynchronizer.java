@@ -19,7 +19,8 @@
  */
 package org.sonar.server.search;
 
-
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.sonar.api.config.Settings;
 import org.sonar.api.utils.log.Logger;
 import org.sonar.api.utils.log.Loggers;
 import org.sonar.core.persistence.DbSession;
@@ -34,10 +35,24 @@ import org.sonar.server.source.index.SourceLineIndexer;
 import org.sonar.server.user.index.UserIndexer;
 import org.sonar.server.view.index.ViewIndexer;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 public class IndexSynchronizer {
 
+  /**
+   * Number of threads used to populate indices at startup. Indices are populated concurrently, and
+   * issues are read project by project through several database connections.
+   */
+  public static final String THREADS_PROPERTY = "sonar.search.synchronization.threads";
+  static final int DEFAULT_THREADS = 1;
+
   private static final Logger LOG = Loggers.get(IndexSynchronizer.class);
 
   private final DbClient db;
@@ -48,6 +63,7 @@ public class IndexSynchronizer {
   private final UserIndexer userIndexer;
   private final ViewIndexer viewIndexer;
   private final ActivityIndexer activityIndexer;
+  private final int threads;
 
   /**
    * Limitation - {@link org.sonar.server.es.BaseIndexer} are not injected through an array or a collection
@@ -56,7 +72,7 @@ public class IndexSynchronizer {
    */
   public IndexSynchronizer(DbClient db, IndexClient index, SourceLineIndexer sourceLineIndexer,
                            IssueAuthorizationIndexer issueAuthorizationIndexer, IssueIndexer issueIndexer,
-                           UserIndexer userIndexer, ViewIndexer viewIndexer, ActivityIndexer activityIndexer) {
+                           UserIndexer userIndexer, ViewIndexer viewIndexer, ActivityIndexer activityIndexer, Settings settings) {
     this.db = db;
     this.index = index;
     this.sourceLineIndexer = sourceLineIndexer;
@@ -65,6 +81,7 @@ public class IndexSynchronizer {
     this.userIndexer = userIndexer;
     this.viewIndexer = viewIndexer;
     this.activityIndexer = activityIndexer;
+    this.threads = settings.hasKey(THREADS_PROPERTY) ? settings.getInt(THREADS_PROPERTY) : DEFAULT_THREADS;
   }
 
   public void executeDeprecated() {
@@ -79,21 +96,74 @@ public class IndexSynchronizer {
   }
 
   public void execute() {
-    LOG.info("Index activities");
-    activityIndexer.setEnabled(true).index();
-
-    LOG.info("Index issues");
-    issueAuthorizationIndexer.setEnabled(true).index();
-    issueIndexer.setEnabled(true).index();
-
-    LOG.info("Index source lines");
-    sourceLineIndexer.setEnabled(true).index();
+    List<Runnable> tasks = Arrays.asList(
+      new Runnable() {
+        @Override
+        public void run() {
+          LOG.info("Index activities");
+          activityIndexer.setEnabled(true).index();
+        }
+      },
+      new Runnable() {
+        @Override
+        public void run() {
+          LOG.info("Index issues");
+          // authorizations must be indexed before issues, which are child documents
+          issueAuthorizationIndexer.setEnabled(true).index();
+          issueIndexer.setThreads(Math.max(1, threads));
+          issueIndexer.setEnabled(true).index();
+        }
+      },
+      new Runnable() {
+        @Override
+        public void run() {
+          LOG.info("Index source lines");
+          sourceLineIndexer.setEnabled(true).index();
+        }
+      },
+      new Runnable() {
+        @Override
+        public void run() {
+          LOG.info("Index users");
+          userIndexer.setEnabled(true).index();
+        }
+      },
+      new Runnable() {
+        @Override
+        public void run() {
+          LOG.info("Index views");
+          viewIndexer.setEnabled(true).index();
+        }
+      });
 
-    LOG.info("Index users");
-    userIndexer.setEnabled(true).index();
+    if (threads <= 1) {
+      for (Runnable task : tasks) {
+        task.run();
+      }
+    } else {
+      executeConcurrently(tasks);
+    }
+  }
 
-    LOG.info("Index views");
-    viewIndexer.setEnabled(true).index();
+  private void executeConcurrently(List<Runnable> tasks) {
+    ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, tasks.size()),
+      new ThreadFactoryBuilder().setNameFormat("IndexSynchronizer-%d").build());
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (Runnable task : tasks) {
+        futures.add(executor.submit(task));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while populating indices", e);
+    } catch (ExecutionException e) {
+      throw new IllegalStateException("Fail to populate indices", e.getCause());
+    } finally {
+      executor.shutdownNow();
+    }
   }
 
   void synchronize(DbSession session, Dao dao, Index index) {
@@ -53,6 +53,7 @@ public class ProgressLogger {
    * Warning, does not check if already started.
    */
   public void start() {
+    task.startedAt = System.currentTimeMillis();
     // first log after {periodMs} milliseconds
     timer.schedule(task, periodMs, periodMs);
   }
@@ -86,6 +87,19 @@ public class ProgressLogger {
     return task.pluralLabel;
   }
 
+  /**
+   * Expected number of items. When greater than zero, the percentage of completion and
+   * the estimated remaining time are logged. Default is zero.
+   */
+  public ProgressLogger setTotal(long l) {
+    task.total = l;
+    return this;
+  }
+
+  public long getTotal() {
+    return task.total;
+  }
+
   public void log() {
     task.log();
   }
@@ -95,6 +109,8 @@ public class ProgressLogger {
     private final Logger logger;
     private String pluralLabel = "rows";
     private long previousCounter = 0L;
+    private volatile long total = 0L;
+    private volatile long startedAt = System.currentTimeMillis();
 
     private LoggerTimerTask(AtomicLong counter, Logger logger) {
       this.counter = counter;
@@ -108,8 +124,37 @@ public class ProgressLogger {
 
     private void log() {
       long current = counter.get();
-      logger.info(String.format("%d %s processed (%d items/sec)", current, pluralLabel, 1000 * (current-previousCounter) / periodMs));
+      String message = String.format("%d %s processed (%d items/sec)", current, pluralLabel, 1000 * (current-previousCounter) / periodMs);
+      if (total > 0L) {
+        message += eta(current);
+      }
+      logger.info(message);
       previousCounter = current;
     }
+
+    /**
+     * Remaining time is estimated from the mean rate since startup
+     */
+    private String eta(long current) {
+      long percents = Math.min(100L, 100L * current / total);
+      long elapsedMs = System.currentTimeMillis() - startedAt;
+      if (current <= 0L || current >= total || elapsedMs <= 0L) {
+        return String.format(", %d%% done", percents);
+      }
+      long remainingMs = (total - current) * elapsedMs / current;
+      return String.format(", %d%% done, ETA %s", percents, formatDuration(remainingMs));
+    }
+
+    private String formatDuration(long ms) {
+      long seconds = ms / 1000L;
+      if (seconds < 60L) {
+        return seconds + "s";
+      }
+      long minutes = seconds / 60L;
+      if (minutes < 60L) {
+        return String.format("%dmin %ds", minutes, seconds % 60L);
+      }
+      return String.format("%dh %dmin", minutes / 60L, minutes % 60L);
+    }
   }
 }
@@ -0,0 +1,123 @@
+/*
+ * SonarQube, open source software quality management tool.
+ * Copyright (C) 2008-2014 SonarSource
+ * mailto:contact AT sonarsource DOT com
+ *
+ * SonarQube is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * SonarQube is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.server.util.cache;
+
+import org.sonar.api.ServerComponent;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hit/miss/load counters of the instances of {@link MemoryCache}, grouped by name of cache. Counters
+ * are kept during the whole server life, even if the caches are created for a single analysis report.
+ */
+public class CacheStatistics implements ServerComponent {
+
+  private final ConcurrentMap<String, Counters> countersByName = new ConcurrentHashMap<>();
+
+  public Counters counters(String cacheName) {
+    Counters counters = countersByName.get(cacheName);
+    if (counters == null) {
+      Counters newCounters = new Counters();
+      counters = countersByName.putIfAbsent(cacheName, newCounters);
+      if (counters == null) {
+        counters = newCounters;
+      }
+    }
+    return counters;
+  }
+
+  /**
+   * Counters sorted by name of cache
+   */
+  public Map<String, Counters> all() {
+    Map<String, Counters> result = new LinkedHashMap<>();
+    for (String name : new TreeSet<>(countersByName.keySet())) {
+      result.put(name, countersByName.get(name));
+    }
+    return result;
+  }
+
+  public static class Counters {
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong loads = new AtomicLong();
+    private final AtomicLong loadTimeNanos = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    void hit(long count) {
+      hits.addAndGet(count);
+    }
+
+    void miss(long count) {
+      misses.addAndGet(count);
+    }
+
+    void load(long durationNanos) {
+      loads.incrementAndGet();
+      loadTimeNanos.addAndGet(durationNanos);
+    }
+
+    void eviction() {
+      evictions.incrementAndGet();
+    }
+
+    public long hitCount() {
+      return hits.get();
+    }
+
+    public long missCount() {
+      return misses.get();
+    }
+
+    /**
+     * Ratio of requests that did not require loading, between 0.0 and 1.0. It's 1.0 if
+     * the cache has not been requested yet.
+     */
+    public double hitRate() {
+      long hitCount = hits.get();
+      long requestCount = hitCount + misses.get();
+      return requestCount == 0L ? 1.0 : (double) hitCount / requestCount;
+    }
+
+    /**
+     * Number of calls to {@link CacheLoader}. A call to {@link CacheLoader#loadAll(java.util.Collection)}
+     * counts for one load.
+     */
+    public long loadCount() {
+      return loads.get();
+    }
+
+    public long totalLoadTimeMillis() {
+      return loadTimeNanos.get() / 1000000L;
+    }
+
+    /**
+     * Number of entries removed because of size limit or expiration
+     */
+    public long evictionCount() {
+      return evictions.get();
+    }
+  }
+}
@@ -19,38 +19,71 @@
  */
 package org.sonar.server.util.cache;
 
+import com.google.common.base.Preconditions;
+import org.sonar.api.config.Settings;
+import org.sonar.api.utils.System2;
 import org.sonar.server.exceptions.NotFoundException;
 
 import javax.annotation.CheckForNull;
+import javax.annotation.Nullable;
+
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
 
 /**
- * This in-memory cache relies on {@link org.sonar.server.util.cache.CacheLoader} to
- * load missing elements.
- * Warning - all searches are kept in memory, even when elements are not found.
+ * Thread-safe cache of values provided by a {@link CacheLoader}. Keys that are not found by the loader
+ * are cached too. By default the cache is unbounded. It can be limited by {@link Options#setMaxSize(int)},
+ * in which case the least recently used entries are evicted first, and by {@link Options#setExpireAfterAccess(long, TimeUnit)}.
+ * <p/>
+ * Concurrent requests of the same missing key are coalesced into a single call to {@link CacheLoader#load(Object)}.
  */
 public class MemoryCache<K, V> {
 
+  public static final String MAX_SIZE_PROPERTY = "sonar.computation.cache.maxSize";
+  public static final int DEFAULT_MAX_SIZE = 50000;
+  public static final String EXPIRE_AFTER_ACCESS_PROPERTY = "sonar.computation.cache.expireAfterAccessMinutes";
+
   private final CacheLoader<K, V> loader;
-  private final Map<K, V> map = new HashMap<>();
+  private final int maxSize;
+  private final long expireAfterAccessMs;
+  private final System2 system2;
+  private final CacheStatistics.Counters counters;
+
+  // access-ordered, so the first entries are the least recently used. Guarded by itself.
+  private final LinkedHashMap<K, Entry<V>> map = new LinkedHashMap<>(16, 0.75f, true);
+  // loads in progress, guarded by map
+  private final Map<K, FutureTask<V>> pendingLoads = new HashMap<>();
 
   public MemoryCache(CacheLoader<K, V> loader) {
+    this(loader, new Options());
+  }
+
+  public MemoryCache(CacheLoader<K, V> loader, Options options) {
     this.loader = loader;
+    this.maxSize = options.maxSize;
+    this.expireAfterAccessMs = options.expireAfterAccessMs;
+    this.system2 = options.system2;
+    this.counters = options.statistics != null ? options.statistics.counters(options.name) : new CacheStatistics.Counters();
   }
 
   @CheckForNull
   public V getNullable(K key) {
-    V value = map.get(key);
-    if (value == null) {
-      if (!map.containsKey(key)) {
-        value = loader.load(key);
-        map.put(key, value);
+    synchronized (map) {
+      Entry<V> entry = getEntry(key);
+      if (entry != null) {
+        counters.hit(1L);
+        return entry.value;
       }
     }
-    return value;
+    return load(key);
   }
 
   public V get(K key) {
@@ -68,22 +101,32 @@ public class MemoryCache<K, V> {
   public Map<K, V> getAll(Iterable<K> keys) {
     List<K> missingKeys = new ArrayList<>();
     Map<K, V> result = new HashMap<>();
-    for (K key : keys) {
-      V value = map.get(key);
-      if (value == null && !map.containsKey(key)) {
-        missingKeys.add(key);
-      } else {
-        result.put(key, value);
+    synchronized (map) {
+      for (K key : keys) {
+        Entry<V> entry = getEntry(key);
+        if (entry == null) {
+          missingKeys.add(key);
+        } else {
+          result.put(key, entry.value);
+        }
       }
     }
+    counters.hit(result.size());
+    counters.miss(missingKeys.size());
     if (!missingKeys.isEmpty()) {
+      long start = System.nanoTime();
       Map<K, V> missingValues = loader.loadAll(missingKeys);
-      map.putAll(missingValues);
-      result.putAll(missingValues);
-      for (K missingKey : missingKeys) {
-        if (!map.containsKey(missingKey)) {
-          map.put(missingKey, null);
-          result.put(missingKey, null);
+      counters.load(System.nanoTime() - start);
+      synchronized (map) {
+        for (Map.Entry<K, V> missingValue : missingValues.entrySet()) {
+          put(missingValue.getKey(), missingValue.getValue());
+        }
+        for (K missingKey : missingKeys) {
+          V value = missingValues.get(missingKey);
+          if (value == null) {
+            put(missingKey, null);
+          }
+          result.put(missingKey, value);
         }
       }
     }
@@ -91,6 +134,194 @@ public class MemoryCache<K, V> {
   }
 
   public void clear() {
-    map.clear();
+    synchronized (map) {
+      map.clear();
+    }
+  }
+
+  /**
+   * Number of cached entries, including the keys not found by loader
+   */
+  public int size() {
+    synchronized (map) {
+      return map.size();
+    }
+  }
+
+  public CacheStatistics.Counters statistics() {
+    return counters;
+  }
+
+  /**
+   * A miss is counted only if the key is loaded by this thread. Keys loaded or being loaded by another
+   * thread are counted as hits.
+   */
+  @CheckForNull
+  private V load(final K key) {
+    FutureTask<V> task;
+    boolean loadedByThisThread = false;
+    synchronized (map) {
+      // the key may have been loaded by another thread in the meantime
+      Entry<V> entry = getEntry(key);
+      if (entry != null) {
+        counters.hit(1L);
+        return entry.value;
+      }
+      task = pendingLoads.get(key);
+      if (task == null) {
+        task = new FutureTask<>(new Callable<V>() {
+          @Override
+          public V call() {
+            long start = System.nanoTime();
+            V value = loader.load(key);
+            counters.load(System.nanoTime() - start);
+            return value;
+          }
+        });
+        pendingLoads.put(key, task);
+        loadedByThisThread = true;
+      }
+    }
+    if (!loadedByThisThread) {
+      counters.hit(1L);
+      return waitFor(key, task);
+    }
+    counters.miss(1L);
+    task.run();
+    try {
+      V value = waitFor(key, task);
+      synchronized (map) {
+        put(key, value);
+      }
+      return value;
+    } finally {
+      synchronized (map) {
+        pendingLoads.remove(key);
+      }
+    }
+  }
+
+  @CheckForNull
+  private V waitFor(K key, FutureTask<V> task) {
+    try {
+      return task.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while loading " + key, e);
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw new IllegalStateException("Fail to load " + key, cause);
+    }
+  }
+
+  /**
+   * Must be called within a block synchronized on map
+   */
+  @CheckForNull
+  private Entry<V> getEntry(K key) {
+    Entry<V> entry = map.get(key);
+    if (entry != null) {
+      long now = system2.now();
+      if (isExpired(entry, now)) {
+        map.remove(key);
+        counters.eviction();
+        return null;
+      }
+      entry.accessedAt = now;
+    }
+    return entry;
+  }
+
+  /**
+   * Must be called within a block synchronized on map
+   */
+  private void put(K key, @Nullable V value) {
+    long now = system2.now();
+    map.put(key, new Entry<>(value, now));
+    Iterator<Entry<V>> eldest = map.values().iterator();
+    while (eldest.hasNext()) {
+      Entry<V> entry = eldest.next();
+      if ((maxSize > 0 && map.size() > maxSize) || isExpired(entry, now)) {
+        eldest.remove();
+        counters.eviction();
+      } else {
+        break;
+      }
+    }
+  }
+
+  private boolean isExpired(Entry<V> entry, long now) {
+    return expireAfterAccessMs > 0L && now - entry.accessedAt > expireAfterAccessMs;
+  }
+
+  private static class Entry<V> {
+    private final V value;
+    private long accessedAt;
+
+    Entry(@Nullable V value, long accessedAt) {
+      this.value = value;
+      this.accessedAt = accessedAt;
+    }
+  }
+
+  public static class Options {
+    private String name = "default";
+    private int maxSize = 0;
+    private long expireAfterAccessMs = 0L;
+    private CacheStatistics statistics = null;
+    private System2 system2 = System2.INSTANCE;
+
+    /**
+     * Options defined by the properties {@link #MAX_SIZE_PROPERTY} and {@link #EXPIRE_AFTER_ACCESS_PROPERTY}
+     */
+    public static Options fromSettings(Settings settings) {
+      Options options = new Options();
+      options.setMaxSize(settings.hasKey(MAX_SIZE_PROPERTY) ? settings.getInt(MAX_SIZE_PROPERTY) : DEFAULT_MAX_SIZE);
+      options.setExpireAfterAccess(settings.getLong(EXPIRE_AFTER_ACCESS_PROPERTY), TimeUnit.MINUTES);
+      return options;
+    }
+
+    /**
+     * Name used to group statistics
+     */
+    public Options setName(String name) {
+      this.name = name;
+      return this;
+    }
+
+    /**
+     * Maximum number of entries. Zero means unbounded.
+     */
+    public Options setMaxSize(int maxSize) {
+      Preconditions.checkArgument(maxSize >= 0, "Max size of cache must be positive or zero (got " + maxSize + ")");
+      this.maxSize = maxSize;
+      return this;
+    }
+
+    /**
+     * Entries are evicted when they are not read during the given duration. Zero means
+     * that entries never expire.
+     */
+    public Options setExpireAfterAccess(long duration, TimeUnit unit) {
+      Preconditions.checkArgument(duration >= 0L, "Expiration of cache must be positive or zero (got " + duration + ")");
+      this.expireAfterAccessMs = unit.toMillis(duration);
+      return this;
+    }
+
+    public Options setStatistics(@Nullable CacheStatistics statistics) {
+      this.statistics = statistics;
+      return this;
+    }
+
+    public Options setSystem2(System2 system2) {
+      this.system2 = system2;
+      return this;
+    }
   }
 }
@@ -20,6 +20,8 @@
 
 package org.sonar.server.batch;
 
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.lang.StringUtils;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -27,6 +29,7 @@ import org.junit.rules.ExpectedException;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
+import org.sonar.batch.protocol.input.GlobalRepositories;
 import org.sonar.core.measure.db.MetricDto;
 import org.sonar.core.permission.GlobalPermissions;
 import org.sonar.core.persistence.DbSession;
@@ -38,7 +41,11 @@ import org.sonar.server.measure.persistence.MetricDao;
 import org.sonar.server.user.MockUserSession;
 import org.sonar.server.ws.WsTester;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
 import static com.google.common.collect.Lists.newArrayList;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -93,6 +100,54 @@ public class GlobalRepositoryActionTest {
     request.execute().assertJson(getClass(), "return_global_settings.json");
   }
 
+  @Test
+  public void return_global_referentials_in_protobuf_format() throws Exception {
+    MockUserSession.set().setLogin("john").setGlobalPermissions(GlobalPermissions.SCAN_EXECUTION);
+
+    when(metricDao.selectEnabled(session)).thenReturn(newArrayList(
+      new MetricDto().setId(1).setKey("coverage").setDescription("Coverage by unit tests").setValueType("PERCENT").setQualitative(true)
+        .setWorstValue(0d).setBestValue(100d).setOptimizedBestValue(false).setDirection(1).setEnabled(true)
+      ));
+    when(propertiesDao.selectGlobalProperties(session)).thenReturn(newArrayList(
+      new PropertyDto().setKey("foo").setValue("bar")
+      ));
+
+    WsTester.TestRequest request = tester.newGetRequest("batch", "global").setParam("format", "protobuf");
+    GlobalRepositories ref = GlobalRepositories.readFrom(new ByteArrayInputStream(request.execute().output()));
+
+    assertThat(ref.metrics()).hasSize(1);
+    assertThat(ref.metrics().iterator().next().key()).isEqualTo("coverage");
+    assertThat(ref.globalSettings()).containsEntry("foo", "bar");
+  }
+
+  @Test
+  public void not_modified_if_hash_of_content_did_not_change() throws Exception {
+    MockUserSession.set().setLogin("john").setGlobalPermissions(GlobalPermissions.SCAN_EXECUTION);
+    when(propertiesDao.selectGlobalProperties(session)).thenReturn(newArrayList(
+      new PropertyDto().setKey("foo").setValue("bar")
+      ));
+    byte[] content = tester.newGetRequest("batch", "global").execute().output();
+
+    WsTester.Result result = tester.newGetRequest("batch", "global").setParam("hash", DigestUtils.md5Hex(content)).execute();
+
+    result.assertNotModified();
+    assertThat(result.output()).isEmpty();
+  }
+
+  @Test
+  public void content_larger_than_memory_buffer() throws Exception {
+    MockUserSession.set().setLogin("john").setGlobalPermissions(GlobalPermissions.SCAN_EXECUTION);
+    when(propertiesDao.selectGlobalProperties(session)).thenReturn(newArrayList(
+      new PropertyDto().setKey("foo").setValue(StringUtils.repeat("a", RepositoryResponse.MEMORY_THRESHOLD))
+      ));
+
+    byte[] content = tester.newGetRequest("batch", "global").execute().output();
+    assertThat(content.length).isGreaterThan(RepositoryResponse.MEMORY_THRESHOLD);
+    assertThat(new String(content, StandardCharsets.UTF_8)).contains(StringUtils.repeat("a", RepositoryResponse.MEMORY_THRESHOLD));
+
+    tester.newGetRequest("batch", "global").setParam("hash", DigestUtils.md5Hex(content)).execute().assertNotModified();
+  }
+
   @Test
   public void return_only_license_settings_without_scan_but_with_preview_permission() throws Exception {
     MockUserSession.set().setLogin("john").setGlobalPermissions(GlobalPermissions.PREVIEW_EXECUTION);
@@ -20,16 +20,21 @@
 
 package org.sonar.server.batch;
 
+import org.apache.commons.codec.digest.DigestUtils;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
+import org.sonar.batch.protocol.input.FileData;
 import org.sonar.batch.protocol.input.ProjectRepositories;
 import org.sonar.server.ws.WsTester;
 
+import java.io.ByteArrayInputStream;
+
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -67,4 +72,45 @@ public class ProjectRepositoryActionTest {
     assertThat(queryArgumentCaptor.getValue().isPreview()).isFalse();
   }
 
+  @Test
+  public void project_referentials_in_protobuf_format() throws Exception {
+    ProjectRepositories projectReferentials = new ProjectRepositories();
+    projectReferentials.addFileData("org.codehaus.sonar:sonar", "src/main/java/Foo.java", new FileData("xyz", true));
+    when(projectRepositoryLoader.load(any(ProjectRepositoryQuery.class))).thenReturn(projectReferentials);
+
+    WsTester.TestRequest request = tester.newGetRequest("batch", "project")
+      .setParam("key", "org.codehaus.sonar:sonar")
+      .setParam("format", "protobuf");
+    ProjectRepositories read = ProjectRepositories.readFrom(new ByteArrayInputStream(request.execute().output()));
+
+    assertThat(read.fileData("org.codehaus.sonar:sonar", "src/main/java/Foo.java").hash()).isEqualTo("xyz");
+  }
+
+  @Test
+  public void not_modified_if_hash_of_content_did_not_change() throws Exception {
+    ProjectRepositories projectReferentials = new ProjectRepositories();
+    projectReferentials.addFileData("org.codehaus.sonar:sonar", "src/main/java/Foo.java", new FileData("xyz", true));
+    when(projectRepositoryLoader.load(any(ProjectRepositoryQuery.class))).thenReturn(projectReferentials);
+    byte[] content = tester.newGetRequest("batch", "project")
+      .setParam("key", "org.codehaus.sonar:sonar")
+      .setParam("format", "protobuf")
+      .execute().output();
+
+    WsTester.Result result = tester.newGetRequest("batch", "project")
+      .setParam("key", "org.codehaus.sonar:sonar")
+      .setParam("format", "protobuf")
+      .setParam("hash", DigestUtils.md5Hex(content))
+      .execute();
+    result.assertNotModified();
+    assertThat(result.output()).isEmpty();
+
+    projectReferentials.addFileData("org.codehaus.sonar:sonar", "src/main/java/Bar.java", new FileData("abc", true));
+    result = tester.newGetRequest("batch", "project")
+      .setParam("key", "org.codehaus.sonar:sonar")
+      .setParam("format", "protobuf")
+      .setParam("hash", DigestUtils.md5Hex(content))
+      .execute();
+    assertThat(ProjectRepositories.readFrom(new ByteArrayInputStream(result.output())).fileData("org.codehaus.sonar:sonar", "src/main/java/Bar.java")).isNotNull();
+  }
+
 }
@@ -88,6 +88,25 @@ public class ComponentLinkDaoTest {
     dbTester.assertDbUnit(getClass(), "insert-result.xml", new String[]{"id"}, "project_links");
   }
 
+  @Test
+  public void batch_insert() throws Exception {
+    dbTester.prepareDbUnit(getClass(), "empty.xml");
+    DbSession batchSession = dbTester.myBatis().openSession(true);
+    try {
+      dao.batchInsert(batchSession, new ComponentLinkDto()
+          .setComponentUuid("ABCD")
+          .setType("homepage")
+          .setName("Home")
+          .setHref("http://www.sonarqube.org")
+        );
+      batchSession.commit();
+    } finally {
+      batchSession.close();
+    }
+
+    dbTester.assertDbUnit(getClass(), "insert-result.xml", new String[]{"id"}, "project_links");
+  }
+
   @Test
   public void update() throws Exception {
     dbTester.prepareDbUnit(getClass(), "update.xml");
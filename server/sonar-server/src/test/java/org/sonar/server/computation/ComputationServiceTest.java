@@ -76,7 +76,7 @@ public class ComputationServiceTest {
   @Before
   public void setUp() throws Exception {
     DbClient dbClient = new DbClient(dbTester.database(), dbTester.myBatis(), new ComponentDao(), new SnapshotDao(system));
-    sut = new ComputationService(dbClient, steps, activityService, settingsFactory, tempFolder, system);
+    sut = new ComputationService(dbClient, steps, activityService, settingsFactory, system);
 
     // db contains project with key "P1"
     dbTester.prepareDbUnit(getClass(), "shared.xml");
@@ -133,7 +133,7 @@ public class ComputationServiceTest {
       sut.process(new ReportQueue.Item(dto, zip));
       fail();
     } catch (IllegalStateException e) {
-      assertThat(e.getMessage()).startsWith("Fail to unzip " + zip.getAbsolutePath() + " into ");
+      assertThat(e.getMessage()).isEqualTo("Fail to open zipped analysis report: " + zip.getAbsolutePath());
       assertThat(dto.getStatus()).isEqualTo(Status.FAILED);
       assertThat(dto.getFinishedAt()).isNotNull();
     }
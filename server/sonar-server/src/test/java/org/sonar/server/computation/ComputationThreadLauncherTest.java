@@ -25,21 +25,33 @@ import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.DisableOnDebug;
+import org.junit.rules.ExpectedException;
 import org.junit.rules.TestRule;
 import org.junit.rules.Timeout;
+import org.sonar.api.config.Settings;
 import org.sonar.api.platform.Server;
+import org.sonar.api.utils.System2;
 
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.*;
 
 public class ComputationThreadLauncherTest {
 
+  @Rule
+  public ExpectedException thrown = ExpectedException.none();
+
   @Rule
   public TestRule timeout = new DisableOnDebug(Timeout.seconds(5));
 
   ComputationThreadLauncher sut;
   ReportQueue queue;
+  ComputationWorkers workers = new ComputationWorkers(System2.INSTANCE);
 
   @Before
   public void before() {
@@ -48,12 +60,14 @@ public class ComputationThreadLauncherTest {
 
   @After
   public void after() {
-    sut.stop();
+    if (sut != null) {
+      sut.stop();
+    }
   }
 
   @Test
   public void call_findAndBook_when_launching_a_recurrent_task() throws Exception {
-    sut = new ComputationThreadLauncher(queue, 0, 1, TimeUnit.MILLISECONDS);
+    sut = new ComputationThreadLauncher(queue, workers, 1, 0, 1, TimeUnit.MILLISECONDS);
 
     sut.onServerStart(mock(Server.class));
 
@@ -64,7 +78,7 @@ public class ComputationThreadLauncherTest {
 
   @Test
   public void call_findAndBook_when_executing_task_immediately() throws Exception {
-    sut = new ComputationThreadLauncher(queue, 1, 1, TimeUnit.HOURS);
+    sut = new ComputationThreadLauncher(queue, workers, 1, 1, 1, TimeUnit.HOURS);
     sut.start();
 
     sut.startAnalysisTaskNow();
@@ -76,8 +90,47 @@ public class ComputationThreadLauncherTest {
 
   @Test
   public void test_real_constructor() throws Exception {
-    sut = new ComputationThreadLauncher(queue);
+    sut = new ComputationThreadLauncher(queue, workers, new Settings());
     sut.start();
+
+    assertThat(sut.workerCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void load_worker_count_from_settings() throws Exception {
+    Settings settings = new Settings().setProperty(ComputationThreadLauncher.WORKER_COUNT_PROPERTY, 4);
+    sut = new ComputationThreadLauncher(queue, workers, settings);
+
+    assertThat(sut.workerCount()).isEqualTo(4);
+  }
+
+  @Test
+  public void fail_if_worker_count_is_not_positive() throws Exception {
+    Settings settings = new Settings().setProperty(ComputationThreadLauncher.WORKER_COUNT_PROPERTY, 0);
+
+    thrown.expect(IllegalArgumentException.class);
+    thrown.expectMessage("Number of computation workers must be strictly positive: 0");
+    new ComputationThreadLauncher(queue, workers, settings);
+  }
+
+  @Test
+  public void process_reports_concurrently_with_several_workers() throws Exception {
+    final CountDownLatch latch = new CountDownLatch(3);
+    when(queue.pop()).thenAnswer(new Answer<ReportQueue.Item>() {
+      @Override
+      public ReportQueue.Item answer(InvocationOnMock invocation) throws Throwable {
+        // block until all the workers are popping the queue at the same time
+        latch.countDown();
+        latch.await();
+        return null;
+      }
+    });
+    sut = new ComputationThreadLauncher(queue, workers, 3, 0, 1, TimeUnit.HOURS);
+
+    sut.onServerStart(mock(Server.class));
+
+    assertThat(latch.await(4, TimeUnit.SECONDS)).isTrue();
+    assertThat(workers.workers()).hasSize(3);
   }
 
   private void sleep() throws InterruptedException {
@@ -23,6 +23,7 @@ package org.sonar.server.computation;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TemporaryFolder;
+import org.sonar.api.utils.System2;
 import org.sonar.api.utils.log.LogTester;
 import org.sonar.core.computation.db.AnalysisReportDto;
 
@@ -41,7 +42,8 @@ public class ComputationThreadTest {
 
   ComputationContainer container = mock(ComputationContainer.class);
   ReportQueue queue = mock(ReportQueue.class);
-  ComputationThread sut = new ComputationThread(queue, container);
+  ComputationWorkers workers = new ComputationWorkers(System2.INSTANCE);
+  ComputationThread sut = new ComputationThread(queue, workers, container);
 
   @Test
   public void do_nothing_if_queue_empty() {
@@ -57,12 +59,29 @@ public class ComputationThreadTest {
   public void pop_queue_and_integrate_report() throws IOException {
     AnalysisReportDto report = AnalysisReportDto.newForTests(1L);
     ReportQueue.Item item = new ReportQueue.Item(report, temp.newFile());
-    when(queue.pop()).thenReturn(item);
+    when(queue.pop()).thenReturn(item, (ReportQueue.Item) null);
 
     sut.run();
 
-    verify(queue).pop();
+    verify(queue, times(2)).pop();
     verify(container).execute(item);
+    assertThat(workers.processedReportCount()).isEqualTo(1);
+    assertThat(workers.activeWorkerCount()).isEqualTo(0);
+  }
+
+  @Test
+  public void process_reports_until_queue_is_empty() throws IOException {
+    ReportQueue.Item item1 = new ReportQueue.Item(AnalysisReportDto.newForTests(1L), temp.newFile());
+    ReportQueue.Item item2 = new ReportQueue.Item(AnalysisReportDto.newForTests(2L), temp.newFile());
+    when(queue.pop()).thenReturn(item1, item2, (ReportQueue.Item) null);
+
+    sut.run();
+
+    verify(queue, times(3)).pop();
+    verify(container).execute(item1);
+    verify(container).execute(item2);
+    verify(queue).remove(item1);
+    verify(queue).remove(item2);
   }
 
   @Test
@@ -78,7 +97,7 @@ public class ComputationThreadTest {
   public void handle_error_during_integration() throws Exception {
     AnalysisReportDto report = AnalysisReportDto.newForTests(1L).setProjectKey("P1");
     ReportQueue.Item item = new ReportQueue.Item(report, temp.newFile());
-    when(queue.pop()).thenReturn(item);
+    when(queue.pop()).thenReturn(item, (ReportQueue.Item) null);
     doThrow(new IllegalStateException("pb")).when(container).execute(item);
 
     sut.run();
@@ -90,7 +109,7 @@ public class ComputationThreadTest {
   public void handle_error_during_removal_from_queue() throws Exception {
     AnalysisReportDto report = AnalysisReportDto.newForTests(1L).setProjectKey("P1");
     ReportQueue.Item item = new ReportQueue.Item(report, temp.newFile());
-    when(queue.pop()).thenReturn(item);
+    when(queue.pop()).thenReturn(item, (ReportQueue.Item) null);
     doThrow(new IllegalStateException("pb")).when(queue).remove(item);
 
     sut.run();
@@ -0,0 +1,96 @@
+/*
+ * SonarQube, open source software quality management tool.
+ * Copyright (C) 2008-2014 SonarSource
+ * mailto:contact AT sonarsource DOT com
+ *
+ * SonarQube is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * SonarQube is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package org.sonar.server.computation;
+
+import org.junit.Test;
+import org.sonar.api.utils.System2;
+import org.sonar.core.computation.db.AnalysisReportDto;
+
+import java.io.File;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ComputationWorkersTest {
+
+  System2 system = mock(System2.class);
+  ComputationWorkers sut = new ComputationWorkers(system);
+
+  @Test
+  public void registered_workers_are_idle() {
+    sut.register("computation-2");
+    sut.register("computation-1");
+
+    assertThat(sut.workers()).extracting("name").containsExactly("computation-1", "computation-2");
+    assertThat(sut.workers().get(0).isWorking()).isFalse();
+    assertThat(sut.activeWorkerCount()).isEqualTo(0);
+  }
+
+  @Test
+  public void track_report_processed_by_current_thread() {
+    sut.onStart(newItem(1L, "P1", 1000L, 1500L));
+
+    ComputationWorkers.Worker worker = sut.workers().get(0);
+    assertThat(worker.getName()).isEqualTo(Thread.currentThread().getName());
+    assertThat(worker.isWorking()).isTrue();
+    assertThat(worker.getReportId()).isEqualTo(1L);
+    assertThat(worker.getProjectKey()).isEqualTo("P1");
+    assertThat(worker.getStartedAt()).isEqualTo(1500L);
+    assertThat(sut.activeWorkerCount()).isEqualTo(1);
+    assertThat(sut.processedReportCount()).isEqualTo(0L);
+
+    sut.onFinish();
+
+    assertThat(sut.workers().get(0).isWorking()).isFalse();
+    assertThat(sut.activeWorkerCount()).isEqualTo(0);
+    assertThat(sut.processedReportCount()).isEqualTo(1L);
+  }
+
+  @Test
+  public void compute_wait_times() {
+    assertThat(sut.meanWaitTimeMs()).isEqualTo(0L);
+    assertThat(sut.maxWaitTimeMs()).isEqualTo(0L);
+
+    sut.onStart(newItem(1L, "P1", 1000L, 1500L));
+    sut.onFinish();
+    sut.onStart(newItem(2L, "P2", 1000L, 2500L));
+    sut.onFinish();
+
+    assertThat(sut.meanWaitTimeMs()).isEqualTo(1000L);
+    assertThat(sut.maxWaitTimeMs()).isEqualTo(1500L);
+  }
+
+  @Test
+  public void use_current_date_if_start_date_is_missing() {
+    when(system.now()).thenReturn(3000L);
+
+    sut.onStart(newItem(1L, "P1", 1000L, null));
+
+    assertThat(sut.workers().get(0).getStartedAt()).isEqualTo(3000L);
+    assertThat(sut.maxWaitTimeMs()).isEqualTo(2000L);
+  }
+
+  private static ReportQueue.Item newItem(long id, String projectKey, Long createdAt, Long startedAt) {
+    AnalysisReportDto dto = AnalysisReportDto.newForTests(id).setProjectKey(projectKey).setCreatedAt(createdAt).setStartedAt(startedAt);
+    return new ReportQueue.Item(dto, new File("report.zip"));
+  }
+}
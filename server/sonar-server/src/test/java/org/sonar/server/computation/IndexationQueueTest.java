@@ -0,0 +1,209 @@
+/*
+ * SonarQube, open source software quality management tool.
+ * Copyright (C) 2008-2014 SonarSource
+ * mailto:contact AT sonarsource DOT com
+ *
+ * SonarQube is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * SonarQube is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.server.computation;
+
+import com.google.common.util.concurrent.Uninterruptibles;
+import org.junit.After;
+import org.junit.Test;
+import org.sonar.api.config.Settings;
+import org.sonar.api.utils.System2;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class IndexationQueueTest {
+
+  System2 system = mock(System2.class);
+  IndexationQueue sut;
+
+  @After
+  public void tearDown() {
+    if (sut != null) {
+      sut.stop();
+    }
+  }
+
+  @Test
+  public void execute_tasks_of_project_in_order() throws Exception {
+    sut = new IndexationQueue(system, 4, 100);
+    final List<Integer> executed = Collections.synchronizedList(new ArrayList<Integer>());
+    for (int i = 0; i < 50; i++) {
+      final int index = i;
+      sut.submit("P1", "task " + i, new Runnable() {
+        @Override
+        public void run() {
+          executed.add(index);
+        }
+      });
+    }
+    sut.flush();
+
+    assertThat(executed).hasSize(50);
+    for (int i = 0; i < 50; i++) {
+      assertThat(executed.get(i)).isEqualTo(i);
+    }
+    assertThat(sut.pendingTaskCount()).isEqualTo(0);
+    assertThat(sut.processedTaskCount()).isEqualTo(50L);
+  }
+
+  @Test
+  public void flush_tasks_of_project() throws Exception {
+    sut = new IndexationQueue(system, 4, 100);
+    final AtomicInteger executed = new AtomicInteger(0);
+    for (int i = 0; i < 20; i++) {
+      sut.submit("P1", "task " + i, new Runnable() {
+        @Override
+        public void run() {
+          Uninterruptibles.sleepUninterruptibly(1, TimeUnit.MILLISECONDS);
+          executed.incrementAndGet();
+        }
+      });
+    }
+    sut.flush("P1");
+
+    assertThat(executed.get()).isEqualTo(20);
+  }
+
+  @Test
+  public void failure_does_not_stop_queue() throws Exception {
+    sut = new IndexationQueue(system, 1, 10);
+    final AtomicBoolean executed = new AtomicBoolean(false);
+    sut.submit("P1", "failure", new Runnable() {
+      @Override
+      public void run() {
+        throw new IllegalStateException("ES is down");
+      }
+    });
+    sut.submit("P1", "success", new Runnable() {
+      @Override
+      public void run() {
+        executed.set(true);
+      }
+    });
+    sut.flush();
+
+    assertThat(executed.get()).isTrue();
+    assertThat(sut.failedTaskCount()).isEqualTo(1L);
+    assertThat(sut.processedTaskCount()).isEqualTo(2L);
+  }
+
+  @Test
+  public void block_submission_when_queue_is_full() throws Exception {
+    sut = new IndexationQueue(system, 1, 1);
+    final CountDownLatch release = new CountDownLatch(1);
+    sut.submit("P1", "slow", new Runnable() {
+      @Override
+      public void run() {
+        try {
+          release.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+    });
+
+    final CountDownLatch submitted = new CountDownLatch(1);
+    Thread submitter = new Thread() {
+      @Override
+      public void run() {
+        sut.submit("P2", "other", new Runnable() {
+          @Override
+          public void run() {
+            // nothing to do
+          }
+        });
+        submitted.countDown();
+      }
+    };
+    submitter.start();
+
+    assertThat(submitted.await(200, TimeUnit.MILLISECONDS)).isFalse();
+    release.countDown();
+    assertThat(submitted.await(10, TimeUnit.SECONDS)).isTrue();
+    sut.flush();
+    assertThat(sut.processedTaskCount()).isEqualTo(2L);
+  }
+
+  @Test
+  public void lag_metrics() throws Exception {
+    sut = new IndexationQueue(system, 1, 10);
+    final CountDownLatch release = new CountDownLatch(1);
+    when(system.now()).thenReturn(1000L);
+    sut.submit("P1", "slow", new Runnable() {
+      @Override
+      public void run() {
+        try {
+          release.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+    });
+    when(system.now()).thenReturn(1500L);
+    assertThat(sut.pendingTaskCount()).isEqualTo(1);
+    assertThat(sut.currentLagMs()).isEqualTo(500L);
+
+    when(system.now()).thenReturn(3000L);
+    release.countDown();
+    sut.flush();
+
+    assertThat(sut.pendingTaskCount()).isEqualTo(0);
+    assertThat(sut.currentLagMs()).isEqualTo(0L);
+    assertThat(sut.meanLagMs()).isEqualTo(2000L);
+    assertThat(sut.maxLagMs()).isEqualTo(2000L);
+  }
+
+  @Test
+  public void execute_pending_tasks_on_stop() throws Exception {
+    sut = new IndexationQueue(new Settings(), System2.INSTANCE);
+    final AtomicBoolean executed = new AtomicBoolean(false);
+    sut.submit("P1", "task", new Runnable() {
+      @Override
+      public void run() {
+        executed.set(true);
+      }
+    });
+    sut.stop();
+
+    assertThat(executed.get()).isTrue();
+  }
+
+  @Test
+  public void fail_if_no_threads() throws Exception {
+    Settings settings = new Settings();
+    settings.setProperty(IndexationQueue.THREADS_PROPERTY, 0);
+    try {
+      new IndexationQueue(settings, system);
+      fail();
+    } catch (IllegalArgumentException e) {
+      assertThat(e).hasMessage("Number of indexation threads must be strictly positive: 0");
+    }
+  }
+}
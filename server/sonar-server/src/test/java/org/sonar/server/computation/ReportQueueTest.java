@@ -20,6 +20,7 @@
 
 package org.sonar.server.computation;
 
+import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
 import org.junit.Before;
@@ -29,6 +30,7 @@ import org.junit.experimental.categories.Category;
 import org.junit.rules.TemporaryFolder;
 import org.sonar.api.config.Settings;
 import org.sonar.api.utils.System2;
+import org.sonar.api.utils.log.LogTester;
 import org.sonar.core.computation.db.AnalysisReportDto;
 import org.sonar.core.persistence.DbSession;
 import org.sonar.core.persistence.DbTester;
@@ -44,6 +46,7 @@ import java.io.InputStream;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 import static org.sonar.core.computation.db.AnalysisReportDto.Status.PENDING;
@@ -60,6 +63,9 @@ public class ReportQueueTest {
   @Rule
   public TemporaryFolder temp = new TemporaryFolder();
 
+  @Rule
+  public LogTester logTester = new LogTester();
+
   Settings settings = new Settings();
   File dataDir;
   System2 system = mock(System2.class);
@@ -72,7 +78,7 @@ public class ReportQueueTest {
     when(system.now()).thenReturn(NOW);
 
     DbClient dbClient = new DbClient(db.database(), db.myBatis(), new ComponentDao(), new AnalysisReportDao(system));
-    sut = new ReportQueue(dbClient, settings);
+    sut = new ReportQueue(dbClient, settings, system);
 
     try (DbSession session = dbClient.openSession(false)) {
       dbClient.componentDao().insert(session, ComponentTesting.newProjectDto().setKey("P1"));
@@ -111,6 +117,36 @@ public class ReportQueueTest {
     assertThat(FileUtils.listFiles(analysisDir(), new String[] {"zip"}, false)).hasSize(1);
   }
 
+  @Test
+  public void verify_md5_hash_of_report() throws Exception {
+    ReportQueue.Item item = sut.add("P1", generateData(), DigestUtils.md5Hex("some data"));
+
+    assertThat(item.zipFile).hasContent("some data");
+    assertThat(sut.selectByProjectKey("P1")).hasSize(1);
+  }
+
+  @Test
+  public void log_duration_of_storage() throws Exception {
+    when(system.now()).thenReturn(NOW, NOW + 500L, NOW);
+
+    sut.add("P1", generateData());
+
+    assertThat(logTester.logs()).contains("Analysis report of project P1 stored in 500ms, size=9 bytes (18 bytes/s)");
+  }
+
+  @Test
+  public void reject_corrupted_report() throws Exception {
+    try {
+      sut.add("P1", generateData(), DigestUtils.md5Hex("other data"));
+      fail();
+    } catch (IllegalArgumentException e) {
+      assertThat(e).hasMessageContaining("Analysis report of project P1 is corrupted");
+    }
+
+    assertThat(sut.selectByProjectKey("P1")).isEmpty();
+    assertThat(FileUtils.listFiles(analysisDir(), new String[] {"zip"}, false)).isEmpty();
+  }
+
   @Test
   public void find_by_project_key() throws Exception {
     sut.add("P1", generateData());
@@ -0,0 +1,154 @@
+/*
+ * SonarQube, open source software quality management tool.
+ * Copyright (C) 2008-2014 SonarSource
+ * mailto:contact AT sonarsource DOT com
+ *
+ * SonarQube is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * SonarQube is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.server.computation.component;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.sonar.batch.protocol.Constants;
+import org.sonar.batch.protocol.output.BatchReport;
+import org.sonar.batch.protocol.output.BatchReportReader;
+import org.sonar.batch.protocol.output.BatchReportWriter;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ComponentTreeTest {
+
+  @Rule
+  public TemporaryFolder temp = new TemporaryFolder();
+
+  ComponentTree tree;
+
+  @Before
+  public void setUp() throws Exception {
+    File reportDir = temp.newFolder();
+    BatchReportWriter writer = new BatchReportWriter(reportDir);
+    writer.writeComponent(BatchReport.Component.newBuilder()
+      .setRef(1)
+      .setType(Constants.ComponentType.PROJECT)
+      .setUuid("PROJECT")
+      .addChildRef(2)
+      .addChildRef(5)
+      .build());
+    writer.writeComponent(BatchReport.Component.newBuilder()
+      .setRef(2)
+      .setType(Constants.ComponentType.MODULE)
+      .setUuid("MODULE")
+      .addChildRef(3)
+      .build());
+    writer.writeComponent(BatchReport.Component.newBuilder()
+      .setRef(3)
+      .setType(Constants.ComponentType.DIRECTORY)
+      .setUuid("DIRECTORY")
+      .addChildRef(4)
+      .build());
+    writer.writeComponent(BatchReport.Component.newBuilder()
+      .setRef(4)
+      .setType(Constants.ComponentType.FILE)
+      .setUuid("FILE")
+      .build());
+    writer.writeComponent(BatchReport.Component.newBuilder()
+      .setRef(5)
+      .setType(Constants.ComponentType.FILE)
+      .setUuid("ROOT_FILE")
+      .build());
+
+    tree = new ComponentTree(new BatchReportReader(reportDir), 1);
+  }
+
+  @Test
+  public void load_components_from_root() throws Exception {
+    assertThat(tree.size()).isEqualTo(5);
+    assertThat(tree.getRoot().getUuid()).isEqualTo("PROJECT");
+    assertThat(tree.get(4).getUuid()).isEqualTo("FILE");
+    assertThat(uuids(tree.getComponents())).containsExactly("PROJECT", "MODULE", "DIRECTORY", "FILE", "ROOT_FILE");
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void fail_to_get_unknown_component() throws Exception {
+    tree.get(42);
+  }
+
+  @Test
+  public void get_parent() throws Exception {
+    assertThat(tree.getParent(1)).isNull();
+    assertThat(tree.getParent(4).getUuid()).isEqualTo("DIRECTORY");
+    assertThat(tree.getParent(5).getUuid()).isEqualTo("PROJECT");
+  }
+
+  @Test
+  public void get_parent_module() throws Exception {
+    assertThat(tree.getParentModule(1).getUuid()).isEqualTo("PROJECT");
+    assertThat(tree.getParentModule(2).getUuid()).isEqualTo("PROJECT");
+    assertThat(tree.getParentModule(4).getUuid()).isEqualTo("MODULE");
+    assertThat(tree.getParentModule(5).getUuid()).isEqualTo("PROJECT");
+  }
+
+  @Test
+  public void visitors_are_executed_during_the_same_traversal() throws Exception {
+    final List<String> calls = new ArrayList<>();
+    ComponentVisitor first = new RecordingVisitor("first", calls);
+    ComponentVisitor second = new RecordingVisitor("second", calls);
+
+    tree.visit(Arrays.asList(first, second));
+
+    assertThat(calls).containsExactly(
+      "first:PROJECT", "second:PROJECT",
+      "first:MODULE", "second:MODULE",
+      "first:DIRECTORY", "second:DIRECTORY",
+      "first:FILE", "second:FILE",
+      "first:ROOT_FILE", "second:ROOT_FILE",
+      "first:end", "second:end");
+  }
+
+  private static List<String> uuids(Iterable<BatchReport.Component> components) {
+    List<String> uuids = new ArrayList<>();
+    for (BatchReport.Component component : components) {
+      uuids.add(component.getUuid());
+    }
+    return uuids;
+  }
+
+  private static class RecordingVisitor extends ComponentVisitor {
+    private final String name;
+    private final List<String> calls;
+
+    RecordingVisitor(String name, List<String> calls) {
+      this.name = name;
+      this.calls = calls;
+    }
+
+    @Override
+    public void visit(BatchReport.Component component) {
+      calls.add(name + ":" + component.getUuid());
+    }
+
+    @Override
+    public void afterVisit() {
+      calls.add(name + ":end");
+    }
+  }
+}
@@ -0,0 +1,284 @@
+/*
+ * SonarQube, open source software quality management tool.
+ * Copyright (C) 2008-2014 SonarSource
+ * mailto:contact AT sonarsource DOT com
+ *
+ * SonarQube is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * SonarQube is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.server.computation.issue;
+
+import com.google.common.collect.ImmutableMap;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.sonar.api.issue.Issue;
+import org.sonar.api.issue.internal.DefaultIssue;
+import org.sonar.api.issue.internal.DefaultIssueComment;
+import org.sonar.api.issue.internal.FieldDiffs;
+import org.sonar.api.rule.RuleKey;
+import org.sonar.api.rule.Severity;
+import org.sonar.api.utils.Duration;
+import org.sonar.api.utils.System2;
+import org.sonar.server.util.CloseableIterator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+public class IssueCacheTest {
+
+  @Rule
+  public TemporaryFolder temp = new TemporaryFolder();
+
+  @Test
+  public void write_and_read() throws Exception {
+    IssueCache cache = new IssueCache(temp.newFile(), System2.INSTANCE);
+    assertThat(keys(cache.traverse())).isEmpty();
+    assertThat(cache.size()).isEqualTo(0);
+
+    cache.newAppender()
+      .append(new DefaultIssue().setKey("ISSUE1").setComponentUuid("FILE1"))
+      .append(new DefaultIssue().setKey("ISSUE2").setComponentUuid("FILE1"))
+      .append(new DefaultIssue().setKey("ISSUE3").setComponentUuid("FILE2"))
+      .close();
+
+    assertThat(keys(cache.traverse())).containsExactly("ISSUE1", "ISSUE2", "ISSUE3");
+    assertThat(cache.size()).isEqualTo(3);
+    assertThat(cache.bytes()).isGreaterThan(0L);
+    assertThat(cache.componentUuids()).containsExactly("FILE1", "FILE2");
+  }
+
+  @Test
+  public void traverse_issues_of_component() throws Exception {
+    IssueCache cache = new IssueCache(temp.newFile(), System2.INSTANCE);
+    cache.newAppender()
+      .append(new DefaultIssue().setKey("ISSUE1").setComponentUuid("FILE1"))
+      .append(new DefaultIssue().setKey("ISSUE2").setComponentUuid("FILE2"))
+      .append(new DefaultIssue().setKey("ISSUE3").setComponentUuid("FILE2"))
+      .close();
+    // components are not always contiguous, for example when issues are appended by different appenders
+    cache.newAppender()
+      .append(new DefaultIssue().setKey("ISSUE4").setComponentUuid("FILE1"))
+      .close();
+
+    assertThat(keys(cache.traverse("FILE1"))).containsExactly("ISSUE1", "ISSUE4");
+    assertThat(keys(cache.traverse("FILE2"))).containsExactly("ISSUE2", "ISSUE3");
+    assertThat(keys(cache.traverse("UNKNOWN"))).isEmpty();
+  }
+
+  @Test
+  public void concurrent_appenders_do_not_overlap() throws Exception {
+    final IssueCache cache = new IssueCache(temp.newFile(), System2.INSTANCE);
+    final int threads = 4;
+    // enough issues for each appender to write several blocks
+    final int issuesPerThread = 5000;
+    final CountDownLatch start = new CountDownLatch(1);
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    List<Future<?>> futures = new ArrayList<>();
+    for (int t = 0; t < threads; t++) {
+      final String componentUuid = "FILE" + t;
+      futures.add(executor.submit(new Callable<Void>() {
+        @Override
+        public Void call() throws Exception {
+          start.await();
+          try (IssueCache.IssueAppender appender = cache.newAppender()) {
+            for (int i = 0; i < issuesPerThread; i++) {
+              appender.append(new DefaultIssue().setKey(componentUuid + "-" + i).setComponentUuid(componentUuid).setMessage("message " + i));
+            }
+          }
+          return null;
+        }
+      }));
+    }
+    start.countDown();
+    for (Future<?> future : futures) {
+      future.get();
+    }
+    executor.shutdown();
+
+    assertThat(cache.size()).isEqualTo(threads * issuesPerThread);
+    List<String> allKeys = keys(cache.traverse());
+    assertThat(allKeys).hasSize(threads * issuesPerThread);
+    assertThat(new HashSet<>(allKeys)).hasSize(threads * issuesPerThread);
+    for (int t = 0; t < threads; t++) {
+      List<String> expected = new ArrayList<>();
+      for (int i = 0; i < issuesPerThread; i++) {
+        expected.add("FILE" + t + "-" + i);
+      }
+      assertThat(keys(cache.traverse("FILE" + t))).containsExactly(expected.toArray(new String[expected.size()]));
+    }
+  }
+
+  @Test
+  public void ranges_reserved_but_not_written_are_not_traversed() throws Exception {
+    IssueCache cache = new IssueCache(temp.newFile(), System2.INSTANCE) {
+      private boolean first = true;
+
+      @Override
+      long reserve(int length) {
+        if (first) {
+          // range of a concurrent appender that did not write its block yet
+          first = false;
+          super.reserve(100);
+        }
+        return super.reserve(length);
+      }
+    };
+    cache.newAppender()
+      .append(new DefaultIssue().setKey("ISSUE1").setComponentUuid("FILE1").setNew(true))
+      .append(new DefaultIssue().setKey("ISSUE2").setComponentUuid("FILE2").setNew(true))
+      .close();
+    cache.newAppender()
+      .append(new DefaultIssue().setKey("ISSUE3").setComponentUuid("FILE1").setNew(true))
+      .close();
+
+    assertThat(keys(cache.traverse())).containsExactly("ISSUE1", "ISSUE2", "ISSUE3");
+    assertThat(keys(cache.traverseNewOrChanged())).containsExactly("ISSUE1", "ISSUE2", "ISSUE3");
+    assertThat(keys(cache.traverse("FILE1"))).containsExactly("ISSUE1", "ISSUE3");
+  }
+
+  @Test
+  public void issues_of_open_appenders_are_visible_to_traversal() throws Exception {
+    IssueCache cache = new IssueCache(temp.newFile(), System2.INSTANCE);
+    IssueCache.IssueAppender appender1 = cache.newAppender();
+    IssueCache.IssueAppender appender2 = cache.newAppender();
+    appender1.append(new DefaultIssue().setKey("ISSUE1").setComponentUuid("FILE1"));
+    appender2.append(new DefaultIssue().setKey("ISSUE2").setComponentUuid("FILE2"));
+    appender1.append(new DefaultIssue().setKey("ISSUE3").setComponentUuid("FILE1"));
+
+    assertThat(keys(cache.traverse())).containsOnly("ISSUE1", "ISSUE2", "ISSUE3");
+    assertThat(keys(cache.traverse("FILE1"))).containsExactly("ISSUE1", "ISSUE3");
+    assertThat(keys(cache.traverse("FILE2"))).containsExactly("ISSUE2");
+    appender1.close();
+    appender2.close();
+    assertThat(cache.size()).isEqualTo(3);
+  }
+
+  @Test
+  public void traverse_new_or_changed_issues() throws Exception {
+    IssueCache cache = new IssueCache(temp.newFile(), System2.INSTANCE);
+    cache.newAppender()
+      .append(new DefaultIssue().setKey("NEW").setNew(true))
+      .append(new DefaultIssue().setKey("UNCHANGED").setNew(false).setChanged(false))
+      .append(new DefaultIssue().setKey("CHANGED").setNew(false).setChanged(true))
+      .close();
+
+    assertThat(keys(cache.traverseNewOrChanged())).containsExactly("NEW", "CHANGED");
+  }
+
+  @Test
+  public void write_and_read_all_fields() throws Exception {
+    Date date = new Date(1_400_000_000_000L);
+    DefaultIssueComment comment = new DefaultIssueComment()
+      .setKey("COMMENT")
+      .setIssueKey("ISSUE")
+      .setUserLogin("john")
+      .setMarkdownText("some *markdown*")
+      .setCreatedAt(date)
+      .setUpdatedAt(date)
+      .setNew(true);
+    FieldDiffs currentChange = new FieldDiffs()
+      .setIssueKey("ISSUE")
+      .setUserLogin("john")
+      .setCreationDate(date)
+      .setDiff("severity", Severity.MINOR, Severity.MAJOR)
+      .setDiff("technicalDebt", 10L, null);
+    DefaultIssue issue = new DefaultIssue()
+      .setKey("ISSUE")
+      .setComponentUuid("FILE")
+      .setComponentKey("PROJECT:File.java")
+      .setModuleUuid("MODULE")
+      .setModuleUuidPath(".MODULE.")
+      .setProjectUuid("PROJECT")
+      .setProjectKey("PROJECT_KEY")
+      .setRuleKey(RuleKey.of("squid", "S001"))
+      .setLanguage("java")
+      .setSeverity(Severity.MAJOR)
+      .setManualSeverity(true)
+      .setMessage("message")
+      .setLine(42)
+      .setEffortToFix(2.5d)
+      .setDebt(Duration.create(10L))
+      .setStatus(Issue.STATUS_RESOLVED)
+      .setResolution(Issue.RESOLUTION_FIXED)
+      .setReporter("reporter")
+      .setAssignee("assignee")
+      .setChecksum("checksum")
+      .setAttributes(ImmutableMap.of("JIRA", "SONAR-1234"))
+      .setAuthorLogin("author")
+      .setActionPlanKey("PLAN")
+      .addComment(comment)
+      .setTags(Arrays.asList("bug", "security"))
+      .setCreationDate(date)
+      .setUpdateDate(date)
+      .setCloseDate(date)
+      .setCurrentChange(currentChange)
+      .setNew(false)
+      .setEndOfLife(true)
+      .setOnDisabledRule(true)
+      .setChanged(true)
+      .setSendNotifications(true)
+      .setSelectedAt(123L);
+
+    IssueCache cache = new IssueCache(temp.newFile(), System2.INSTANCE);
+    cache.newAppender().append(issue).close();
+
+    try (CloseableIterator<DefaultIssue> it = cache.traverse()) {
+      DefaultIssue read = it.next();
+      assertThat(read).isEqualToIgnoringGivenFields(issue, "comments", "currentChange", "changes");
+      assertThat(read.comments()).hasSize(1);
+      DefaultIssueComment readComment = (DefaultIssueComment) read.comments().get(0);
+      assertThat(readComment).isEqualToComparingFieldByField(comment);
+      assertThat(read.currentChange().toString()).isEqualTo(currentChange.toString());
+      assertThat(read.currentChange().creationDate()).isEqualTo(date);
+      assertThat(read.currentChange().get("technicalDebt").oldValue()).isEqualTo(10L);
+      assertThat(read.currentChange().get("technicalDebt").newValue()).isNull();
+      assertThat(read.changes()).hasSize(1);
+      assertThat(it.hasNext()).isFalse();
+    }
+  }
+
+  @Test
+  public void fail_if_file_is_not_writable() throws Exception {
+    try {
+      new IssueCache(temp.newFolder(), System2.INSTANCE);
+      fail();
+    } catch (IllegalStateException e) {
+      assertThat(e).hasMessageContaining("Fail to write into file");
+    }
+  }
+
+  private static List<String> keys(CloseableIterator<DefaultIssue> issues) {
+    List<String> keys = new ArrayList<>();
+    try {
+      while (issues.hasNext()) {
+        keys.add(issues.next().key());
+      }
+    } finally {
+      issues.close();
+    }
+    return keys;
+  }
+}
@@ -20,8 +20,10 @@
 package org.sonar.server.computation.issue;
 
 import org.junit.Test;
+import org.sonar.api.config.Settings;
 import org.sonar.api.rule.RuleKey;
 import org.sonar.core.rule.RuleDto;
+import org.sonar.server.util.cache.CacheStatistics;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
@@ -33,7 +35,7 @@ public class RuleCacheTest {
   public void ruleName() throws Exception {
     RuleCacheLoader loader = mock(RuleCacheLoader.class);
     when(loader.load(RuleKey.of("squid", "R002"))).thenReturn(new RuleDto().setName("Rule Two"));
-    RuleCache cache = new RuleCache(loader);
+    RuleCache cache = new RuleCache(loader, new Settings(), new CacheStatistics());
     assertThat(cache.ruleName(RuleKey.of("squid", "R001"))).isNull();
     assertThat(cache.ruleName(RuleKey.of("squid", "R002"))).isEqualTo("Rule Two");
   }
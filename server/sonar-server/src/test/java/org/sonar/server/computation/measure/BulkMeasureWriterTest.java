@@ -0,0 +1,148 @@
+/*
+ * SonarQube, open source software quality management tool.
+ * Copyright (C) 2008-2014 SonarSource
+ * mailto:contact AT sonarsource DOT com
+ *
+ * SonarQube is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * SonarQube is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.server.computation.measure;
+
+import com.google.common.base.Strings;
+import org.apache.commons.dbutils.DbUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.sonar.api.rule.Severity;
+import org.sonar.core.measure.db.MeasureDto;
+import org.sonar.core.persistence.DbTester;
+import org.sonar.test.DbTests;
+
+import java.sql.Connection;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Category(DbTests.class)
+public class BulkMeasureWriterTest {
+
+  @ClassRule
+  public static DbTester dbTester = new DbTester();
+
+  Connection connection;
+  BulkMeasureWriter writer;
+
+  @Before
+  public void setUp() throws Exception {
+    dbTester.truncateTables();
+    connection = dbTester.openConnection();
+    connection.setAutoCommit(false);
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    if (writer != null) {
+      writer.close();
+    }
+    DbUtils.rollbackAndCloseQuietly(connection);
+  }
+
+  @Test
+  public void insert_measures_by_chunks() throws Exception {
+    writer = new BulkMeasureWriter(connection, 3);
+    for (int i = 0; i < 10; i++) {
+      writer.add(new MeasureDto().setMetricId(1).setSnapshotId(2L).setComponentId(3L).setValue((double) i));
+    }
+
+    // last chunk is not flushed yet
+    assertThat(writer.count()).isEqualTo(9);
+
+    writer.flush();
+    connection.commit();
+    assertThat(writer.count()).isEqualTo(10);
+    assertThat(dbTester.countRowsOfTable("project_measures")).isEqualTo(10);
+  }
+
+  @Test
+  public void insert_all_columns() throws Exception {
+    writer = new BulkMeasureWriter(connection, 10);
+    writer.add(new MeasureDto()
+      .setMetricId(1)
+      .setSnapshotId(2L)
+      .setComponentId(3L)
+      .setValue(4.5d)
+      .setRuleId(5)
+      .setCharacteristicId(6)
+      .setPersonId(7)
+      .setSeverity(Severity.MAJOR)
+      .setAlertStatus("ERROR")
+      .setAlertText("alert")
+      .setDescription("description")
+      .setData("text")
+      .setVariation(1, 1.0d)
+      .setVariation(5, 5.0d));
+    writer.flush();
+    connection.commit();
+
+    Map<String, Object> row = dbTester.selectFirst("select metric_id as \"metricId\", snapshot_id as \"snapshotId\", project_id as \"componentId\", " +
+      "value as \"value\", rule_id as \"ruleId\", characteristic_id as \"characteristicId\", person_id as \"personId\", rule_priority as \"severityIndex\", " +
+      "alert_status as \"alertStatus\", alert_text as \"alertText\", description as \"description\", text_value as \"textValue\", " +
+      "variation_value_1 as \"variation1\", variation_value_2 as \"variation2\", variation_value_5 as \"variation5\" from project_measures");
+    assertThat(row.get("metricId")).isEqualTo(1L);
+    assertThat(row.get("snapshotId")).isEqualTo(2L);
+    assertThat(row.get("componentId")).isEqualTo(3L);
+    assertThat(row.get("value")).isEqualTo(4.5d);
+    assertThat(row.get("ruleId")).isEqualTo(5L);
+    assertThat(row.get("characteristicId")).isEqualTo(6L);
+    assertThat(row.get("personId")).isEqualTo(7L);
+    assertThat(row.get("severityIndex")).isEqualTo((long) Severity.ALL.indexOf(Severity.MAJOR));
+    assertThat(row.get("alertStatus")).isEqualTo("ERROR");
+    assertThat(row.get("alertText")).isEqualTo("alert");
+    assertThat(row.get("description")).isEqualTo("description");
+    assertThat(row.get("textValue")).isEqualTo("text");
+    assertThat(row.get("variation1")).isEqualTo(1.0d);
+    assertThat(row.get("variation2")).isNull();
+    assertThat(row.get("variation5")).isEqualTo(5.0d);
+  }
+
+  @Test
+  public void insert_large_data_as_binary() throws Exception {
+    String data = Strings.repeat("a", 5000);
+    writer = new BulkMeasureWriter(connection, 10);
+    writer.add(new MeasureDto().setMetricId(1).setSnapshotId(2L).setComponentId(3L).setData(data));
+    writer.flush();
+    connection.commit();
+
+    Map<String, Object> row = dbTester.selectFirst("select text_value as \"textValue\", measure_data as \"data\" from project_measures");
+    assertThat(row.get("textValue")).isNull();
+    assertThat(new String((byte[]) row.get("data"), "UTF-8")).isEqualTo(data);
+  }
+
+  @Test
+  public void measures_are_lost_if_connection_is_not_committed() throws Exception {
+    writer = new BulkMeasureWriter(connection, 1);
+    writer.add(new MeasureDto().setMetricId(1).setSnapshotId(2L).setComponentId(3L));
+    writer.close();
+    connection.rollback();
+
+    assertThat(dbTester.countRowsOfTable("project_measures")).isEqualTo(0);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void fail_if_chunk_size_is_not_positive() throws Exception {
+    new BulkMeasureWriter(connection, 0);
+  }
+}
@@ -20,6 +20,7 @@
 
 package org.sonar.server.computation.source;
 
+import org.apache.commons.io.FileUtils;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Rule;
@@ -71,6 +72,13 @@ public class ReportIteratorTest {
     assertThat(sut.next().getLine()).isEqualTo(1);
   }
 
+  @Test
+  public void read_report_from_stream() throws Exception {
+    sut = new ReportIterator<>(FileUtils.openInputStream(file), BatchReport.Coverage.PARSER);
+    assertThat(sut.next().getLine()).isEqualTo(1);
+    assertThat(sut.hasNext()).isFalse();
+  }
+
   @Test
   public void do_not_fail_when_calling_has_next_with_iterator_already_closed() throws Exception {
     sut = new ReportIterator<>(file, BatchReport.Coverage.PARSER);
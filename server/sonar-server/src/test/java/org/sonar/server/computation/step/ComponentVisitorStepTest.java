@@ -0,0 +1,117 @@
+/*
+ * SonarQube, open source software quality management tool.
+ * Copyright (C) 2008-2014 SonarSource
+ * mailto:contact AT sonarsource DOT com
+ *
+ * SonarQube is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * SonarQube is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.server.computation.step;
+
+import org.junit.Test;
+import org.sonar.batch.protocol.output.BatchReport;
+import org.sonar.core.persistence.DbSession;
+import org.sonar.server.computation.ComputationContext;
+import org.sonar.server.computation.component.ComponentTree;
+import org.sonar.server.computation.component.ComponentVisitor;
+import org.sonar.server.db.DbClient;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ComponentVisitorStepTest {
+
+  DbClient dbClient = mock(DbClient.class);
+  DbSession session = mock(DbSession.class);
+  ComputationContext context = mock(ComputationContext.class);
+  List<DbSession> sessions = new ArrayList<>();
+  List<String> closed = new ArrayList<>();
+
+  @Test
+  public void visitors_of_a_traversal_share_a_single_session() {
+    when(dbClient.openSession(true)).thenReturn(session);
+    when(context.getComponentTree()).thenReturn(mock(ComponentTree.class));
+
+    ComponentVisitorStep.execute(context, Arrays.asList(new FakeStep("a", false), new FakeStep("b", false)), dbClient);
+
+    verify(dbClient).openSession(true);
+    assertThat(sessions).containsExactly(session, session);
+    verify(session).commit(true);
+    verify(session).close();
+    assertThat(closed).containsExactly("a", "b");
+  }
+
+  @Test
+  public void close_all_visitors_even_if_one_fails_to_close() {
+    when(dbClient.openSession(true)).thenReturn(session);
+    when(context.getComponentTree()).thenReturn(mock(ComponentTree.class));
+
+    try {
+      ComponentVisitorStep.execute(context, Arrays.asList(new FakeStep("a", true), new FakeStep("b", false)), dbClient);
+      fail();
+    } catch (IllegalStateException e) {
+      assertThat(e).hasMessage("Fail to close a");
+    }
+
+    assertThat(closed).containsExactly("a", "b");
+    verify(session).close();
+  }
+
+  private class FakeStep extends ComponentVisitorStep {
+    private final String name;
+    private final boolean failOnClose;
+
+    FakeStep(String name, boolean failOnClose) {
+      super(dbClient);
+      this.name = name;
+      this.failOnClose = failOnClose;
+    }
+
+    @Override
+    public ComponentVisitor newVisitor(ComputationContext context, DbSession session) {
+      sessions.add(session);
+      return new ComponentVisitor() {
+        @Override
+        public void visit(BatchReport.Component component) {
+          // nothing to do
+        }
+
+        @Override
+        public void close() {
+          closed.add(name);
+          if (failOnClose) {
+            throw new IllegalStateException("Fail to close " + name);
+          }
+        }
+      };
+    }
+
+    @Override
+    public String[] supportedProjectQualifiers() {
+      return new String[0];
+    }
+
+    @Override
+    public String getDescription() {
+      return name;
+    }
+  }
+}
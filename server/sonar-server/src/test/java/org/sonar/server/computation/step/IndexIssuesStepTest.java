@@ -20,25 +20,40 @@
 
 package org.sonar.server.computation.step;
 
+import org.junit.After;
 import org.junit.Test;
+import org.sonar.api.config.Settings;
+import org.sonar.api.utils.System2;
+import org.sonar.server.component.ComponentTesting;
 import org.sonar.server.computation.ComputationContext;
+import org.sonar.server.computation.IndexationQueue;
 import org.sonar.server.issue.index.IssueAuthorizationIndexer;
 import org.sonar.server.issue.index.IssueIndexer;
 
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 public class IndexIssuesStepTest {
 
+  IndexationQueue indexationQueue = new IndexationQueue(new Settings(), System2.INSTANCE);
   IndexIssuesStep sut;
 
+  @After
+  public void tearDown() {
+    indexationQueue.stop();
+  }
+
   @Test
   public void call_indexers() throws Exception {
     IssueAuthorizationIndexer authorizationIndexer = mock(IssueAuthorizationIndexer.class);
     IssueIndexer issueIndexer = mock(IssueIndexer.class);
-    sut = new IndexIssuesStep(authorizationIndexer, issueIndexer);
+    sut = new IndexIssuesStep(authorizationIndexer, issueIndexer, indexationQueue);
+    ComputationContext context = mock(ComputationContext.class);
+    when(context.getProject()).thenReturn(ComponentTesting.newProjectDto("ABCD"));
 
-    sut.execute(mock(ComputationContext.class));
+    sut.execute(context);
+    indexationQueue.flush();
 
     verify(authorizationIndexer).index();
     verify(issueIndexer).index();
@@ -22,15 +22,18 @@ package org.sonar.server.computation.step;
 import org.sonar.server.source.db.FileSourceDao;
 
 import org.elasticsearch.search.SearchHit;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.ClassRule;
 import org.junit.Test;
 import org.sonar.api.config.Settings;
 import org.sonar.api.resources.Qualifiers;
+import org.sonar.api.utils.System2;
 import org.sonar.batch.protocol.output.BatchReportReader;
 import org.sonar.core.persistence.DbTester;
 import org.sonar.server.component.ComponentTesting;
 import org.sonar.server.computation.ComputationContext;
+import org.sonar.server.computation.IndexationQueue;
 import org.sonar.server.db.DbClient;
 import org.sonar.server.es.EsTester;
 import org.sonar.server.source.db.FileSourceTesting;
@@ -54,17 +57,23 @@ public class IndexSourceLinesStepTest extends BaseStepTest {
   public static EsTester esTester = new EsTester().addDefinitions(new SourceLineIndexDefinition(new Settings()));
 
   DbClient dbClient;
+  IndexationQueue indexationQueue = new IndexationQueue(new Settings(), System2.INSTANCE);
 
   @Before
   public void setUp() throws Exception {
     dbClient = new DbClient(dbTester.database(), dbTester.myBatis(), new FileSourceDao(null));
   }
 
+  @After
+  public void tearDown() {
+    indexationQueue.stop();
+  }
+
   @Override
   protected ComputationStep step() throws IOException {
     SourceLineIndexer sourceLineIndexer = new SourceLineIndexer(dbClient, esTester.client());
     sourceLineIndexer.setEnabled(true);
-    return new IndexSourceLinesStep(sourceLineIndexer);
+    return new IndexSourceLinesStep(sourceLineIndexer, indexationQueue);
   }
 
   @Test
@@ -80,6 +89,7 @@ public class IndexSourceLinesStepTest extends BaseStepTest {
     connection.close();
 
     step().execute(new ComputationContext(mock(BatchReportReader.class), ComponentTesting.newProjectDto("ABCD")));
+    indexationQueue.flush();
 
     List<SearchHit> docs = esTester.getDocuments(SourceLineIndexDefinition.INDEX, SourceLineIndexDefinition.TYPE);
     assertThat(docs).hasSize(1);
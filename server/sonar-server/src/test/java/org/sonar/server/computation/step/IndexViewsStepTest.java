@@ -20,10 +20,14 @@
 
 package org.sonar.server.computation.step;
 
+import org.junit.After;
 import org.junit.Test;
+import org.sonar.api.config.Settings;
 import org.sonar.api.resources.Qualifiers;
+import org.sonar.api.utils.System2;
 import org.sonar.server.component.ComponentTesting;
 import org.sonar.server.computation.ComputationContext;
+import org.sonar.server.computation.IndexationQueue;
 import org.sonar.server.view.index.ViewIndexer;
 
 import static org.mockito.Mockito.*;
@@ -32,13 +36,20 @@ public class IndexViewsStepTest extends BaseStepTest {
 
   ComputationContext context = mock(ComputationContext.class);
   ViewIndexer indexer = mock(ViewIndexer.class);
-  IndexViewsStep sut = new IndexViewsStep(indexer);
+  IndexationQueue indexationQueue = new IndexationQueue(new Settings(), System2.INSTANCE);
+  IndexViewsStep sut = new IndexViewsStep(indexer, indexationQueue);
+
+  @After
+  public void tearDown() {
+    indexationQueue.stop();
+  }
 
   @Test
   public void index_views() throws Exception {
     when(context.getProject()).thenReturn(ComponentTesting.newProjectDto("ABCD").setQualifier(Qualifiers.VIEW));
 
     sut.execute(context);
+    indexationQueue.flush();
 
     verify(indexer).index("ABCD");
   }
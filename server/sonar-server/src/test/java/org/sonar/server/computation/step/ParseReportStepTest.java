@@ -31,6 +31,7 @@ import org.sonar.core.component.ComponentDto;
 import org.sonar.core.persistence.DbTester;
 import org.sonar.server.computation.ComputationContext;
 import org.sonar.server.computation.issue.IssueComputation;
+import org.sonar.server.db.DbClient;
 
 import java.io.File;
 import java.io.IOException;
@@ -55,7 +56,7 @@ public class ParseReportStepTest extends BaseStepTest {
   public static DbTester dbTester = new DbTester();
 
   IssueComputation issueComputation = mock(IssueComputation.class);
-  ParseReportStep sut = new ParseReportStep(issueComputation);
+  ParseReportStep sut = new ParseReportStep(new DbClient(dbTester.database(), dbTester.myBatis()), issueComputation);
 
   @Test
   public void extract_report_from_db_and_browse_components() throws Exception {
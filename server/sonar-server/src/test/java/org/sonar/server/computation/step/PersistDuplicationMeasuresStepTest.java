@@ -350,6 +350,14 @@ public class
     saveDuplicationMetric();
     BatchReportWriter writer = initReportWithProjectAndFile();
 
+    writer.writeComponent(BatchReport.Component.newBuilder()
+      .setRef(1)
+      .setType(Constants.ComponentType.PROJECT)
+      .setKey("PROJECT_KEY")
+      .setSnapshotId(10L)
+      .addChildRef(2)
+      .addChildRef(3)
+      .build());
     writer.writeComponent(BatchReport.Component.newBuilder()
       .setRef(3)
       .setType(Constants.ComponentType.FILE)
@@ -29,6 +29,7 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
 import org.junit.rules.TemporaryFolder;
+import org.sonar.api.config.Settings;
 import org.sonar.api.utils.System2;
 import org.sonar.batch.protocol.Constants;
 import org.sonar.batch.protocol.output.BatchReport;
@@ -92,7 +93,7 @@ public class PersistFileSourcesStepTest extends BaseStepTest {
 
     system2 = mock(System2.class);
     when(system2.now()).thenReturn(now);
-    sut = new PersistFileSourcesStep(dbClient, system2);
+    sut = new PersistFileSourcesStep(dbClient, system2, new Settings());
   }
 
   @Override
@@ -129,6 +130,42 @@ public class PersistFileSourcesStepTest extends BaseStepTest {
     assertThat(data.getLines(1).getSource()).isEqualTo("line2");
   }
 
+  @Test
+  public void persist_sources_of_many_files_with_many_threads() throws Exception {
+    BatchReportWriter writer = new BatchReportWriter(reportDir);
+    writer.writeMetadata(BatchReport.Metadata.newBuilder()
+      .setRootComponentRef(1)
+      .build());
+    BatchReport.Component.Builder project = BatchReport.Component.newBuilder()
+      .setRef(1)
+      .setType(Constants.ComponentType.PROJECT)
+      .setUuid(PROJECT_UUID);
+    int nbFiles = 25;
+    for (int fileRef = 2; fileRef < nbFiles + 2; fileRef++) {
+      writer.writeComponent(BatchReport.Component.newBuilder()
+        .setRef(fileRef)
+        .setType(Constants.ComponentType.FILE)
+        .setUuid("FILE_" + fileRef)
+        .setPath("src/Foo" + fileRef + ".java")
+        .setLines(1)
+        .build());
+      FileUtils.writeLines(writer.getSourceFile(fileRef), newArrayList("line of file " + fileRef));
+      project.addChildRef(fileRef);
+    }
+    writer.writeComponent(project.build());
+
+    sut = new PersistFileSourcesStep(dbClient, system2, new Settings()
+      .setProperty(PersistFileSourcesStep.THREADS_PROPERTY, 4)
+      .setProperty(PersistFileSourcesStep.COMMIT_INTERVAL_PROPERTY, 3));
+    sut.execute(new ComputationContext(new BatchReportReader(reportDir), ComponentTesting.newProjectDto(PROJECT_UUID)));
+
+    assertThat(dbTester.countRowsOfTable("file_sources")).isEqualTo(nbFiles);
+    for (int fileRef = 2; fileRef < nbFiles + 2; fileRef++) {
+      FileSourceDb.Data data = FileSourceDto.decodeSourceData(dbClient.fileSourceDao().selectSource("FILE_" + fileRef).getBinaryData());
+      assertThat(data.getLines(0).getSource()).isEqualTo("line of file " + fileRef);
+    }
+  }
+
   @Test
   public void persist_last_line() throws Exception {
     BatchReportWriter writer = new BatchReportWriter(reportDir);
@@ -22,6 +22,7 @@ package org.sonar.server.computation.step;
 
 import org.junit.*;
 import org.junit.rules.TemporaryFolder;
+import org.sonar.api.config.Settings;
 import org.sonar.api.issue.Issue;
 import org.sonar.api.issue.internal.DefaultIssue;
 import org.sonar.api.issue.internal.DefaultIssueComment;
@@ -38,6 +39,7 @@ import org.sonar.server.computation.issue.RuleCacheLoader;
 import org.sonar.server.db.DbClient;
 import org.sonar.server.issue.db.IssueDao;
 import org.sonar.server.rule.db.RuleDao;
+import org.sonar.server.util.cache.CacheStatistics;
 
 import java.io.IOException;
 
@@ -76,7 +78,7 @@ public class PersistIssuesStepTest extends BaseStepTest {
     issueCache = new IssueCache(temp.newFile(), System2.INSTANCE);
     system2 = mock(System2.class);
     when(system2.now()).thenReturn(1400000000000L);
-    step = new PersistIssuesStep(dbClient, system2, new UpdateConflictResolver(), new RuleCache(new RuleCacheLoader(dbClient)), issueCache);
+    step = new PersistIssuesStep(dbClient, system2, new UpdateConflictResolver(), new RuleCache(new RuleCacheLoader(dbClient), new Settings(), new CacheStatistics()), issueCache);
   }
 
   @After
@@ -22,11 +22,13 @@ package org.sonar.server.computation.step;
 
 import org.assertj.core.data.Offset;
 import org.junit.Before;
+import org.junit.ClassRule;
 import org.junit.Rule;
 import org.junit.Test;
+import org.junit.experimental.categories.Category;
 import org.junit.rules.TemporaryFolder;
-import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
+import org.sonar.api.config.Settings;
 import org.sonar.api.rule.RuleKey;
 import org.sonar.api.rule.Severity;
 import org.sonar.batch.protocol.Constants;
@@ -36,31 +38,38 @@ import org.sonar.batch.protocol.output.BatchReportReader;
 import org.sonar.batch.protocol.output.BatchReportWriter;
 import org.sonar.core.component.ComponentDto;
 import org.sonar.core.measure.db.MeasureDto;
-import org.sonar.core.persistence.DbSession;
+import org.sonar.core.persistence.DbTester;
 import org.sonar.server.computation.ComputationContext;
 import org.sonar.server.computation.issue.RuleCache;
 import org.sonar.server.computation.measure.MetricCache;
 import org.sonar.server.db.DbClient;
 import org.sonar.server.measure.persistence.MeasureDao;
+import org.sonar.test.DbTests;
 
 import java.io.File;
 import java.io.IOException;
 import java.util.Arrays;
 import java.util.Date;
+import java.util.List;
+import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Matchers.any;
-import static org.mockito.Mockito.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
+@Category(DbTests.class)
 public class PersistMeasuresStepTest extends BaseStepTest {
 
+  @ClassRule
+  public static DbTester dbTester = new DbTester();
+
   @Rule
   public TemporaryFolder temp = new TemporaryFolder();
 
   DbClient dbClient;
   RuleCache ruleCache;
   MetricCache metricCache;
-  MeasureDao measureDao;
 
   PersistMeasuresStep sut;
 
@@ -68,14 +77,14 @@ public class PersistMeasuresStepTest extends BaseStepTest {
 
   @Before
   public void setUp() throws Exception {
-    dbClient = mock(DbClient.class, Mockito.RETURNS_DEEP_STUBS);
+    dbTester.truncateTables();
+    dbClient = new DbClient(dbTester.database(), dbTester.myBatis(), new MeasureDao());
     ruleCache = mock(RuleCache.class, Mockito.RETURNS_DEEP_STUBS);
     metricCache = mock(MetricCache.class, Mockito.RETURNS_DEEP_STUBS);
     when(metricCache.get("metric-key").getId()).thenReturn(654);
-    measureDao = mock(MeasureDao.class);
     when(ruleCache.get(any(RuleKey.class)).getId()).thenReturn(987);
 
-    sut = new PersistMeasuresStep(dbClient, ruleCache, metricCache);
+    sut = new PersistMeasuresStep(dbClient, ruleCache, metricCache, new Settings());
 
     component = defaultComponent().build();
   }
@@ -85,8 +94,6 @@ public class PersistMeasuresStepTest extends BaseStepTest {
     File dir = temp.newFolder();
     BatchReportWriter report = new BatchReportWriter(dir);
 
-    when(dbClient.measureDao()).thenReturn(measureDao);
-
     report.writeMetadata(BatchReport.Metadata.newBuilder()
       .setAnalysisDate(new Date().getTime())
       .setRootComponentRef(1)
@@ -111,7 +118,7 @@ public class PersistMeasuresStepTest extends BaseStepTest {
         .setVariationValue3(3.3d)
         .setVariationValue4(4.4d)
         .setVariationValue5(5.5d)
-        .setAlertStatus("measure-alert-status")
+        .setAlertStatus("ERROR")
         .setAlertText("measure-alert-text")
         .setDescription("measure-description")
         .setSeverity(Constants.Severity.INFO)
@@ -129,7 +136,7 @@ public class PersistMeasuresStepTest extends BaseStepTest {
         .setVariationValue3(3.3d)
         .setVariationValue4(4.4d)
         .setVariationValue5(5.5d)
-        .setAlertStatus("measure-alert-status")
+        .setAlertStatus("ERROR")
         .setAlertText("measure-alert-text")
         .setDescription("measure-description")
         .setSeverity(Constants.Severity.BLOCKER)
@@ -140,12 +147,19 @@ public class PersistMeasuresStepTest extends BaseStepTest {
 
     sut.execute(new ComputationContext(new BatchReportReader(dir), mock(ComponentDto.class)));
 
-    ArgumentCaptor<MeasureDto> argument = ArgumentCaptor.forClass(MeasureDto.class);
-    verify(measureDao, times(2)).insert(any(DbSession.class), argument.capture());
-    assertThat(argument.getValue().getValue()).isEqualTo(123.123d, Offset.offset(0.0001d));
-    assertThat(argument.getValue().getMetricId()).isEqualTo(654);
-    assertThat(argument.getValue().getRuleId()).isEqualTo(987);
-    assertThat(argument.getValue().getSeverity()).isEqualTo(Severity.BLOCKER);
+    assertThat(dbTester.countRowsOfTable("project_measures")).isEqualTo(2);
+    List<Map<String, Object>> rows = dbTester.select("select value as \"value\", text_value as \"textValue\", metric_id as \"metricId\", " +
+      "rule_id as \"ruleId\", rule_priority as \"severityIndex\", variation_value_5 as \"variation5\", person_id as \"personId\" from project_measures order by id");
+    assertThat(rows.get(0).get("value")).isNull();
+    assertThat(rows.get(0).get("textValue")).isEqualTo("measure-data");
+    assertThat(rows.get(0).get("severityIndex")).isEqualTo((long) Severity.ALL.indexOf(Severity.INFO));
+    assertThat((Double) rows.get(1).get("value")).isEqualTo(123.123d, Offset.offset(0.0001d));
+    assertThat(rows.get(1).get("textValue")).isNull();
+    assertThat(rows.get(1).get("metricId")).isEqualTo(654L);
+    assertThat(rows.get(1).get("ruleId")).isEqualTo(987L);
+    assertThat(rows.get(1).get("severityIndex")).isEqualTo((long) Severity.ALL.indexOf(Severity.BLOCKER));
+    assertThat((Double) rows.get(1).get("variation5")).isEqualTo(5.5d, Offset.offset(0.0001d));
+    assertThat(rows.get(1).get("personId")).isNull();
   }
 
   private BatchReport.Component.Builder defaultComponent() {
@@ -29,6 +29,7 @@ import org.sonar.core.persistence.DbTester;
 import org.sonar.server.component.ComponentTesting;
 import org.sonar.server.component.db.ComponentDao;
 import org.sonar.server.computation.ComputationContext;
+import org.sonar.server.computation.IndexationQueue;
 import org.sonar.server.db.DbClient;
 import org.sonar.server.es.EsTester;
 import org.sonar.server.issue.db.IssueDao;
@@ -40,6 +41,7 @@ import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public class PurgeRemovedViewsStepTest extends BaseStepTest {
@@ -53,6 +55,7 @@ public class PurgeRemovedViewsStepTest extends BaseStepTest {
   ComputationContext context = mock(ComputationContext.class);
   DbSession session;
   DbClient dbClient;
+  IndexationQueue indexationQueue = mock(IndexationQueue.class);
   PurgeRemovedViewsStep sut;
 
   @Before
@@ -60,7 +63,7 @@ public class PurgeRemovedViewsStepTest extends BaseStepTest {
     esTester.truncateIndices();
     session = db.myBatis().openSession(false);
     dbClient = new DbClient(db.database(), db.myBatis(), new IssueDao(db.myBatis()), new ComponentDao());
-    sut = new PurgeRemovedViewsStep(new ViewIndex(esTester.client()), dbClient);
+    sut = new PurgeRemovedViewsStep(new ViewIndex(esTester.client()), dbClient, indexationQueue);
   }
 
   @After
@@ -85,6 +88,7 @@ public class PurgeRemovedViewsStepTest extends BaseStepTest {
 
     sut.execute(context);
 
+    verify(indexationQueue).flush("DBCA");
     List<String> viewUuids = esTester.getDocumentFieldValues(ViewIndexDefinition.INDEX, ViewIndexDefinition.TYPE_VIEW, ViewIndexDefinition.FIELD_UUID);
     assertThat(viewUuids).containsOnly("ABCD", "BCDE");
   }
@@ -26,6 +26,7 @@ import org.junit.Test;
 import org.sonar.api.server.ws.Request;
 import org.sonar.api.server.ws.Response;
 import org.sonar.core.computation.db.AnalysisReportDto;
+import org.sonar.server.computation.IndexationQueue;
 import org.sonar.server.computation.ReportQueue;
 
 import java.io.ByteArrayOutputStream;
@@ -40,12 +41,14 @@ public class IsQueueEmptyWebServiceTest {
 
   IsQueueEmptyWebService.IsQueueEmptyWsAction sut;
   ReportQueue queue;
+  IndexationQueue indexationQueue;
   Response response;
 
   @Before
   public void before() throws Exception {
     queue = mock(ReportQueue.class);
-    sut = new IsQueueEmptyWebService.IsQueueEmptyWsAction(queue);
+    indexationQueue = mock(IndexationQueue.class);
+    sut = new IsQueueEmptyWebService.IsQueueEmptyWsAction(queue, indexationQueue);
 
     response = mock(Response.class);
     when(response.stream()).thenReturn(new FakeStream());
@@ -69,6 +72,16 @@ public class IsQueueEmptyWebServiceTest {
     assertThat(response.stream().toString()).isEqualTo("false");
   }
 
+  @Test
+  public void send_false_when_indexation_is_pending() throws Exception {
+    when(queue.all()).thenReturn(new ArrayList<AnalysisReportDto>());
+    when(indexationQueue.pendingTaskCount()).thenReturn(2);
+
+    sut.handle(mock(Request.class), response);
+
+    assertThat(response.stream().toString()).isEqualTo("false");
+  }
+
   private class FakeStream implements Response.Stream {
     private ByteArrayOutputStream stream;
 
@@ -25,9 +25,11 @@ import org.junit.Before;
 import org.junit.Test;
 import org.sonar.api.utils.DateUtils;
 import org.sonar.core.computation.db.AnalysisReportDto;
+import org.sonar.server.computation.ComputationWorkers;
 import org.sonar.server.computation.ReportQueue;
 import org.sonar.server.ws.WsTester;
 
+import java.util.Arrays;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -39,11 +41,13 @@ public class QueueWsActionTest {
 
   WsTester tester;
   private ReportQueue queue;
+  private ComputationWorkers workers;
 
   @Before
   public void setup() throws Exception {
     queue = mock(ReportQueue.class);
-    tester = new WsTester(new ComputationWebService(new QueueWsAction(queue)));
+    workers = mock(ComputationWorkers.class);
+    tester = new WsTester(new ComputationWebService(new QueueWsAction(queue, workers)));
   }
 
   @Test
@@ -63,6 +67,19 @@ public class QueueWsActionTest {
     request.execute().assertJson(getClass(), "list_queue_reports.json");
   }
 
+  @Test
+  public void list_workers() throws Exception {
+    long startedAt = DateUtils.parseDateTime("2014-10-13T00:00:00+0200").getTime();
+    when(workers.workers()).thenReturn(Arrays.asList(
+      new ComputationWorkers.Worker("computation-1", 3L, "project-key", startedAt),
+      new ComputationWorkers.Worker("computation-2", null, null, null)));
+    when(workers.meanWaitTimeMs()).thenReturn(1500L);
+    when(workers.maxWaitTimeMs()).thenReturn(3000L);
+
+    WsTester.TestRequest request = tester.newGetRequest(ComputationWebService.API_ENDPOINT, "queue");
+    request.execute().assertJson(getClass(), "list_workers.json");
+  }
+
   @Test
   public void define() throws Exception {
     assertThat(tester.controller(ComputationWebService.API_ENDPOINT).action("queue")).isNotNull();
@@ -58,7 +58,7 @@ public class SubmitReportWsActionTest {
 
     WebService.Action action = context.controller("api/computation").action("submit_report");
     assertThat(action).isNotNull();
-    assertThat(action.params()).hasSize(2);
+    assertThat(action.params()).hasSize(3);
   }
 
   @Test
@@ -66,15 +66,16 @@ public class SubmitReportWsActionTest {
     MockUserSession.set().setGlobalPermissions(GlobalPermissions.SCAN_EXECUTION);
     AnalysisReportDto dto = mock(AnalysisReportDto.class);
     when(dto.getId()).thenReturn(42L);
-    when(queue.add(any(String.class), any(InputStream.class))).thenReturn(new ReportQueue.Item(dto, null));
+    when(queue.add(any(String.class), any(InputStream.class), anyString())).thenReturn(new ReportQueue.Item(dto, null));
 
     WsTester.TestRequest request = wsTester
       .newGetRequest(ComputationWebService.API_ENDPOINT, "submit_report")
       .setParam(SubmitReportWsAction.PARAM_PROJECT_KEY, "P1")
-      .setParam(SubmitReportWsAction.PARAM_REPORT_DATA, null);
+      .setParam(SubmitReportWsAction.PARAM_REPORT_DATA, null)
+      .setParam(SubmitReportWsAction.PARAM_REPORT_MD5, "d41d8cd98f00b204e9800998ecf8427e");
     WsTester.Result response = request.execute();
 
-    verify(queue).add(eq("P1"), any(InputStream.class));
+    verify(queue).add(eq("P1"), any(InputStream.class), eq("d41d8cd98f00b204e9800998ecf8427e"));
     verify(workerLauncher).startAnalysisTaskNow();
     assertThat(response.outputAsString()).isEqualTo("{\"key\":\"42\"}");
   }
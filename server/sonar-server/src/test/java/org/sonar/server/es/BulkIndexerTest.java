@@ -20,16 +20,27 @@
 package org.sonar.server.es;
 
 import com.google.common.collect.ImmutableMap;
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.ActionRequest;
 import org.elasticsearch.action.admin.indices.settings.get.GetSettingsResponse;
+import org.elasticsearch.action.bulk.BulkItemResponse;
+import org.elasticsearch.action.bulk.BulkRequestBuilder;
+import org.elasticsearch.action.bulk.BulkResponse;
 import org.elasticsearch.action.index.IndexRequest;
 import org.elasticsearch.action.search.SearchRequestBuilder;
 import org.elasticsearch.cluster.metadata.IndexMetaData;
 import org.elasticsearch.index.query.FilterBuilders;
 import org.elasticsearch.index.query.QueryBuilders;
+import org.elasticsearch.rest.RestStatus;
 import org.junit.Rule;
 import org.junit.Test;
+import org.sonar.server.es.request.ProxyBulkRequestBuilder;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -88,6 +99,43 @@ public class BulkIndexerTest {
     assertThat(replicas()).isEqualTo(1);
   }
 
+  @Test
+  public void adaptive_indexing() throws Exception {
+    RecordingEsClient client = new RecordingEsClient();
+    BulkIndexer indexer = new BulkIndexer(client, FakeIndexDefinition.INDEX)
+      .setFlushByteSize(BulkSizing.MIN_BYTE_SIZE)
+      .setAdaptive(true);
+    indexer.start();
+    for (int i = 0; i < 20000; i++) {
+      indexer.add(newIndexRequest(i));
+    }
+    indexer.stop();
+
+    assertThat(count()).isEqualTo(20000);
+    // initial size is the one requested, then it's tuned within bounds
+    assertThat(client.bulkBytes.size()).isGreaterThan(1);
+    assertThat(client.bulkBytes.get(0)).isGreaterThanOrEqualTo(BulkSizing.MIN_BYTE_SIZE).isLessThan(BulkSizing.MIN_BYTE_SIZE + BulkSizing.BYTE_SIZE_INCREMENT);
+    for (Long bytes : client.bulkBytes) {
+      assertThat(bytes).isLessThan(BulkSizing.MAX_BYTE_SIZE + BulkSizing.BYTE_SIZE_INCREMENT);
+    }
+  }
+
+  @Test
+  public void resend_requests_rejected_by_elasticsearch() throws Exception {
+    RecordingEsClient client = new RecordingEsClient();
+    client.rejectNextBulk.set(true);
+    BulkIndexer indexer = new BulkIndexer(client, FakeIndexDefinition.INDEX);
+    indexer.start();
+    for (int i = 0; i < 10; i++) {
+      indexer.add(newIndexRequest(i));
+    }
+    indexer.stop();
+
+    // half of the first bulk is rejected, then sent again
+    assertThat(client.bulkActions).containsExactly(10, 5);
+    assertThat(count()).isEqualTo(10);
+  }
+
   @Test
   public void bulk_delete() throws Exception {
     int max = 500;
@@ -135,6 +183,54 @@ public class BulkIndexerTest {
     return Integer.parseInt(settingsResp.getSetting(FakeIndexDefinition.INDEX, IndexMetaData.SETTING_NUMBER_OF_REPLICAS));
   }
 
+  /**
+   * Records the bulk requests sent to Elasticsearch. Items with even ids of the next bulk
+   * can be rejected, as when the bulk queue of Elasticsearch is full.
+   */
+  private class RecordingEsClient extends EsClient {
+    private final List<Integer> bulkActions = Collections.synchronizedList(new ArrayList<Integer>());
+    private final List<Long> bulkBytes = Collections.synchronizedList(new ArrayList<Long>());
+    private final AtomicBoolean rejectNextBulk = new AtomicBoolean(false);
+
+    RecordingEsClient() {
+      super(esTester.client().nativeClient());
+    }
+
+    @Override
+    public BulkRequestBuilder prepareBulk() {
+      return new ProxyBulkRequestBuilder(nativeClient()) {
+        @Override
+        public void execute(ActionListener<BulkResponse> listener) {
+          bulkActions.add(request().numberOfActions());
+          bulkBytes.add(request().estimatedSizeInBytes());
+          if (rejectNextBulk.compareAndSet(true, false)) {
+            listener.onResponse(partiallyReject(request().requests()));
+          } else {
+            super.execute(listener);
+          }
+        }
+      };
+    }
+
+    private BulkResponse partiallyReject(List<ActionRequest> requests) {
+      BulkRequestBuilder accepted = esTester.client().prepareBulk();
+      for (int i = 1; i < requests.size(); i += 2) {
+        accepted.request().add(requests.get(i));
+      }
+      BulkItemResponse[] acceptedItems = accepted.get().getItems();
+      BulkItemResponse[] items = new BulkItemResponse[requests.size()];
+      for (int i = 0; i < requests.size(); i++) {
+        if (i % 2 == 0) {
+          items[i] = new BulkItemResponse(i, "index",
+            new BulkItemResponse.Failure(FakeIndexDefinition.INDEX, FakeIndexDefinition.TYPE, null, "queue is full", RestStatus.TOO_MANY_REQUESTS));
+        } else {
+          items[i] = new BulkItemResponse(i, "index", acceptedItems[i / 2].getResponse());
+        }
+      }
+      return new BulkResponse(items, 1L);
+    }
+  }
+
   private IndexRequest newIndexRequest(int intField) {
     return new IndexRequest(FakeIndexDefinition.INDEX, FakeIndexDefinition.TYPE)
       .source(ImmutableMap.of(FakeIndexDefinition.INT_FIELD, intField));
@@ -0,0 +1,104 @@
+/*
+ * SonarQube, open source software quality management tool.
+ * Copyright (C) 2008-2014 SonarSource
+ * mailto:contact AT sonarsource DOT com
+ *
+ * SonarQube is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * SonarQube is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.server.es;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BulkSizingTest {
+
+  static final long ONE_MB = 1024L * 1024L;
+
+  @Test
+  public void initial_values_are_bounded() {
+    BulkSizing sizing = new BulkSizing(1L, 0, 4);
+    assertThat(sizing.flushByteSize()).isEqualTo(BulkSizing.MIN_BYTE_SIZE);
+    assertThat(sizing.concurrency()).isEqualTo(1);
+
+    sizing = new BulkSizing(100L * ONE_MB, 10, 4);
+    assertThat(sizing.flushByteSize()).isEqualTo(BulkSizing.MAX_BYTE_SIZE);
+    assertThat(sizing.concurrency()).isEqualTo(4);
+
+    sizing = new BulkSizing(ONE_MB, 1, 0);
+    assertThat(sizing.maxConcurrency()).isEqualTo(1);
+  }
+
+  @Test
+  public void increase_size_and_concurrency_when_fast() {
+    BulkSizing sizing = new BulkSizing(ONE_MB, 1, 3);
+
+    for (int i = 0; i < BulkSizing.FAST_BULKS_BEFORE_MORE_CONCURRENCY; i++) {
+      sizing.onSuccess(10L);
+    }
+
+    assertThat(sizing.flushByteSize()).isEqualTo(ONE_MB + BulkSizing.FAST_BULKS_BEFORE_MORE_CONCURRENCY * BulkSizing.BYTE_SIZE_INCREMENT);
+    assertThat(sizing.concurrency()).isEqualTo(2);
+
+    for (int i = 0; i < 1000; i++) {
+      sizing.onSuccess(10L);
+    }
+    assertThat(sizing.flushByteSize()).isEqualTo(BulkSizing.MAX_BYTE_SIZE);
+    assertThat(sizing.concurrency()).isEqualTo(3);
+  }
+
+  @Test
+  public void decrease_size_when_slow() {
+    BulkSizing sizing = new BulkSizing(ONE_MB, 2, 4);
+
+    sizing.onSuccess(BulkSizing.TARGET_LATENCY_MS + 1L);
+    assertThat(sizing.flushByteSize()).isEqualTo(ONE_MB / 2);
+    assertThat(sizing.concurrency()).isEqualTo(2);
+
+    for (int i = 0; i < 10; i++) {
+      sizing.onSuccess(BulkSizing.TARGET_LATENCY_MS * 5);
+    }
+    assertThat(sizing.flushByteSize()).isEqualTo(BulkSizing.MIN_BYTE_SIZE);
+  }
+
+  @Test
+  public void keep_values_when_latency_is_close_to_target() {
+    BulkSizing sizing = new BulkSizing(ONE_MB, 2, 4);
+
+    sizing.onSuccess(BulkSizing.TARGET_LATENCY_MS);
+
+    assertThat(sizing.flushByteSize()).isEqualTo(ONE_MB);
+    assertThat(sizing.concurrency()).isEqualTo(2);
+  }
+
+  @Test
+  public void decrease_concurrency_on_rejection() {
+    BulkSizing sizing = new BulkSizing(ONE_MB, 4, 4);
+
+    sizing.onRejection();
+    assertThat(sizing.concurrency()).isEqualTo(2);
+    sizing.onRejection();
+    sizing.onRejection();
+    assertThat(sizing.concurrency()).isEqualTo(1);
+
+    // fast bulks before rejection are forgotten
+    sizing.onSuccess(10L);
+    sizing.onSuccess(10L);
+    sizing.onRejection();
+    sizing.onSuccess(10L);
+    sizing.onSuccess(10L);
+    assertThat(sizing.concurrency()).isEqualTo(1);
+  }
+}
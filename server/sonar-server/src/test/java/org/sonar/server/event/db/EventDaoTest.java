@@ -105,6 +105,29 @@ public class EventDaoTest {
     dbTester.assertDbUnit(getClass(), "insert-result.xml", new String[]{"id"}, "events");
   }
 
+  @Test
+  public void batch_insert() throws Exception {
+    dbTester.prepareDbUnit(getClass(), "empty.xml");
+    DbSession batchSession = dbTester.myBatis().openSession(true);
+    try {
+      dao.batchInsert(batchSession, new EventDto()
+        .setName("1.0")
+        .setCategory(EventDto.CATEGORY_VERSION)
+        .setDescription("Version 1.0")
+        .setData("some data")
+        .setDate(1413407091086L)
+        .setComponentUuid("ABCD")
+        .setSnapshotId(1000L)
+        .setCreatedAt(1225630680000L)
+        );
+      batchSession.commit();
+    } finally {
+      batchSession.close();
+    }
+
+    dbTester.assertDbUnit(getClass(), "insert-result.xml", new String[]{"id"}, "events");
+  }
+
   @Test
   public void delete() throws Exception {
     dbTester.prepareDbUnit(getClass(), "delete.xml");
@@ -96,6 +96,44 @@ public class IssueIndexerTest {
     assertThat(esTester.countDocuments("issues", "issue")).isZero();
   }
 
+  @Test
+  public void index_all_issues_project_by_project() throws Exception {
+    dbTester.prepareDbUnit(getClass(), "index_several_projects.xml");
+
+    IssueIndexer indexer = createIndexer().setThreads(3);
+    indexer.index();
+
+    List<IssueDoc> docs = esTester.getDocuments("issues", "issue", IssueDoc.class);
+    assertThat(docs).hasSize(4);
+    assertThat(esTester.countDocuments("issues", "issue")).isEqualTo(4L);
+
+    // later changes are indexed by a single thread
+    dbTester.prepareDbUnit(getClass(), "index.xml");
+    indexer.index();
+    assertThat(esTester.countDocuments("issues", "issue")).isEqualTo(5L);
+  }
+
+  @Test
+  public void index_issues_without_project_as_sequential_indexing() throws Exception {
+    dbTester.prepareDbUnit(getClass(), "index_issue_without_project.xml");
+
+    createIndexer().index();
+    List<String> sequentialKeys = esTester.getDocumentFieldValues("issues", "issue", IssueIndexDefinition.FIELD_ISSUE_KEY);
+
+    esTester.truncateIndices();
+    createIndexer().setThreads(3).index();
+    List<String> concurrentKeys = esTester.getDocumentFieldValues("issues", "issue", IssueIndexDefinition.FIELD_ISSUE_KEY);
+
+    assertThat(sequentialKeys).contains("ISSUE_A1");
+    assertThat(concurrentKeys).containsOnly(sequentialKeys.toArray(new String[sequentialKeys.size()]));
+    assertThat(concurrentKeys).hasSameSizeAs(sequentialKeys);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void fail_if_no_threads() throws Exception {
+    createIndexer().setThreads(0);
+  }
+
   private IssueIndexer createIndexer() {
     IssueIndexer indexer = new IssueIndexer(new DbClient(dbTester.database(), dbTester.myBatis()), esTester.client());
     indexer.setEnabled(true);
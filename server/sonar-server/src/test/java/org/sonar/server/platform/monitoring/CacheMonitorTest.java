@@ -0,0 +1,77 @@
+/*
+ * SonarQube, open source software quality management tool.
+ * Copyright (C) 2008-2014 SonarSource
+ * mailto:contact AT sonarsource DOT com
+ *
+ * SonarQube is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * SonarQube is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.server.platform.monitoring;
+
+import org.junit.Test;
+import org.sonar.server.util.cache.CacheLoader;
+import org.sonar.server.util.cache.CacheStatistics;
+import org.sonar.server.util.cache.MemoryCache;
+
+import java.util.LinkedHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class CacheMonitorTest {
+
+  CacheStatistics statistics = new CacheStatistics();
+  CacheMonitor sut = new CacheMonitor(statistics);
+
+  @Test
+  public void name() {
+    assertThat(sut.name()).isEqualTo("Compute Engine Caches");
+  }
+
+  @Test
+  public void no_statistics() {
+    assertThat(sut.getHitCount()).isEqualTo(0L);
+    assertThat(sut.getHitRatePercent()).isEqualTo(100.0);
+    assertThat(sut.attributes()).isEmpty();
+  }
+
+  @Test
+  public void attributes() {
+    CacheLoader<String, String> loader = mock(CacheLoader.class);
+    when(loader.load("foo")).thenReturn("bar");
+    MemoryCache<String, String> rules = new MemoryCache<>(loader, new MemoryCache.Options().setName("Rules").setStatistics(statistics).setMaxSize(1));
+    rules.getNullable("foo");
+    rules.getNullable("foo");
+    rules.getNullable("foo");
+    rules.getNullable("other");
+    MemoryCache<String, String> accounts = new MemoryCache<>(loader, new MemoryCache.Options().setName("Accounts").setStatistics(statistics));
+    accounts.getNullable("foo");
+
+    assertThat(sut.getHitCount()).isEqualTo(2L);
+    assertThat(sut.getMissCount()).isEqualTo(3L);
+    assertThat(sut.getHitRatePercent()).isEqualTo(40.0);
+    assertThat(sut.getLoadCount()).isEqualTo(3L);
+    assertThat(sut.getEvictionCount()).isEqualTo(1L);
+
+    LinkedHashMap<String, Object> attributes = sut.attributes();
+    assertThat(attributes.keySet()).startsWith("Accounts Hits");
+    assertThat(attributes).containsEntry("Rules Hits", 2L);
+    assertThat(attributes).containsEntry("Rules Misses", 2L);
+    assertThat(attributes).containsEntry("Rules Hit Rate (%)", 50L);
+    assertThat(attributes).containsEntry("Rules Loads", 2L);
+    assertThat(attributes).containsEntry("Rules Evictions", 1L);
+    assertThat(attributes).containsEntry("Accounts Misses", 1L);
+  }
+}
@@ -0,0 +1,84 @@
+/*
+ * SonarQube, open source software quality management tool.
+ * Copyright (C) 2008-2014 SonarSource
+ * mailto:contact AT sonarsource DOT com
+ *
+ * SonarQube is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * SonarQube is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package org.sonar.server.platform.monitoring;
+
+import org.junit.Test;
+import org.sonar.core.computation.db.AnalysisReportDto;
+import org.sonar.server.computation.ComputationThreadLauncher;
+import org.sonar.server.computation.ComputationWorkers;
+import org.sonar.server.computation.IndexationQueue;
+import org.sonar.server.computation.ReportQueue;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.sonar.core.computation.db.AnalysisReportDto.Status.PENDING;
+import static org.sonar.core.computation.db.AnalysisReportDto.Status.WORKING;
+
+public class ComputationMonitorTest {
+
+  ReportQueue queue = mock(ReportQueue.class);
+  ComputationWorkers workers = mock(ComputationWorkers.class);
+  ComputationThreadLauncher launcher = mock(ComputationThreadLauncher.class);
+  IndexationQueue indexationQueue = mock(IndexationQueue.class);
+  ComputationMonitor sut = new ComputationMonitor(queue, workers, launcher, indexationQueue);
+
+  @Test
+  public void name() {
+    assertThat(sut.name()).isEqualTo("Compute Engine");
+  }
+
+  @Test
+  public void attributes() {
+    when(queue.all()).thenReturn(Arrays.asList(
+      AnalysisReportDto.newForTests(1L).setStatus(PENDING),
+      AnalysisReportDto.newForTests(2L).setStatus(PENDING),
+      AnalysisReportDto.newForTests(3L).setStatus(WORKING)));
+    when(launcher.workerCount()).thenReturn(4);
+    when(workers.activeWorkerCount()).thenReturn(1);
+    when(workers.processedReportCount()).thenReturn(10L);
+    when(workers.meanWaitTimeMs()).thenReturn(200L);
+    when(workers.maxWaitTimeMs()).thenReturn(500L);
+    when(indexationQueue.pendingTaskCount()).thenReturn(3);
+    when(indexationQueue.failedTaskCount()).thenReturn(1L);
+    when(indexationQueue.currentLagMs()).thenReturn(1500L);
+    when(indexationQueue.meanLagMs()).thenReturn(800L);
+    when(indexationQueue.maxLagMs()).thenReturn(4000L);
+
+    LinkedHashMap<String, Object> attributes = sut.attributes();
+
+    assertThat(attributes).containsEntry("Pending Reports", 2);
+    assertThat(attributes).containsEntry("In Progress Reports", 1);
+    assertThat(attributes).containsEntry("Workers", 4);
+    assertThat(attributes).containsEntry("Active Workers", 1);
+    assertThat(attributes).containsEntry("Processed Reports", 10L);
+    assertThat(attributes).containsEntry("Mean Wait Time (ms)", 200L);
+    assertThat(attributes).containsEntry("Max Wait Time (ms)", 500L);
+    assertThat(attributes).containsEntry("Pending Indexations", 3);
+    assertThat(attributes).containsEntry("Failed Indexations", 1L);
+    assertThat(attributes).containsEntry("Indexation Lag (ms)", 1500L);
+    assertThat(attributes).containsEntry("Mean Indexation Lag (ms)", 800L);
+    assertThat(attributes).containsEntry("Max Indexation Lag (ms)", 4000L);
+  }
+}
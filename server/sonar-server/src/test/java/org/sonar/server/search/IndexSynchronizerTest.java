@@ -0,0 +1,104 @@
+/*
+ * SonarQube, open source software quality management tool.
+ * Copyright (C) 2008-2014 SonarSource
+ * mailto:contact AT sonarsource DOT com
+ *
+ * SonarQube is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * SonarQube is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.server.search;
+
+import org.junit.Test;
+import org.mockito.InOrder;
+import org.sonar.api.config.Settings;
+import org.sonar.server.activity.index.ActivityIndexer;
+import org.sonar.server.db.DbClient;
+import org.sonar.server.issue.index.IssueAuthorizationIndexer;
+import org.sonar.server.issue.index.IssueIndexer;
+import org.sonar.server.source.index.SourceLineIndexer;
+import org.sonar.server.user.index.UserIndexer;
+import org.sonar.server.view.index.ViewIndexer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class IndexSynchronizerTest {
+
+  SourceLineIndexer sourceLineIndexer = mock(SourceLineIndexer.class);
+  IssueAuthorizationIndexer issueAuthorizationIndexer = mock(IssueAuthorizationIndexer.class);
+  IssueIndexer issueIndexer = mock(IssueIndexer.class);
+  UserIndexer userIndexer = mock(UserIndexer.class);
+  ViewIndexer viewIndexer = mock(ViewIndexer.class);
+  ActivityIndexer activityIndexer = mock(ActivityIndexer.class);
+  Settings settings = new Settings();
+
+  @Test
+  public void execute_sequentially_by_default() {
+    newSynchronizer().execute();
+
+    verifyAllIndexed();
+    verify(issueIndexer).setThreads(1);
+  }
+
+  @Test
+  public void execute_concurrently() {
+    settings.setProperty(IndexSynchronizer.THREADS_PROPERTY, 4);
+
+    newSynchronizer().execute();
+
+    verifyAllIndexed();
+    verify(issueIndexer).setThreads(4);
+  }
+
+  @Test
+  public void fail_if_an_indexer_fails() {
+    settings.setProperty(IndexSynchronizer.THREADS_PROPERTY, 4);
+    IndexSynchronizer synchronizer = newSynchronizer();
+    doThrow(new IllegalStateException("ES is down")).when(viewIndexer).index();
+
+    try {
+      synchronizer.execute();
+      fail();
+    } catch (IllegalStateException e) {
+      assertThat(e).hasMessage("Fail to populate indices");
+      assertThat(e.getCause()).hasMessage("ES is down");
+    }
+  }
+
+  private void verifyAllIndexed() {
+    verify(activityIndexer).index();
+    verify(sourceLineIndexer).index();
+    verify(userIndexer).index();
+    verify(viewIndexer).index();
+    InOrder inOrder = inOrder(issueAuthorizationIndexer, issueIndexer);
+    inOrder.verify(issueAuthorizationIndexer).index();
+    inOrder.verify(issueIndexer).index();
+  }
+
+  private IndexSynchronizer newSynchronizer() {
+    when(sourceLineIndexer.setEnabled(true)).thenReturn(sourceLineIndexer);
+    when(issueAuthorizationIndexer.setEnabled(true)).thenReturn(issueAuthorizationIndexer);
+    when(issueIndexer.setEnabled(true)).thenReturn(issueIndexer);
+    when(userIndexer.setEnabled(true)).thenReturn(userIndexer);
+    when(viewIndexer.setEnabled(true)).thenReturn(viewIndexer);
+    when(activityIndexer.setEnabled(true)).thenReturn(activityIndexer);
+    return new IndexSynchronizer(mock(DbClient.class), mock(IndexClient.class), sourceLineIndexer, issueAuthorizationIndexer,
+      issueIndexer, userIndexer, viewIndexer, activityIndexer, settings);
+  }
+}
@@ -46,6 +46,26 @@ public class ProgressLoggerTest {
     verify(logger).info(startsWith("43 rows processed"));
   }
 
+  @Test
+  public void log_completion_if_total_is_set() throws Exception {
+    Logger logger = mock(Logger.class);
+    AtomicLong counter = new AtomicLong(0L);
+    ProgressLogger progress = new ProgressLogger("ProgressLoggerTest", counter, logger);
+    progress.setTotal(200L);
+    assertThat(progress.getTotal()).isEqualTo(200L);
+    progress.start();
+    Thread.sleep(10L);
+    counter.set(50L);
+    progress.log();
+    progress.stop();
+
+    verify(logger).info(matches("50 rows processed \\(\\d+ items/sec\\), 25% done, ETA \\d+s"));
+
+    counter.set(200L);
+    progress.log();
+    verify(logger).info(endsWith(", 100% done"));
+  }
+
   @Test
   public void create() throws Exception {
     ProgressLogger progress = ProgressLogger.create(getClass(), new AtomicLong());
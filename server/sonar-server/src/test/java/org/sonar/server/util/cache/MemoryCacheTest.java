@@ -21,12 +21,23 @@ package org.sonar.server.util.cache;
 
 import com.google.common.collect.ImmutableMap;
 import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.sonar.api.config.Settings;
+import org.sonar.api.utils.System2;
 import org.sonar.server.exceptions.NotFoundException;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.Assert.fail;
@@ -92,4 +103,141 @@ public class MemoryCacheTest {
       .containsEntry("four", "quatre");
     verify(loader, times(2)).loadAll(anyCollection());
   }
+
+  @Test
+  public void evict_least_recently_used_entries() throws Exception {
+    when(loader.load(anyString())).thenReturn("value");
+    cache = new MemoryCache<>(loader, new MemoryCache.Options().setMaxSize(2));
+
+    cache.getNullable("one");
+    cache.getNullable("two");
+    // "one" becomes the most recently used
+    cache.getNullable("one");
+    cache.getNullable("three");
+
+    assertThat(cache.size()).isEqualTo(2);
+    assertThat(cache.statistics().evictionCount()).isEqualTo(1L);
+    cache.getNullable("one");
+    cache.getNullable("three");
+    verify(loader, times(1)).load("one");
+    verify(loader, times(1)).load("three");
+
+    cache.getNullable("two");
+    verify(loader, times(2)).load("two");
+  }
+
+  @Test
+  public void expire_entries_not_accessed() throws Exception {
+    System2 system2 = mock(System2.class);
+    when(system2.now()).thenReturn(0L);
+    when(loader.load("foo")).thenReturn("bar");
+    cache = new MemoryCache<>(loader, new MemoryCache.Options().setExpireAfterAccess(1L, TimeUnit.MINUTES).setSystem2(system2));
+
+    cache.getNullable("foo");
+    when(system2.now()).thenReturn(50000L);
+    cache.getNullable("foo");
+    when(system2.now()).thenReturn(100000L);
+    cache.getNullable("foo");
+    verify(loader, times(1)).load("foo");
+
+    when(system2.now()).thenReturn(200000L);
+    assertThat(cache.getNullable("foo")).isEqualTo("bar");
+    verify(loader, times(2)).load("foo");
+    assertThat(cache.statistics().evictionCount()).isEqualTo(1L);
+  }
+
+  @Test
+  public void options_from_settings() throws Exception {
+    Settings settings = new Settings();
+    settings.setProperty(MemoryCache.MAX_SIZE_PROPERTY, 1);
+    when(loader.load(anyString())).thenReturn("value");
+    cache = new MemoryCache<>(loader, MemoryCache.Options.fromSettings(settings));
+
+    cache.getNullable("one");
+    cache.getNullable("two");
+    assertThat(cache.size()).isEqualTo(1);
+  }
+
+  @Test
+  public void fail_if_negative_max_size() throws Exception {
+    try {
+      new MemoryCache.Options().setMaxSize(-1);
+      fail();
+    } catch (IllegalArgumentException e) {
+      assertThat(e).hasMessage("Max size of cache must be positive or zero (got -1)");
+    }
+  }
+
+  @Test
+  public void record_statistics() throws Exception {
+    CacheStatistics statistics = new CacheStatistics();
+    when(loader.load("foo")).thenReturn("bar");
+    when(loader.loadAll(Arrays.asList("one", "two"))).thenReturn(ImmutableMap.of("one", "un"));
+    cache = new MemoryCache<>(loader, new MemoryCache.Options().setName("test").setStatistics(statistics));
+
+    cache.getNullable("foo");
+    cache.getNullable("foo");
+    cache.getNullable("foo");
+    cache.getAll(Arrays.asList("one", "two"));
+    cache.getAll(Arrays.asList("one", "two", "foo"));
+
+    CacheStatistics.Counters counters = statistics.counters("test");
+    assertThat(counters).isSameAs(cache.statistics());
+    assertThat(counters.hitCount()).isEqualTo(5L);
+    assertThat(counters.missCount()).isEqualTo(3L);
+    assertThat(counters.hitRate()).isEqualTo(5.0 / 8.0);
+    assertThat(counters.loadCount()).isEqualTo(2L);
+    assertThat(counters.evictionCount()).isEqualTo(0L);
+    assertThat(statistics.all()).containsOnlyKeys("test");
+  }
+
+  @Test
+  public void coalesce_concurrent_loads_of_same_key() throws Exception {
+    final CountDownLatch loading = new CountDownLatch(1);
+    final CountDownLatch release = new CountDownLatch(1);
+    when(loader.load("foo")).thenAnswer(new Answer<String>() {
+      @Override
+      public String answer(InvocationOnMock invocation) throws Throwable {
+        loading.countDown();
+        release.await();
+        return "bar";
+      }
+    });
+
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<String>> futures = new ArrayList<>();
+      for (int i = 0; i < 4; i++) {
+        futures.add(executor.submit(new Callable<String>() {
+          @Override
+          public String call() {
+            return cache.getNullable("foo");
+          }
+        }));
+      }
+      loading.await(10, TimeUnit.SECONDS);
+      release.countDown();
+      for (Future<String> future : futures) {
+        assertThat(future.get(10, TimeUnit.SECONDS)).isEqualTo("bar");
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    verify(loader, times(1)).load("foo");
+    // only the thread that loads the key records a miss
+    assertThat(cache.statistics().missCount()).isEqualTo(1L);
+    assertThat(cache.statistics().hitCount()).isEqualTo(3L);
+  }
+
+  @Test
+  public void failure_of_loader_is_not_cached() throws Exception {
+    when(loader.load("foo")).thenThrow(new IllegalStateException("db is down")).thenReturn("bar");
+    try {
+      cache.getNullable("foo");
+      fail();
+    } catch (IllegalStateException e) {
+      assertThat(e).hasMessage("db is down");
+    }
+    assertThat(cache.getNullable("foo")).isEqualTo("bar");
+  }
 }
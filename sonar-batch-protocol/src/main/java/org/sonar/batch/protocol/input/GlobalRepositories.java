@@ -19,8 +19,16 @@
  */
 package org.sonar.batch.protocol.input;
 
+import net.jpountz.lz4.LZ4BlockInputStream;
+import net.jpountz.lz4.LZ4BlockOutputStream;
 import org.sonar.batch.protocol.GsonHelper;
 
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
@@ -70,4 +78,89 @@ public class GlobalRepositories {
     return GsonHelper.create().fromJson(json, GlobalRepositories.class);
   }
 
+  /**
+   * Writes the compact binary format: a LZ4 compressed stream of delimited {@link BatchInput.GlobalRepositoriesRecord}.
+   * The stream is not closed.
+   *
+   * @since 5.2
+   */
+  public void writeTo(OutputStream output) throws IOException {
+    LZ4BlockOutputStream out = new LZ4BlockOutputStream(output);
+    BatchInput.GlobalRepositoriesRecord.Builder record = BatchInput.GlobalRepositoriesRecord.newBuilder();
+    record.setTimestamp(timestamp).build().writeDelimitedTo(out);
+    for (Metric metric : metrics) {
+      record.clear().setMetric(toMessage(metric)).build().writeDelimitedTo(out);
+    }
+    BatchInput.Property.Builder setting = BatchInput.Property.newBuilder();
+    for (Map.Entry<String, String> entry : globalSettings.entrySet()) {
+      setting.clear().setKey(entry.getKey());
+      if (entry.getValue() != null) {
+        setting.setValue(entry.getValue());
+      }
+      record.clear().setSetting(setting).build().writeDelimitedTo(out);
+    }
+    out.finish();
+  }
+
+  /**
+   * Reads the binary format written by {@link #writeTo(OutputStream)}, or the JSON format written by {@link #toJson()}.
+   * The stream is not closed.
+   *
+   * @since 5.2
+   */
+  public static GlobalRepositories readFrom(InputStream input) throws IOException {
+    InputStream buffered = new BufferedInputStream(input);
+    buffered.mark(1);
+    int first = buffered.read();
+    buffered.reset();
+    // JSON is still returned by older servers. Binary format starts with the magic header of LZ4 blocks.
+    if (first != 'L') {
+      return GsonHelper.create().fromJson(new InputStreamReader(buffered, StandardCharsets.UTF_8), GlobalRepositories.class);
+    }
+    GlobalRepositories ref = new GlobalRepositories();
+    InputStream in = new LZ4BlockInputStream(buffered);
+    BatchInput.GlobalRepositoriesRecord record;
+    while ((record = BatchInput.GlobalRepositoriesRecord.parseDelimitedFrom(in)) != null) {
+      if (record.hasTimestamp()) {
+        ref.setTimestamp(record.getTimestamp());
+      }
+      if (record.hasMetric()) {
+        ref.addMetric(fromMessage(record.getMetric()));
+      }
+      if (record.hasSetting()) {
+        ref.addGlobalSetting(record.getSetting().getKey(), record.getSetting().hasValue() ? record.getSetting().getValue() : null);
+      }
+    }
+    return ref;
+  }
+
+  private static BatchInput.Metric toMessage(Metric metric) {
+    BatchInput.Metric.Builder builder = BatchInput.Metric.newBuilder()
+      .setId(metric.id())
+      .setKey(metric.key())
+      .setValueType(metric.valueType())
+      .setDirection(metric.direction())
+      .setName(metric.name())
+      .setQualitative(metric.isQualitative())
+      .setUserManaged(metric.isUserManaged())
+      .setOptimizedBestValue(metric.isOptimizedBestValue());
+    if (metric.description() != null) {
+      builder.setDescription(metric.description());
+    }
+    if (metric.worstValue() != null) {
+      builder.setWorstValue(metric.worstValue());
+    }
+    if (metric.bestValue() != null) {
+      builder.setBestValue(metric.bestValue());
+    }
+    return builder.build();
+  }
+
+  private static Metric fromMessage(BatchInput.Metric message) {
+    return new Metric(message.getId(), message.getKey(), message.getValueType(), message.hasDescription() ? message.getDescription() : null,
+      message.getDirection(), message.getName(), message.getQualitative(), message.getUserManaged(),
+      message.hasWorstValue() ? message.getWorstValue() : null, message.hasBestValue() ? message.getBestValue() : null,
+      message.getOptimizedBestValue());
+  }
+
 }
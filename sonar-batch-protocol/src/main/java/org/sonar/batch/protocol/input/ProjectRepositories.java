@@ -19,11 +19,19 @@
  */
 package org.sonar.batch.protocol.input;
 
+import net.jpountz.lz4.LZ4BlockInputStream;
+import net.jpountz.lz4.LZ4BlockOutputStream;
 import org.sonar.batch.protocol.GsonHelper;
 
 import javax.annotation.CheckForNull;
 import javax.annotation.Nullable;
 
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 
 /**
@@ -115,4 +123,143 @@ public class ProjectRepositories {
     return GsonHelper.create().fromJson(json, ProjectRepositories.class);
   }
 
+  /**
+   * Writes the compact binary format, which is much smaller than JSON on projects with many files: a LZ4 compressed
+   * stream of delimited {@link BatchInput.ProjectRepositoriesRecord}. The stream is not closed.
+   *
+   * @since 5.2
+   */
+  public void writeTo(OutputStream output) throws IOException {
+    LZ4BlockOutputStream out = new LZ4BlockOutputStream(output);
+    BatchInput.ProjectRepositoriesRecord.Builder record = BatchInput.ProjectRepositoriesRecord.newBuilder();
+    record.setTimestamp(timestamp);
+    if (lastAnalysisDate != null) {
+      record.setLastAnalysisDate(lastAnalysisDate.getTime());
+    }
+    record.build().writeDelimitedTo(out);
+    for (QProfile qProfile : qprofilesByLanguage.values()) {
+      record.clear().setQprofile(toMessage(qProfile)).build().writeDelimitedTo(out);
+    }
+    for (ActiveRule activeRule : activeRules) {
+      record.clear().setActiveRule(toMessage(activeRule)).build().writeDelimitedTo(out);
+    }
+    BatchInput.ModuleSetting.Builder setting = BatchInput.ModuleSetting.newBuilder();
+    for (Map.Entry<String, Map<String, String>> moduleSettings : settingsByModule.entrySet()) {
+      for (Map.Entry<String, String> entry : moduleSettings.getValue().entrySet()) {
+        setting.clear().setModuleKey(moduleSettings.getKey()).setKey(entry.getKey());
+        if (entry.getValue() != null) {
+          setting.setValue(entry.getValue());
+        }
+        record.clear().setSetting(setting).build().writeDelimitedTo(out);
+      }
+    }
+    BatchInput.FileData.Builder fileData = BatchInput.FileData.newBuilder();
+    for (Map.Entry<String, Map<String, FileData>> moduleFileData : fileDataByModuleAndPath.entrySet()) {
+      for (Map.Entry<String, FileData> entry : moduleFileData.getValue().entrySet()) {
+        fileData.clear().setModuleKey(moduleFileData.getKey()).setPath(entry.getKey()).setNeedBlame(entry.getValue().needBlame());
+        if (entry.getValue().hash() != null) {
+          fileData.setHash(entry.getValue().hash());
+        }
+        record.clear().setFileData(fileData).build().writeDelimitedTo(out);
+      }
+    }
+    out.finish();
+  }
+
+  /**
+   * Reads the binary format written by {@link #writeTo(OutputStream)}, or the JSON format written by {@link #toJson()}.
+   * The stream is read record by record and is not closed.
+   *
+   * @since 5.2
+   */
+  public static ProjectRepositories readFrom(InputStream input) throws IOException {
+    InputStream buffered = new BufferedInputStream(input);
+    buffered.mark(1);
+    int first = buffered.read();
+    buffered.reset();
+    // JSON is still returned by older servers. Binary format starts with the magic header of LZ4 blocks.
+    if (first != 'L') {
+      return GsonHelper.create().fromJson(new InputStreamReader(buffered, StandardCharsets.UTF_8), ProjectRepositories.class);
+    }
+    ProjectRepositories ref = new ProjectRepositories();
+    InputStream in = new LZ4BlockInputStream(buffered);
+    BatchInput.ProjectRepositoriesRecord record;
+    while ((record = BatchInput.ProjectRepositoriesRecord.parseDelimitedFrom(in)) != null) {
+      if (record.hasTimestamp()) {
+        ref.setTimestamp(record.getTimestamp());
+      }
+      if (record.hasLastAnalysisDate()) {
+        ref.setLastAnalysisDate(new Date(record.getLastAnalysisDate()));
+      }
+      if (record.hasQprofile()) {
+        ref.addQProfile(fromMessage(record.getQprofile()));
+      }
+      if (record.hasActiveRule()) {
+        ref.addActiveRule(fromMessage(record.getActiveRule()));
+      }
+      if (record.hasSetting()) {
+        BatchInput.ModuleSetting setting = record.getSetting();
+        ref.addSettings(setting.getModuleKey(), Collections.singletonMap(setting.getKey(), setting.hasValue() ? setting.getValue() : null));
+      }
+      if (record.hasFileData()) {
+        BatchInput.FileData fileData = record.getFileData();
+        ref.addFileData(fileData.getModuleKey(), fileData.getPath(), new FileData(fileData.hasHash() ? fileData.getHash() : null, fileData.getNeedBlame()));
+      }
+    }
+    return ref;
+  }
+
+  private static BatchInput.QProfile toMessage(QProfile qProfile) {
+    BatchInput.QProfile.Builder builder = BatchInput.QProfile.newBuilder()
+      .setKey(qProfile.key())
+      .setName(qProfile.name())
+      .setLanguage(qProfile.language());
+    if (qProfile.rulesUpdatedAt() != null) {
+      builder.setRulesUpdatedAt(qProfile.rulesUpdatedAt().getTime());
+    }
+    return builder.build();
+  }
+
+  private static QProfile fromMessage(BatchInput.QProfile message) {
+    return new QProfile(message.getKey(), message.getName(), message.getLanguage(),
+      message.hasRulesUpdatedAt() ? new Date(message.getRulesUpdatedAt()) : null);
+  }
+
+  private static BatchInput.ActiveRule toMessage(ActiveRule activeRule) {
+    BatchInput.ActiveRule.Builder builder = BatchInput.ActiveRule.newBuilder()
+      .setRepositoryKey(activeRule.repositoryKey())
+      .setRuleKey(activeRule.ruleKey())
+      .setName(activeRule.name());
+    if (activeRule.templateRuleKey() != null) {
+      builder.setTemplateRuleKey(activeRule.templateRuleKey());
+    }
+    if (activeRule.severity() != null) {
+      builder.setSeverity(activeRule.severity());
+    }
+    if (activeRule.internalKey() != null) {
+      builder.setInternalKey(activeRule.internalKey());
+    }
+    if (activeRule.language() != null) {
+      builder.setLanguage(activeRule.language());
+    }
+    for (Map.Entry<String, String> param : activeRule.params().entrySet()) {
+      BatchInput.Property.Builder property = builder.addParamBuilder().setKey(param.getKey());
+      if (param.getValue() != null) {
+        property.setValue(param.getValue());
+      }
+    }
+    return builder.build();
+  }
+
+  private static ActiveRule fromMessage(BatchInput.ActiveRule message) {
+    ActiveRule activeRule = new ActiveRule(message.getRepositoryKey(), message.getRuleKey(),
+      message.hasTemplateRuleKey() ? message.getTemplateRuleKey() : null, message.getName(),
+      message.hasSeverity() ? message.getSeverity() : null, message.hasInternalKey() ? message.getInternalKey() : null,
+      message.hasLanguage() ? message.getLanguage() : null);
+    for (BatchInput.Property param : message.getParamList()) {
+      activeRule.addParam(param.getKey(), param.hasValue() ? param.getValue() : null);
+    }
+    return activeRule;
+  }
+
 }
@@ -19,36 +19,57 @@
  */
 package org.sonar.batch.protocol.output;
 
-import org.sonar.batch.protocol.ProtobufUtil;
+import com.google.protobuf.Parser;
 import org.sonar.batch.protocol.output.BatchReport.Issues;
 
 import javax.annotation.CheckForNull;
 
+import java.io.Closeable;
 import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.Collections;
 import java.util.List;
 
-public class BatchReportReader {
+/**
+ * Reads an analysis report, either from the directory generated by {@link BatchReportWriter}
+ * (see {@link #BatchReportReader(java.io.File)}) or directly from its zip (see {@link #openZip(java.io.File)}).
+ * Methods returning {@link java.io.File} are supported only on directories. The methods
+ * prefixed by "open" return streams and are supported in both cases.
+ */
+public class BatchReportReader implements Closeable {
 
-  private final FileStructure fileStructure;
+  private final ReportStorage storage;
 
   public BatchReportReader(File dir) {
-    this.fileStructure = new FileStructure(dir);
+    this(new ReportStorage.DirectoryStorage(new FileStructure(dir)));
+  }
+
+  private BatchReportReader(ReportStorage storage) {
+    this.storage = storage;
+  }
+
+  /**
+   * Reads the entries of the zipped report without extracting it. The reader must be closed.
+   * @since 5.2
+   */
+  public static BatchReportReader openZip(File zipFile) {
+    return new BatchReportReader(new ReportStorage.ZipStorage(zipFile));
   }
 
   public BatchReport.Metadata readMetadata() {
-    File file = fileStructure.metadataFile();
-    if (!doesFileExists(file)) {
-      throw new IllegalStateException("Metadata file is missing in analysis report: " + file);
+    String entryName = FileStructure.METADATA_ENTRY_NAME;
+    if (!storage.exists(entryName)) {
+      throw new IllegalStateException("Metadata file is missing in analysis report: " + storage.describe(entryName));
     }
-    return ProtobufUtil.readFile(file, BatchReport.Metadata.PARSER);
+    return readMessage(entryName, BatchReport.Metadata.PARSER);
   }
 
   public List<BatchReport.Measure> readComponentMeasures(int componentRef) {
-    File file = fileStructure.fileFor(FileStructure.Domain.MEASURES, componentRef);
-    if (doesFileExists(file)) {
+    String entryName = FileStructure.Domain.MEASURES.entryName(componentRef);
+    if (storage.exists(entryName)) {
       // all the measures are loaded in memory
-      BatchReport.Measures measures = ProtobufUtil.readFile(file, BatchReport.Measures.PARSER);
+      BatchReport.Measures measures = readMessage(entryName, BatchReport.Measures.PARSER);
       return measures.getMeasureList();
     }
     return Collections.emptyList();
@@ -56,131 +77,192 @@ public class BatchReportReader {
 
   @CheckForNull
   public BatchReport.Changesets readChangesets(int componentRef) {
-    File file = fileStructure.fileFor(FileStructure.Domain.CHANGESETS, componentRef);
-    if (doesFileExists(file)) {
-      return ProtobufUtil.readFile(file, BatchReport.Changesets.PARSER);
+    String entryName = FileStructure.Domain.CHANGESETS.entryName(componentRef);
+    if (storage.exists(entryName)) {
+      return readMessage(entryName, BatchReport.Changesets.PARSER);
     }
     return null;
   }
 
   public BatchReport.Component readComponent(int componentRef) {
-    File file = fileStructure.fileFor(FileStructure.Domain.COMPONENT, componentRef);
-    if (!doesFileExists(file)) {
-      throw new IllegalStateException("Unable to find report for component #" + componentRef + ". File does not exist: " + file);
+    String entryName = FileStructure.Domain.COMPONENT.entryName(componentRef);
+    if (!storage.exists(entryName)) {
+      throw new IllegalStateException("Unable to find report for component #" + componentRef + ". File does not exist: " + storage.describe(entryName));
     }
-    return ProtobufUtil.readFile(file, BatchReport.Component.PARSER);
+    return readMessage(entryName, BatchReport.Component.PARSER);
   }
 
   public List<BatchReport.Issue> readComponentIssues(int componentRef) {
-    File file = fileStructure.fileFor(FileStructure.Domain.ISSUES, componentRef);
-    if (doesFileExists(file)) {
+    String entryName = FileStructure.Domain.ISSUES.entryName(componentRef);
+    if (storage.exists(entryName)) {
       // all the issues are loaded in memory
-      BatchReport.Issues issues = ProtobufUtil.readFile(file, BatchReport.Issues.PARSER);
+      BatchReport.Issues issues = readMessage(entryName, BatchReport.Issues.PARSER);
       return issues.getIssueList();
     }
     return Collections.emptyList();
   }
 
   public Issues readDeletedComponentIssues(int deletedComponentRef) {
-    File file = fileStructure.fileFor(FileStructure.Domain.ISSUES_ON_DELETED, deletedComponentRef);
-    if (!doesFileExists(file)) {
+    String entryName = FileStructure.Domain.ISSUES_ON_DELETED.entryName(deletedComponentRef);
+    if (!storage.exists(entryName)) {
       throw new IllegalStateException("Unable to find report for deleted component #" + deletedComponentRef);
     }
     // all the issues are loaded in memory
-    return ProtobufUtil.readFile(file, Issues.PARSER);
+    return readMessage(entryName, Issues.PARSER);
   }
 
   public List<BatchReport.Duplication> readComponentDuplications(int componentRef) {
-    File file = fileStructure.fileFor(FileStructure.Domain.DUPLICATIONS, componentRef);
-    if (doesFileExists(file)) {
+    String entryName = FileStructure.Domain.DUPLICATIONS.entryName(componentRef);
+    if (storage.exists(entryName)) {
       // all the duplications are loaded in memory
-      BatchReport.Duplications duplications = ProtobufUtil.readFile(file, BatchReport.Duplications.PARSER);
+      BatchReport.Duplications duplications = readMessage(entryName, BatchReport.Duplications.PARSER);
       return duplications.getDuplicationList();
     }
     return Collections.emptyList();
   }
 
   public List<BatchReport.Symbols.Symbol> readComponentSymbols(int componentRef) {
-    File file = fileStructure.fileFor(FileStructure.Domain.SYMBOLS, componentRef);
-    if (doesFileExists(file)) {
+    String entryName = FileStructure.Domain.SYMBOLS.entryName(componentRef);
+    if (storage.exists(entryName)) {
       // all the symbols are loaded in memory
-      BatchReport.Symbols symbols = ProtobufUtil.readFile(file, BatchReport.Symbols.PARSER);
+      BatchReport.Symbols symbols = readMessage(entryName, BatchReport.Symbols.PARSER);
       return symbols.getSymbolList();
     }
     return Collections.emptyList();
   }
 
   public boolean hasSyntaxHighlighting(int componentRef) {
-    File file = fileStructure.fileFor(FileStructure.Domain.SYNTAX_HIGHLIGHTINGS, componentRef);
-    return file.exists();
+    return storage.exists(FileStructure.Domain.SYNTAX_HIGHLIGHTINGS.entryName(componentRef));
   }
 
   @CheckForNull
   public File readComponentSyntaxHighlighting(int fileRef) {
-    File file = fileStructure.fileFor(FileStructure.Domain.SYNTAX_HIGHLIGHTINGS, fileRef);
-    if (doesFileExists(file)) {
-      return file;
-    }
-    return null;
+    return fileIfExists(FileStructure.Domain.SYNTAX_HIGHLIGHTINGS, fileRef);
+  }
+
+  /**
+   * Stream of delimited {@link BatchReport.SyntaxHighlighting}, or null if the file has no highlighting
+   */
+  @CheckForNull
+  public InputStream openComponentSyntaxHighlighting(int fileRef) {
+    return open(FileStructure.Domain.SYNTAX_HIGHLIGHTINGS, fileRef);
   }
 
   @CheckForNull
   public File readComponentCoverage(int fileRef) {
-    File file = fileStructure.fileFor(FileStructure.Domain.COVERAGES, fileRef);
-    if (doesFileExists(file)) {
-      return file;
-    }
-    return null;
+    return fileIfExists(FileStructure.Domain.COVERAGES, fileRef);
+  }
+
+  /**
+   * Stream of delimited {@link BatchReport.Coverage}, or null if the file has no coverage
+   */
+  @CheckForNull
+  public InputStream openComponentCoverage(int fileRef) {
+    return open(FileStructure.Domain.COVERAGES, fileRef);
   }
 
   public File readFileSource(int fileRef) {
-    File file = fileStructure.fileFor(FileStructure.Domain.SOURCE, fileRef);
-    if (!doesFileExists(file)) {
-      throw new IllegalStateException("Unable to find source for file #" + fileRef + ". File does not exist: " + file);
+    File file = fileIfExists(FileStructure.Domain.SOURCE, fileRef);
+    if (file == null) {
+      throw new IllegalStateException("Unable to find source for file #" + fileRef + ". File does not exist: " + storage.describe(FileStructure.Domain.SOURCE.entryName(fileRef)));
     }
     return file;
   }
 
+  /**
+   * Stream of the UTF-8 source code of the file
+   */
+  public InputStream openFileSource(int fileRef) {
+    InputStream input = open(FileStructure.Domain.SOURCE, fileRef);
+    if (input == null) {
+      throw new IllegalStateException("Unable to find source for file #" + fileRef + ". File does not exist: " + storage.describe(FileStructure.Domain.SOURCE.entryName(fileRef)));
+    }
+    return input;
+  }
+
   @CheckForNull
   public File readTests(int testFileRef) {
-    File file = fileStructure.fileFor(FileStructure.Domain.TESTS, testFileRef);
-    if (doesFileExists(file)) {
-      return file;
-    }
+    return fileIfExists(FileStructure.Domain.TESTS, testFileRef);
+  }
 
-    return null;
+  /**
+   * Stream of delimited {@link BatchReport.Test}, or null if the file has no tests
+   */
+  @CheckForNull
+  public InputStream openTests(int testFileRef) {
+    return open(FileStructure.Domain.TESTS, testFileRef);
   }
 
   @CheckForNull
   public File readCoverageDetails(int testFileRef) {
-    File file = fileStructure.fileFor(FileStructure.Domain.COVERAGE_DETAILS, testFileRef);
-    if (doesFileExists(file)) {
-      return file;
-    }
+    return fileIfExists(FileStructure.Domain.COVERAGE_DETAILS, testFileRef);
+  }
 
-    return null;
+  /**
+   * Stream of delimited {@link BatchReport.CoverageDetail}, or null if the test file has no coverage details
+   */
+  @CheckForNull
+  public InputStream openCoverageDetails(int testFileRef) {
+    return open(FileStructure.Domain.COVERAGE_DETAILS, testFileRef);
   }
 
   @CheckForNull
   public File readFileDependencies(int fileRef) {
-    File file = fileStructure.fileFor(FileStructure.Domain.FILE_DEPENDENCIES, fileRef);
-    if (doesFileExists(file)) {
-      return file;
-    }
-    return null;
+    return fileIfExists(FileStructure.Domain.FILE_DEPENDENCIES, fileRef);
+  }
+
+  /**
+   * Stream of delimited {@link BatchReport.FileDependency}, or null if the file has no dependencies
+   */
+  @CheckForNull
+  public InputStream openFileDependencies(int fileRef) {
+    return open(FileStructure.Domain.FILE_DEPENDENCIES, fileRef);
   }
 
   public List<BatchReport.ModuleDependencies.ModuleDependency> readModuleDependencies(int componentRef) {
-    File file = fileStructure.fileFor(FileStructure.Domain.MODULE_DEPENDENCIES, componentRef);
-    if (doesFileExists(file)) {
+    String entryName = FileStructure.Domain.MODULE_DEPENDENCIES.entryName(componentRef);
+    if (storage.exists(entryName)) {
       // all the module dependencies are loaded in memory
-      BatchReport.ModuleDependencies dependencies = ProtobufUtil.readFile(file, BatchReport.ModuleDependencies.PARSER);
+      BatchReport.ModuleDependencies dependencies = readMessage(entryName, BatchReport.ModuleDependencies.PARSER);
       return dependencies.getDepList();
     }
     return Collections.emptyList();
   }
 
-  private boolean doesFileExists(File file) {
-    return file.exists() && file.isFile();
+  @Override
+  public void close() {
+    try {
+      storage.close();
+    } catch (IOException e) {
+      throw new IllegalStateException("Fail to close analysis report", e);
+    }
+  }
+
+  @CheckForNull
+  private File fileIfExists(FileStructure.Domain domain, int componentRef) {
+    String entryName = domain.entryName(componentRef);
+    File file = storage.file(entryName);
+    if (storage.exists(entryName)) {
+      return file;
+    }
+    return null;
+  }
+
+  @CheckForNull
+  private InputStream open(FileStructure.Domain domain, int componentRef) {
+    String entryName = domain.entryName(componentRef);
+    try {
+      return storage.open(entryName);
+    } catch (IOException e) {
+      throw new IllegalStateException("Failed to open file: " + storage.describe(entryName), e);
+    }
+  }
+
+  private <T> T readMessage(String entryName, Parser<T> parser) {
+    try (InputStream input = storage.open(entryName)) {
+      return parser.parseFrom(input);
+    } catch (IOException e) {
+      throw new IllegalStateException("Failed to read file: " + storage.describe(entryName), e);
+    }
   }
 }
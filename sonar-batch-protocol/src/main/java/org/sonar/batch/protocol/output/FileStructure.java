@@ -50,8 +50,17 @@ public class FileStructure {
       this.filePrefix = filePrefix;
       this.fileSuffix = fileSuffix;
     }
+
+    /**
+     * Name of the file in the report directory, which is also the name of the entry in the zipped report
+     */
+    public String entryName(int componentRef) {
+      return filePrefix + componentRef + fileSuffix;
+    }
   }
 
+  public static final String METADATA_ENTRY_NAME = "metadata.pb";
+
   private final File dir;
 
   public FileStructure(File dir) {
@@ -62,11 +71,15 @@ public class FileStructure {
   }
 
   public File metadataFile() {
-    return new File(dir, "metadata.pb");
+    return new File(dir, METADATA_ENTRY_NAME);
   }
 
   public File fileFor(Domain domain, int componentRef) {
-    return new File(dir, domain.filePrefix + componentRef + domain.fileSuffix);
+    return new File(dir, domain.entryName(componentRef));
+  }
+
+  File fileFor(String entryName) {
+    return new File(dir, entryName);
   }
 
 }
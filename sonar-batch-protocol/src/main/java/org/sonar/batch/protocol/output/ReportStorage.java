@@ -0,0 +1,153 @@
+/*
+ * SonarQube, open source software quality management tool.
+ * Copyright (C) 2008-2014 SonarSource
+ * mailto:contact AT sonarsource DOT com
+ *
+ * SonarQube is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * SonarQube is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package org.sonar.batch.protocol.output;
+
+import javax.annotation.CheckForNull;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Where the entries of an analysis report are read from: either the directory
+ * generated by {@link BatchReportWriter} or the zip of this directory, as submitted to server.
+ */
+abstract class ReportStorage implements Closeable {
+
+  abstract boolean exists(String entryName);
+
+  /**
+   * @return null if the entry does not exist
+   */
+  @CheckForNull
+  abstract InputStream open(String entryName) throws IOException;
+
+  /**
+   * File of the entry, whether it exists or not
+   * @throws UnsupportedOperationException if report is zipped
+   */
+  abstract File file(String entryName);
+
+  /**
+   * Location of the entry, used in error messages
+   */
+  abstract String describe(String entryName);
+
+  static class DirectoryStorage extends ReportStorage {
+    private final FileStructure fileStructure;
+
+    DirectoryStorage(FileStructure fileStructure) {
+      this.fileStructure = fileStructure;
+    }
+
+    @Override
+    boolean exists(String entryName) {
+      File file = fileStructure.fileFor(entryName);
+      return file.exists() && file.isFile();
+    }
+
+    @Override
+    @CheckForNull
+    InputStream open(String entryName) throws IOException {
+      if (!exists(entryName)) {
+        return null;
+      }
+      return new BufferedInputStream(new FileInputStream(fileStructure.fileFor(entryName)));
+    }
+
+    @Override
+    File file(String entryName) {
+      return fileStructure.fileFor(entryName);
+    }
+
+    @Override
+    String describe(String entryName) {
+      return fileStructure.fileFor(entryName).toString();
+    }
+
+    @Override
+    public void close() {
+      // nothing to do
+    }
+  }
+
+  /**
+   * Entries are inflated on demand. The central directory of the zip is used as an index,
+   * so entries are accessed randomly without extracting the whole report on disk.
+   */
+  static class ZipStorage extends ReportStorage {
+    private final File file;
+    private final ZipFile zipFile;
+
+    ZipStorage(File file) {
+      this.file = file;
+      try {
+        this.zipFile = new ZipFile(file);
+      } catch (IOException e) {
+        throw new IllegalStateException("Fail to open zipped analysis report: " + file, e);
+      }
+    }
+
+    @Override
+    boolean exists(String entryName) {
+      return entry(entryName) != null;
+    }
+
+    @Override
+    @CheckForNull
+    InputStream open(String entryName) throws IOException {
+      ZipEntry entry = entry(entryName);
+      if (entry == null) {
+        return null;
+      }
+      return new BufferedInputStream(zipFile.getInputStream(entry));
+    }
+
+    @CheckForNull
+    private ZipEntry entry(String entryName) {
+      ZipEntry entry = zipFile.getEntry(entryName);
+      if (entry == null || entry.isDirectory()) {
+        return null;
+      }
+      return entry;
+    }
+
+    @Override
+    File file(String entryName) {
+      throw new UnsupportedOperationException("Files are not available in zipped analysis report " + file + ". Entry streams must be used instead.");
+    }
+
+    @Override
+    String describe(String entryName) {
+      return file + "!" + entryName;
+    }
+
+    @Override
+    public void close() throws IOException {
+      zipFile.close();
+    }
+  }
+}
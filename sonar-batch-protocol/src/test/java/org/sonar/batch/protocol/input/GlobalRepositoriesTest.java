@@ -22,6 +22,10 @@ package org.sonar.batch.protocol.input;
 import org.junit.Test;
 import org.sonar.test.JsonAssert;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
 public class GlobalRepositoriesTest {
@@ -62,4 +66,46 @@ public class GlobalRepositoriesTest {
 
     assertThat(ref.globalSettings()).containsEntry("prop", "value");
   }
+
+  @Test
+  public void binary_format() throws Exception {
+    GlobalRepositories ref = new GlobalRepositories();
+    ref.addMetric(new Metric(1, "ncloc", "INT", "Description", -1, "NCLOC", true, false, 2.0, 1.0, true));
+    ref.addMetric(new Metric(2, "coverage", "PERCENT", null, 1, "Coverage", false, true, null, null, false));
+    ref.addGlobalSetting("prop", "value");
+    ref.setTimestamp(10);
+
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    ref.writeTo(output);
+    GlobalRepositories read = GlobalRepositories.readFrom(new ByteArrayInputStream(output.toByteArray()));
+
+    assertThat(read.timestamp()).isEqualTo(10);
+    assertThat(read.metrics()).hasSize(2);
+    Metric metric = read.metrics().iterator().next();
+    assertThat(metric.id()).isEqualTo(1);
+    assertThat(metric.key()).isEqualTo("ncloc");
+    assertThat(metric.valueType()).isEqualTo("INT");
+    assertThat(metric.description()).isEqualTo("Description");
+    assertThat(metric.direction()).isEqualTo(-1);
+    assertThat(metric.name()).isEqualTo("NCLOC");
+    assertThat(metric.isQualitative()).isTrue();
+    assertThat(metric.isUserManaged()).isFalse();
+    assertThat(metric.worstValue()).isEqualTo(2.0);
+    assertThat(metric.bestValue()).isEqualTo(1.0);
+    assertThat(metric.isOptimizedBestValue()).isTrue();
+    Metric coverage = read.metrics().toArray(new Metric[2])[1];
+    assertThat(coverage.description()).isNull();
+    assertThat(coverage.worstValue()).isNull();
+    assertThat(coverage.bestValue()).isNull();
+    assertThat(coverage.isUserManaged()).isTrue();
+    assertThat(read.globalSettings()).containsEntry("prop", "value");
+  }
+
+  @Test
+  public void read_json_from_stream() throws Exception {
+    GlobalRepositories ref = GlobalRepositories.readFrom(new ByteArrayInputStream("{timestamp:1,globalSettings:{prop:value}}".getBytes(StandardCharsets.UTF_8)));
+
+    assertThat(ref.timestamp()).isEqualTo(1);
+    assertThat(ref.globalSettings()).containsEntry("prop", "value");
+  }
 }
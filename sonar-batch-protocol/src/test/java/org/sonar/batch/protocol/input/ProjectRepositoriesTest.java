@@ -19,9 +19,14 @@
  */
 package org.sonar.batch.protocol.input;
 
+import net.jpountz.lz4.LZ4BlockInputStream;
 import org.junit.Test;
 import org.sonar.test.JsonAssert;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.HashMap;
@@ -92,4 +97,100 @@ public class ProjectRepositoriesTest {
 
     assertThat(ref.lastAnalysisDate().getTime()).isEqualTo(DATE_FORMAT.parse("2014-10-31T00:00:00+0100").getTime());
   }
+
+  @Test
+  public void testBinaryFormat() throws Exception {
+    ProjectRepositories ref = new ProjectRepositories();
+    ref.addQProfile(new QProfile("squid-java", "Java", "java", DATE_FORMAT.parse("2013-01-01T12:00:00+0100")));
+    HashMap<String, String> settings = new HashMap<>();
+    settings.put("prop1", "value1");
+    settings.put("prop2", "value2");
+    ref.addSettings("foo", settings);
+    ActiveRule activeRule = new ActiveRule("repo", "rule", null, "Rule", "MAJOR", "rule1", "java");
+    activeRule.addParam("param1", "value1");
+    activeRule.addParam("param2", "value2");
+    ref.addActiveRule(activeRule);
+    ref.setLastAnalysisDate(DATE_FORMAT.parse("2014-05-18T15:50:45+0100"));
+    ref.setTimestamp(10);
+    ref.addFileData("foo", "src/main/java/Foo.java", new FileData("xyz", true));
+    ref.addFileData("foo", "src/main/java/Foo2.java", new FileData(null, false));
+
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    ref.writeTo(output);
+    ProjectRepositories read = ProjectRepositories.readFrom(new ByteArrayInputStream(output.toByteArray()));
+
+    assertThat(read.timestamp()).isEqualTo(10);
+    assertThat(read.lastAnalysisDate()).isEqualTo(DATE_FORMAT.parse("2014-05-18T15:50:45+0100"));
+    QProfile qProfile = read.qProfiles().iterator().next();
+    assertThat(qProfile.key()).isEqualTo("squid-java");
+    assertThat(qProfile.name()).isEqualTo("Java");
+    assertThat(qProfile.language()).isEqualTo("java");
+    assertThat(qProfile.rulesUpdatedAt()).isEqualTo(DATE_FORMAT.parse("2013-01-01T12:00:00+0100"));
+    ActiveRule readRule = read.activeRules().iterator().next();
+    assertThat(readRule.repositoryKey()).isEqualTo("repo");
+    assertThat(readRule.ruleKey()).isEqualTo("rule");
+    assertThat(readRule.templateRuleKey()).isNull();
+    assertThat(readRule.name()).isEqualTo("Rule");
+    assertThat(readRule.severity()).isEqualTo("MAJOR");
+    assertThat(readRule.internalKey()).isEqualTo("rule1");
+    assertThat(readRule.language()).isEqualTo("java");
+    assertThat(readRule.params()).hasSize(2).containsEntry("param1", "value1").containsEntry("param2", "value2");
+    assertThat(read.settings("foo")).hasSize(2).containsEntry("prop1", "value1").containsEntry("prop2", "value2");
+    assertThat(read.fileData("foo", "src/main/java/Foo.java").hash()).isEqualTo("xyz");
+    assertThat(read.fileData("foo", "src/main/java/Foo.java").needBlame()).isTrue();
+    assertThat(read.fileData("foo", "src/main/java/Foo2.java").hash()).isNull();
+    assertThat(read.fileData("foo", "src/main/java/Foo2.java").needBlame()).isFalse();
+  }
+
+  @Test
+  public void binaryFormatIsSmallerThanJson() throws Exception {
+    ProjectRepositories ref = new ProjectRepositories();
+    for (int i = 0; i < 10000; i++) {
+      ref.addFileData("module" + (i % 10), "src/main/java/org/foo/File" + i + ".java", new FileData("0123456789abcdef" + i, i % 2 == 0));
+    }
+
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    ref.writeTo(output);
+    assertThat(output.size()).isLessThan(ref.toJson().length() / 4);
+
+    ProjectRepositories read = ProjectRepositories.readFrom(new ByteArrayInputStream(output.toByteArray()));
+    for (int i = 0; i < 10000; i++) {
+      FileData fileData = read.fileData("module" + (i % 10), "src/main/java/org/foo/File" + i + ".java");
+      assertThat(fileData.hash()).isEqualTo("0123456789abcdef" + i);
+      assertThat(fileData.needBlame()).isEqualTo(i % 2 == 0);
+    }
+  }
+
+  @Test
+  public void binaryFormatIsAStreamOfDelimitedRecords() throws Exception {
+    ProjectRepositories ref = new ProjectRepositories();
+    ref.setTimestamp(10);
+    ref.addFileData("foo", "src/main/java/Foo.java", new FileData("xyz", true));
+
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    ref.writeTo(output);
+
+    InputStream input = new LZ4BlockInputStream(new ByteArrayInputStream(output.toByteArray()));
+    BatchInput.ProjectRepositoriesRecord record = BatchInput.ProjectRepositoriesRecord.parseDelimitedFrom(input);
+    assertThat(record.getTimestamp()).isEqualTo(10);
+    assertThat(record.hasLastAnalysisDate()).isFalse();
+    record = BatchInput.ProjectRepositoriesRecord.parseDelimitedFrom(input);
+    assertThat(record.hasTimestamp()).isFalse();
+    assertThat(record.getFileData().getModuleKey()).isEqualTo("foo");
+    assertThat(record.getFileData().getPath()).isEqualTo("src/main/java/Foo.java");
+    assertThat(record.getFileData().getHash()).isEqualTo("xyz");
+    assertThat(record.getFileData().getNeedBlame()).isTrue();
+    assertThat(BatchInput.ProjectRepositoriesRecord.parseDelimitedFrom(input)).isNull();
+  }
+
+  @Test
+  public void readJsonFromStream() throws Exception {
+    ProjectRepositories ref = ProjectRepositories.readFrom(new ByteArrayInputStream(
+      "{timestamp:1,settingsByModule:{foo:{prop:value}},fileDataByModuleAndPath:{foo:{\"src/main/java/Foo.java\":{hash:xyz,needBlame:true}}}}"
+        .getBytes(StandardCharsets.UTF_8)));
+
+    assertThat(ref.timestamp()).isEqualTo(1);
+    assertThat(ref.settings("foo")).containsEntry("prop", "value");
+    assertThat(ref.fileData("foo", "src/main/java/Foo.java").hash()).isEqualTo("xyz");
+  }
 }
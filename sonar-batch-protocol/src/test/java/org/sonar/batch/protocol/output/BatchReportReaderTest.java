@@ -21,15 +21,21 @@ package org.sonar.batch.protocol.output;
 
 import com.google.common.collect.Lists;
 import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.ExpectedException;
 import org.junit.rules.TemporaryFolder;
 import org.sonar.batch.protocol.Constants;
 
 import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
 import java.util.Arrays;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -40,6 +46,9 @@ public class BatchReportReaderTest {
   @Rule
   public TemporaryFolder temp = new TemporaryFolder();
 
+  @Rule
+  public ExpectedException thrown = ExpectedException.none();
+
   File dir;
 
   BatchReportReader sut;
@@ -419,4 +428,73 @@ public class BatchReportReaderTest {
     assertThat(sut.readModuleDependencies(UNKNOWN_COMPONENT_REF)).isEmpty();
   }
 
+  @Test
+  public void read_zipped_report() throws Exception {
+    BatchReportWriter writer = new BatchReportWriter(dir);
+    writer.writeMetadata(BatchReport.Metadata.newBuilder().setProjectKey("PROJECT_A").setRootComponentRef(1).build());
+    writer.writeComponent(BatchReport.Component.newBuilder().setRef(1).setPath("src/main/java/Foo.java").build());
+    writer.writeComponentIssues(1, Arrays.asList(BatchReport.Issue.newBuilder().setUuid("ISSUE_A").build()));
+    writer.writeTests(1, Arrays.asList(BatchReport.Test.newBuilder().setName("test1").build()));
+    FileUtils.writeLines(writer.getFileStructure().fileFor(FileStructure.Domain.SOURCE, 1), Lists.newArrayList("line1", "line2"));
+
+    try (BatchReportReader zipReader = BatchReportReader.openZip(zip(dir))) {
+      assertThat(zipReader.readMetadata().getProjectKey()).isEqualTo("PROJECT_A");
+      assertThat(zipReader.readComponent(1).getPath()).isEqualTo("src/main/java/Foo.java");
+      assertThat(zipReader.readComponentIssues(1)).hasSize(1);
+      assertThat(zipReader.readComponentIssues(UNKNOWN_COMPONENT_REF)).isEmpty();
+      assertThat(zipReader.readComponentMeasures(1)).isEmpty();
+
+      try (InputStream tests = zipReader.openTests(1)) {
+        assertThat(BatchReport.Test.PARSER.parseDelimitedFrom(tests).getName()).isEqualTo("test1");
+      }
+      try (InputStream source = zipReader.openFileSource(1)) {
+        assertThat(IOUtils.readLines(source, "UTF-8")).containsExactly("line1", "line2");
+      }
+      assertThat(zipReader.openTests(UNKNOWN_COMPONENT_REF)).isNull();
+      assertThat(zipReader.openComponentCoverage(1)).isNull();
+    }
+  }
+
+  @Test
+  public void fail_if_missing_component_in_zipped_report() throws Exception {
+    new BatchReportWriter(dir).writeMetadata(BatchReport.Metadata.newBuilder().setRootComponentRef(1).build());
+
+    try (BatchReportReader zipReader = BatchReportReader.openZip(zip(dir))) {
+      thrown.expect(IllegalStateException.class);
+      thrown.expectMessage("Unable to find report for component #" + UNKNOWN_COMPONENT_REF);
+      zipReader.readComponent(UNKNOWN_COMPONENT_REF);
+    }
+  }
+
+  @Test
+  public void files_are_not_available_in_zipped_report() throws Exception {
+    new BatchReportWriter(dir).writeTests(1, Arrays.asList(BatchReport.Test.newBuilder().setName("test1").build()));
+
+    try (BatchReportReader zipReader = BatchReportReader.openZip(zip(dir))) {
+      thrown.expect(UnsupportedOperationException.class);
+      zipReader.readTests(1);
+    }
+  }
+
+  @Test
+  public void open_streams_of_report_directory() throws Exception {
+    new BatchReportWriter(dir).writeFileDependencies(1, Arrays.asList(BatchReport.FileDependency.newBuilder().setToFileRef(5).build()));
+
+    try (InputStream input = sut.openFileDependencies(1)) {
+      assertThat(BatchReport.FileDependency.PARSER.parseDelimitedFrom(input).getToFileRef()).isEqualTo(5);
+    }
+    assertThat(sut.openFileDependencies(UNKNOWN_COMPONENT_REF)).isNull();
+  }
+
+  private File zip(File dir) throws IOException {
+    File zip = temp.newFile();
+    try (ZipOutputStream out = new ZipOutputStream(new FileOutputStream(zip))) {
+      for (File file : dir.listFiles()) {
+        out.putNextEntry(new ZipEntry(file.getName()));
+        FileUtils.copyFile(file, out);
+        out.closeEntry();
+      }
+    }
+    return zip;
+  }
 }
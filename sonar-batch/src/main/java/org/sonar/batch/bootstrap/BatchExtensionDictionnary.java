@@ -22,6 +22,8 @@ package org.sonar.batch.bootstrap;
 import com.google.common.base.Predicates;
 import com.google.common.collect.Collections2;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 import org.apache.commons.lang.ClassUtils;
 import org.sonar.api.BatchExtension;
 import org.sonar.api.batch.CheckProject;
@@ -36,6 +38,7 @@ import org.sonar.api.platform.ComponentContainer;
 import org.sonar.api.resources.Project;
 import org.sonar.api.utils.AnnotationUtils;
 import org.sonar.api.utils.dag.DirectAcyclicGraph;
+import org.sonar.api.utils.dag.Node;
 import org.sonar.batch.postjob.PostJobOptimizer;
 import org.sonar.batch.postjob.PostJobWrapper;
 import org.sonar.batch.sensor.DefaultSensorContext;
@@ -52,6 +55,8 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * @since 2.6
@@ -140,6 +145,47 @@ public class BatchExtensionDictionnary {
   }
 
   public <T> Collection<T> sort(Collection<T> extensions) {
+    List sortedList = graph(extensions).sort();
+
+    return Collections2.filter(sortedList, Predicates.in(extensions));
+  }
+
+  /**
+   * For each extension, the extensions of the given collection that must be executed before it. Dependencies
+   * are followed transitively, including through the objects that are not extensions (metrics, phases...).
+   * @since 5.2
+   */
+  public <T> Map<T, Set<T>> predecessors(Collection<T> extensions) {
+    DirectAcyclicGraph dag = graph(extensions);
+    Map<Object, T> selected = Maps.newHashMap();
+    for (T extension : extensions) {
+      selected.put(extension, extension);
+    }
+    Map<Node, Set<T>> visited = Maps.newHashMap();
+    Map<T, Set<T>> result = Maps.newLinkedHashMap();
+    for (T extension : extensions) {
+      result.put(extension, predecessors(dag.add(extension), selected, visited));
+    }
+    return result;
+  }
+
+  private static <T> Set<T> predecessors(Node node, Map<Object, T> selected, Map<Node, Set<T>> visited) {
+    Set<T> result = visited.get(node);
+    if (result == null) {
+      result = Sets.newHashSet();
+      for (Node dependency : node.getDependencies()) {
+        T predecessor = selected.get(dependency.getObject());
+        if (predecessor != null) {
+          result.add(predecessor);
+        }
+        result.addAll(predecessors(dependency, selected, visited));
+      }
+      visited.put(node, result);
+    }
+    return result;
+  }
+
+  private <T> DirectAcyclicGraph graph(Collection<T> extensions) {
     DirectAcyclicGraph dag = new DirectAcyclicGraph();
 
     for (T extension : extensions) {
@@ -152,9 +198,7 @@ public class BatchExtensionDictionnary {
       }
       completePhaseDependencies(dag, extension);
     }
-    List sortedList = dag.sort();
-
-    return Collections2.filter(sortedList, Predicates.in(extensions));
+    return dag;
   }
 
   /**
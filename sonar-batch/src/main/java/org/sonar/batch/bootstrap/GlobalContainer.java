@@ -83,6 +83,7 @@ public class GlobalContainer extends ComponentContainer {
       BatchPluginJarInstaller.class,
       GlobalSettings.class,
       ServerClient.class,
+      ServerResponseCache.class,
       ExtensionInstaller.class,
       Logback.class,
       DefaultServer.class,
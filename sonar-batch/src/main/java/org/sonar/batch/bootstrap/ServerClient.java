@@ -37,12 +37,14 @@ import org.sonar.core.util.DefaultHttpDownloader;
 import org.sonar.batch.bootstrapper.EnvironmentInformation;
 import org.sonar.api.utils.HttpDownloader;
 
+import javax.annotation.CheckForNull;
 import javax.annotation.Nullable;
 
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.UnsupportedEncodingException;
+import java.net.HttpURLConnection;
 import java.net.URI;
 import java.net.URLEncoder;
 import java.util.ArrayList;
@@ -111,6 +113,24 @@ public class ServerClient implements BatchComponent {
     }
   }
 
+  /**
+   * Sends a conditional GET request, for instance with a validator of the content already known by the client.
+   *
+   * @return the content of the response, or {@code null} if the server answered 304 Not Modified
+   * @since 5.2
+   */
+  @CheckForNull
+  public InputStream requestIfModified(String pathStartingWithSlash) throws IOException {
+    // streams returned by the downloader carry the status code of the response
+    DefaultHttpDownloader.BaseHttpDownloader.HttpResponseStream response =
+      (DefaultHttpDownloader.BaseHttpDownloader.HttpResponseStream) doRequest(pathStartingWithSlash, GET, null).getInput();
+    if (response.getResponseCode() == HttpURLConnection.HTTP_NOT_MODIFIED) {
+      response.close();
+      return null;
+    }
+    return response;
+  }
+
   public InputSupplier<InputStream> doRequest(String pathStartingWithSlash, String requestMethod, @Nullable Integer timeoutMillis) {
     Preconditions.checkArgument(pathStartingWithSlash.startsWith("/"), "Path must start with slash /");
     String path = StringEscapeUtils.escapeHtml(pathStartingWithSlash);
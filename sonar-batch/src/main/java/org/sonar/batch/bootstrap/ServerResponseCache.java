@@ -0,0 +1,105 @@
+/*
+ * SonarQube, open source software quality management tool.
+ * Copyright (C) 2008-2014 SonarSource
+ * mailto:contact AT sonarsource DOT com
+ *
+ * SonarQube is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * SonarQube is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.batch.bootstrap;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.sonar.api.BatchComponent;
+import org.sonar.home.cache.FileCache;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Keeps the responses of the batch web services in the user cache, so that they survive the cleanup of working
+ * directory. The MD5 hash of the cached content is sent in the parameter "hash" of the request. The server answers
+ * the status 304 without content when it did not change, so the response is downloaded again only when it changed.
+ *
+ * @since 5.2
+ */
+public class ServerResponseCache implements BatchComponent {
+
+  static final String DIR = "_ws";
+  static final String PARAM_HASH = "hash";
+
+  private static final Logger LOG = LoggerFactory.getLogger(ServerResponseCache.class);
+
+  private final ServerClient serverClient;
+  private final FileCache fileCache;
+
+  public ServerResponseCache(ServerClient serverClient, FileCache fileCache) {
+    this.serverClient = serverClient;
+    this.fileCache = fileCache;
+  }
+
+  /**
+   * Content of the response to a GET request, read from cache if it did not change on server. Responses are cached per
+   * server and per user, as the content may depend on permissions.
+   *
+   * @param pathStartingWithSlash path and query of a web service that supports the parameter "hash"
+   */
+  public InputStream request(String pathStartingWithSlash) throws IOException {
+    File file = new File(new File(fileCache.getDir(), DIR),
+      DigestUtils.md5Hex(serverClient.getURL() + "|" + StringUtils.defaultString(serverClient.getLogin()) + "|" + pathStartingWithSlash));
+    if (!file.isFile()) {
+      return save(serverClient.doRequest(pathStartingWithSlash, "GET", null).getInput(), file);
+    }
+
+    String hash;
+    try (InputStream cached = new FileInputStream(file)) {
+      hash = DigestUtils.md5Hex(cached);
+    }
+    String separator = pathStartingWithSlash.contains("?") ? "&" : "?";
+    InputStream response = serverClient.requestIfModified(pathStartingWithSlash + separator + PARAM_HASH + "=" + hash);
+    if (response == null) {
+      LOG.debug("Not modified since last analysis: {}", pathStartingWithSlash);
+      return new FileInputStream(file);
+    }
+    return save(response, file);
+  }
+
+  /**
+   * Response is written in a temporary file, then renamed, so that concurrent analyses do not read partial content.
+   */
+  private static InputStream save(InputStream response, File file) throws IOException {
+    File tempFile = new File(file.getParentFile(), file.getName() + ".tmp" + System.nanoTime());
+    try {
+      FileUtils.forceMkdir(file.getParentFile());
+      try (InputStream input = response; OutputStream output = new FileOutputStream(tempFile)) {
+        IOUtils.copy(input, output);
+      }
+      FileUtils.deleteQuietly(file);
+      if (!tempFile.renameTo(file)) {
+        throw new IOException("Fail to rename " + tempFile + " to " + file);
+      }
+      return new FileInputStream(file);
+    } finally {
+      FileUtils.deleteQuietly(tempFile);
+    }
+  }
+}
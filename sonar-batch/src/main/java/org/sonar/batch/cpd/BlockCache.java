@@ -0,0 +1,228 @@
+/*
+ * SonarQube, open source software quality management tool.
+ * Copyright (C) 2008-2014 SonarSource
+ * mailto:contact AT sonarsource DOT com
+ *
+ * SonarQube is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * SonarQube is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.batch.cpd;
+
+import com.google.common.collect.Maps;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.sonar.api.batch.fs.InputFile;
+import org.sonar.api.batch.fs.internal.DefaultInputFile;
+import org.sonar.duplications.block.Block;
+import org.sonar.duplications.block.ByteArray;
+
+import javax.annotation.CheckForNull;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Blocks of files computed by previous analyses, keyed by the hash of file content, so that files
+ * which did not change are not tokenized again. Cache of a module and a language is stored in a single file.
+ * Only the files of current analysis are kept when it is saved.
+ * <p/>
+ * The configuration of chunker (block size, encoding...) is stored in header. Cache is ignored if it does not match.
+ *
+ * @since 5.2
+ */
+public class BlockCache {
+
+  static final int VERSION = 1;
+
+  private static final Logger LOG = LoggerFactory.getLogger(BlockCache.class);
+
+  private final File file;
+  private final String config;
+  private final Map<String, byte[]> previous;
+  private final ConcurrentMap<String, byte[]> current = Maps.newConcurrentMap();
+  private final AtomicInteger hits = new AtomicInteger();
+
+  BlockCache(File file, String config) {
+    this.file = file;
+    this.config = config;
+    this.previous = load();
+  }
+
+  private Map<String, byte[]> load() {
+    Map<String, byte[]> result = Maps.newHashMap();
+    if (!file.exists()) {
+      return result;
+    }
+    DataInputStream input = null;
+    try {
+      input = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+      if (input.readInt() != VERSION || !config.equals(input.readUTF())) {
+        LOG.debug("Ignore CPD cache {}, as it was computed with a different configuration", file);
+        return result;
+      }
+      int count = input.readInt();
+      for (int i = 0; i < count; i++) {
+        String contentHash = input.readUTF();
+        byte[] blocks = new byte[input.readInt()];
+        input.readFully(blocks);
+        result.put(contentHash, blocks);
+      }
+    } catch (IOException e) {
+      LOG.warn("Fail to read CPD cache " + file + ". It is ignored.", e);
+      result.clear();
+    } finally {
+      IOUtils.closeQuietly(input);
+    }
+    return result;
+  }
+
+  /**
+   * Blocks of a file whose content did not change since they were put, otherwise null.
+   */
+  @CheckForNull
+  public List<Block> get(InputFile inputFile) {
+    String contentHash = ((DefaultInputFile) inputFile).hash();
+    if (contentHash == null) {
+      return null;
+    }
+    byte[] blocks = previous.get(contentHash);
+    if (blocks == null) {
+      return null;
+    }
+    current.put(contentHash, blocks);
+    hits.incrementAndGet();
+    return decode(((DefaultInputFile) inputFile).key(), blocks);
+  }
+
+  public void put(InputFile inputFile, List<Block> blocks) {
+    String contentHash = ((DefaultInputFile) inputFile).hash();
+    if (contentHash != null) {
+      current.put(contentHash, encode(blocks));
+    }
+  }
+
+  /**
+   * Writes the blocks of current analysis. Cache is written in a temporary file, then renamed, so that
+   * concurrent analyses do not read partial content.
+   */
+  public void save() {
+    LOG.debug("CPD cache: {} files reused of {}", hits.get(), current.size());
+    File tempFile = new File(file.getParentFile(), file.getName() + ".tmp" + System.nanoTime());
+    DataOutputStream output = null;
+    try {
+      FileUtils.forceMkdir(file.getParentFile());
+      output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)));
+      output.writeInt(VERSION);
+      output.writeUTF(config);
+      output.writeInt(current.size());
+      for (Map.Entry<String, byte[]> entry : current.entrySet()) {
+        output.writeUTF(entry.getKey());
+        output.writeInt(entry.getValue().length);
+        output.write(entry.getValue());
+      }
+      output.close();
+      output = null;
+      FileUtils.deleteQuietly(file);
+      if (!tempFile.renameTo(file)) {
+        throw new IOException("Fail to rename " + tempFile + " to " + file);
+      }
+    } catch (IOException e) {
+      LOG.warn("Fail to write CPD cache " + file, e);
+    } finally {
+      IOUtils.closeQuietly(output);
+      FileUtils.deleteQuietly(tempFile);
+    }
+  }
+
+  /**
+   * Chunker that reuses the blocks of cache and puts the others in cache
+   */
+  public CpdExecutor.Chunker wrap(final CpdExecutor.Chunker chunker) {
+    return new CpdExecutor.Chunker() {
+      @Override
+      public List<Block> chunk(InputFile inputFile) {
+        List<Block> blocks = get(inputFile);
+        if (blocks == null) {
+          blocks = chunker.chunk(inputFile);
+          put(inputFile, blocks);
+        }
+        return blocks;
+      }
+    };
+  }
+
+  int hits() {
+    return hits.get();
+  }
+
+  private static byte[] encode(List<Block> blocks) {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    DataOutputStream output = new DataOutputStream(bytes);
+    try {
+      output.writeInt(blocks.size());
+      for (Block block : blocks) {
+        byte[] hash = block.getBlockHash().getBytes();
+        output.writeShort(hash.length);
+        output.write(hash);
+        output.writeInt(block.getIndexInFile());
+        output.writeInt(block.getStartLine());
+        output.writeInt(block.getEndLine());
+        output.writeInt(block.getStartUnit());
+        output.writeInt(block.getEndUnit());
+      }
+    } catch (IOException e) {
+      throw new IllegalStateException("Fail to encode blocks", e);
+    }
+    return bytes.toByteArray();
+  }
+
+  private static List<Block> decode(String resourceId, byte[] bytes) {
+    DataInputStream input = new DataInputStream(new ByteArrayInputStream(bytes));
+    try {
+      int count = input.readInt();
+      if (count == 0) {
+        return Collections.emptyList();
+      }
+      List<Block> blocks = new ArrayList<>(count);
+      Block.Builder builder = Block.builder().setResourceId(resourceId);
+      for (int i = 0; i < count; i++) {
+        byte[] hash = new byte[input.readShort()];
+        input.readFully(hash);
+        builder.setBlockHash(new ByteArray(hash))
+          .setIndexInFile(input.readInt())
+          .setLines(input.readInt(), input.readInt());
+        blocks.add(builder.setUnit(input.readInt(), input.readInt()).build());
+      }
+      return blocks;
+    } catch (IOException e) {
+      throw new IllegalStateException("Fail to decode blocks", e);
+    }
+  }
+}
@@ -0,0 +1,96 @@
+/*
+ * SonarQube, open source software quality management tool.
+ * Copyright (C) 2008-2014 SonarSource
+ * mailto:contact AT sonarsource DOT com
+ *
+ * SonarQube is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * SonarQube is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.batch.cpd;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Charsets;
+import com.google.common.io.Resources;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.sonar.api.BatchComponent;
+import org.sonar.api.batch.bootstrap.ProjectDefinition;
+import org.sonar.duplications.block.BlockChunker;
+import org.sonar.home.cache.FileCache;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.security.CodeSource;
+
+/**
+ * Creates the caches of CPD blocks of module. They are stored in the user cache, so that they
+ * survive the cleanup of working directory.
+ *
+ * @since 5.2
+ */
+public class BlockCacheFactory implements BatchComponent {
+
+  static final String DIR = "_cpd";
+
+  private static final String IMPLEMENTATION_VERSION = implementationVersion();
+
+  private final ProjectDefinition module;
+  private final FileCache fileCache;
+
+  public BlockCacheFactory(ProjectDefinition module, FileCache fileCache) {
+    this.module = module;
+    this.fileCache = fileCache;
+  }
+
+  /**
+   * @param config configuration of chunker. Cache is ignored when it changes, or when the version of
+   *               SonarQube or of the library of chunkers changes.
+   */
+  public BlockCache create(String languageKey, String config) {
+    String name = DigestUtils.md5Hex(module.getKeyWithBranch() + ":" + languageKey);
+    return new BlockCache(new File(new File(fileCache.getDir(), DIR), name), config + ":" + IMPLEMENTATION_VERSION);
+  }
+
+  /**
+   * Version of SonarQube and locations of the classes of batch and of sonar-duplications. Jars of batch
+   * are located in a directory named after their hash, so locations change when snapshot versions are upgraded.
+   */
+  @VisibleForTesting
+  static String implementationVersion() {
+    return sonarVersion() + ":" + codeSourceId(BlockCacheFactory.class) + ":" + codeSourceId(BlockChunker.class);
+  }
+
+  private static String sonarVersion() {
+    URL url = BlockCacheFactory.class.getResource("/sq-version.txt");
+    if (url == null) {
+      return "unknown";
+    }
+    try {
+      return Resources.toString(url, Charsets.UTF_8).trim();
+    } catch (IOException e) {
+      throw new IllegalStateException("Fail to read SonarQube version", e);
+    }
+  }
+
+  /**
+   * Name of class, and location of the jar or directory that contains it
+   */
+  static String codeSourceId(Class<?> clazz) {
+    CodeSource codeSource = clazz.getProtectionDomain().getCodeSource();
+    if (codeSource == null || codeSource.getLocation() == null) {
+      return clazz.getName();
+    }
+    return clazz.getName() + "@" + codeSource.getLocation();
+  }
+}
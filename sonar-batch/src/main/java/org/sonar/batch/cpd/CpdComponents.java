@@ -38,6 +38,7 @@ public final class CpdComponents {
       SumDuplicationsDecorator.class,
       DuplicationDensityDecorator.class,
       IndexFactory.class,
+      BlockCacheFactory.class,
       JavaCpdEngine.class,
       DefaultCpdEngine.class);
   }
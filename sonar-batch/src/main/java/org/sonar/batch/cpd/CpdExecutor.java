@@ -0,0 +1,240 @@
+/*
+ * SonarQube, open source software quality management tool.
+ * Copyright (C) 2008-2014 SonarSource
+ * mailto:contact AT sonarsource DOT com
+ *
+ * SonarQube is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * SonarQube is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.batch.cpd;
+
+import com.google.common.base.Throwables;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.sonar.api.batch.fs.InputFile;
+import org.sonar.api.batch.fs.internal.DeprecatedDefaultInputFile;
+import org.sonar.api.config.Settings;
+import org.sonar.batch.cpd.index.SonarDuplicationsIndex;
+import org.sonar.duplications.block.Block;
+import org.sonar.duplications.detector.suffixtree.SuffixTreeCloneDetectionAlgorithm;
+import org.sonar.duplications.index.CloneGroup;
+import org.sonar.duplications.index.CloneIndex;
+
+import javax.annotation.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Populates the index and detects the duplications of files. Files are chunked into blocks concurrently and
+ * detection of a file only reads the index, so several files are processed at the same time. The index is however
+ * fed and results are handed over on the calling thread, in the order of files.
+ *
+ * @since 5.2
+ */
+public class CpdExecutor {
+
+  /**
+   * Number of threads used to detect duplications. Default is the number of available processors.
+   */
+  public static final String THREADS_PROPERTY = "sonar.cpd.threads";
+
+  /**
+   * Limit of time to analyse one file (in seconds).
+   */
+  static final int TIMEOUT = 5 * 60;
+
+  private static final Logger LOG = LoggerFactory.getLogger(CpdExecutor.class);
+
+  private final SonarDuplicationsIndex index;
+  private final int threads;
+  private final long timeoutMs;
+
+  public CpdExecutor(SonarDuplicationsIndex index, int threads) {
+    this(index, threads, TimeUnit.SECONDS.toMillis(TIMEOUT));
+  }
+
+  CpdExecutor(SonarDuplicationsIndex index, int threads, long timeoutMs) {
+    this.index = index;
+    this.threads = threads;
+    this.timeoutMs = timeoutMs;
+  }
+
+  public static int threads(Settings settings) {
+    int threads = settings.getInt(THREADS_PROPERTY);
+    return threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+  }
+
+  /**
+   * Splits files into blocks. Called concurrently by several threads.
+   */
+  public interface Chunker {
+    List<Block> chunk(InputFile inputFile);
+  }
+
+  public interface Callback {
+    /**
+     * @param clones null if detection timed out
+     */
+    void onDetection(InputFile inputFile, @Nullable List<CloneGroup> clones);
+  }
+
+  public void insert(List<InputFile> inputFiles, final Chunker chunker) {
+    ExecutorService executor = newExecutor(threads, "CPD indexing %d");
+    // bounds the number of chunked files kept in memory
+    int maxPending = 2 * threads;
+    Deque<Future<List<Block>>> pending = new ArrayDeque<>();
+    try {
+      int inserted = 0;
+      for (final InputFile inputFile : inputFiles) {
+        if (pending.size() >= maxPending) {
+          index.insert(inputFiles.get(inserted), await(inputFiles.get(inserted), pending.poll()));
+          inserted++;
+        }
+        pending.add(executor.submit(new Callable<List<Block>>() {
+          @Override
+          public List<Block> call() {
+            LOG.debug("Populating index from {}", inputFile);
+            return chunker.chunk(inputFile);
+          }
+        }));
+      }
+      while (!pending.isEmpty()) {
+        index.insert(inputFiles.get(inserted), await(inputFiles.get(inserted), pending.poll()));
+        inserted++;
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private static List<Block> await(InputFile inputFile, Future<List<Block>> future) {
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      throw new IllegalStateException("Fail to populate index from " + inputFile, e);
+    } catch (ExecutionException e) {
+      Throwables.propagateIfPossible(e.getCause());
+      throw new IllegalStateException("Fail to populate index from " + inputFile, e.getCause());
+    }
+  }
+
+  public void detect(List<InputFile> inputFiles, Callback callback) {
+    ExecutorService executor = newExecutor(threads, "CPD detection %d");
+    // bounds the number of results kept in memory
+    int maxPending = 2 * threads;
+    Deque<Detection> pending = new ArrayDeque<>();
+    try {
+      for (InputFile inputFile : inputFiles) {
+        if (pending.size() >= maxPending) {
+          complete(pending.poll(), callback);
+        }
+        LOG.debug("Detection of duplications for {}", inputFile);
+        String resourceEffectiveKey = ((DeprecatedDefaultInputFile) inputFile).key();
+        Collection<Block> fileBlocks = index.getByInputFile(inputFile, resourceEffectiveKey);
+        Task task = new Task(index, fileBlocks);
+        // detections submitted before are executed first, and each of them is bounded by the timeout
+        long queueDeadline = System.currentTimeMillis() + timeoutMs * (1 + (pending.size() + threads - 1) / threads);
+        pending.add(new Detection(inputFile, task, executor.submit(task), queueDeadline));
+      }
+      while (!pending.isEmpty()) {
+        complete(pending.poll(), callback);
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private static ExecutorService newExecutor(int threads, String nameFormat) {
+    return Executors.newFixedThreadPool(threads, new ThreadFactoryBuilder()
+      .setNameFormat(nameFormat)
+      .setDaemon(true)
+      .build());
+  }
+
+  private void complete(Detection detection, Callback callback) {
+    List<CloneGroup> clones;
+    try {
+      clones = await(detection);
+    } catch (TimeoutException e) {
+      clones = null;
+      detection.future.cancel(true);
+      LOG.warn("Timeout during detection of duplications for " + detection.inputFile, e);
+    } catch (InterruptedException | ExecutionException e) {
+      throw new IllegalStateException("Fail during detection of duplication for " + detection.inputFile, e);
+    }
+    callback.onDetection(detection.inputFile, clones);
+  }
+
+  /**
+   * The timeout applies to the detection itself, not to the time spent in queue. The time in queue is however
+   * bounded by the deadline computed at submission, for example when threads are stuck in previous detections.
+   */
+  private List<CloneGroup> await(Detection detection) throws InterruptedException, ExecutionException, TimeoutException {
+    while (true) {
+      long startedAt = detection.task.startedAt;
+      long deadline = startedAt == 0L ? detection.queueDeadline : (startedAt + timeoutMs);
+      long wait = deadline - System.currentTimeMillis();
+      if (wait <= 0L && startedAt == detection.task.startedAt) {
+        throw new TimeoutException(startedAt == 0L ? "Detection did not start" : "Detection did not complete");
+      }
+      try {
+        return detection.future.get(Math.max(0L, wait), TimeUnit.MILLISECONDS);
+      } catch (TimeoutException e) {
+        // deadline is checked again, as detection may have started in the meantime
+      }
+    }
+  }
+
+  private static class Detection {
+    private final InputFile inputFile;
+    private final Task task;
+    private final Future<List<CloneGroup>> future;
+    private final long queueDeadline;
+
+    private Detection(InputFile inputFile, Task task, Future<List<CloneGroup>> future, long queueDeadline) {
+      this.inputFile = inputFile;
+      this.task = task;
+      this.future = future;
+      this.queueDeadline = queueDeadline;
+    }
+  }
+
+  static class Task implements Callable<List<CloneGroup>> {
+    private final CloneIndex index;
+    private final Collection<Block> fileBlocks;
+    private volatile long startedAt = 0L;
+
+    public Task(CloneIndex index, Collection<Block> fileBlocks) {
+      this.index = index;
+      this.fileBlocks = fileBlocks;
+    }
+
+    @Override
+    public List<CloneGroup> call() {
+      startedAt = System.currentTimeMillis();
+      return SuffixTreeCloneDetectionAlgorithm.detect(index, fileBlocks);
+    }
+  }
+}
@@ -23,6 +23,7 @@ import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Predicate;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
+import net.sourceforge.pmd.cpd.Tokenizer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.sonar.api.CoreProperties;
@@ -34,7 +35,6 @@ import org.sonar.api.batch.fs.internal.DeprecatedDefaultInputFile;
 import org.sonar.api.batch.sensor.SensorContext;
 import org.sonar.api.config.Settings;
 import org.sonar.api.resources.Project;
-import org.sonar.api.utils.SonarException;
 import org.sonar.batch.cpd.index.IndexFactory;
 import org.sonar.batch.cpd.index.SonarDuplicationsIndex;
 import org.sonar.duplications.DuplicationPredicates;
@@ -44,39 +44,31 @@ import org.sonar.duplications.internal.pmd.TokenizerBridge;
 
 import javax.annotation.Nullable;
 
-import java.util.Collection;
 import java.util.List;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.TimeUnit;
-import java.util.concurrent.TimeoutException;
 
 public class DefaultCpdEngine extends CpdEngine {
 
   private static final Logger LOG = LoggerFactory.getLogger(DefaultCpdEngine.class);
 
-  /**
-   * Limit of time to analyse one file (in seconds).
-   */
-  private static final int TIMEOUT = 5 * 60;
-
   private final IndexFactory indexFactory;
+  private final BlockCacheFactory blockCacheFactory;
   private final CpdMappings mappings;
   private final FileSystem fs;
   private final Settings settings;
   private final Project project;
 
-  public DefaultCpdEngine(@Nullable Project project, IndexFactory indexFactory, CpdMappings mappings, FileSystem fs, Settings settings) {
+  public DefaultCpdEngine(@Nullable Project project, IndexFactory indexFactory, BlockCacheFactory blockCacheFactory, CpdMappings mappings, FileSystem fs,
+    Settings settings) {
     this.project = project;
     this.indexFactory = indexFactory;
+    this.blockCacheFactory = blockCacheFactory;
     this.mappings = mappings;
     this.fs = fs;
     this.settings = settings;
   }
 
-  public DefaultCpdEngine(IndexFactory indexFactory, CpdMappings mappings, FileSystem fs, Settings settings) {
-    this(null, indexFactory, mappings, fs, settings);
+  public DefaultCpdEngine(IndexFactory indexFactory, BlockCacheFactory blockCacheFactory, CpdMappings mappings, FileSystem fs, Settings settings) {
+    this(null, indexFactory, blockCacheFactory, mappings, fs, settings);
   }
 
   @Override
@@ -112,42 +104,41 @@ public class DefaultCpdEngine extends CpdEngine {
     runCpdAnalysis(languageKey, context, sourceFiles, index);
   }
 
-  private void runCpdAnalysis(String languageKey, SensorContext context, List<InputFile> sourceFiles, SonarDuplicationsIndex index) {
-    Predicate<CloneGroup> minimumTokensPredicate = DuplicationPredicates.numberOfUnitsNotLessThan(getMinimumTokens(languageKey));
-
-    ExecutorService executorService = Executors.newSingleThreadExecutor();
-    try {
-      for (InputFile inputFile : sourceFiles) {
-        LOG.debug("Detection of duplications for {}", inputFile);
-        String resourceEffectiveKey = ((DeprecatedDefaultInputFile) inputFile).key();
-        Collection<Block> fileBlocks = index.getByInputFile(inputFile, resourceEffectiveKey);
-
-        Iterable<CloneGroup> filtered;
-        try {
-          List<CloneGroup> duplications = executorService.submit(new JavaCpdEngine.Task(index, fileBlocks)).get(TIMEOUT, TimeUnit.SECONDS);
-          filtered = Iterables.filter(duplications, minimumTokensPredicate);
-        } catch (TimeoutException e) {
-          filtered = null;
-          LOG.warn("Timeout during detection of duplications for " + inputFile, e);
-        } catch (InterruptedException | ExecutionException e) {
-          throw new SonarException("Fail during detection of duplication for " + inputFile, e);
-        }
+  private void runCpdAnalysis(String languageKey, final SensorContext context, List<InputFile> sourceFiles, SonarDuplicationsIndex index) {
+    final Predicate<CloneGroup> minimumTokensPredicate = DuplicationPredicates.numberOfUnitsNotLessThan(getMinimumTokens(languageKey));
 
+    new CpdExecutor(index, CpdExecutor.threads(settings)).detect(sourceFiles, new CpdExecutor.Callback() {
+      @Override
+      public void onDetection(InputFile inputFile, @Nullable List<CloneGroup> clones) {
+        Iterable<CloneGroup> filtered = clones == null ? null : Iterables.filter(clones, minimumTokensPredicate);
         JavaCpdEngine.save(context, inputFile, filtered);
       }
-    } finally {
-      executorService.shutdown();
-    }
+    });
   }
 
   private void populateIndex(String languageKey, List<InputFile> sourceFiles, CpdMapping mapping, SonarDuplicationsIndex index) {
-    TokenizerBridge bridge = new TokenizerBridge(mapping.getTokenizer(), fs.encoding().name(), getBlockSize(languageKey));
-    for (InputFile inputFile : sourceFiles) {
-      LOG.debug("Populating index from {}", inputFile);
-      String resourceEffectiveKey = ((DeprecatedDefaultInputFile) inputFile).key();
-      List<Block> blocks2 = bridge.chunk(resourceEffectiveKey, inputFile.file());
-      index.insert(inputFile, blocks2);
-    }
+    Tokenizer tokenizer = mapping.getTokenizer();
+    int blockSize = getBlockSize(languageKey);
+    final TokenizerBridge bridge = new TokenizerBridge(tokenizer, fs.encoding().name(), blockSize);
+    BlockCache blockCache = blockCacheFactory.create(languageKey, languageKey + ":" + blockSize + ":" + fs.encoding() + ":" + tokenizerId(tokenizer));
+    // tokenizers of plugins are not known to be thread-safe
+    new CpdExecutor(index, 1).insert(sourceFiles, blockCache.wrap(new CpdExecutor.Chunker() {
+      @Override
+      public List<Block> chunk(InputFile inputFile) {
+        String resourceEffectiveKey = ((DeprecatedDefaultInputFile) inputFile).key();
+        return bridge.chunk(resourceEffectiveKey, inputFile.file());
+      }
+    }));
+    blockCache.save();
+  }
+
+  /**
+   * Tokenizer is identified by its class and the location of its plugin. Location of plugin changes on upgrade,
+   * as plugins are copied to directories of user cache named after their hash.
+   */
+  @VisibleForTesting
+  static String tokenizerId(Tokenizer tokenizer) {
+    return BlockCacheFactory.codeSourceId(tokenizer.getClass());
   }
 
   @VisibleForTesting
@@ -30,6 +30,7 @@ import org.sonar.api.batch.fs.FilePredicates;
 import org.sonar.api.batch.fs.FileSystem;
 import org.sonar.api.batch.fs.InputFile;
 import org.sonar.api.batch.fs.internal.DeprecatedDefaultInputFile;
+import org.sonar.api.batch.fs.internal.FileMetadata;
 import org.sonar.api.batch.sensor.SensorContext;
 import org.sonar.api.batch.sensor.duplication.NewDuplication;
 import org.sonar.api.batch.sensor.duplication.internal.DefaultDuplication;
@@ -42,9 +43,7 @@ import org.sonar.batch.cpd.index.IndexFactory;
 import org.sonar.batch.cpd.index.SonarDuplicationsIndex;
 import org.sonar.duplications.block.Block;
 import org.sonar.duplications.block.BlockChunker;
-import org.sonar.duplications.detector.suffixtree.SuffixTreeCloneDetectionAlgorithm;
 import org.sonar.duplications.index.CloneGroup;
-import org.sonar.duplications.index.CloneIndex;
 import org.sonar.duplications.index.ClonePart;
 import org.sonar.duplications.java.JavaStatementBuilder;
 import org.sonar.duplications.java.JavaTokenProducer;
@@ -54,15 +53,13 @@ import org.sonar.duplications.token.TokenChunker;
 
 import javax.annotation.Nullable;
 
-import java.io.FileInputStream;
 import java.io.FileNotFoundException;
-import java.io.InputStreamReader;
+import java.io.IOException;
 import java.io.Reader;
-import java.util.Collection;
+import java.nio.charset.Charset;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
-import java.util.concurrent.*;
 
 public class JavaCpdEngine extends CpdEngine {
 
@@ -70,28 +67,28 @@ public class JavaCpdEngine extends CpdEngine {
 
   private static final int BLOCK_SIZE = 10;
 
-  /**
-   * Limit of time to analyse one file (in seconds).
-   */
-  private static final int TIMEOUT = 5 * 60;
-
   private static final int MAX_CLONE_GROUP_PER_FILE = 100;
   private static final int MAX_CLONE_PART_PER_GROUP = 100;
 
   private final IndexFactory indexFactory;
+  private final BlockCacheFactory blockCacheFactory;
   private final FileSystem fs;
   private final Settings settings;
+  private final FileMetadata fileMetadata;
   private final Project project;
 
-  public JavaCpdEngine(@Nullable Project project, IndexFactory indexFactory, FileSystem fs, Settings settings) {
+  public JavaCpdEngine(@Nullable Project project, IndexFactory indexFactory, BlockCacheFactory blockCacheFactory, FileSystem fs, Settings settings,
+    FileMetadata fileMetadata) {
     this.project = project;
     this.indexFactory = indexFactory;
+    this.blockCacheFactory = blockCacheFactory;
     this.fs = fs;
     this.settings = settings;
+    this.fileMetadata = fileMetadata;
   }
 
-  public JavaCpdEngine(IndexFactory indexFactory, FileSystem fs, Settings settings) {
-    this(null, indexFactory, fs, settings);
+  public JavaCpdEngine(IndexFactory indexFactory, BlockCacheFactory blockCacheFactory, FileSystem fs, Settings settings, FileMetadata fileMetadata) {
+    this(null, indexFactory, blockCacheFactory, fs, settings, fileMetadata);
   }
 
   @Override
@@ -116,77 +113,69 @@ public class JavaCpdEngine extends CpdEngine {
     detect(index, context, sourceFiles);
   }
 
-  private SonarDuplicationsIndex createIndex(@Nullable Project project, String language, Iterable<InputFile> sourceFiles) {
-    final SonarDuplicationsIndex index = indexFactory.create(project, language);
+  private SonarDuplicationsIndex createIndex(@Nullable Project project, String language, List<InputFile> sourceFiles) {
+    SonarDuplicationsIndex index = indexFactory.create(project, language);
+    BlockCache blockCache = blockCacheFactory.create(language, "java:" + BLOCK_SIZE + ":" + fs.encoding());
+    new CpdExecutor(index, CpdExecutor.threads(settings)).insert(sourceFiles, blockCache.wrap(new JavaChunker(fileMetadata, fs.encoding())));
+    blockCache.save();
+    return index;
+  }
 
-    TokenChunker tokenChunker = JavaTokenProducer.build();
-    StatementChunker statementChunker = JavaStatementBuilder.build();
-    BlockChunker blockChunker = new BlockChunker(BLOCK_SIZE);
+  /**
+   * Chunkers are not thread-safe, so each thread uses its own instances.
+   */
+  static class JavaChunker implements CpdExecutor.Chunker {
+    private final FileMetadata fileMetadata;
+    private final Charset encoding;
+    private final ThreadLocal<TokenChunker> tokenChunker = new ThreadLocal<TokenChunker>() {
+      @Override
+      protected TokenChunker initialValue() {
+        return JavaTokenProducer.build();
+      }
+    };
+    private final ThreadLocal<StatementChunker> statementChunker = new ThreadLocal<StatementChunker>() {
+      @Override
+      protected StatementChunker initialValue() {
+        return JavaStatementBuilder.build();
+      }
+    };
+    private final BlockChunker blockChunker = new BlockChunker(BLOCK_SIZE);
+
+    JavaChunker(FileMetadata fileMetadata, Charset encoding) {
+      this.fileMetadata = fileMetadata;
+      this.encoding = encoding;
+    }
 
-    for (InputFile inputFile : sourceFiles) {
-      LOG.debug("Populating index from {}", inputFile);
+    @Override
+    public List<Block> chunk(InputFile inputFile) {
       String resourceEffectiveKey = ((DeprecatedDefaultInputFile) inputFile).key();
 
       List<Statement> statements;
 
       Reader reader = null;
       try {
-        reader = new InputStreamReader(new FileInputStream(inputFile.file()), fs.encoding());
-        statements = statementChunker.chunk(tokenChunker.chunk(reader));
+        // content is read from memory when cached by file indexing
+        reader = fileMetadata.newReader(inputFile.file(), encoding);
+        statements = statementChunker.get().chunk(tokenChunker.get().chunk(reader));
       } catch (FileNotFoundException e) {
         throw new SonarException("Cannot find file " + inputFile.file(), e);
+      } catch (IOException e) {
+        throw new SonarException("Cannot read file " + inputFile.file(), e);
       } finally {
         IOUtils.closeQuietly(reader);
       }
 
-      List<Block> blocks = blockChunker.chunk(resourceEffectiveKey, statements);
-      index.insert(inputFile, blocks);
+      return blockChunker.chunk(resourceEffectiveKey, statements);
     }
-
-    return index;
   }
 
-  private void detect(SonarDuplicationsIndex index, org.sonar.api.batch.sensor.SensorContext context, List<InputFile> sourceFiles) {
-    ExecutorService executorService = Executors.newSingleThreadExecutor();
-    try {
-      for (InputFile inputFile : sourceFiles) {
-        LOG.debug("Detection of duplications for {}", inputFile);
-        String resourceEffectiveKey = ((DeprecatedDefaultInputFile) inputFile).key();
-
-        Collection<Block> fileBlocks = index.getByInputFile(inputFile, resourceEffectiveKey);
-
-        List<CloneGroup> clones;
-        try {
-          clones = executorService.submit(new Task(index, fileBlocks)).get(TIMEOUT, TimeUnit.SECONDS);
-        } catch (TimeoutException e) {
-          clones = null;
-          LOG.warn("Timeout during detection of duplications for " + inputFile, e);
-        } catch (InterruptedException e) {
-          throw new SonarException("Fail during detection of duplication for " + inputFile, e);
-        } catch (ExecutionException e) {
-          throw new SonarException("Fail during detection of duplication for " + inputFile, e);
-        }
-
+  private void detect(SonarDuplicationsIndex index, final org.sonar.api.batch.sensor.SensorContext context, List<InputFile> sourceFiles) {
+    new CpdExecutor(index, CpdExecutor.threads(settings)).detect(sourceFiles, new CpdExecutor.Callback() {
+      @Override
+      public void onDetection(InputFile inputFile, @Nullable List<CloneGroup> clones) {
         save(context, inputFile, clones);
       }
-    } finally {
-      executorService.shutdown();
-    }
-  }
-
-  static class Task implements Callable<List<CloneGroup>> {
-    private final CloneIndex index;
-    private final Collection<Block> fileBlocks;
-
-    public Task(CloneIndex index, Collection<Block> fileBlocks) {
-      this.index = index;
-      this.fileBlocks = fileBlocks;
-    }
-
-    @Override
-    public List<CloneGroup> call() {
-      return SuffixTreeCloneDetectionAlgorithm.detect(index, fileBlocks);
-    }
+    });
   }
 
   static void save(org.sonar.api.batch.sensor.SensorContext context, InputFile inputFile, @Nullable Iterable<CloneGroup> duplications) {
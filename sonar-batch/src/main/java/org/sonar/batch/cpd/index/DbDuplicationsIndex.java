@@ -19,13 +19,19 @@
  */
 package org.sonar.batch.cpd.index;
 
+import com.google.common.base.Preconditions;
 import com.google.common.collect.Lists;
-import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import org.apache.ibatis.session.ResultContext;
+import org.apache.ibatis.session.ResultHandler;
 import org.sonar.api.batch.fs.InputFile;
 import org.sonar.api.batch.fs.internal.DefaultInputFile;
 import org.sonar.api.database.DatabaseSession;
 import org.sonar.api.database.model.Snapshot;
 import org.sonar.api.resources.Project;
+import org.sonar.api.utils.log.Logger;
+import org.sonar.api.utils.log.Loggers;
+import org.sonar.api.utils.log.Profiler;
 import org.sonar.batch.index.ResourceCache;
 import org.sonar.core.duplication.DuplicationDao;
 import org.sonar.core.duplication.DuplicationUnitDto;
@@ -35,16 +41,22 @@ import org.sonar.duplications.block.ByteArray;
 import javax.persistence.Query;
 
 import java.util.Collection;
-import java.util.Collections;
 import java.util.List;
-import java.util.Map;
+import java.util.Set;
 
 public class DbDuplicationsIndex {
 
   private static final String RESOURCE_ID = "resourceId";
   private static final String LAST = "last";
 
-  private final Map<ByteArray, Collection<Block>> cache = Maps.newHashMap();
+  private static final Logger LOG = Loggers.get(DbDuplicationsIndex.class);
+
+  /**
+   * Hashes of the blocks of module, used to load candidates
+   */
+  private final Set<ByteArray> hashes = Sets.newHashSet();
+  private int hashBytes = 8;
+  private volatile PackedCandidates candidates;
 
   private final int currentProjectSnapshotId;
   private final Integer lastSnapshotId;
@@ -76,43 +88,41 @@ public class DbDuplicationsIndex {
     return resourceCache.get(((DefaultInputFile) inputFile).key()).snapshotId();
   }
 
-  public void prepareCache(InputFile inputFile) {
-    int resourceSnapshotId = getSnapshotIdFor(inputFile);
-    List<DuplicationUnitDto> units = dao.selectCandidates(resourceSnapshotId, lastSnapshotId, languageKey);
-    cache.clear();
-    // TODO Godin: maybe remove conversion of units to blocks?
-    for (DuplicationUnitDto unit : units) {
-      String hash = unit.getHash();
-      String resourceKey = unit.getResourceKey();
-      int indexInFile = unit.getIndexInFile();
-      int startLine = unit.getStartLine();
-      int endLine = unit.getEndLine();
-
-      // TODO Godin: in fact we could work directly with id instead of key - this will allow to decrease memory consumption
-      Block block = Block.builder()
-        .setResourceId(resourceKey)
-        .setBlockHash(new ByteArray(hash))
-        .setIndexInFile(indexInFile)
-        .setLines(startLine, endLine)
-        .build();
-
-      // Group blocks by hash
-      Collection<Block> sameHash = cache.get(block.getBlockHash());
-      if (sameHash == null) {
-        sameHash = Lists.newArrayList();
-        cache.put(block.getBlockHash(), sameHash);
+  /**
+   * Loads at once the blocks of other projects that have the same hashes as the blocks inserted so far. It must
+   * be called when all the files of module are inserted. Next calls do nothing.
+   */
+  public synchronized void prepareCache() {
+    if (candidates != null) {
+      return;
+    }
+    final PackedCandidates loaded = new PackedCandidates(hashBytes);
+    if (!hashes.isEmpty()) {
+      List<String> hexHashes = Lists.newArrayListWithCapacity(hashes.size());
+      for (ByteArray hash : hashes) {
+        hexHashes.add(hash.toString());
       }
-      sameHash.add(block);
+      Profiler profiler = Profiler.create(LOG).startInfo("Load candidates of cross-project duplications");
+      dao.selectCandidates(hexHashes, lastSnapshotId, languageKey, new ResultHandler() {
+        @Override
+        public void handleResult(ResultContext context) {
+          DuplicationUnitDto unit = (DuplicationUnitDto) context.getResultObject();
+          loaded.add(unit.getResourceId(), unit.getResourceKey(), new ByteArray(unit.getHash()), unit.getIndexInFile(), unit.getStartLine(), unit.getEndLine());
+        }
+      });
+      loaded.sort();
+      profiler.stopInfo();
+      int queries = (hexHashes.size() + DuplicationDao.MAX_HASHES_PER_QUERY - 1) / DuplicationDao.MAX_HASHES_PER_QUERY;
+      LOG.info("{} blocks of {} files loaded for {} hashes in {} queries ({} KB)",
+        loaded.size(), loaded.resourceCount(), hexHashes.size(), queries, loaded.blockDataBytes() / 1024);
     }
+    hashes.clear();
+    candidates = loaded;
   }
 
   public Collection<Block> getByHash(ByteArray hash) {
-    Collection<Block> result = cache.get(hash);
-    if (result != null) {
-      return result;
-    } else {
-      return Collections.emptyList();
-    }
+    Preconditions.checkState(candidates != null, "Candidates of duplications are not loaded");
+    return candidates.getByHash(hash);
   }
 
   public void insert(InputFile inputFile, Collection<Block> blocks) {
@@ -121,6 +131,8 @@ public class DbDuplicationsIndex {
     // TODO Godin: maybe remove conversion of blocks to units?
     List<DuplicationUnitDto> units = Lists.newArrayList();
     for (Block block : blocks) {
+      hashes.add(block.getBlockHash());
+      hashBytes = block.getBlockHash().getBytes().length;
       DuplicationUnitDto unit = new DuplicationUnitDto(
         currentProjectSnapshotId,
         resourceSnapshotId,
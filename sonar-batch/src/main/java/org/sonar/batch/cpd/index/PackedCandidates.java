@@ -0,0 +1,211 @@
+/*
+ * SonarQube, open source software quality management tool.
+ * Copyright (C) 2008-2014 SonarSource
+ * mailto:contact AT sonarsource DOT com
+ *
+ * SonarQube is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * SonarQube is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.batch.cpd.index;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import org.sonar.duplications.block.Block;
+import org.sonar.duplications.block.ByteArray;
+import org.sonar.duplications.index.DataUtils;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Blocks of other projects, packed into an array of ints and sorted by hash. Resources are referenced
+ * by their position in a table of keys, so that each key is stored only once.
+ * <p/>
+ * Queries can be executed concurrently once {@link #sort()} is called.
+ */
+class PackedCandidates {
+
+  private static final int DEFAULT_INITIAL_CAPACITY = 1024;
+
+  /**
+   * Resource, index in file, start line and end line
+   */
+  private static final int BLOCK_INTS = 4;
+
+  private final int hashInts;
+  private final int blockInts;
+
+  private final Map<Integer, Integer> resourceIndexById = Maps.newHashMap();
+  private final List<String> resourceKeys = Lists.newArrayList();
+
+  private int size = 0;
+  private int[] blockData;
+
+  /**
+   * @param hashBytes size of hash in bytes
+   */
+  PackedCandidates(int hashBytes) {
+    this.hashInts = (hashBytes + 3) / 4;
+    this.blockInts = hashInts + BLOCK_INTS;
+    this.blockData = new int[DEFAULT_INITIAL_CAPACITY * blockInts];
+  }
+
+  void add(int resourceId, String resourceKey, ByteArray hash, int indexInFile, int startLine, int endLine) {
+    int[] hashData = hash.toIntArray();
+    Preconditions.checkArgument(hashData.length == hashInts, "Expected %s ints in hash, but got %s", hashInts, hashData.length);
+    Integer resourceIndex = resourceIndexById.get(resourceId);
+    if (resourceIndex == null) {
+      resourceIndex = resourceKeys.size();
+      resourceIndexById.put(resourceId, resourceIndex);
+      resourceKeys.add(resourceKey);
+    }
+    ensureCapacity();
+    int offset = size * blockInts;
+    for (int i = 0; i < hashInts; i++) {
+      blockData[offset++] = hashData[i];
+    }
+    blockData[offset++] = resourceIndex;
+    blockData[offset++] = indexInFile;
+    blockData[offset++] = startLine;
+    blockData[offset] = endLine;
+    size++;
+  }
+
+  private void ensureCapacity() {
+    if ((size + 1) * blockInts > blockData.length) {
+      int[] oldBlockData = blockData;
+      blockData = new int[(oldBlockData.length / blockInts * 3 / 2 + 1) * blockInts];
+      System.arraycopy(oldBlockData, 0, blockData, 0, size * blockInts);
+    }
+  }
+
+  /**
+   * Sorts blocks by hash and releases the memory not used by the array of blocks
+   */
+  void sort() {
+    DataUtils.sort(byHash);
+    if (blockData.length > size * blockInts) {
+      int[] oldBlockData = blockData;
+      blockData = new int[size * blockInts];
+      System.arraycopy(oldBlockData, 0, blockData, 0, blockData.length);
+    }
+    resourceIndexById.clear();
+  }
+
+  Collection<Block> getByHash(ByteArray hash) {
+    int[] hashData = hash.toIntArray();
+    if (hashData.length != hashInts) {
+      return Collections.emptyList();
+    }
+    int index = firstIndexOfHash(hashData);
+    List<Block> result = null;
+    Block.Builder blockBuilder = Block.builder();
+    while (index < size && compareHash(index, hashData) == 0) {
+      int offset = index * blockInts + hashInts;
+      String resourceKey = resourceKeys.get(blockData[offset++]);
+      int indexInFile = blockData[offset++];
+      int startLine = blockData[offset++];
+      int endLine = blockData[offset];
+      if (result == null) {
+        result = Lists.newArrayList();
+      }
+      result.add(blockBuilder
+        .setResourceId(resourceKey)
+        .setBlockHash(hash)
+        .setIndexInFile(indexInFile)
+        .setLines(startLine, endLine)
+        .build());
+      index++;
+    }
+    return result == null ? Collections.<Block>emptyList() : result;
+  }
+
+  int size() {
+    return size;
+  }
+
+  int resourceCount() {
+    return resourceKeys.size();
+  }
+
+  /**
+   * Approximate size in bytes of the array of blocks
+   */
+  long blockDataBytes() {
+    return 4L * blockData.length;
+  }
+
+  private int firstIndexOfHash(int[] hash) {
+    int lower = 0;
+    int upper = size;
+    while (lower < upper) {
+      int mid = (lower + upper) >>> 1;
+      if (compareHash(mid, hash) < 0) {
+        lower = mid + 1;
+      } else {
+        upper = mid;
+      }
+    }
+    return lower;
+  }
+
+  private int compareHash(int index, int[] hash) {
+    int offset = index * blockInts;
+    for (int k = 0; k < hashInts; k++, offset++) {
+      if (blockData[offset] < hash[k]) {
+        return -1;
+      }
+      if (blockData[offset] > hash[k]) {
+        return 1;
+      }
+    }
+    return 0;
+  }
+
+  private final DataUtils.Sortable byHash = new DataUtils.Sortable() {
+    @Override
+    public void swap(int i, int j) {
+      int i2 = i * blockInts;
+      int j2 = j * blockInts;
+      for (int k = 0; k < blockInts; k++, i2++, j2++) {
+        int x = blockData[i2];
+        blockData[i2] = blockData[j2];
+        blockData[j2] = x;
+      }
+    }
+
+    @Override
+    public boolean isLess(int i, int j) {
+      int i2 = i * blockInts;
+      int j2 = j * blockInts;
+      for (int k = 0; k < hashInts; k++, i2++, j2++) {
+        if (blockData[i2] < blockData[j2]) {
+          return true;
+        }
+        if (blockData[i2] > blockData[j2]) {
+          return false;
+        }
+      }
+      return false;
+    }
+
+    @Override
+    public int size() {
+      return size;
+    }
+  };
+}
@@ -20,10 +20,9 @@
 package org.sonar.batch.index;
 
 import com.google.common.collect.Sets;
-import com.persistit.Exchange;
 import com.persistit.Key;
-import com.persistit.KeyFilter;
-import com.persistit.exception.PersistitException;
+import com.persistit.Persistit;
+import com.persistit.Value;
 import org.apache.commons.lang.builder.ToStringBuilder;
 
 import javax.annotation.CheckForNull;
@@ -34,43 +33,66 @@ import java.util.Set;
 
 /**
  * <p>
- * This cache is not thread-safe, due to direct usage of {@link com.persistit.Exchange}
+ * This cache is thread-safe. Keys and values are encoded with Persistit, then entries are kept
+ * by a {@link CacheStorage}.
  * </p>
  */
 public class Cache<V> {
 
   private final String name;
-  private final Exchange exchange;
+  private final Persistit persistit;
+  private final CacheStorage storage;
+  private final ThreadLocal<Key> keys;
+  private final ThreadLocal<Value> values;
 
-  Cache(String name, Exchange exchange) {
+  Cache(String name, final Persistit persistit, CacheStorage storage) {
     this.name = name;
-    this.exchange = exchange;
+    this.persistit = persistit;
+    this.storage = storage;
+    this.keys = new ThreadLocal<Key>() {
+      @Override
+      protected Key initialValue() {
+        return new Key(persistit);
+      }
+    };
+    this.values = new ThreadLocal<Value>() {
+      @Override
+      protected Value initialValue() {
+        return newValue(persistit);
+      }
+    };
+  }
+
+  private static Value newValue(Persistit persistit) {
+    return new Value(persistit, Value.INITIAL_SIZE, Value.MAXIMUM_SIZE);
+  }
+
+  CacheStorage storage() {
+    return storage;
   }
 
   public Cache<V> put(Object key, V value) {
-    resetKey(key);
-    return doPut(value);
+    return doPut(resetKey(key), value);
   }
 
   public Cache<V> put(Object firstKey, Object secondKey, V value) {
-    resetKey(firstKey, secondKey);
-    return doPut(value);
+    return doPut(resetKey(firstKey, secondKey), value);
   }
 
   public Cache<V> put(Object firstKey, Object secondKey, Object thirdKey, V value) {
-    resetKey(firstKey, secondKey, thirdKey);
-    return doPut(value);
+    return doPut(resetKey(firstKey, secondKey, thirdKey), value);
   }
 
   public Cache<V> put(Object[] key, V value) {
-    resetKey(key);
-    return doPut(value);
+    return doPut(resetKey(key), value);
   }
 
-  private Cache<V> doPut(V value) {
+  private Cache<V> doPut(Key key, V object) {
     try {
-      exchange.getValue().put(value);
-      exchange.store();
+      Value value = values.get();
+      value.clear();
+      value.put(object);
+      storage.put(key, value);
       return this;
     } catch (Exception e) {
       throw new IllegalStateException("Fail to put element in the cache " + name, e);
@@ -81,8 +103,7 @@ public class Cache<V> {
    * Returns the value object associated with keys, or null if not found.
    */
   public V get(Object key) {
-    resetKey(key);
-    return doGet();
+    return doGet(resetKey(key));
   }
 
   /**
@@ -90,8 +111,7 @@ public class Cache<V> {
    */
   @CheckForNull
   public V get(Object firstKey, Object secondKey) {
-    resetKey(firstKey, secondKey);
-    return doGet();
+    return doGet(resetKey(firstKey, secondKey));
   }
 
   /**
@@ -99,8 +119,7 @@ public class Cache<V> {
    */
   @CheckForNull
   public V get(Object firstKey, Object secondKey, Object thirdKey) {
-    resetKey(firstKey, secondKey, thirdKey);
-    return doGet();
+    return doGet(resetKey(firstKey, secondKey, thirdKey));
   }
 
   /**
@@ -108,19 +127,18 @@ public class Cache<V> {
    */
   @CheckForNull
   public V get(Object[] key) {
-    resetKey(key);
-    return doGet();
+    return doGet(resetKey(key));
   }
 
   @SuppressWarnings("unchecked")
   @CheckForNull
-  private V doGet() {
+  private V doGet(Key key) {
     try {
-      exchange.fetch();
-      if (!exchange.getValue().isDefined()) {
+      Value value = values.get();
+      if (!storage.get(key, value) || !value.isDefined()) {
         return null;
       }
-      return (V) exchange.getValue().get();
+      return (V) value.get();
     } catch (Exception e) {
       // TODO add parameters to message
       throw new IllegalStateException("Fail to get element from cache " + name, e);
@@ -128,29 +146,24 @@ public class Cache<V> {
   }
 
   public boolean containsKey(Object key) {
-    resetKey(key);
-    return doContainsKey();
+    return doContainsKey(resetKey(key));
   }
 
   public boolean containsKey(Object firstKey, Object secondKey) {
-    resetKey(firstKey, secondKey);
-    return doContainsKey();
+    return doContainsKey(resetKey(firstKey, secondKey));
   }
 
   public boolean containsKey(Object firstKey, Object secondKey, Object thirdKey) {
-    resetKey(firstKey, secondKey, thirdKey);
-    return doContainsKey();
+    return doContainsKey(resetKey(firstKey, secondKey, thirdKey));
   }
 
   public boolean containsKey(Object[] key) {
-    resetKey(key);
-    return doContainsKey();
+    return doContainsKey(resetKey(key));
   }
 
-  private boolean doContainsKey() {
+  private boolean doContainsKey(Key key) {
     try {
-      exchange.fetch();
-      return exchange.isValueDefined();
+      return storage.containsKey(key);
     } catch (Exception e) {
       // TODO add parameters to message
       throw new IllegalStateException("Fail to check if element is in cache " + name, e);
@@ -158,28 +171,24 @@ public class Cache<V> {
   }
 
   public boolean remove(Object key) {
-    resetKey(key);
-    return doRemove();
+    return doRemove(resetKey(key));
   }
 
   public boolean remove(Object firstKey, Object secondKey) {
-    resetKey(firstKey, secondKey);
-    return doRemove();
+    return doRemove(resetKey(firstKey, secondKey));
   }
 
   public boolean remove(Object firstKey, Object secondKey, Object thirdKey) {
-    resetKey(firstKey, secondKey, thirdKey);
-    return doRemove();
+    return doRemove(resetKey(firstKey, secondKey, thirdKey));
   }
 
   public boolean remove(Object[] key) {
-    resetKey(key);
-    return doRemove();
+    return doRemove(resetKey(key));
   }
 
-  private boolean doRemove() {
+  private boolean doRemove(Key key) {
     try {
-      return exchange.remove();
+      return storage.remove(key);
     } catch (Exception e) {
       // TODO add parameters to message
       throw new IllegalStateException("Fail to get element from cache " + name, e);
@@ -192,30 +201,24 @@ public class Cache<V> {
    * @param group The group name.
    */
   public Cache<V> clear(Object key) {
-    resetKey(key);
-    return doClear();
+    return doClear(resetKey(key));
   }
 
   public Cache<V> clear(Object firstKey, Object secondKey) {
-    resetKey(firstKey, secondKey);
-    return doClear();
+    return doClear(resetKey(firstKey, secondKey));
   }
 
   public Cache<V> clear(Object firstKey, Object secondKey, Object thirdKey) {
-    resetKey(firstKey, secondKey, thirdKey);
-    return doClear();
+    return doClear(resetKey(firstKey, secondKey, thirdKey));
   }
 
   public Cache<V> clear(Object[] key) {
-    resetKey(key);
-    return doClear();
+    return doClear(resetKey(key));
   }
 
-  private Cache<V> doClear() {
+  private Cache<V> doClear(Key key) {
     try {
-      Key to = new Key(exchange.getKey());
-      to.append(Key.AFTER);
-      exchange.removeKeyRange(exchange.getKey(), to);
+      storage.removePrefix(key);
       return this;
     } catch (Exception e) {
       throw new IllegalStateException("Fail to clear values from cache " + name, e);
@@ -227,8 +230,7 @@ public class Cache<V> {
    */
   public void clear() {
     try {
-      exchange.clear();
-      exchange.removeAll();
+      storage.removeAll();
     } catch (Exception e) {
       throw new IllegalStateException("Fail to clear cache", e);
     }
@@ -243,37 +245,12 @@ public class Cache<V> {
    */
   @SuppressWarnings("rawtypes")
   public Set keySet(Object key) {
-    try {
-      Set<Object> keys = Sets.newLinkedHashSet();
-      exchange.clear();
-      Exchange iteratorExchange = new Exchange(exchange);
-      iteratorExchange.append(key);
-      iteratorExchange.append(Key.BEFORE);
-      while (iteratorExchange.next(false)) {
-        keys.add(iteratorExchange.getKey().indexTo(-1).decode());
-      }
-      return keys;
-    } catch (Exception e) {
-      throw new IllegalStateException("Fail to get keys from cache " + name, e);
-    }
+    return doKeySet(key);
   }
 
   @SuppressWarnings("rawtypes")
   public Set keySet(Object firstKey, Object secondKey) {
-    try {
-      Set<Object> keys = Sets.newLinkedHashSet();
-      exchange.clear();
-      Exchange iteratorExchange = new Exchange(exchange);
-      iteratorExchange.append(firstKey);
-      iteratorExchange.append(secondKey);
-      iteratorExchange.append(Key.BEFORE);
-      while (iteratorExchange.next(false)) {
-        keys.add(iteratorExchange.getKey().indexTo(-1).decode());
-      }
-      return keys;
-    } catch (Exception e) {
-      throw new IllegalStateException("Fail to get keys from cache " + name, e);
-    }
+    return doKeySet(firstKey, secondKey);
   }
 
   /**
@@ -282,15 +259,22 @@ public class Cache<V> {
    * @return The set containing the keys for this cache.
    */
   public Set<Object> keySet() {
+    return doKeySet();
+  }
+
+  private Set<Object> doKeySet(Object... prefix) {
     try {
-      Set<Object> keys = Sets.newLinkedHashSet();
-      exchange.clear();
-      Exchange iteratorExchange = new Exchange(exchange);
-      iteratorExchange.append(Key.BEFORE);
-      while (iteratorExchange.next(false)) {
-        keys.add(iteratorExchange.getKey().indexTo(-1).decode());
+      Set<Object> result = Sets.newLinkedHashSet();
+      Key key = newKey(prefix);
+      int depth = key.getDepth();
+      int prefixSize = key.getEncodedSize();
+      while (storage.next(key, prefixSize, null)) {
+        result.add(key.indexTo(depth).decode());
+        // skip the other keys of the same group
+        key.setDepth(depth + 1);
+        key.append(Key.AFTER);
       }
-      return keys;
+      return result;
     } catch (Exception e) {
       throw new IllegalStateException("Fail to get keys from cache " + name, e);
     }
@@ -300,177 +284,139 @@ public class Cache<V> {
    * Lazy-loading values for given keys
    */
   public Iterable<V> values(Object firstKey, Object secondKey) {
-    return new ValueIterable<V>(exchange, firstKey, secondKey);
+    return new ValueIterable(firstKey, secondKey);
   }
 
   /**
    * Lazy-loading values for a given key
    */
   public Iterable<V> values(Object firstKey) {
-    return new ValueIterable<V>(exchange, firstKey);
+    return new ValueIterable(firstKey);
   }
 
   /**
    * Lazy-loading values
    */
   public Iterable<V> values() {
-    return new ValueIterable<V>(exchange);
+    return new ValueIterable();
   }
 
   public Iterable<Entry<V>> entries() {
-    return new EntryIterable<V>(exchange);
+    return new EntryIterable();
   }
 
   public Iterable<Entry<V>> entries(Object firstKey) {
-    return new EntryIterable<V>(exchange, firstKey);
+    return new EntryIterable(firstKey);
+  }
+
+  private Key resetKey(Object key) {
+    return keys.get().clear().append(key);
   }
 
-  private void resetKey(Object key) {
-    exchange.clear();
-    exchange.append(key);
+  private Key resetKey(Object first, Object second) {
+    return keys.get().clear().append(first).append(second);
   }
 
-  private void resetKey(Object first, Object second) {
-    exchange.clear();
-    exchange.append(first).append(second);
+  private Key resetKey(Object first, Object second, Object third) {
+    return keys.get().clear().append(first).append(second).append(third);
   }
 
-  private void resetKey(Object first, Object second, Object third) {
-    exchange.clear();
-    exchange.append(first).append(second).append(third);
+  private Key resetKey(Object[] keyParts) {
+    Key key = keys.get().clear();
+    for (Object o : keyParts) {
+      key.append(o);
+    }
+    return key;
   }
 
-  private void resetKey(Object[] keys) {
-    exchange.clear();
-    for (Object o : keys) {
-      exchange.append(o);
+  private Key newKey(Object... prefix) {
+    Key key = new Key(persistit);
+    for (Object o : prefix) {
+      key.append(o);
     }
+    return key;
   }
 
   //
   // LAZY ITERATORS AND ITERABLES
   //
 
-  private static class ValueIterable<T> implements Iterable<T> {
-    private final Exchange originExchange;
-    private final Object[] keys;
+  private class ValueIterable implements Iterable<V> {
+    private final Object[] prefix;
 
-    private ValueIterable(Exchange originExchange, Object... keys) {
-      this.originExchange = originExchange;
-      this.keys = keys;
+    private ValueIterable(Object... prefix) {
+      this.prefix = prefix;
     }
 
     @Override
-    public Iterator<T> iterator() {
-      originExchange.clear();
-      KeyFilter filter = new KeyFilter();
-      for (Object key : keys) {
-        originExchange.append(key);
-        filter = filter.append(KeyFilter.simpleTerm(key));
-      }
-      originExchange.append(Key.BEFORE);
-      Exchange iteratorExchange = new Exchange(originExchange);
-      return new ValueIterator<T>(iteratorExchange, filter);
+    public Iterator<V> iterator() {
+      return new StorageIterator<V>(newKey(prefix)) {
+        @SuppressWarnings("unchecked")
+        @Override
+        V current(Key key, Value value) {
+          return (V) value.get();
+        }
+      };
     }
   }
 
-  private static class ValueIterator<T> implements Iterator<T> {
-    private final Exchange exchange;
-    private final KeyFilter keyFilter;
-
-    private ValueIterator(Exchange exchange, KeyFilter keyFilter) {
-      this.exchange = exchange;
-      this.keyFilter = keyFilter;
-    }
-
-    @Override
-    public boolean hasNext() {
-      try {
-        return exchange.hasNext(keyFilter);
-      } catch (PersistitException e) {
-        throw new IllegalStateException(e);
-      }
-    }
+  private class EntryIterable implements Iterable<Entry<V>> {
+    private final Object[] prefix;
 
-    @SuppressWarnings("unchecked")
-    @Override
-    public T next() {
-      try {
-        exchange.next(keyFilter);
-      } catch (PersistitException e) {
-        throw new IllegalStateException(e);
-      }
-      if (exchange.getValue().isDefined()) {
-        return (T) exchange.getValue().get();
-      }
-      throw new NoSuchElementException();
+    private EntryIterable(Object... prefix) {
+      this.prefix = prefix;
     }
 
     @Override
-    public void remove() {
-      throw new UnsupportedOperationException("Removing an item is not supported");
+    public Iterator<Entry<V>> iterator() {
+      return new StorageIterator<Entry<V>>(newKey(prefix)) {
+        @SuppressWarnings("unchecked")
+        @Override
+        Entry<V> current(Key key, Value value) {
+          V object = (V) value.get();
+          Object[] array = new Object[key.getDepth()];
+          for (int i = 0; i < key.getDepth(); i++) {
+            array[i] = key.indexTo(i - key.getDepth()).decode();
+          }
+          return new Entry<V>(array, object);
+        }
+      };
     }
   }
 
-  private static class EntryIterable<T> implements Iterable<Entry<T>> {
-    private final Exchange originExchange;
-    private final Object[] keys;
-
-    private EntryIterable(Exchange originExchange, Object... keys) {
-      this.originExchange = originExchange;
-      this.keys = keys;
-    }
-
-    @Override
-    public Iterator<Entry<T>> iterator() {
-      originExchange.clear();
-      KeyFilter filter = new KeyFilter();
-      for (Object key : keys) {
-        originExchange.append(key);
-        filter = filter.append(KeyFilter.simpleTerm(key));
-      }
-      originExchange.append(Key.BEFORE);
-      Exchange iteratorExchange = new Exchange(originExchange);
-      return new EntryIterator<T>(iteratorExchange, filter);
+  /**
+   * Iterates on the keys prefixed by the initial value of the cursor. The cursor
+   * and the value are not shared with other iterators.
+   */
+  private abstract class StorageIterator<T> implements Iterator<T> {
+    private final Key cursor;
+    private final Value value;
+    private final int prefixSize;
+    private Boolean hasNext = null;
+
+    private StorageIterator(Key prefix) {
+      this.cursor = prefix;
+      this.prefixSize = prefix.getEncodedSize();
+      this.value = newValue(persistit);
     }
-  }
-
-  private static class EntryIterator<T> implements Iterator<Entry<T>> {
-    private final Exchange exchange;
-    private final KeyFilter keyFilter;
 
-    private EntryIterator(Exchange exchange, KeyFilter keyFilter) {
-      this.exchange = exchange;
-      this.keyFilter = keyFilter;
-    }
+    abstract T current(Key key, Value value);
 
     @Override
     public boolean hasNext() {
-      try {
-        return exchange.hasNext(keyFilter);
-      } catch (PersistitException e) {
-        throw new IllegalStateException(e);
+      if (hasNext == null) {
+        hasNext = storage.next(cursor, prefixSize, value);
       }
+      return hasNext;
     }
 
-    @SuppressWarnings("unchecked")
     @Override
-    public Entry<T> next() {
-      try {
-        exchange.next(keyFilter);
-      } catch (PersistitException e) {
-        throw new IllegalStateException(e);
-      }
-      if (exchange.getValue().isDefined()) {
-        T value = (T) exchange.getValue().get();
-        Key key = exchange.getKey();
-        Object[] array = new Object[key.getDepth()];
-        for (int i = 0; i < key.getDepth(); i++) {
-          array[i] = key.indexTo(i - key.getDepth()).decode();
-        }
-        return new Entry<T>(array, value);
+    public T next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
       }
-      throw new NoSuchElementException();
+      hasNext = null;
+      return current(cursor, value);
     }
 
     @Override
@@ -0,0 +1,70 @@
+/*
+ * SonarQube, open source software quality management tool.
+ * Copyright (C) 2008-2014 SonarSource
+ * mailto:contact AT sonarsource DOT com
+ *
+ * SonarQube is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * SonarQube is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.batch.index;
+
+import com.persistit.Key;
+import com.persistit.Value;
+
+import javax.annotation.Nullable;
+
+/**
+ * Storage of the entries of a {@link Cache}. Keys and values are encoded by Persistit {@link Key} and {@link Value},
+ * so that the natural order of keys is the unsigned lexicographic order of their encoded bytes, and so that the
+ * encoded key of a group is a prefix of the encoded keys of its elements.
+ * <p/>
+ * Implementations must be thread-safe. The {@link Key} and {@link Value} parameters are owned by the caller and are
+ * never shared between threads.
+ *
+ * @since 5.2
+ */
+interface CacheStorage {
+
+  void put(Key key, Value value);
+
+  /**
+   * Loads the value associated to key.
+   * @return false if key does not exist
+   */
+  boolean get(Key key, Value value);
+
+  boolean containsKey(Key key);
+
+  /**
+   * @return false if key does not exist
+   */
+  boolean remove(Key key);
+
+  /**
+   * Removes key and all the keys that it prefixes
+   */
+  void removePrefix(Key prefix);
+
+  void removeAll();
+
+  /**
+   * Moves key to the first existing key that is strictly greater and that starts with the first
+   * <code>prefixSize</code> encoded bytes of key. The associated value is loaded if <code>value</code>
+   * is not null.
+   *
+   * @return false if there is no such key. Key and value are then left unchanged.
+   */
+  boolean next(Key key, int prefixSize, @Nullable Value value);
+
+}
@@ -19,44 +19,117 @@
  */
 package org.sonar.batch.index;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
-import com.google.common.collect.Sets;
-import com.persistit.Exchange;
+import com.persistit.Management.BufferPoolInfo;
 import com.persistit.Persistit;
-import com.persistit.Value;
 import com.persistit.Volume;
 import com.persistit.encoding.CoderManager;
 import com.persistit.encoding.ValueCoder;
 import com.persistit.exception.PersistitException;
 import com.persistit.logging.Slf4jAdapter;
 import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang.StringUtils;
 import org.picocontainer.Startable;
+import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.sonar.api.BatchComponent;
 import org.sonar.api.utils.TempFolder;
+import org.sonar.batch.bootstrap.BootstrapProperties;
+
+import javax.annotation.Nullable;
 
 import java.io.File;
+import java.util.Collections;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
- * Factory of caches
+ * Factory of caches. The buffer pool shared by all the caches is sized from the available heap,
+ * unless its size is set by the property {@link #BUFFER_MEMORY_PROPERTY}.
+ * <p/>
+ * Entries are kept in direct memory as long as the budget defined by {@link #OFF_HEAP_MEMORY_PROPERTY} is not
+ * exceeded. The cache that exceeds it is then moved to the Persistit temporary volume.
  *
  * @since 3.6
  */
 public class Caches implements BatchComponent, Startable {
 
-  private final Set<String> cacheNames = Sets.newHashSet();
+  /**
+   * Memory in MB allocated to the buffer pool of caches. By default {@link #DEFAULT_HEAP_PERCENT}% of max heap is used.
+   */
+  public static final String BUFFER_MEMORY_PROPERTY = "sonar.batch.cache.bufferMemoryMb";
+
+  /**
+   * Direct memory in MB shared by the caches before they are moved to disk. By default {@link #DEFAULT_OFF_HEAP_PERCENT}%
+   * of max heap is used. Value 0 stores all the caches on disk.
+   * <p/>
+   * Space of removed or replaced values is not reclaimed while a cache is in memory, so caches that are often
+   * updated are moved to disk earlier than their size requires.
+   */
+  public static final String OFF_HEAP_MEMORY_PROPERTY = "sonar.batch.cache.offHeapMemoryMb";
+
+  static final int PAGE_SIZE = 8192;
+  static final int DEFAULT_HEAP_PERCENT = 5;
+  static final int MIN_BUFFER_COUNT = 10;
+  static final int MAX_BUFFER_COUNT = 512 * 1024 * 1024 / PAGE_SIZE;
+  static final int DEFAULT_OFF_HEAP_PERCENT = 10;
+  static final long MAX_DEFAULT_OFF_HEAP_MEMORY = 256L * 1024 * 1024;
+
+  private static final Logger LOG = LoggerFactory.getLogger(Caches.class);
+
+  private final Set<String> cacheNames = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
   private File tempDir;
   private Persistit persistit;
   private Volume volume;
   private final TempFolder tempFolder;
+  private final int bufferCount;
+  private final OffHeapMemory offHeapMemory;
 
-  public Caches(TempFolder tempFolder) {
+  public Caches(TempFolder tempFolder, BootstrapProperties bootstrapProperties) {
     this.tempFolder = tempFolder;
+    long maxHeap = Runtime.getRuntime().maxMemory();
+    this.bufferCount = bufferCount(maxHeap, bootstrapProperties.property(BUFFER_MEMORY_PROPERTY));
+    this.offHeapMemory = new OffHeapMemory(offHeapMemory(maxHeap, bootstrapProperties.property(OFF_HEAP_MEMORY_PROPERTY)));
     initPersistit();
   }
 
+  /**
+   * Number of pages of the buffer pool, given the max heap in bytes and the optional memory in MB set by user.
+   */
+  @VisibleForTesting
+  static int bufferCount(long maxHeap, @Nullable String memoryMbProperty) {
+    if (StringUtils.isNotBlank(memoryMbProperty)) {
+      int memoryMb = parseMb(BUFFER_MEMORY_PROPERTY, memoryMbProperty);
+      Preconditions.checkArgument(memoryMb > 0, "Property %s must be strictly positive: %s", BUFFER_MEMORY_PROPERTY, memoryMb);
+      return (int) Math.max(MIN_BUFFER_COUNT, memoryMb * 1024L * 1024L / PAGE_SIZE);
+    }
+    long bytes = maxHeap / 100 * DEFAULT_HEAP_PERCENT;
+    return (int) Math.min(MAX_BUFFER_COUNT, Math.max(MIN_BUFFER_COUNT, bytes / PAGE_SIZE));
+  }
+
+  /**
+   * Budget in bytes of direct memory, given the max heap in bytes and the optional memory in MB set by user.
+   */
+  @VisibleForTesting
+  static long offHeapMemory(long maxHeap, @Nullable String memoryMbProperty) {
+    if (StringUtils.isNotBlank(memoryMbProperty)) {
+      int memoryMb = parseMb(OFF_HEAP_MEMORY_PROPERTY, memoryMbProperty);
+      Preconditions.checkArgument(memoryMb >= 0, "Property %s must be positive: %s", OFF_HEAP_MEMORY_PROPERTY, memoryMb);
+      return memoryMb * 1024L * 1024L;
+    }
+    return Math.min(MAX_DEFAULT_OFF_HEAP_MEMORY, maxHeap / 100 * DEFAULT_OFF_HEAP_PERCENT);
+  }
+
+  private static int parseMb(String key, String value) {
+    try {
+      return Integer.parseInt(value.trim());
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException("Property " + key + " is not an integer: " + value, e);
+    }
+  }
+
   private void initPersistit() {
     try {
       tempDir = tempFolder.newDir("caches");
@@ -66,10 +139,10 @@ public class Caches implements BatchComponent, Startable {
       props.setProperty("datapath", tempDir.getAbsolutePath());
       props.setProperty("logpath", "${datapath}/log");
       props.setProperty("logfile", "${logpath}/persistit_${timestamp}.log");
-      props.setProperty("buffer.count.8192", "10");
+      props.setProperty("buffer.count." + PAGE_SIZE, String.valueOf(bufferCount));
       props.setProperty("journalpath", "${datapath}/journal");
       props.setProperty("tmpvoldir", "${datapath}");
-      props.setProperty("volume.1", "${datapath}/persistit,create,pageSize:8192,initialPages:10,extensionPages:100,maximumPages:25000");
+      props.setProperty("volume.1", "${datapath}/persistit,create,pageSize:" + PAGE_SIZE + ",initialPages:10,extensionPages:100,maximumPages:25000");
       persistit.setProperties(props);
       persistit.initialize();
       volume = persistit.createTemporaryVolume();
@@ -84,18 +157,17 @@ public class Caches implements BatchComponent, Startable {
     cm.registerValueCoder(clazz, coder);
   }
 
-  public <V> Cache<V> createCache(String cacheName) {
+  public synchronized <V> Cache<V> createCache(String cacheName) {
     Preconditions.checkState(volume != null && volume.isOpened(), "Caches are not initialized");
     Preconditions.checkState(!cacheNames.contains(cacheName), "Cache is already created: " + cacheName);
-    try {
-      Exchange exchange = persistit.getExchange(volume, cacheName, true);
-      exchange.setMaximumValueSize(Value.MAXIMUM_SIZE);
-      Cache<V> cache = new Cache<V>(cacheName, exchange);
-      cacheNames.add(cacheName);
-      return cache;
-    } catch (Exception e) {
-      throw new IllegalStateException("Fail to create cache: " + cacheName, e);
+    PersistitStorage onDisk = new PersistitStorage(cacheName, persistit, volume);
+    CacheStorage storage = onDisk;
+    if (offHeapMemory.maxBytes() > 0) {
+      storage = new SpillableStorage(cacheName, persistit, new OffHeapStorage(offHeapMemory), onDisk);
     }
+    Cache<V> cache = new Cache<V>(cacheName, persistit, storage);
+    cacheNames.add(cacheName);
+    return cache;
   }
 
   @Override
@@ -106,6 +178,7 @@ public class Caches implements BatchComponent, Startable {
   @Override
   public void stop() {
     if (persistit != null) {
+      logStatistics();
       try {
         persistit.close(false);
         persistit = null;
@@ -119,6 +192,29 @@ public class Caches implements BatchComponent, Startable {
     cacheNames.clear();
   }
 
+  private void logStatistics() {
+    if (LOG.isDebugEnabled()) {
+      try {
+        for (BufferPoolInfo pool : persistit.getManagement().getBufferPoolInfoArray()) {
+          LOG.debug(String.format("Caches: %d pages of %d bytes, page hit ratio %.1f%%, %d disk reads, %d evictions",
+            pool.getBufferCount(), pool.getBufferSize(), pool.getHitRatio() * 100.0, pool.getMissCount(), pool.getEvictCount()));
+        }
+        LOG.debug(String.format("Caches: %d bytes of off-heap memory used on %d, including %d bytes of removed or replaced values",
+          offHeapMemory.reservedBytes(), offHeapMemory.maxBytes(), offHeapMemory.unreclaimedBytes()));
+      } catch (Exception e) {
+        LOG.debug("Fail to get statistics of caches", e);
+      }
+    }
+  }
+
+  int bufferCount() {
+    return bufferCount;
+  }
+
+  OffHeapMemory offHeapMemory() {
+    return offHeapMemory;
+  }
+
   File tempDir() {
     return tempDir;
   }
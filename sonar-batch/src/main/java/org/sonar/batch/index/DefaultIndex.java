@@ -85,13 +85,15 @@ public class DefaultIndex extends SonarIndex {
   private final ResourceKeyMigration migration;
   private final DependencyPersister dependencyPersister;
   // caches
-  private Project currentProject;
-  private Map<Resource, Bucket> buckets = Maps.newLinkedHashMap();
-  private Set<Dependency> dependencies = Sets.newLinkedHashSet();
-  private Map<Resource, Map<Resource, Dependency>> outgoingDependenciesByResource = Maps.newLinkedHashMap();
-  private Map<Resource, Map<Resource, Dependency>> incomingDependenciesByResource = Maps.newLinkedHashMap();
+  private Project rootProject;
+  // modules may be scanned concurrently, each one by its own thread
+  private final ThreadLocal<Project> currentProject = new ThreadLocal<Project>();
+  private final ThreadLocal<ModuleIssues> moduleIssues = new ThreadLocal<ModuleIssues>();
+  // projects, libraries and dependencies between projects
+  private final Graph projectGraph = new Graph();
+  // other resources and dependencies, per module. Their keys are relative to module.
+  private final Map<Project, Graph> moduleGraphs = Maps.newHashMap();
   private ProjectTree projectTree;
-  private ModuleIssues moduleIssues;
 
   public DefaultIndex(ResourceCache resourceCache, DependencyPersister dependencyPersister,
     ProjectTree projectTree, MetricFinder metricFinder,
@@ -127,7 +129,7 @@ public class DefaultIndex extends SonarIndex {
       migration.checkIfMigrationNeeded(rootProject);
     }
     resourceCache.add(rootProject, null);
-    currentProject = rootProject;
+    this.rootProject = rootProject;
 
     for (Project module : rootProject.getModules()) {
       addModule(rootProject, module);
@@ -135,7 +137,31 @@ public class DefaultIndex extends SonarIndex {
   }
 
   private void addBucket(Resource resource, Bucket bucket) {
-    buckets.put(resource, bucket);
+    graphOf(resource).buckets.put(resource, bucket);
+  }
+
+  private Graph graphOf(Resource resource) {
+    if (ResourceUtils.isSet(resource) || ResourceUtils.isLibrary(resource)) {
+      return projectGraph;
+    }
+    return moduleGraph();
+  }
+
+  private Graph graphOf(Resource from, Resource to) {
+    if (ResourceUtils.isSet(from) || ResourceUtils.isSet(to)) {
+      return projectGraph;
+    }
+    return moduleGraph();
+  }
+
+  private Graph moduleGraph() {
+    Project module = getProject();
+    Graph graph = moduleGraphs.get(module);
+    if (graph == null) {
+      graph = new Graph();
+      moduleGraphs.put(module, graph);
+    }
+    return graph;
   }
 
   private void addModule(Project parent, Project module) {
@@ -152,39 +178,43 @@ public class DefaultIndex extends SonarIndex {
 
   @Override
   public Project getProject() {
-    return currentProject;
+    Project project = currentProject.get();
+    return project != null ? project : rootProject;
   }
 
+  /**
+   * Module scanned by the current thread
+   */
   public void setCurrentProject(Project project, ModuleIssues moduleIssues) {
-    this.currentProject = project;
+    this.currentProject.set(project);
 
     // the following components depend on the current module, so they need to be reloaded.
-    this.moduleIssues = moduleIssues;
+    this.moduleIssues.set(moduleIssues);
   }
 
   /**
-   * Keep only project stuff
+   * Scan of the module is done. Thread-local state is released, as it references the components of the module.
    */
-  public void clear() {
-    Iterator<Map.Entry<Resource, Bucket>> it = buckets.entrySet().iterator();
-    while (it.hasNext()) {
-      Map.Entry<Resource, Bucket> entry = it.next();
-      Resource resource = entry.getKey();
-      if (!ResourceUtils.isSet(resource)) {
-        entry.getValue().clear();
-        it.remove();
-      }
+  public void unsetCurrentProject() {
+    this.currentProject.remove();
+    this.moduleIssues.remove();
+  }
 
+  /**
+   * Keep only project stuff. Only the resources of the current module are removed, as other modules
+   * may be scanned at the same time.
+   */
+  public synchronized void clear() {
+    Graph moduleGraph = moduleGraphs.remove(getProject());
+    if (moduleGraph != null) {
+      for (Bucket bucket : moduleGraph.buckets.values()) {
+        bucket.clear();
+      }
     }
 
     // Keep only inter module dependencies
-    Set<Dependency> projectDependencies = getDependenciesBetweenProjects();
-    dependencies.clear();
-    incomingDependenciesByResource.clear();
-    outgoingDependenciesByResource.clear();
-    for (Dependency projectDependency : projectDependencies) {
+    for (Dependency projectDependency : projectGraph.dependencies) {
       projectDependency.setId(null);
-      registerDependency(projectDependency);
     }
   }
 
@@ -247,7 +277,7 @@ public class DefaultIndex extends SonarIndex {
   //
 
   @Override
-  public Dependency addDependency(Dependency dependency) {
+  public synchronized Dependency addDependency(Dependency dependency) {
     // Reload resources
     Resource from = getResource(dependency.getFrom());
     Preconditions.checkArgument(from != null, dependency.getFrom() + " is not indexed");
@@ -266,49 +296,34 @@ public class DefaultIndex extends SonarIndex {
       addDependency(parentDependency);
     }
     registerDependency(dependency);
-    dependencyPersister.saveDependency(currentProject, dependency);
+    dependencyPersister.saveDependency(getProject(), dependency);
     return dependency;
   }
 
-  boolean registerDependency(Dependency dependency) {
+  synchronized boolean registerDependency(Dependency dependency) {
     Bucket fromBucket = doIndex(dependency.getFrom());
     Bucket toBucket = doIndex(dependency.getTo());
 
     if (fromBucket != null && toBucket != null) {
-      dependencies.add(dependency);
-      registerOutgoingDependency(dependency);
-      registerIncomingDependency(dependency);
+      Graph graph = graphOf(dependency.getFrom(), dependency.getTo());
+      graph.dependencies.add(dependency);
+      graph.registerOutgoingDependency(dependency);
+      graph.registerIncomingDependency(dependency);
       return true;
     }
     return false;
   }
 
-  private void registerOutgoingDependency(Dependency dependency) {
-    Map<Resource, Dependency> outgoingDeps = outgoingDependenciesByResource.get(dependency.getFrom());
-    if (outgoingDeps == null) {
-      outgoingDeps = new HashMap<Resource, Dependency>();
-      outgoingDependenciesByResource.put(dependency.getFrom(), outgoingDeps);
-    }
-    outgoingDeps.put(dependency.getTo(), dependency);
-  }
-
-  private void registerIncomingDependency(Dependency dependency) {
-    Map<Resource, Dependency> incomingDeps = incomingDependenciesByResource.get(dependency.getTo());
-    if (incomingDeps == null) {
-      incomingDeps = new HashMap<Resource, Dependency>();
-      incomingDependenciesByResource.put(dependency.getTo(), incomingDeps);
-    }
-    incomingDeps.put(dependency.getFrom(), dependency);
-  }
-
   @Override
-  public Set<Dependency> getDependencies() {
-    return dependencies;
+  public synchronized Set<Dependency> getDependencies() {
+    Set<Dependency> result = Sets.newLinkedHashSet(projectGraph.dependencies);
+    result.addAll(moduleGraph().dependencies);
+    return result;
   }
 
   @Override
-  public Dependency getEdge(Resource from, Resource to) {
-    Map<Resource, Dependency> map = outgoingDependenciesByResource.get(from);
+  public synchronized Dependency getEdge(Resource from, Resource to) {
+    Map<Resource, Dependency> map = graphOf(from, to).outgoingDependenciesByResource.get(from);
     if (map != null) {
       return map.get(to);
     }
@@ -321,38 +336,44 @@ public class DefaultIndex extends SonarIndex {
   }
 
   @Override
-  public Set<Resource> getVertices() {
-    return buckets.keySet();
+  public synchronized Set<Resource> getVertices() {
+    Set<Resource> result = Sets.newLinkedHashSet(projectGraph.buckets.keySet());
+    result.addAll(moduleGraph().buckets.keySet());
+    return result;
   }
 
   @Override
-  public Collection<Dependency> getOutgoingEdges(Resource from) {
-    Map<Resource, Dependency> deps = outgoingDependenciesByResource.get(from);
-    if (deps != null) {
-      return deps.values();
-    }
-    return Collections.emptyList();
+  public synchronized Collection<Dependency> getOutgoingEdges(Resource from) {
+    return edges(from, projectGraph.outgoingDependenciesByResource, moduleGraph().outgoingDependenciesByResource);
   }
 
   @Override
-  public Collection<Dependency> getIncomingEdges(Resource to) {
-    Map<Resource, Dependency> deps = incomingDependenciesByResource.get(to);
-    if (deps != null) {
-      return deps.values();
-    }
-    return Collections.emptyList();
+  public synchronized Collection<Dependency> getIncomingEdges(Resource to) {
+    return edges(to, projectGraph.incomingDependenciesByResource, moduleGraph().incomingDependenciesByResource);
   }
 
-  Set<Dependency> getDependenciesBetweenProjects() {
-    Set<Dependency> result = Sets.newLinkedHashSet();
-    for (Dependency dependency : dependencies) {
-      if (ResourceUtils.isSet(dependency.getFrom()) || ResourceUtils.isSet(dependency.getTo())) {
-        result.add(dependency);
-      }
+  private static Collection<Dependency> edges(Resource resource, Map<Resource, Map<Resource, Dependency>> projectEdges,
+    Map<Resource, Map<Resource, Dependency>> moduleEdges) {
+    Map<Resource, Dependency> projectDeps = projectEdges.get(resource);
+    Map<Resource, Dependency> moduleDeps = ResourceUtils.isSet(resource) ? null : moduleEdges.get(resource);
+    if (projectDeps == null && moduleDeps == null) {
+      return Collections.emptyList();
+    }
+    if (moduleDeps == null) {
+      return projectDeps.values();
     }
+    if (projectDeps == null) {
+      return moduleDeps.values();
+    }
+    List<Dependency> result = Lists.newArrayList(projectDeps.values());
+    result.addAll(moduleDeps.values());
     return result;
   }
 
+  synchronized Set<Dependency> getDependenciesBetweenProjects() {
+    return Sets.newLinkedHashSet(projectGraph.dependencies);
+  }
+
   //
   //
   //
@@ -365,7 +386,7 @@ public class DefaultIndex extends SonarIndex {
   public void addViolation(Violation violation, boolean force) {
     Resource resource = violation.getResource();
     if (resource == null) {
-      violation.setResource(currentProject);
+      violation.setResource(getProject());
     } else if (!Scopes.isHigherThanOrEquals(resource, Scopes.FILE)) {
       throw new IllegalArgumentException("Violations are only supported on files, directories and project");
     }
@@ -388,7 +409,7 @@ public class DefaultIndex extends SonarIndex {
     violation.setSeverity(null);
 
     violation.setResource(bucket.getResource());
-    moduleIssues.initAndAddViolation(violation);
+    moduleIssues.get().initAndAddViolation(violation);
   }
 
   @Override
@@ -396,7 +417,7 @@ public class DefaultIndex extends SonarIndex {
     Resource resource = getResource(reference);
     if (resource instanceof File) {
       File file = (File) resource;
-      Project module = currentProject;
+      Project module = getProject();
       ProjectDefinition def = projectTree.getProjectDefinition(module);
       try {
         return FileUtils.readFileToString(new java.io.File(def.getBaseDir(), file.getPath()));
@@ -466,7 +487,7 @@ public class DefaultIndex extends SonarIndex {
     return bucket != null;
   }
 
-  private Bucket doIndex(Resource resource, @Nullable Resource parentReference) {
+  private synchronized Bucket doIndex(Resource resource, @Nullable Resource parentReference) {
     Bucket bucket = getBucket(resource);
     if (bucket != null) {
       return bucket;
@@ -480,7 +501,7 @@ public class DefaultIndex extends SonarIndex {
     Resource parent = null;
     if (!ResourceUtils.isLibrary(resource)) {
       // a library has no parent
-      parent = (Resource) ObjectUtils.defaultIfNull(parentReference, currentProject);
+      parent = (Resource) ObjectUtils.defaultIfNull(parentReference, getProject());
     }
 
     Bucket parentBucket = getBucket(parent);
@@ -492,7 +513,7 @@ public class DefaultIndex extends SonarIndex {
     if (ResourceUtils.isProject(resource) || /* For technical projects */ResourceUtils.isRootProject(resource)) {
       resource.setEffectiveKey(resource.getKey());
     } else {
-      resource.setEffectiveKey(ComponentKeys.createEffectiveKey(currentProject, resource));
+      resource.setEffectiveKey(ComponentKeys.createEffectiveKey(getProject(), resource));
     }
     bucket = new Bucket(resource).setParent(parentBucket);
     addBucket(resource, bucket);
@@ -513,12 +534,12 @@ public class DefaultIndex extends SonarIndex {
     return getBucket(reference) != null;
   }
 
-  private Bucket getBucket(@Nullable Resource reference) {
+  private synchronized Bucket getBucket(@Nullable Resource reference) {
     if (reference == null) {
       return null;
     }
     if (StringUtils.isNotBlank(reference.getKey())) {
-      return buckets.get(reference);
+      return graphOf(reference).buckets.get(reference);
     }
     String relativePathFromSourceDir = null;
     boolean isTest = false;
@@ -555,4 +576,29 @@ public class DefaultIndex extends SonarIndex {
     return null;
   }
 
+  private static class Graph {
+    private final Map<Resource, Bucket> buckets = Maps.newLinkedHashMap();
+    private final Set<Dependency> dependencies = Sets.newLinkedHashSet();
+    private final Map<Resource, Map<Resource, Dependency>> outgoingDependenciesByResource = Maps.newLinkedHashMap();
+    private final Map<Resource, Map<Resource, Dependency>> incomingDependenciesByResource = Maps.newLinkedHashMap();
+
+    private void registerOutgoingDependency(Dependency dependency) {
+      Map<Resource, Dependency> outgoingDeps = outgoingDependenciesByResource.get(dependency.getFrom());
+      if (outgoingDeps == null) {
+        outgoingDeps = new HashMap<Resource, Dependency>();
+        outgoingDependenciesByResource.put(dependency.getFrom(), outgoingDeps);
+      }
+      outgoingDeps.put(dependency.getTo(), dependency);
+    }
+
+    private void registerIncomingDependency(Dependency dependency) {
+      Map<Resource, Dependency> incomingDeps = incomingDependenciesByResource.get(dependency.getTo());
+      if (incomingDeps == null) {
+        incomingDeps = new HashMap<Resource, Dependency>();
+        incomingDependenciesByResource.put(dependency.getTo(), incomingDeps);
+      }
+      incomingDeps.put(dependency.getFrom(), dependency);
+    }
+  }
+
 }
@@ -33,7 +33,6 @@ public final class DependencyPersister {
   private final ResourceCache resourceCache;
   private final DatabaseSession session;
   private final ReportPublisher reportPublisher;
-  private final BatchReport.FileDependency.Builder builder = BatchReport.FileDependency.newBuilder();
 
   public DependencyPersister(ResourceCache resourceCache, ReportPublisher reportPublisher, @Nullable DatabaseSession session) {
     this.resourceCache = resourceCache;
@@ -51,8 +50,8 @@ public final class DependencyPersister {
     BatchResource projectResource = resourceCache.get(project);
 
     if (fromResource.isFile() && toResource.isFile()) {
-      builder.clear();
-      reportPublisher.getWriter().appendFileDependency(fromResource.batchId(), builder.setToFileRef(toResource.batchId()).setWeight(dependency.getWeight()).build());
+      // no builder shared between calls, as modules may be scanned concurrently
+      reportPublisher.getWriter().appendFileDependency(fromResource.batchId(), BatchReport.FileDependency.newBuilder().setToFileRef(toResource.batchId()).setWeight(dependency.getWeight()).build());
     }
 
     if (session != null) {
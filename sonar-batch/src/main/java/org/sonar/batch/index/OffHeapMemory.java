@@ -0,0 +1,77 @@
+/*
+ * SonarQube, open source software quality management tool.
+ * Copyright (C) 2008-2014 SonarSource
+ * mailto:contact AT sonarsource DOT com
+ *
+ * SonarQube is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * SonarQube is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.batch.index;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Budget of direct memory shared by the off-heap storages of caches
+ */
+class OffHeapMemory {
+
+  private final long maxBytes;
+  private final AtomicLong reservedBytes = new AtomicLong();
+  private final AtomicLong unreclaimedBytes = new AtomicLong();
+
+  OffHeapMemory(long maxBytes) {
+    this.maxBytes = maxBytes;
+  }
+
+  /**
+   * @return false if the reservation would exceed the budget
+   */
+  boolean tryReserve(long bytes) {
+    while (true) {
+      long reserved = reservedBytes.get();
+      if (reserved + bytes > maxBytes) {
+        return false;
+      }
+      if (reservedBytes.compareAndSet(reserved, reserved + bytes)) {
+        return true;
+      }
+    }
+  }
+
+  void release(long bytes) {
+    reservedBytes.addAndGet(-bytes);
+  }
+
+  long maxBytes() {
+    return maxBytes;
+  }
+
+  long reservedBytes() {
+    return reservedBytes.get();
+  }
+
+  /**
+   * Adds or subtracts the space of removed or replaced values, which stays reserved until the storage is cleared
+   */
+  void addUnreclaimed(long bytes) {
+    unreclaimedBytes.addAndGet(bytes);
+  }
+
+  /**
+   * Reserved bytes that are not used anymore by the values of caches
+   */
+  long unreclaimedBytes() {
+    return unreclaimedBytes.get();
+  }
+}
@@ -0,0 +1,269 @@
+/*
+ * SonarQube, open source software quality management tool.
+ * Copyright (C) 2008-2014 SonarSource
+ * mailto:contact AT sonarsource DOT com
+ *
+ * SonarQube is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * SonarQube is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.batch.index;
+
+import com.google.common.primitives.UnsignedBytes;
+import com.persistit.Key;
+import com.persistit.Value;
+
+import javax.annotation.Nullable;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory storage of cache entries. Encoded values are appended to slabs of direct memory allocated
+ * from a shared {@link OffHeapMemory} budget, and are located by a sorted index of encoded keys.
+ * <p/>
+ * Space of removed or replaced values is not reclaimed until {@link #removeAll()}, as values are never
+ * moved. A cache with many updates consumes the budget faster than its live entries require, and is spilled
+ * to disk earlier. This space is counted by {@link OffHeapMemory#unreclaimedBytes()}. Slabs are released
+ * by garbage collection once they are not referenced anymore.
+ */
+class OffHeapStorage implements CacheStorage {
+
+  static final int SLAB_SIZE = 1024 * 1024;
+
+  /**
+   * Unsigned lexicographic order, which is the order of Persistit keys
+   */
+  static final Comparator<byte[]> KEY_COMPARATOR = UnsignedBytes.lexicographicalComparator();
+
+  private final OffHeapMemory memory;
+  private final ConcurrentSkipListMap<byte[], Location> index = new ConcurrentSkipListMap<byte[], Location>(KEY_COMPARATOR);
+
+  /**
+   * Position of the last traversal of each thread, so that iterating does not look up the index at each step
+   */
+  private final ThreadLocal<Cursor> cursors = new ThreadLocal<Cursor>() {
+    @Override
+    protected Cursor initialValue() {
+      return new Cursor();
+    }
+  };
+
+  // guarded by this
+  private ByteBuffer currentSlab;
+  private long reservedBytes;
+  private final AtomicLong unreclaimedBytes = new AtomicLong();
+
+  OffHeapStorage(OffHeapMemory memory) {
+    this.memory = memory;
+  }
+
+  /**
+   * Same as {@link #put(Key, Value)} but does not fail if the memory budget is exhausted.
+   *
+   * @return false if the value can't be stored because memory budget is exhausted
+   */
+  boolean tryPut(Key key, Value value) {
+    int size = value.getEncodedSize();
+    Location location = allocate(size);
+    if (location == null) {
+      return false;
+    }
+    ByteBuffer buffer = location.slab.duplicate();
+    buffer.position(location.offset);
+    buffer.put(value.getEncodedBytes(), 0, size);
+    unreclaimed(index.put(bytes(key), location));
+    return true;
+  }
+
+  private synchronized Location allocate(int size) {
+    if (size > SLAB_SIZE / 2) {
+      // large values get their own slab
+      if (!memory.tryReserve(size)) {
+        return null;
+      }
+      reservedBytes += size;
+      return new Location(ByteBuffer.allocateDirect(size), 0, size);
+    }
+    if (currentSlab == null || currentSlab.remaining() < size) {
+      if (!memory.tryReserve(SLAB_SIZE)) {
+        return null;
+      }
+      currentSlab = ByteBuffer.allocateDirect(SLAB_SIZE);
+      reservedBytes += SLAB_SIZE;
+    }
+    Location location = new Location(currentSlab, currentSlab.position(), size);
+    currentSlab.position(currentSlab.position() + size);
+    return location;
+  }
+
+  @Override
+  public void put(Key key, Value value) {
+    if (!tryPut(key, value)) {
+      throw new IllegalStateException("Off-heap memory of caches is exhausted: " + memory.maxBytes() + " bytes");
+    }
+  }
+
+  @Override
+  public boolean get(Key key, Value value) {
+    Location location = index.get(bytes(key));
+    if (location == null) {
+      value.clear();
+      return false;
+    }
+    location.copyTo(value);
+    return true;
+  }
+
+  @Override
+  public boolean containsKey(Key key) {
+    return index.containsKey(bytes(key));
+  }
+
+  @Override
+  public boolean remove(Key key) {
+    Location location = index.remove(bytes(key));
+    unreclaimed(location);
+    return location != null;
+  }
+
+  @Override
+  public void removePrefix(Key prefix) {
+    byte[] prefixBytes = bytes(prefix);
+    Iterator<Map.Entry<byte[], Location>> entries = index.tailMap(prefixBytes, true).entrySet().iterator();
+    while (entries.hasNext()) {
+      Map.Entry<byte[], Location> entry = entries.next();
+      if (!startsWith(entry.getKey(), prefixBytes)) {
+        break;
+      }
+      entries.remove();
+      unreclaimed(entry.getValue());
+    }
+  }
+
+  @Override
+  public synchronized void removeAll() {
+    index.clear();
+    currentSlab = null;
+    memory.release(reservedBytes);
+    memory.addUnreclaimed(-unreclaimedBytes.getAndSet(0L));
+    reservedBytes = 0L;
+  }
+
+  private void unreclaimed(@Nullable Location location) {
+    if (location != null) {
+      unreclaimedBytes.addAndGet(location.size);
+      memory.addUnreclaimed(location.size);
+    }
+  }
+
+  @Override
+  public boolean next(Key key, int prefixSize, @Nullable Value value) {
+    Cursor cursor = cursors.get();
+    if (!cursor.isAt(key)) {
+      cursor.entries = index.tailMap(bytes(key), false).entrySet().iterator();
+    }
+    if (!cursor.entries.hasNext()) {
+      cursor.reset();
+      return false;
+    }
+    Map.Entry<byte[], Location> entry = cursor.entries.next();
+    byte[] found = entry.getKey();
+    if (!startsWith(found, found.length, key.getEncodedBytes(), prefixSize)) {
+      cursor.reset();
+      return false;
+    }
+    System.arraycopy(found, 0, key.getEncodedBytes(), 0, found.length);
+    key.setEncodedSize(found.length);
+    cursor.position = found;
+    if (value != null) {
+      entry.getValue().copyTo(value);
+    }
+    return true;
+  }
+
+  int size() {
+    return index.size();
+  }
+
+  synchronized long reservedBytes() {
+    return reservedBytes;
+  }
+
+  long unreclaimedBytes() {
+    return unreclaimedBytes.get();
+  }
+
+  private static byte[] bytes(Key key) {
+    return Arrays.copyOf(key.getEncodedBytes(), key.getEncodedSize());
+  }
+
+  private static boolean startsWith(byte[] bytes, byte[] prefix) {
+    return startsWith(bytes, bytes.length, prefix, prefix.length);
+  }
+
+  static boolean startsWith(byte[] bytes, int size, byte[] prefix, int prefixSize) {
+    if (size < prefixSize) {
+      return false;
+    }
+    for (int i = 0; i < prefixSize; i++) {
+      if (bytes[i] != prefix[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static class Cursor {
+    private byte[] position = null;
+    private Iterator<Map.Entry<byte[], Location>> entries = null;
+
+    private boolean isAt(Key key) {
+      if (position == null || position.length != key.getEncodedSize()) {
+        return false;
+      }
+      return startsWith(key.getEncodedBytes(), key.getEncodedSize(), position, position.length);
+    }
+
+    private void reset() {
+      position = null;
+      entries = null;
+    }
+  }
+
+  private static class Location {
+    private final ByteBuffer slab;
+    private final int offset;
+    private final int size;
+
+    private Location(ByteBuffer slab, int offset, int size) {
+      this.slab = slab;
+      this.offset = offset;
+      this.size = size;
+    }
+
+    private void copyTo(Value value) {
+      value.clear();
+      value.ensureFit(size);
+      ByteBuffer buffer = slab.duplicate();
+      buffer.position(offset);
+      buffer.get(value.getEncodedBytes(), 0, size);
+      value.setEncodedSize(size);
+    }
+  }
+}
@@ -0,0 +1,173 @@
+/*
+ * SonarQube, open source software quality management tool.
+ * Copyright (C) 2008-2014 SonarSource
+ * mailto:contact AT sonarsource DOT com
+ *
+ * SonarQube is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * SonarQube is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.batch.index;
+
+import com.persistit.Exchange;
+import com.persistit.Key;
+import com.persistit.Persistit;
+import com.persistit.Value;
+import com.persistit.Volume;
+import com.persistit.exception.PersistitException;
+
+import javax.annotation.Nullable;
+
+/**
+ * Storage of cache entries in a tree of the Persistit temporary volume. As a {@link Exchange} must
+ * not be shared between threads, each operation borrows an exchange from the pool of Persistit and
+ * releases it when done, so that exchanges are not retained by the threads that accessed the cache.
+ */
+class PersistitStorage implements CacheStorage {
+
+  private final String name;
+  private final Persistit persistit;
+  private final Volume volume;
+
+  PersistitStorage(String name, Persistit persistit, Volume volume) {
+    this.name = name;
+    this.persistit = persistit;
+    this.volume = volume;
+  }
+
+  private Exchange borrowExchange() {
+    try {
+      Exchange exchange = persistit.getExchange(volume, name, true);
+      exchange.setMaximumValueSize(Value.MAXIMUM_SIZE);
+      return exchange;
+    } catch (PersistitException e) {
+      throw new IllegalStateException("Fail to create exchange of cache " + name, e);
+    }
+  }
+
+  /**
+   * Borrowed exchange, positioned on the given key. It must be released by {@link #release(Exchange)}.
+   */
+  private Exchange borrowExchange(Key key) {
+    Exchange exchange = borrowExchange();
+    key.copyTo(exchange.getKey());
+    return exchange;
+  }
+
+  private void release(Exchange exchange) {
+    persistit.releaseExchange(exchange);
+  }
+
+  @Override
+  public void put(Key key, Value value) {
+    Exchange exchange = borrowExchange(key);
+    try {
+      value.copyTo(exchange.getValue());
+      exchange.store();
+    } catch (PersistitException e) {
+      throw new IllegalStateException("Fail to put element in the cache " + name, e);
+    } finally {
+      release(exchange);
+    }
+  }
+
+  @Override
+  public boolean get(Key key, Value value) {
+    Exchange exchange = borrowExchange(key);
+    try {
+      exchange.fetch(value);
+      return value.isDefined();
+    } catch (PersistitException e) {
+      throw new IllegalStateException("Fail to get element from cache " + name, e);
+    } finally {
+      release(exchange);
+    }
+  }
+
+  @Override
+  public boolean containsKey(Key key) {
+    Exchange exchange = borrowExchange(key);
+    try {
+      return exchange.isValueDefined();
+    } catch (PersistitException e) {
+      throw new IllegalStateException("Fail to check if element is in cache " + name, e);
+    } finally {
+      release(exchange);
+    }
+  }
+
+  @Override
+  public boolean remove(Key key) {
+    Exchange exchange = borrowExchange(key);
+    try {
+      return exchange.remove();
+    } catch (PersistitException e) {
+      throw new IllegalStateException("Fail to remove element from cache " + name, e);
+    } finally {
+      release(exchange);
+    }
+  }
+
+  @Override
+  public void removePrefix(Key prefix) {
+    Exchange exchange = borrowExchange();
+    try {
+      Key to = new Key(prefix);
+      to.append(Key.AFTER);
+      exchange.removeKeyRange(prefix, to);
+    } catch (PersistitException e) {
+      throw new IllegalStateException("Fail to clear values from cache " + name, e);
+    } finally {
+      release(exchange);
+    }
+  }
+
+  @Override
+  public void removeAll() {
+    Exchange exchange = borrowExchange();
+    try {
+      exchange.clear();
+      exchange.removeAll();
+    } catch (PersistitException e) {
+      throw new IllegalStateException("Fail to clear cache " + name, e);
+    } finally {
+      release(exchange);
+    }
+  }
+
+  @Override
+  public boolean next(Key key, int prefixSize, @Nullable Value value) {
+    Exchange exchange = borrowExchange(key);
+    try {
+      if (key.getEncodedSize() == 0) {
+        exchange.append(Key.BEFORE);
+      }
+      if (!exchange.next(true)) {
+        return false;
+      }
+      Key found = exchange.getKey();
+      if (!OffHeapStorage.startsWith(found.getEncodedBytes(), found.getEncodedSize(), key.getEncodedBytes(), prefixSize)) {
+        return false;
+      }
+      found.copyTo(key);
+      if (value != null) {
+        exchange.getValue().copyTo(value);
+      }
+      return true;
+    } catch (PersistitException e) {
+      throw new IllegalStateException("Fail to iterate on cache " + name, e);
+    } finally {
+      release(exchange);
+    }
+  }
+}
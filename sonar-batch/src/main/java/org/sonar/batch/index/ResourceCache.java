@@ -37,6 +37,9 @@ import javax.annotation.Nullable;
 import java.util.Collection;
 import java.util.Map;
 
+/**
+ * Thread-safe, as modules may be scanned concurrently
+ */
 public class ResourceCache implements BatchComponent {
   // resource by component key
   private final Map<String, BatchResource> resources = Maps.newLinkedHashMap();
@@ -56,11 +59,11 @@ public class ResourceCache implements BatchComponent {
   }
 
   @CheckForNull
-  public BatchResource get(String componentKey) {
+  public synchronized BatchResource get(String componentKey) {
     return resources.get(componentKey);
   }
 
-  public BatchResource get(Resource resource) {
+  public synchronized BatchResource get(Resource resource) {
     if (!(resource instanceof Library)) {
       return resources.get(resource.getEffectiveKey());
     } else {
@@ -68,11 +71,11 @@ public class ResourceCache implements BatchComponent {
     }
   }
 
-  public BatchResource get(InputFile inputFile) {
+  public synchronized BatchResource get(InputFile inputFile) {
     return resources.get(((DefaultInputFile) inputFile).key());
   }
 
-  public BatchResource add(Resource resource, @Nullable Resource parentResource) {
+  public synchronized BatchResource add(Resource resource, @Nullable Resource parentResource) {
     String componentKey = resource.getEffectiveKey();
     Preconditions.checkState(!Strings.isNullOrEmpty(componentKey), "Missing resource effective key");
     BatchResource parent = parentResource != null ? get(parentResource.getEffectiveKey()) : null;
@@ -100,7 +103,7 @@ public class ResourceCache implements BatchComponent {
     return libraries.values();
   }
 
-  public BatchResource getRoot() {
+  public synchronized BatchResource getRoot() {
     return root;
   }
 }
@@ -0,0 +1,173 @@
+/*
+ * SonarQube, open source software quality management tool.
+ * Copyright (C) 2008-2014 SonarSource
+ * mailto:contact AT sonarsource DOT com
+ *
+ * SonarQube is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * SonarQube is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.batch.index;
+
+import com.persistit.Key;
+import com.persistit.Persistit;
+import com.persistit.Value;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Keeps entries in an {@link OffHeapStorage} until its memory budget is exhausted. Entries are then moved
+ * to a {@link PersistitStorage}, which is used from then on.
+ * <p/>
+ * Modifications are not allowed while entries are moved. Reads do not lock: as entries are removed from
+ * memory only once the storage is flagged as spilled, a read that misses in memory is retried on disk if
+ * the flag has changed in the meantime.
+ */
+class SpillableStorage implements CacheStorage {
+
+  private static final Logger LOG = LoggerFactory.getLogger(SpillableStorage.class);
+
+  private final String name;
+  private final Persistit persistit;
+  private final OffHeapStorage offHeap;
+  private final PersistitStorage onDisk;
+
+  // the write lock is held while spilling or removing all entries, the read lock by other modifications
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+  private volatile boolean spilled = false;
+
+  SpillableStorage(String name, Persistit persistit, OffHeapStorage offHeap, PersistitStorage onDisk) {
+    this.name = name;
+    this.persistit = persistit;
+    this.offHeap = offHeap;
+    this.onDisk = onDisk;
+  }
+
+  private CacheStorage delegate() {
+    return spilled ? onDisk : offHeap;
+  }
+
+  @Override
+  public void put(Key key, Value value) {
+    lock.readLock().lock();
+    try {
+      if (spilled) {
+        onDisk.put(key, value);
+        return;
+      }
+      if (offHeap.tryPut(key, value)) {
+        return;
+      }
+    } finally {
+      lock.readLock().unlock();
+    }
+    spill();
+    onDisk.put(key, value);
+  }
+
+  private void spill() {
+    lock.writeLock().lock();
+    try {
+      if (!spilled) {
+        LOG.debug("Off-heap memory of caches is exhausted. Cache " + name + " is moved to disk (" + offHeap.size() + " entries)");
+        Key key = new Key(persistit);
+        Value value = new Value(persistit, Value.INITIAL_SIZE, Value.MAXIMUM_SIZE);
+        while (offHeap.next(key, 0, value)) {
+          onDisk.put(key, value);
+        }
+        spilled = true;
+        offHeap.removeAll();
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  @Override
+  public boolean get(Key key, Value value) {
+    if (!spilled) {
+      if (offHeap.get(key, value)) {
+        return true;
+      }
+      if (!spilled) {
+        return false;
+      }
+    }
+    return onDisk.get(key, value);
+  }
+
+  @Override
+  public boolean containsKey(Key key) {
+    if (!spilled) {
+      if (offHeap.containsKey(key)) {
+        return true;
+      }
+      if (!spilled) {
+        return false;
+      }
+    }
+    return onDisk.containsKey(key);
+  }
+
+  @Override
+  public boolean remove(Key key) {
+    lock.readLock().lock();
+    try {
+      return delegate().remove(key);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  @Override
+  public void removePrefix(Key prefix) {
+    lock.readLock().lock();
+    try {
+      delegate().removePrefix(prefix);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  @Override
+  public void removeAll() {
+    lock.writeLock().lock();
+    try {
+      delegate().removeAll();
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  @Override
+  public boolean next(Key key, int prefixSize, @Nullable Value value) {
+    if (!spilled) {
+      if (offHeap.next(key, prefixSize, value)) {
+        return true;
+      }
+      if (!spilled) {
+        return false;
+      }
+    }
+    return onDisk.next(key, prefixSize, value);
+  }
+
+  boolean isSpilled() {
+    return spilled;
+  }
+}
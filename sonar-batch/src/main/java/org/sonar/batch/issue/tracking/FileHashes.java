@@ -55,9 +55,9 @@ public final class FileHashes {
     return new FileHashes(hashes, linesByHash);
   }
 
-  public static FileHashes create(DefaultInputFile f) {
+  public static FileHashes create(DefaultInputFile f, FileMetadata fileMetadata) {
     final byte[][] hashes = new byte[f.lines()][];
-    FileMetadata.computeLineHashesForIssueTracking(f, new LineHashConsumer() {
+    fileMetadata.computeLineHashes(f, new LineHashConsumer() {
 
       @Override
       public void consume(int lineIdx, @Nullable byte[] hash) {
@@ -17,27 +17,43 @@
  * along with this program; if not, write to the Free Software Foundation,
  * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
  */
-
 package org.sonar.batch.issue.tracking;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Objects;
 import com.google.common.base.Preconditions;
+import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.LinkedHashMultimap;
+import com.google.common.collect.ListMultimap;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Multimap;
 import org.sonar.api.BatchComponent;
 import org.sonar.api.batch.InstantiationStrategy;
 import org.sonar.api.issue.internal.DefaultIssue;
+import org.sonar.api.rule.RuleKey;
 
 import javax.annotation.Nullable;
 
 import java.util.*;
 
+/**
+ * Matches new issues of a resource with the issues of previous analysis. Every pass looks up candidates in hash
+ * indexes, so that the cost of tracking grows almost linearly with the number of issues.
+ */
 @InstantiationStrategy(InstantiationStrategy.PER_BATCH)
 public class IssueTracking implements BatchComponent {
 
+  /**
+   * Maximum number of lines with the same hash that are compared to a line when recognizing blocks of code that moved
+   */
+  private static final int MAX_CANDIDATE_LINES = 10;
+
+  /**
+   * Maximum number of pairs of lines evaluated when mapping issues to the issues of the closest lines
+   */
+  private static final int MAX_LINE_PAIRS = 250000;
+
   /**
    * @param sourceHashHolder Null when working on resource that is not a file (directory/project)
    */
@@ -154,56 +170,195 @@ public class IssueTracking implements BatchComponent {
       }
     }
 
-    // Check if remaining number of lines exceeds threshold
-    if (lastIssuesByLines.keySet().size() * newIssuesByLines.keySet().size() < 250000) {
-      List<LinePair> possibleLinePairs = Lists.newArrayList();
-      for (Integer oldLine : lastIssuesByLines.keySet()) {
-        for (Integer newLine : newIssuesByLines.keySet()) {
-          int weight = rec.computeLengthOfMaximalBlock(oldLine, newLine);
-          possibleLinePairs.add(new LinePair(oldLine, newLine, weight));
+    mapLinesInSameBlock(hashedReference, hashedSource, rec, newIssuesByLines, lastIssuesByLines, result);
+    mapClosestLines(newIssuesByLines, lastIssuesByLines, result);
+  }
+
+  /**
+   * Only lines with the same hash can belong to the same block, so pairs of lines are looked up by hash rather
+   * than computed for all the lines. Lines that are repeated all over the file are only paired with the closest
+   * lines having the same hash.
+   */
+  private void mapLinesInSameBlock(FileHashes hashedReference, FileHashes hashedSource, IssueTrackingBlocksRecognizer rec,
+    Multimap<Integer, DefaultIssue> newIssuesByLines, Multimap<Integer, ServerIssue> lastIssuesByLines, IssueTrackingResult result) {
+    ListMultimap<String, Integer> lastLinesByHash = ArrayListMultimap.create();
+    for (Integer oldLine : lastIssuesByLines.keySet()) {
+      lastLinesByHash.put(hashedReference.getHash(oldLine), oldLine);
+    }
+    for (String hash : lastLinesByHash.keySet()) {
+      Collections.sort(lastLinesByHash.get(hash));
+    }
+
+    List<LinePair> possibleLinePairs = Lists.newArrayList();
+    for (Integer newLine : newIssuesByLines.keySet()) {
+      for (Integer oldLine : closestLines(lastLinesByHash.get(hashedSource.getHash(newLine)), newLine)) {
+        possibleLinePairs.add(new LinePair(oldLine, newLine, rec.computeLengthOfMaximalBlock(oldLine, newLine)));
+      }
+    }
+    Collections.sort(possibleLinePairs, LINE_PAIR_COMPARATOR);
+    for (LinePair linePair : possibleLinePairs) {
+      // High probability that lineA has been moved to lineB, so we can map all Issues on lineA to all Issues on lineB
+      map(newIssuesByLines.get(linePair.lineB), lastIssuesByLines.get(linePair.lineA), result);
+    }
+  }
+
+  /**
+   * @param sortedLines lines having the same hash as the given line
+   */
+  private static List<Integer> closestLines(List<Integer> sortedLines, int line) {
+    if (sortedLines.size() <= MAX_CANDIDATE_LINES) {
+      return sortedLines;
+    }
+    int index = Collections.binarySearch(sortedLines, line);
+    int insertionPoint = index >= 0 ? index : (-index - 1);
+    int from = Math.max(0, Math.min(insertionPoint - MAX_CANDIDATE_LINES / 2, sortedLines.size() - MAX_CANDIDATE_LINES));
+    return sortedLines.subList(from, from + MAX_CANDIDATE_LINES);
+  }
+
+  /**
+   * Remaining issues are mapped to the issues of the same rule on the closest line. For each new line, the closest
+   * old line is picked from a sorted map and the pairs of lines are processed by increasing distance.
+   */
+  private void mapClosestLines(Multimap<Integer, DefaultIssue> newIssuesByLines, Multimap<Integer, ServerIssue> lastIssuesByLines, IssueTrackingResult result) {
+    Map<RuleKey, NavigableMap<Integer, Deque<ServerIssue>>> lastIssuesByRule = new HashMap<>();
+    for (Map.Entry<Integer, ServerIssue> entry : lastIssuesByLines.entries()) {
+      if (isNotAlreadyMapped(entry.getValue(), result)) {
+        NavigableMap<Integer, Deque<ServerIssue>> lines = lastIssuesByRule.get(entry.getValue().ruleKey());
+        if (lines == null) {
+          lines = new TreeMap<>();
+          lastIssuesByRule.put(entry.getValue().ruleKey(), lines);
         }
+        add(lines, entry.getKey(), entry.getValue());
       }
-      Collections.sort(possibleLinePairs, LINE_PAIR_COMPARATOR);
-      for (LinePair linePair : possibleLinePairs) {
-        // High probability that lineA has been moved to lineB, so we can map all Issues on lineA to all Issues on lineB
-        map(newIssuesByLines.get(linePair.lineB), lastIssuesByLines.get(linePair.lineA), result);
+    }
+    Map<RuleKey, Map<Integer, Deque<DefaultIssue>>> newIssuesByRule = new LinkedHashMap<>();
+    for (Map.Entry<Integer, DefaultIssue> entry : newIssuesByLines.entries()) {
+      if (isNotAlreadyMapped(entry.getValue(), result) && lastIssuesByRule.containsKey(entry.getValue().ruleKey())) {
+        Map<Integer, Deque<DefaultIssue>> lines = newIssuesByRule.get(entry.getValue().ruleKey());
+        if (lines == null) {
+          lines = new LinkedHashMap<>();
+          newIssuesByRule.put(entry.getValue().ruleKey(), lines);
+        }
+        add(lines, entry.getKey(), entry.getValue());
       }
     }
+
+    int budget = MAX_LINE_PAIRS;
+    for (Map.Entry<RuleKey, Map<Integer, Deque<DefaultIssue>>> entry : newIssuesByRule.entrySet()) {
+      budget = mapClosestLines(entry.getValue(), lastIssuesByRule.get(entry.getKey()), result, budget);
+    }
   }
 
-  private void mapIssuesOnSameRule(Collection<DefaultIssue> newIssues, IssueTrackingResult result) {
-    // Try then to match issues on same rule with same message and with same checksum
-    for (DefaultIssue newIssue : newIssues) {
-      if (isNotAlreadyMapped(newIssue, result)) {
-        mapIssue(
-          newIssue,
-          findLastIssueWithSameChecksumAndMessage(newIssue, result.unmatchedByKeyForRule(newIssue.ruleKey()).values()),
-          result);
+  private static int mapClosestLines(Map<Integer, Deque<DefaultIssue>> newLines, NavigableMap<Integer, Deque<ServerIssue>> lastLines, IssueTrackingResult result,
+    int budget) {
+    int remainingBudget = budget;
+    PriorityQueue<LinePair> closestLines = new PriorityQueue<>(newLines.size(), CLOSEST_LINE_PAIR_COMPARATOR);
+    for (Integer newLine : newLines.keySet()) {
+      addClosestLine(closestLines, newLine, lastLines);
+    }
+    // every new line with unmatched issues has a single pair in queue
+    while (!closestLines.isEmpty() && remainingBudget > 0) {
+      remainingBudget--;
+      LinePair linePair = closestLines.poll();
+      Deque<DefaultIssue> newIssues = newLines.get(linePair.lineB);
+      Deque<ServerIssue> lastIssues = lastLines.get(linePair.lineA);
+      if (lastIssues != null) {
+        while (!newIssues.isEmpty() && !lastIssues.isEmpty()) {
+          result.setMatch(newIssues.poll(), lastIssues.poll());
+        }
+        if (lastIssues.isEmpty()) {
+          lastLines.remove(linePair.lineA);
+        }
+      }
+      if (!newIssues.isEmpty()) {
+        // old line has been consumed in the meantime
+        addClosestLine(closestLines, linePair.lineB, lastLines);
       }
     }
+    return remainingBudget;
+  }
 
-    // Try then to match issues on same rule with same line and with same message
-    for (DefaultIssue newIssue : newIssues) {
-      if (isNotAlreadyMapped(newIssue, result)) {
-        mapIssue(
-          newIssue,
-          findLastIssueWithSameLineAndMessage(newIssue, result.unmatchedByKeyForRule(newIssue.ruleKey()).values()),
-          result);
-      }
+  private static void addClosestLine(Queue<LinePair> closestLines, int newLine, NavigableMap<Integer, Deque<ServerIssue>> lastLines) {
+    Integer below = lastLines.floorKey(newLine);
+    Integer above = lastLines.ceilingKey(newLine);
+    Integer closest;
+    if (below == null) {
+      closest = above;
+    } else if (above == null || newLine - below <= above - newLine) {
+      closest = below;
+    } else {
+      closest = above;
+    }
+    if (closest != null) {
+      closestLines.add(new LinePair(closest, newLine, 0));
     }
+  }
+
+  private static <K, I> void add(Map<K, Deque<I>> issuesByKey, K key, I issue) {
+    Deque<I> issues = issuesByKey.get(key);
+    if (issues == null) {
+      issues = new ArrayDeque<>();
+      issuesByKey.put(key, issues);
+    }
+    issues.add(issue);
+  }
+
+  private void mapIssuesOnSameRule(Collection<DefaultIssue> newIssues, IssueTrackingResult result) {
+    // Try then to match issues on same rule with same message and with same checksum
+    mapIssuesOnSameKey(newIssues, MatchKey.CHECKSUM_AND_MESSAGE, result);
+
+    // Try then to match issues on same rule with same line and with same message
+    mapIssuesOnSameKey(newIssues, MatchKey.LINE_AND_MESSAGE, result);
 
     // Last check: match issue if same rule and same checksum but different line and different message
     // See SONAR-2812
+    mapIssuesOnSameKey(newIssues, MatchKey.CHECKSUM, result);
+  }
+
+  private void mapIssuesOnSameKey(Collection<DefaultIssue> newIssues, MatchKey matchKey, IssueTrackingResult result) {
+    if (result.unmatched().isEmpty()) {
+      return;
+    }
+    Map<List<Object>, Deque<ServerIssue>> unmatchedByKey = new HashMap<>();
+    for (ServerIssue previousIssue : result.unmatched()) {
+      add(unmatchedByKey, matchKey.of(previousIssue.ruleKey(), previousIssue.line(), previousIssue.checksum(), previousIssue.message()), previousIssue);
+    }
     for (DefaultIssue newIssue : newIssues) {
       if (isNotAlreadyMapped(newIssue, result)) {
-        mapIssue(
-          newIssue,
-          findLastIssueWithSameChecksum(newIssue, result.unmatchedByKeyForRule(newIssue.ruleKey()).values()),
-          result);
+        Deque<ServerIssue> candidates = unmatchedByKey.get(matchKey.of(newIssue.ruleKey(), newIssue.line(), newIssue.checksum(), newIssue.message()));
+        if (candidates != null && !candidates.isEmpty()) {
+          mapIssue(newIssue, candidates.poll(), result);
+        }
       }
     }
   }
 
+  /**
+   * Fields that must be equal for two issues of the same rule to be matched
+   */
+  private enum MatchKey {
+    CHECKSUM_AND_MESSAGE {
+      @Override
+      List<Object> of(RuleKey ruleKey, @Nullable Integer line, @Nullable String checksum, @Nullable String message) {
+        return Arrays.<Object>asList(ruleKey, checksum, message);
+      }
+    },
+    LINE_AND_MESSAGE {
+      @Override
+      List<Object> of(RuleKey ruleKey, @Nullable Integer line, @Nullable String checksum, @Nullable String message) {
+        return Arrays.<Object>asList(ruleKey, line, message);
+      }
+    },
+    CHECKSUM {
+      @Override
+      List<Object> of(RuleKey ruleKey, @Nullable Integer line, @Nullable String checksum, @Nullable String message) {
+        return Arrays.<Object>asList(ruleKey, checksum);
+      }
+    };
+
+    abstract List<Object> of(RuleKey ruleKey, @Nullable Integer line, @Nullable String checksum, @Nullable String message);
+  }
+
   private void map(Collection<DefaultIssue> newIssues, Collection<ServerIssue> previousIssues, IssueTrackingResult result) {
     for (DefaultIssue newIssue : newIssues) {
       if (isNotAlreadyMapped(newIssue, result)) {
@@ -237,33 +392,6 @@ public class IssueTracking implements BatchComponent {
     return previousIssuesByLines;
   }
 
-  private ServerIssue findLastIssueWithSameChecksum(DefaultIssue newIssue, Collection<ServerIssue> previousIssues) {
-    for (ServerIssue previousIssue : previousIssues) {
-      if (isSameChecksum(newIssue, previousIssue)) {
-        return previousIssue;
-      }
-    }
-    return null;
-  }
-
-  private ServerIssue findLastIssueWithSameLineAndMessage(DefaultIssue newIssue, Collection<ServerIssue> previousIssues) {
-    for (ServerIssue previousIssue : previousIssues) {
-      if (isSameLine(newIssue, previousIssue) && isSameMessage(newIssue, previousIssue)) {
-        return previousIssue;
-      }
-    }
-    return null;
-  }
-
-  private ServerIssue findLastIssueWithSameChecksumAndMessage(DefaultIssue newIssue, Collection<ServerIssue> previousIssues) {
-    for (ServerIssue previousIssue : previousIssues) {
-      if (isSameChecksum(newIssue, previousIssue) && isSameMessage(newIssue, previousIssue)) {
-        return previousIssue;
-      }
-    }
-    return null;
-  }
-
   private ServerIssue findLastIssueWithSameLineAndChecksum(DefaultIssue newIssue, IssueTrackingResult result) {
     Collection<ServerIssue> sameRuleAndSameLineAndSameChecksum = result.unmatchedForRuleAndForLineAndForChecksum(newIssue.ruleKey(), newIssue.line(), newIssue.checksum());
     if (!sameRuleAndSameLineAndSameChecksum.isEmpty()) {
@@ -272,26 +400,14 @@ public class IssueTracking implements BatchComponent {
     return null;
   }
 
-  private boolean isNotAlreadyMapped(ServerIssue previousIssue, IssueTrackingResult result) {
-    return result.unmatched().contains(previousIssue);
+  private static boolean isNotAlreadyMapped(ServerIssue previousIssue, IssueTrackingResult result) {
+    return result.isUnmatched(previousIssue);
   }
 
-  private boolean isNotAlreadyMapped(DefaultIssue newIssue, IssueTrackingResult result) {
+  private static boolean isNotAlreadyMapped(DefaultIssue newIssue, IssueTrackingResult result) {
     return !result.isMatched(newIssue);
   }
 
-  private boolean isSameChecksum(DefaultIssue newIssue, ServerIssue previousIssue) {
-    return Objects.equal(previousIssue.checksum(), newIssue.checksum());
-  }
-
-  private boolean isSameLine(DefaultIssue newIssue, ServerIssue previousIssue) {
-    return Objects.equal(previousIssue.line(), newIssue.line());
-  }
-
-  private boolean isSameMessage(DefaultIssue newIssue, ServerIssue previousIssue) {
-    return Objects.equal(newIssue.message(), previousIssue.message());
-  }
-
   private void mapIssue(DefaultIssue issue, @Nullable ServerIssue ref, IssueTrackingResult result) {
     if (ref != null) {
       result.setMatch(issue, ref);
@@ -334,4 +450,15 @@ public class IssueTracking implements BatchComponent {
     }
   };
 
+  private static final Comparator<LinePair> CLOSEST_LINE_PAIR_COMPARATOR = new Comparator<LinePair>() {
+    @Override
+    public int compare(LinePair o1, LinePair o2) {
+      int distanceDiff = Math.abs(o1.lineA - o1.lineB) - Math.abs(o2.lineA - o2.lineB);
+      if (distanceDiff != 0) {
+        return distanceDiff;
+      }
+      return o1.lineB - o2.lineB;
+    }
+  };
+
 }
@@ -33,6 +33,7 @@ import org.sonar.api.batch.DependsUpon;
 import org.sonar.api.batch.RequiresDB;
 import org.sonar.api.batch.fs.InputFile;
 import org.sonar.api.batch.fs.internal.DefaultInputFile;
+import org.sonar.api.batch.fs.internal.FileMetadata;
 import org.sonar.api.component.ResourcePerspectives;
 import org.sonar.api.issue.Issuable;
 import org.sonar.api.issue.Issue;
@@ -77,6 +78,7 @@ public class IssueTrackingDecorator implements Decorator {
   private final RuleFinder ruleFinder;
   private final InputPathCache inputPathCache;
   private final Project project;
+  private final FileMetadata fileMetadata;
 
   public IssueTrackingDecorator(IssueCache issueCache, InitialOpenIssuesStack initialOpenIssues, IssueTracking tracking,
     ServerLineHashesLoader lastLineHashes,
@@ -85,7 +87,7 @@ public class IssueTrackingDecorator implements Decorator {
     Project project,
     ResourcePerspectives perspectives,
     RulesProfile rulesProfile,
-    RuleFinder ruleFinder, InputPathCache inputPathCache) {
+    RuleFinder ruleFinder, InputPathCache inputPathCache, FileMetadata fileMetadata) {
     this.issueCache = issueCache;
     this.initialOpenIssues = initialOpenIssues;
     this.tracking = tracking;
@@ -99,6 +101,7 @@ public class IssueTrackingDecorator implements Decorator {
     this.perspectives = perspectives;
     this.rulesProfile = rulesProfile;
     this.ruleFinder = ruleFinder;
+    this.fileMetadata = fileMetadata;
   }
 
   @Override
@@ -133,7 +136,7 @@ public class IssueTrackingDecorator implements Decorator {
       if (file == null) {
         throw new IllegalStateException("File " + resource + " was not found in InputPath cache");
       }
-      sourceHashHolder = new SourceHashHolder((DefaultInputFile) file, lastLineHashes);
+      sourceHashHolder = new SourceHashHolder((DefaultInputFile) file, lastLineHashes, fileMetadata);
     }
 
     IssueTrackingResult trackingResult = tracking.track(sourceHashHolder, dbOpenIssues, issues);
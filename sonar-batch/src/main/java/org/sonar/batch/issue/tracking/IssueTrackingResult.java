@@ -43,6 +43,10 @@ class IssueTrackingResult {
     return unmatchedByKey.values();
   }
 
+  boolean isUnmatched(ServerIssue issue) {
+    return unmatchedByKey.containsKey(issue.key());
+  }
+
   Map<String, ServerIssue> unmatchedByKeyForRule(RuleKey ruleKey) {
     return unmatchedByRuleAndKey.containsKey(ruleKey) ? unmatchedByRuleAndKey.get(ruleKey) : Collections.<String, ServerIssue>emptyMap();
   }
@@ -20,14 +20,18 @@
 package org.sonar.batch.issue.tracking;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Throwables;
 import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.sonar.api.BatchComponent;
 import org.sonar.api.batch.AnalysisMode;
 import org.sonar.api.batch.fs.internal.DefaultInputFile;
+import org.sonar.api.batch.fs.internal.FileMetadata;
 import org.sonar.api.batch.rule.ActiveRule;
 import org.sonar.api.batch.rule.ActiveRules;
+import org.sonar.api.config.Settings;
 import org.sonar.api.issue.Issue;
 import org.sonar.api.issue.internal.DefaultIssue;
 import org.sonar.api.issue.internal.IssueChangeContext;
@@ -45,12 +49,30 @@ import org.sonar.core.issue.workflow.IssueWorkflow;
 
 import javax.annotation.CheckForNull;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
-
+import java.util.Deque;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Tracks the issues of components against the issues of previous analysis. Components are independent, so they are
+ * tracked concurrently. The issues of previous analysis are however loaded and the issue cache is updated on the
+ * calling thread, in the order of components.
+ */
 public class LocalIssueTracking implements BatchComponent {
 
+  /**
+   * Number of threads used to track issues. Default is the number of available processors.
+   */
+  public static final String THREADS_PROPERTY = "sonar.batch.issueTracking.threads";
+
   private static final Logger LOG = LoggerFactory.getLogger(LocalIssueTracking.class);
 
   private final IssueCache issueCache;
@@ -65,11 +87,14 @@ public class LocalIssueTracking implements BatchComponent {
   private final ServerIssueRepository serverIssueRepository;
   private final ProjectRepositories projectRepositories;
   private final AnalysisMode analysisMode;
+  private final int threads;
+  // files are read again, as their content is cached only during the scan of their module
+  private final FileMetadata fileMetadata = new FileMetadata();
 
   public LocalIssueTracking(ResourceCache resourceCache, IssueCache issueCache, IssueTracking tracking,
     ServerLineHashesLoader lastLineHashes, IssueWorkflow workflow, IssueUpdater updater,
     ActiveRules activeRules, InputPathCache inputPathCache, ServerIssueRepository serverIssueRepository,
-    ProjectRepositories projectRepositories, AnalysisMode analysisMode) {
+    ProjectRepositories projectRepositories, AnalysisMode analysisMode, Settings settings) {
     this.resourceCache = resourceCache;
     this.issueCache = issueCache;
     this.tracking = tracking;
@@ -82,6 +107,8 @@ public class LocalIssueTracking implements BatchComponent {
     this.analysisMode = analysisMode;
     this.changeContext = IssueChangeContext.createScan(((Project) resourceCache.getRoot().resource()).getAnalysisDate());
     this.activeRules = activeRules;
+    int threadsProperty = settings.getInt(THREADS_PROPERTY);
+    this.threads = threadsProperty > 0 ? threadsProperty : Runtime.getRuntime().availableProcessors();
   }
 
   public void execute() {
@@ -92,28 +119,75 @@ public class LocalIssueTracking implements BatchComponent {
 
     serverIssueRepository.load();
 
-    for (BatchResource component : resourceCache.all()) {
-      trackIssues(component);
+    ExecutorService executor = Executors.newFixedThreadPool(threads, new ThreadFactoryBuilder()
+      .setNameFormat("Issue tracking %d")
+      .setDaemon(true)
+      .build());
+    // bounds the number of tracked issues kept in memory
+    int maxPending = 2 * threads;
+    Deque<Tracking> pending = new ArrayDeque<>();
+    try {
+      for (final BatchResource component : resourceCache.all()) {
+        if (pending.size() >= maxPending) {
+          save(pending.poll());
+        }
+        // in incremental mode, server issues are requested file by file, so they are not loaded concurrently
+        final Collection<ServerIssue> serverIssues = loadServerIssues(component);
+        pending.add(new Tracking(component, executor.submit(new Callable<Collection<DefaultIssue>>() {
+          @Override
+          public Collection<DefaultIssue> call() {
+            return track(component, serverIssues);
+          }
+        })));
+      }
+      while (!pending.isEmpty()) {
+        save(pending.poll());
+      }
+    } finally {
+      executor.shutdownNow();
     }
   }
 
   public void trackIssues(BatchResource component) {
+    save(component, track(component, loadServerIssues(component)));
+  }
+
+  private void save(Tracking tracking) {
+    try {
+      save(tracking.component, tracking.future.get());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted during tracking of issues of " + tracking.component.resource(), e);
+    } catch (ExecutionException e) {
+      Throwables.propagateIfPossible(e.getCause());
+      throw new IllegalStateException("Fail to track issues of " + tracking.component.resource(), e.getCause());
+    }
+  }
+
+  private void save(BatchResource component, Collection<DefaultIssue> issues) {
+    issueCache.clear(component.resource().getEffectiveKey());
+    for (DefaultIssue issue : issues) {
+      issueCache.put(issue);
+    }
+  }
 
+  /**
+   * Called concurrently by several threads. Issues are only read from the issue cache.
+   *
+   * @param serverIssues all the issues that are not closed in db before starting this module scan, including manual issues
+   */
+  private Collection<DefaultIssue> track(BatchResource component, Collection<ServerIssue> serverIssues) {
     Collection<DefaultIssue> issues = Lists.newArrayList();
     for (Issue issue : issueCache.byComponent(component.resource().getEffectiveKey())) {
       issues.add((DefaultIssue) issue);
     }
-    issueCache.clear(component.resource().getEffectiveKey());
     // issues = all the issues created by rule engines during this module scan and not excluded by filters
 
-    if (analysisMode.isIncremental() && !component.isFile()) {
+    if (isSkipped(component)) {
       // No need to report issues on project or directories in preview mode since it is likely to be wrong anyway
-      return;
+      return Collections.emptyList();
     }
 
-    // all the issues that are not closed in db before starting this module scan, including manual issues
-    Collection<ServerIssue> serverIssues = loadServerIssues(component);
-
     SourceHashHolder sourceHashHolder = loadSourceHashes(component);
 
     IssueTrackingResult trackingResult = tracking.track(sourceHashHolder, serverIssues, issues);
@@ -130,8 +204,8 @@ public class LocalIssueTracking implements BatchComponent {
 
     for (DefaultIssue issue : issues) {
       workflow.doAutomaticTransition(issue, changeContext);
-      issueCache.put(issue);
     }
+    return issues;
   }
 
   @CheckForNull
@@ -142,12 +216,19 @@ public class LocalIssueTracking implements BatchComponent {
       if (file == null) {
         throw new IllegalStateException("Resource " + component.resource() + " was not found in InputPath cache");
       }
-      sourceHashHolder = new SourceHashHolder((DefaultInputFile) file, lastLineHashes);
+      sourceHashHolder = new SourceHashHolder((DefaultInputFile) file, lastLineHashes, fileMetadata);
     }
     return sourceHashHolder;
   }
 
+  private boolean isSkipped(BatchResource component) {
+    return analysisMode.isIncremental() && !component.isFile();
+  }
+
   private Collection<ServerIssue> loadServerIssues(BatchResource component) {
+    if (isSkipped(component)) {
+      return Collections.emptyList();
+    }
     Collection<ServerIssue> serverIssues = new ArrayList<>();
     for (org.sonar.batch.protocol.input.BatchInput.ServerIssue previousIssue : serverIssueRepository.byComponent(component)) {
       serverIssues.add(new ServerIssueFromWs(previousIssue));
@@ -254,4 +335,14 @@ public class LocalIssueTracking implements BatchComponent {
       updater.setPastMessage(newIssue, oldIssue.message(), changeContext);
     }
   }
+
+  private static class Tracking {
+    private final BatchResource component;
+    private final Future<Collection<DefaultIssue>> future;
+
+    private Tracking(BatchResource component, Future<Collection<DefaultIssue>> future) {
+      this.component = component;
+      this.future = future;
+    }
+  }
 }
@@ -22,6 +22,7 @@ package org.sonar.batch.issue.tracking;
 import com.google.common.collect.ImmutableSet;
 import org.sonar.api.batch.fs.InputFile.Status;
 import org.sonar.api.batch.fs.internal.DefaultInputFile;
+import org.sonar.api.batch.fs.internal.FileMetadata;
 
 import javax.annotation.CheckForNull;
 
@@ -34,15 +35,17 @@ public class SourceHashHolder {
   private FileHashes hashedReference;
   private FileHashes hashedSource;
   private DefaultInputFile inputFile;
+  private final FileMetadata fileMetadata;
 
-  public SourceHashHolder(DefaultInputFile inputFile, ServerLineHashesLoader lastSnapshots) {
+  public SourceHashHolder(DefaultInputFile inputFile, ServerLineHashesLoader lastSnapshots, FileMetadata fileMetadata) {
     this.inputFile = inputFile;
     this.lastSnapshots = lastSnapshots;
+    this.fileMetadata = fileMetadata;
   }
 
   private void initHashes() {
     if (hashedSource == null) {
-      hashedSource = FileHashes.create(inputFile);
+      hashedSource = FileHashes.create(inputFile, fileMetadata);
       Status status = inputFile.status();
       if (status == Status.ADDED) {
         hashedReference = null;
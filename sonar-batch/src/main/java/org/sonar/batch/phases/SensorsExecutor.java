@@ -20,43 +20,168 @@
 package org.sonar.batch.phases;
 
 import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import org.sonar.api.BatchComponent;
 import org.sonar.api.batch.Sensor;
 import org.sonar.api.batch.SensorContext;
+import org.sonar.api.config.Settings;
 import org.sonar.api.resources.Project;
 import org.sonar.batch.bootstrap.BatchExtensionDictionnary;
+import org.sonar.batch.events.BatchEvent;
 import org.sonar.batch.events.EventBus;
+import org.sonar.batch.index.DefaultIndex;
+import org.sonar.batch.issue.ModuleIssues;
+import org.sonar.batch.sensor.SensorWrapper;
 
 import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
+/**
+ * Executes the sensors of a module. By default sensors are executed one after the other, on the calling thread.
+ * When the property {@link #THREADS_PROPERTY} is greater than 1, the sensors that declare themselves thread-safe
+ * are executed concurrently on a bounded pool, as soon as the sensors they depend upon are done. Other sensors
+ * are executed alone, once all the previous sensors are done. The current module of {@link DefaultIndex} is bound
+ * to the threads of the pool while they execute sensors.
+ */
 public class SensorsExecutor implements BatchComponent {
 
+  /**
+   * Number of threads used to execute thread-safe sensors. Default is 1, meaning that sensors are not executed concurrently.
+   */
+  public static final String THREADS_PROPERTY = "sonar.batch.sensors.threads";
+
   private EventBus eventBus;
   private Project module;
   private BatchExtensionDictionnary selector;
   private final SensorMatcher sensorMatcher;
+  private final DefaultIndex index;
+  private final ModuleIssues moduleIssues;
+  private final int threads;
 
-  public SensorsExecutor(BatchExtensionDictionnary selector, Project project, EventBus eventBus, SensorMatcher sensorMatcher) {
+  public SensorsExecutor(BatchExtensionDictionnary selector, Project project, EventBus eventBus, SensorMatcher sensorMatcher,
+    DefaultIndex index, ModuleIssues moduleIssues, Settings settings) {
     this.selector = selector;
     this.eventBus = eventBus;
     this.module = project;
     this.sensorMatcher = sensorMatcher;
+    this.index = index;
+    this.moduleIssues = moduleIssues;
+    this.threads = Math.max(1, settings.getInt(THREADS_PROPERTY));
   }
 
   public void execute(SensorContext context) {
     Collection<Sensor> sensors = selector.select(Sensor.class, module, true, sensorMatcher);
-    eventBus.fireEvent(new SensorsPhaseEvent(Lists.newArrayList(sensors), true));
+    fireEvent(new SensorsPhaseEvent(Lists.newArrayList(sensors), true));
+
+    if (threads > 1) {
+      executeConcurrently(context, sensors);
+    } else {
+      for (Sensor sensor : sensors) {
+        executeSensor(context, sensor);
+      }
+    }
+
+    fireEvent(new SensorsPhaseEvent(Lists.newArrayList(sensors), false));
+  }
+
+  private void executeConcurrently(SensorContext context, Collection<Sensor> sensors) {
+    Map<Sensor, Set<Sensor>> predecessors = selector.predecessors(sensors);
+    Map<Sensor, Future<?>> running = new IdentityHashMap<>();
+    ExecutorService executor = Executors.newFixedThreadPool(threads, new ThreadFactoryBuilder()
+      .setNameFormat("Sensor %d")
+      .setDaemon(true)
+      .build());
+    try {
+      for (Sensor sensor : sensors) {
+        if (isThreadSafe(sensor)) {
+          // predecessors are submitted before, so they are already taken by a thread of the pool when the task waits for them
+          running.put(sensor, executor.submit(new SensorTask(context, sensor, futures(running, predecessors.get(sensor)))));
+        } else {
+          awaitAll(running.values());
+          running.clear();
+          executeSensor(context, sensor);
+        }
+      }
+      awaitAll(running.values());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private static boolean isThreadSafe(Sensor sensor) {
+    return sensor instanceof SensorWrapper && ((SensorWrapper) sensor).isThreadSafe();
+  }
 
+  private static Collection<Future<?>> futures(Map<Sensor, Future<?>> running, Set<Sensor> sensors) {
+    Collection<Future<?>> result = Lists.newArrayList();
     for (Sensor sensor : sensors) {
-      executeSensor(context, sensor);
+      Future<?> future = running.get(sensor);
+      if (future != null) {
+        result.add(future);
+      }
     }
+    return result;
+  }
 
-    eventBus.fireEvent(new SensorsPhaseEvent(Lists.newArrayList(sensors), false));
+  private static void awaitAll(Collection<Future<?>> futures) {
+    for (Future<?> future : futures) {
+      try {
+        future.get();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IllegalStateException("Interrupted during execution of sensors", e);
+      } catch (ExecutionException e) {
+        if (e.getCause() instanceof RuntimeException) {
+          throw (RuntimeException) e.getCause();
+        }
+        if (e.getCause() instanceof Error) {
+          throw (Error) e.getCause();
+        }
+        throw new IllegalStateException("Fail to execute sensor", e.getCause());
+      }
+    }
   }
 
   private void executeSensor(SensorContext context, Sensor sensor) {
-    eventBus.fireEvent(new SensorExecutionEvent(sensor, true));
+    fireEvent(new SensorExecutionEvent(sensor, true));
     sensor.analyse(module, context);
-    eventBus.fireEvent(new SensorExecutionEvent(sensor, false));
+    fireEvent(new SensorExecutionEvent(sensor, false));
+  }
+
+  /**
+   * Event handlers are not thread-safe. Events are still fired by the thread that executes the sensor.
+   */
+  private synchronized void fireEvent(BatchEvent<?> event) {
+    eventBus.fireEvent(event);
+  }
+
+  private class SensorTask implements Runnable {
+    private final SensorContext context;
+    private final Sensor sensor;
+    private final Collection<Future<?>> predecessors;
+
+    SensorTask(SensorContext context, Sensor sensor, Collection<Future<?>> predecessors) {
+      this.context = context;
+      this.sensor = sensor;
+      this.predecessors = predecessors;
+    }
+
+    @Override
+    public void run() {
+      // the current module of the index is thread-local
+      index.setCurrentProject(module, moduleIssues);
+      try {
+        awaitAll(predecessors);
+        executeSensor(context, sensor);
+      } finally {
+        index.unsetCurrentProject();
+      }
+    }
   }
 }
@@ -20,10 +20,12 @@
 package org.sonar.batch.profiling;
 
 import org.sonar.api.utils.System2;
+import org.sonar.api.utils.TimeUtils;
 
 public class ItemProfiling extends AbstractTimeProfiling {
 
   private final String itemName;
+  private long cpuTime;
 
   public ItemProfiling(System2 system, String itemName) {
     super(system);
@@ -34,4 +36,27 @@ public class ItemProfiling extends AbstractTimeProfiling {
     return itemName;
   }
 
+  /**
+   * CPU time of the thread that executed the item, in milliseconds. Zero if not measured.
+   */
+  public long cpuTime() {
+    return cpuTime;
+  }
+
+  public String cpuTimeAsString() {
+    return TimeUtils.formatDuration(cpuTime);
+  }
+
+  public void setCpuTime(long cpuTime) {
+    this.cpuTime = cpuTime;
+  }
+
+  @Override
+  protected void add(AbstractTimeProfiling other) {
+    super.add(other);
+    if (other instanceof ItemProfiling) {
+      this.cpuTime += ((ItemProfiling) other).cpuTime();
+    }
+  }
+
 }
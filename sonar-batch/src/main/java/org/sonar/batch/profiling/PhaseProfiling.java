@@ -20,6 +20,7 @@
 package org.sonar.batch.profiling;
 
 import org.sonar.api.utils.System2;
+import org.sonar.api.utils.TimeUtils;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -81,6 +82,21 @@ public class PhaseProfiling extends AbstractTimeProfiling {
     for (ItemProfiling itemProfiling : truncate(sortByDescendingTotalTime(profilingPerItem).values())) {
       println("   o " + itemProfiling.itemName() + ": ", percent, itemProfiling);
     }
+    long cpuTime = cpuTime();
+    if (cpuTime > 0) {
+      println("   Summed CPU time: " + TimeUtils.formatDuration(cpuTime));
+    }
+  }
+
+  /**
+   * Sum of the CPU time of items. As items may be executed concurrently, it can be greater than the total time of the phase.
+   */
+  public long cpuTime() {
+    long result = 0L;
+    for (ItemProfiling itemProfiling : profilingPerItem.values()) {
+      result += itemProfiling.cpuTime();
+    }
+    return result;
   }
 
   /**
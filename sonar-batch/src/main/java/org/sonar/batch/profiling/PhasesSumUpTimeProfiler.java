@@ -40,7 +40,10 @@ import javax.annotation.Nullable;
 
 import java.io.File;
 import java.io.FileOutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 
 import static org.sonar.batch.profiling.AbstractTimeProfiling.sortByDescendingTotalTime;
 import static org.sonar.batch.profiling.AbstractTimeProfiling.truncate;
@@ -61,6 +64,7 @@ public class PhasesSumUpTimeProfiler implements ProjectAnalysisHandler, SensorEx
 
   private Map<Project, ModuleProfiling> modulesProfilings = new HashMap<Project, ModuleProfiling>();
   private DecoratorsProfiler decoratorsProfiler;
+  private Map<Object, Long> sensorCpuStartTimes = new IdentityHashMap<Object, Long>();
 
   private final System2 system;
   private final File out;
@@ -75,6 +79,9 @@ public class PhasesSumUpTimeProfiler implements ProjectAnalysisHandler, SensorEx
     if (percent != null) {
       sb.append(" (").append((int) (phaseProfiling.totalTime() / percent)).append("%)");
     }
+    if (phaseProfiling instanceof ItemProfiling && ((ItemProfiling) phaseProfiling).cpuTime() > 0) {
+      sb.append(", CPU ").append(((ItemProfiling) phaseProfiling).cpuTimeAsString());
+    }
     println(sb.toString());
   }
 
@@ -157,11 +164,32 @@ public class PhasesSumUpTimeProfiler implements ProjectAnalysisHandler, SensorEx
   @Override
   public void onSensorExecution(SensorExecutionEvent event) {
     PhaseProfiling profiling = currentModuleProfiling.getProfilingPerPhase(Phase.SENSOR);
+    // sensors may be executed concurrently. Events are fired by the thread that executes the sensor.
     if (event.isStart()) {
       profiling.newItemProfiling(event.getSensor());
+      sensorCpuStartTimes.put(event.getSensor(), currentThreadCpuTime());
     } else {
-      profiling.getProfilingPerItem(event.getSensor()).stop();
+      ItemProfiling itemProfiling = profiling.getProfilingPerItem(event.getSensor());
+      itemProfiling.stop();
+      Long cpuStartTime = sensorCpuStartTimes.remove(event.getSensor());
+      long cpuEndTime = currentThreadCpuTime();
+      if (cpuStartTime != null && cpuStartTime >= 0 && cpuEndTime >= 0) {
+        itemProfiling.setCpuTime(cpuEndTime - cpuStartTime);
+      }
+    }
+  }
+
+  /**
+   * CPU time of the current thread in milliseconds, or -1 if not supported by the JVM
+   */
+  @VisibleForTesting
+  long currentThreadCpuTime() {
+    ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+    if (!threadMXBean.isCurrentThreadCpuTimeSupported()) {
+      return -1L;
     }
+    long nanos = threadMXBean.getCurrentThreadCpuTime();
+    return nanos < 0 ? -1L : TimeUnit.NANOSECONDS.toMillis(nanos);
   }
 
   @Override
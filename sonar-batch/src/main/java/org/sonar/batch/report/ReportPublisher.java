@@ -21,7 +21,12 @@ package org.sonar.batch.report;
 
 import com.github.kevinsawicki.http.HttpRequest;
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Throwables;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.input.CountingInputStream;
 import org.picocontainer.Startable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -30,7 +35,6 @@ import org.sonar.api.CoreProperties;
 import org.sonar.api.batch.bootstrap.ProjectReactor;
 import org.sonar.api.config.Settings;
 import org.sonar.api.platform.Server;
-import org.sonar.api.utils.TempFolder;
 import org.sonar.api.utils.ZipUtils;
 import org.sonar.batch.bootstrap.DefaultAnalysisMode;
 import org.sonar.batch.bootstrap.ServerClient;
@@ -38,20 +42,34 @@ import org.sonar.batch.protocol.output.BatchReportWriter;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 public class ReportPublisher implements BatchComponent, Startable {
 
   private static final Logger LOG = LoggerFactory.getLogger(ReportPublisher.class);
   public static final String KEEP_REPORT_PROP_KEY = "sonar.batch.keepReport";
 
+  /**
+   * Size in bytes of the buffer between compression of report and upload
+   */
+  private static final int PIPE_SIZE = 64 * 1024;
+
   private final ServerClient serverClient;
   private final Server server;
   private final Settings settings;
   private final ProjectReactor projectReactor;
   private final DefaultAnalysisMode analysisMode;
-  private final TempFolder temp;
 
   private ReportPublisherStep[] publishers;
 
@@ -59,13 +77,12 @@ public class ReportPublisher implements BatchComponent, Startable {
   private BatchReportWriter writer;
 
   public ReportPublisher(Settings settings, ServerClient serverClient, Server server,
-    ProjectReactor projectReactor, DefaultAnalysisMode analysisMode, TempFolder temp, ReportPublisherStep[] publishers) {
+    ProjectReactor projectReactor, DefaultAnalysisMode analysisMode, ReportPublisherStep[] publishers) {
     this.serverClient = serverClient;
     this.server = server;
     this.projectReactor = projectReactor;
     this.settings = settings;
     this.analysisMode = analysisMode;
-    this.temp = temp;
     this.publishers = publishers;
   }
 
@@ -95,36 +112,29 @@ public class ReportPublisher implements BatchComponent, Startable {
   public void execute() {
     // If this is a preview analysis then we should not upload reports
     if (!analysisMode.isPreview()) {
-      File report = prepareReport();
+      prepareReport();
       if (!analysisMode.isMediumTest()) {
-        uploadMultiPartReport(report);
+        uploadMultiPartReport();
       }
     }
     logSuccess(LoggerFactory.getLogger(getClass()));
   }
 
-  private File prepareReport() {
-    try {
-      long startTime = System.currentTimeMillis();
-      for (ReportPublisherStep publisher : publishers) {
-        publisher.publish(writer);
-      }
-      long stopTime = System.currentTimeMillis();
-      LOG.info("Analysis reports generated in " + (stopTime - startTime) + "ms, dir size=" + FileUtils.byteCountToDisplaySize(FileUtils.sizeOfDirectory(reportDir)));
-
-      startTime = System.currentTimeMillis();
-      File reportZip = temp.newFile("batch-report", ".zip");
-      ZipUtils.zipDir(reportDir, reportZip);
-      stopTime = System.currentTimeMillis();
-      LOG.info("Analysis reports compressed in " + (stopTime - startTime) + "ms, zip size=" + FileUtils.byteCountToDisplaySize(FileUtils.sizeOf(reportZip)));
-      return reportZip;
-    } catch (IOException e) {
-      throw new IllegalStateException("Unable to prepare batch report", e);
+  private void prepareReport() {
+    long startTime = System.currentTimeMillis();
+    for (ReportPublisherStep publisher : publishers) {
+      publisher.publish(writer);
     }
+    long stopTime = System.currentTimeMillis();
+    LOG.info("Analysis reports generated in " + (stopTime - startTime) + "ms, dir size=" + FileUtils.byteCountToDisplaySize(FileUtils.sizeOfDirectory(reportDir)));
   }
 
+  /**
+   * Report is compressed by another thread while it is sent, so that no zip file is written on disk. Its MD5 hash
+   * is computed on the fly and sent after it, so that server verifies the data received.
+   */
   @VisibleForTesting
-  void uploadMultiPartReport(File report) {
+  void uploadMultiPartReport() {
     LOG.debug("Publish results");
     long startTime = System.currentTimeMillis();
     URL url;
@@ -139,7 +149,7 @@ public class ReportPublisher implements BatchComponent, Startable {
     request.trustAllHosts();
     request.header("User-Agent", String.format("SonarQube %s", server.getVersion()));
     request.basic(serverClient.getLogin(), serverClient.getPassword());
-    request.part("report", null, "application/octet-stream", report);
+    long size = sendReport(request);
     if (!request.ok()) {
       int responseCode = request.code();
       if (responseCode == 401) {
@@ -151,8 +161,64 @@ public class ReportPublisher implements BatchComponent, Startable {
       }
       throw new IllegalStateException(String.format("Fail to execute request [code=%s, url=%s]: %s", responseCode, url, request.body()));
     }
-    long stopTime = System.currentTimeMillis();
-    LOG.info("Analysis reports sent to server in " + (stopTime - startTime) + "ms");
+    long duration = Math.max(1L, System.currentTimeMillis() - startTime);
+    LOG.info("Analysis reports compressed and sent to server in " + duration + "ms, zip size=" + FileUtils.byteCountToDisplaySize(size)
+      + " (" + FileUtils.byteCountToDisplaySize(size * 1000L / duration) + "/s)");
+  }
+
+  /**
+   * @return size of compressed report in bytes
+   */
+  private long sendReport(HttpRequest request) {
+    ExecutorService executor = Executors.newSingleThreadExecutor(new ThreadFactoryBuilder()
+      .setNameFormat("Report compression %d")
+      .setDaemon(true)
+      .build());
+    try (PipedInputStream pipe = new PipedInputStream(PIPE_SIZE)) {
+      Future<String> md5 = executor.submit(new Compression(reportDir, new PipedOutputStream(pipe)));
+      CountingInputStream report = new CountingInputStream(pipe);
+      request.part("report", null, "application/octet-stream", report);
+      request.part("reportMd5", await(md5));
+      return report.getByteCount();
+    } catch (IOException e) {
+      throw new IllegalStateException("Fail to send analysis report", e);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private static String await(Future<String> md5) {
+    try {
+      return md5.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted during compression of analysis report", e);
+    } catch (ExecutionException e) {
+      Throwables.propagateIfPossible(e.getCause());
+      throw new IllegalStateException("Fail to compress analysis report", e.getCause());
+    }
+  }
+
+  /**
+   * Writes report in zip format to the pipe and returns its MD5 hash
+   */
+  private static class Compression implements Callable<String> {
+    private final File reportDir;
+    private final OutputStream output;
+
+    private Compression(File reportDir, OutputStream output) {
+      this.reportDir = reportDir;
+      this.output = output;
+    }
+
+    @Override
+    public String call() throws IOException {
+      MessageDigest digest = DigestUtils.getMd5Digest();
+      try (OutputStream out = new DigestOutputStream(output, digest)) {
+        ZipUtils.zipDir(reportDir, out);
+      }
+      return Hex.encodeHexString(digest.digest());
+    }
   }
 
   @VisibleForTesting
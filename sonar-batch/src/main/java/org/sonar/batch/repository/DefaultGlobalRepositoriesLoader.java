@@ -19,22 +19,36 @@
  */
 package org.sonar.batch.repository;
 
+import org.sonar.api.utils.HttpDownloader;
 import org.sonar.batch.bootstrap.ServerClient;
+import org.sonar.batch.bootstrap.ServerResponseCache;
 import org.sonar.batch.protocol.input.GlobalRepositories;
 
+import java.io.IOException;
+import java.io.InputStream;
+
 public class DefaultGlobalRepositoriesLoader implements GlobalRepositoriesLoader {
 
-  private static final String BATCH_GLOBAL_URL = "/batch/global";
+  // servers older than 5.2 ignore the format and answer JSON, which is also supported by readFrom()
+  private static final String BATCH_GLOBAL_URL = "/batch/global?format=protobuf";
 
   private final ServerClient serverClient;
+  private final ServerResponseCache responseCache;
 
-  public DefaultGlobalRepositoriesLoader(ServerClient serverClient) {
+  public DefaultGlobalRepositoriesLoader(ServerClient serverClient, ServerResponseCache responseCache) {
     this.serverClient = serverClient;
+    this.responseCache = responseCache;
   }
 
   @Override
   public GlobalRepositories load() {
-    return GlobalRepositories.fromJson(serverClient.request(BATCH_GLOBAL_URL));
+    try (InputStream is = responseCache.request(BATCH_GLOBAL_URL)) {
+      return GlobalRepositories.readFrom(is);
+    } catch (HttpDownloader.HttpException e) {
+      throw serverClient.handleHttpException(e);
+    } catch (IOException e) {
+      throw new IllegalStateException("Unable to load global repositories", e);
+    }
   }
 
 }
@@ -22,12 +22,17 @@ package org.sonar.batch.repository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.sonar.api.batch.bootstrap.ProjectReactor;
+import org.sonar.api.utils.HttpDownloader;
 import org.sonar.batch.bootstrap.DefaultAnalysisMode;
 import org.sonar.batch.bootstrap.ServerClient;
+import org.sonar.batch.bootstrap.ServerResponseCache;
 import org.sonar.batch.bootstrap.TaskProperties;
 import org.sonar.batch.protocol.input.ProjectRepositories;
 import org.sonar.batch.rule.ModuleQProfiles;
 
+import java.io.IOException;
+import java.io.InputStream;
+
 public class DefaultProjectRepositoriesLoader implements ProjectRepositoriesLoader {
 
   private static final Logger LOG = LoggerFactory.getLogger(DefaultProjectRepositoriesLoader.class);
@@ -35,10 +40,12 @@ public class DefaultProjectRepositoriesLoader implements ProjectRepositoriesLoad
   private static final String BATCH_PROJECT_URL = "/batch/project";
 
   private final ServerClient serverClient;
+  private final ServerResponseCache responseCache;
   private final DefaultAnalysisMode analysisMode;
 
-  public DefaultProjectRepositoriesLoader(ServerClient serverClient, DefaultAnalysisMode analysisMode) {
+  public DefaultProjectRepositoriesLoader(ServerClient serverClient, ServerResponseCache responseCache, DefaultAnalysisMode analysisMode) {
     this.serverClient = serverClient;
+    this.responseCache = responseCache;
     this.analysisMode = analysisMode;
   }
 
@@ -52,7 +59,15 @@ public class DefaultProjectRepositoriesLoader implements ProjectRepositoriesLoad
       url += "&profile=" + ServerClient.encodeForUrl(taskProperties.properties().get(ModuleQProfiles.SONAR_PROFILE_PROP));
     }
     url += "&preview=" + analysisMode.isPreview();
-    return ProjectRepositories.fromJson(serverClient.request(url));
+    // servers older than 5.2 ignore the format and answer JSON, which is also supported by readFrom()
+    url += "&format=protobuf";
+    try (InputStream is = responseCache.request(url)) {
+      return ProjectRepositories.readFrom(is);
+    } catch (HttpDownloader.HttpException e) {
+      throw serverClient.handleHttpException(e);
+    } catch (IOException e) {
+      throw new IllegalStateException("Unable to load project repositories", e);
+    }
   }
 
 }
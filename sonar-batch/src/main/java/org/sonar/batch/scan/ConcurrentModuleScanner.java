@@ -0,0 +1,142 @@
+/*
+ * SonarQube, open source software quality management tool.
+ * Copyright (C) 2008-2014 SonarSource
+ * mailto:contact AT sonarsource DOT com
+ *
+ * SonarQube is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * SonarQube is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.batch.scan;
+
+import com.google.common.base.Joiner;
+import com.google.common.base.Throwables;
+import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.sonar.api.resources.Project;
+import org.sonar.batch.util.ProgressReport;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scans the modules of the reactor on a bounded pool of threads. A module is scanned once all its sub-modules
+ * are done, so that their measures can be aggregated. The root module is scanned last, on the calling thread,
+ * as it executes the project-level phases (persisters, reports, post-jobs).
+ *
+ * @since 5.2
+ */
+class ConcurrentModuleScanner {
+
+  private final ProjectScanContainer container;
+  private final int threads;
+  private final long progressPeriod;
+
+  ConcurrentModuleScanner(ProjectScanContainer container, int threads) {
+    this(container, threads, TimeUnit.SECONDS.toMillis(10));
+  }
+
+  ConcurrentModuleScanner(ProjectScanContainer container, int threads, long progressPeriod) {
+    this.container = container;
+    this.threads = threads;
+    this.progressPeriod = progressPeriod;
+  }
+
+  void scan(Project root) {
+    // number of sub-modules that are not scanned yet, per module
+    Map<Project, Integer> pendingSubModules = Maps.newHashMap();
+    Map<Project, Project> parents = Maps.newHashMap();
+    register(root, pendingSubModules, parents);
+    int subModules = pendingSubModules.size() - 1;
+
+    ExecutorService executor = Executors.newFixedThreadPool(threads, new ThreadFactoryBuilder()
+      .setNameFormat("Module scan %d")
+      .setDaemon(true)
+      .build());
+    CompletionService<Project> completionService = new ExecutorCompletionService<>(executor);
+    Set<String> inProgress = Collections.synchronizedSet(new LinkedHashSet<String>());
+    ProgressReport progressReport = new ProgressReport("Report about progress of module scan", progressPeriod);
+    progressReport.start("Scan " + subModules + " sub-modules with " + threads + " threads");
+    try {
+      for (Map.Entry<Project, Integer> entry : pendingSubModules.entrySet()) {
+        if (entry.getValue() == 0 && entry.getKey() != root) {
+          submit(completionService, entry.getKey(), inProgress);
+        }
+      }
+      for (int scanned = 1; scanned <= subModules; scanned++) {
+        Project module = await(completionService);
+        Project parent = parents.get(module);
+        int pending = pendingSubModules.get(parent) - 1;
+        pendingSubModules.put(parent, pending);
+        if (pending == 0 && parent != root) {
+          submit(completionService, parent, inProgress);
+        }
+        progressReport.message(scanned + "/" + subModules + " sub-modules scanned... (in progress: " + Joiner.on(", ").join(copy(inProgress)) + ")");
+      }
+    } finally {
+      executor.shutdownNow();
+      progressReport.stop("Scan of sub-modules done");
+    }
+    container.scan(root);
+  }
+
+  private static void register(Project module, Map<Project, Integer> pendingSubModules, Map<Project, Project> parents) {
+    pendingSubModules.put(module, module.getModules().size());
+    for (Project subModule : module.getModules()) {
+      parents.put(subModule, module);
+      register(subModule, pendingSubModules, parents);
+    }
+  }
+
+  private void submit(CompletionService<Project> completionService, final Project module, final Set<String> inProgress) {
+    completionService.submit(new Callable<Project>() {
+      @Override
+      public Project call() {
+        inProgress.add(module.getName());
+        try {
+          container.scan(module);
+        } finally {
+          inProgress.remove(module.getName());
+        }
+        return module;
+      }
+    });
+  }
+
+  private static Project await(CompletionService<Project> completionService) {
+    try {
+      return completionService.take().get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted during scan of modules", e);
+    } catch (ExecutionException e) {
+      Throwables.propagateIfPossible(e.getCause());
+      throw new IllegalStateException("Fail to scan module", e.getCause());
+    }
+  }
+
+  private static Set<String> copy(Set<String> set) {
+    synchronized (set) {
+      return new LinkedHashSet<>(set);
+    }
+  }
+}
@@ -223,8 +223,11 @@ public class ModuleScanContainer extends ComponentContainer {
   protected void doAfterStart() {
     DefaultIndex index = getComponentByType(DefaultIndex.class);
     index.setCurrentProject(module, getComponentByType(ModuleIssues.class));
-
-    getComponentByType(PhaseExecutor.class).execute(module);
+    try {
+      getComponentByType(PhaseExecutor.class).execute(module);
+    } finally {
+      index.unsetCurrentProject();
+    }
 
     // Free memory since module settings are no more used
     module.setSettings(null);
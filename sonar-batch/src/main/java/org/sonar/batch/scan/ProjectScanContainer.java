@@ -20,11 +20,16 @@
 package org.sonar.batch.scan;
 
 import com.google.common.annotations.VisibleForTesting;
+import org.picocontainer.ComponentAdapter;
+import org.picocontainer.PicoException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.sonar.api.BatchComponent;
 import org.sonar.api.CoreProperties;
 import org.sonar.api.batch.InstantiationStrategy;
 import org.sonar.api.batch.bootstrap.ProjectBootstrapper;
 import org.sonar.api.batch.bootstrap.ProjectReactor;
+import org.sonar.api.batch.fs.internal.SourceCacheMemory;
 import org.sonar.api.config.Settings;
 import org.sonar.api.platform.ComponentContainer;
 import org.sonar.api.resources.Languages;
@@ -72,6 +77,16 @@ import org.sonar.core.user.DefaultUserFinder;
 
 public class ProjectScanContainer extends ComponentContainer {
 
+  /**
+   * Number of threads used to scan the modules of a multi-module project. Default is 1, meaning that modules
+   * are scanned one after the other. Components shared by modules, including the extensions instantiated once
+   * per batch, must be thread-safe. Ignored when analysis is saved in database or when profiling is enabled.
+   * @since 5.2
+   */
+  public static final String MODULE_THREADS_PROPERTY = "sonar.batch.modules.threads";
+
+  private static final Logger LOG = LoggerFactory.getLogger(ProjectScanContainer.class);
+
   private DefaultAnalysisMode analysisMode;
 
   public ProjectScanContainer(ComponentContainer taskContainer) {
@@ -166,6 +181,9 @@ public class ProjectScanContainer extends ComponentContainer {
       // Duplications
       DuplicationCache.class,
 
+      // Sources
+      SourceCacheMemory.class,
+
       // Dependencies
       DependencyPersister.class,
 
@@ -219,7 +237,14 @@ public class ProjectScanContainer extends ComponentContainer {
   @Override
   protected void doAfterStart() {
     ProjectTree tree = getComponentByType(ProjectTree.class);
-    scanRecursively(tree.getRootProject());
+    Project root = tree.getRootProject();
+    int threads = moduleThreads();
+    if (threads > 1 && !root.getModules().isEmpty()) {
+      instantiateComponents();
+      new ConcurrentModuleScanner(this, threads).scan(root);
+    } else {
+      scanRecursively(root);
+    }
     if (analysisMode.isMediumTest()) {
       getComponentByType(ScanTaskObservers.class).notifyEndOfScanTask();
     }
@@ -232,9 +257,42 @@ public class ProjectScanContainer extends ComponentContainer {
     scan(module);
   }
 
+  /**
+   * Components are lazily instantiated by pico, which is not thread-safe. They are created before modules are
+   * scanned concurrently, except the ones that can not be used in the current analysis mode.
+   */
+  private void instantiateComponents() {
+    for (ComponentAdapter<?> adapter : getPicoContainer().getComponentAdapters()) {
+      try {
+        getPicoContainer().getComponent(adapter.getComponentKey());
+      } catch (PicoException e) {
+        LOG.debug("Component " + adapter.getComponentKey() + " is not instantiated", e);
+      }
+    }
+  }
+
+  private int moduleThreads() {
+    Settings settings = getComponentByType(Settings.class);
+    int threads = settings.getInt(MODULE_THREADS_PROPERTY);
+    if (threads > 1 && analysisMode.isDb()) {
+      LOG.warn("Property " + MODULE_THREADS_PROPERTY + " is ignored as the database session is shared by modules");
+      return 1;
+    }
+    if (threads > 1 && settings.getBoolean(CoreProperties.PROFILING_LOG_PROPERTY)) {
+      LOG.warn("Property " + MODULE_THREADS_PROPERTY + " is ignored as profiling is enabled");
+      return 1;
+    }
+    return threads;
+  }
+
   @VisibleForTesting
   void scan(Project module) {
-    new ModuleScanContainer(this, module).execute();
+    ModuleScanContainer moduleContainer;
+    // modules may be scanned concurrently, but creation of child containers is not thread-safe
+    synchronized (this) {
+      moduleContainer = new ModuleScanContainer(this, module);
+    }
+    moduleContainer.execute();
   }
 
   static class BatchExtensionFilter implements ExtensionMatcher {
@@ -32,8 +32,8 @@ import javax.annotation.CheckForNull;
 import java.util.*;
 
 /**
- * Cache of all files and dirs. This cache is shared amongst all project modules. Inclusion and
- * exclusion patterns are already applied.
+ * Cache of all files and dirs. This cache is shared amongst all project modules, that may be scanned
+ * concurrently. Inclusion and exclusion patterns are already applied.
  */
 public class InputPathCache implements BatchComponent {
 
@@ -58,41 +58,41 @@ public class InputPathCache implements BatchComponent {
     }));
   }
 
-  public Iterable<InputFile> filesByModule(String moduleKey) {
+  public synchronized Iterable<InputFile> filesByModule(String moduleKey) {
     if (inputFileCache.containsKey(moduleKey)) {
       return inputFileCache.get(moduleKey).values();
     }
     return Collections.emptyList();
   }
 
-  public Iterable<InputDir> dirsByModule(String moduleKey) {
+  public synchronized Iterable<InputDir> dirsByModule(String moduleKey) {
     if (inputDirCache.containsKey(moduleKey)) {
       return inputDirCache.get(moduleKey).values();
     }
     return Collections.emptyList();
   }
 
-  public InputPathCache removeModule(String moduleKey) {
+  public synchronized InputPathCache removeModule(String moduleKey) {
     inputFileCache.remove(moduleKey);
     inputDirCache.remove(moduleKey);
     return this;
   }
 
-  public InputPathCache remove(String moduleKey, InputFile inputFile) {
+  public synchronized InputPathCache remove(String moduleKey, InputFile inputFile) {
     if (inputFileCache.containsKey(moduleKey)) {
       inputFileCache.get(moduleKey).remove(inputFile.relativePath());
     }
     return this;
   }
 
-  public InputPathCache remove(String moduleKey, InputDir inputDir) {
+  public synchronized InputPathCache remove(String moduleKey, InputDir inputDir) {
     if (inputDirCache.containsKey(moduleKey)) {
       inputDirCache.get(moduleKey).remove(inputDir.relativePath());
     }
     return this;
   }
 
-  public InputPathCache put(String moduleKey, InputFile inputFile) {
+  public synchronized InputPathCache put(String moduleKey, InputFile inputFile) {
     if (!inputFileCache.containsKey(moduleKey)) {
       inputFileCache.put(moduleKey, new TreeMap<String, InputFile>());
     }
@@ -100,7 +100,7 @@ public class InputPathCache implements BatchComponent {
     return this;
   }
 
-  public InputPathCache put(String moduleKey, InputDir inputDir) {
+  public synchronized InputPathCache put(String moduleKey, InputDir inputDir) {
     if (!inputDirCache.containsKey(moduleKey)) {
       inputDirCache.put(moduleKey, new TreeMap<String, InputDir>());
     }
@@ -109,7 +109,7 @@ public class InputPathCache implements BatchComponent {
   }
 
   @CheckForNull
-  public InputFile getFile(String moduleKey, String relativePath) {
+  public synchronized InputFile getFile(String moduleKey, String relativePath) {
     if (inputFileCache.containsKey(moduleKey)) {
       return inputFileCache.get(moduleKey).get(relativePath);
     }
@@ -117,7 +117,7 @@ public class InputPathCache implements BatchComponent {
   }
 
   @CheckForNull
-  public InputDir getDir(String moduleKey, String relativePath) {
+  public synchronized InputDir getDir(String moduleKey, String relativePath) {
     if (inputDirCache.containsKey(moduleKey)) {
       return inputDirCache.get(moduleKey).get(relativePath);
     }
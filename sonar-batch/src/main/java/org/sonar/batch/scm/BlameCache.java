@@ -0,0 +1,225 @@
+/*
+ * SonarQube, open source software quality management tool.
+ * Copyright (C) 2008-2014 SonarSource
+ * mailto:contact AT sonarsource DOT com
+ *
+ * SonarQube is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * SonarQube is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.batch.scm;
+
+import com.google.common.collect.Maps;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.sonar.api.batch.fs.InputFile;
+import org.sonar.api.batch.fs.internal.DefaultInputFile;
+import org.sonar.api.batch.scm.BlameLine;
+
+import javax.annotation.CheckForNull;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Blame of files computed by previous analyses, keyed by path and hash of file content, so that files
+ * which did not change are not blamed again, even if the server does not know them. Cache of a module is
+ * stored in a single file. Only the files of current analysis are kept when it is saved.
+ * <p/>
+ * Blame of files with uncommitted lines is not cached, as these lines get a revision once committed.
+ *
+ * @since 5.2
+ */
+class BlameCache {
+
+  static final int VERSION = 1;
+
+  private static final Logger LOG = LoggerFactory.getLogger(BlameCache.class);
+
+  private final File file;
+  private final Map<String, byte[]> previous;
+  private final ConcurrentMap<String, byte[]> current = Maps.newConcurrentMap();
+  private final AtomicInteger hits = new AtomicInteger();
+
+  BlameCache(File file) {
+    this.file = file;
+    this.previous = load();
+  }
+
+  private Map<String, byte[]> load() {
+    Map<String, byte[]> result = Maps.newHashMap();
+    if (!file.exists()) {
+      return result;
+    }
+    DataInputStream input = null;
+    try {
+      input = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+      if (input.readInt() != VERSION) {
+        LOG.debug("Ignore SCM cache {}, as it was written by another version", file);
+        return result;
+      }
+      int count = input.readInt();
+      for (int i = 0; i < count; i++) {
+        String key = input.readUTF();
+        byte[] lines = new byte[input.readInt()];
+        input.readFully(lines);
+        result.put(key, lines);
+      }
+    } catch (IOException e) {
+      LOG.warn("Fail to read SCM cache " + file + ". It is ignored.", e);
+      result.clear();
+    } finally {
+      IOUtils.closeQuietly(input);
+    }
+    return result;
+  }
+
+  /**
+   * Blame of a file whose content did not change since it was put, otherwise null.
+   */
+  @CheckForNull
+  public List<BlameLine> get(InputFile inputFile) {
+    String key = key(inputFile);
+    byte[] lines = key == null ? null : previous.get(key);
+    if (lines == null) {
+      return null;
+    }
+    current.put(key, lines);
+    hits.incrementAndGet();
+    return decode(lines);
+  }
+
+  public void put(InputFile inputFile, List<BlameLine> lines) {
+    String key = key(inputFile);
+    if (key == null) {
+      return;
+    }
+    for (BlameLine line : lines) {
+      if (StringUtils.isBlank(line.revision())) {
+        return;
+      }
+    }
+    current.put(key, encode(lines));
+  }
+
+  /**
+   * Keeps the blame of a file that is not blamed by current analysis, for example because the server
+   * already knows it.
+   */
+  public void retain(InputFile inputFile) {
+    String key = key(inputFile);
+    byte[] lines = key == null ? null : previous.get(key);
+    if (lines != null) {
+      current.put(key, lines);
+    }
+  }
+
+  /**
+   * Writes the blame of current analysis. Cache is written in a temporary file, then renamed, so that
+   * concurrent analyses do not read partial content.
+   */
+  public void save() {
+    LOG.debug("SCM cache: {} files reused of {}", hits.get(), current.size());
+    File tempFile = new File(file.getParentFile(), file.getName() + ".tmp" + System.nanoTime());
+    DataOutputStream output = null;
+    try {
+      FileUtils.forceMkdir(file.getParentFile());
+      output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)));
+      output.writeInt(VERSION);
+      output.writeInt(current.size());
+      for (Map.Entry<String, byte[]> entry : current.entrySet()) {
+        output.writeUTF(entry.getKey());
+        output.writeInt(entry.getValue().length);
+        output.write(entry.getValue());
+      }
+      output.close();
+      output = null;
+      FileUtils.deleteQuietly(file);
+      if (!tempFile.renameTo(file)) {
+        throw new IOException("Fail to rename " + tempFile + " to " + file);
+      }
+    } catch (IOException e) {
+      LOG.warn("Fail to write SCM cache " + file, e);
+    } finally {
+      IOUtils.closeQuietly(output);
+      FileUtils.deleteQuietly(tempFile);
+    }
+  }
+
+  int hits() {
+    return hits.get();
+  }
+
+  @CheckForNull
+  private static String key(InputFile inputFile) {
+    String contentHash = ((DefaultInputFile) inputFile).hash();
+    return contentHash == null ? null : (inputFile.relativePath() + ":" + contentHash);
+  }
+
+  private static byte[] encode(List<BlameLine> lines) {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    DataOutputStream output = new DataOutputStream(bytes);
+    try {
+      output.writeInt(lines.size());
+      for (BlameLine line : lines) {
+        output.writeUTF(line.revision());
+        output.writeBoolean(line.author() != null);
+        output.writeUTF(StringUtils.defaultString(line.author()));
+        Date date = line.date();
+        output.writeLong(date == null ? -1L : date.getTime());
+      }
+    } catch (IOException e) {
+      throw new IllegalStateException("Fail to encode blame", e);
+    }
+    return bytes.toByteArray();
+  }
+
+  private static List<BlameLine> decode(byte[] bytes) {
+    DataInputStream input = new DataInputStream(new ByteArrayInputStream(bytes));
+    try {
+      int count = input.readInt();
+      List<BlameLine> lines = new ArrayList<>(count);
+      for (int i = 0; i < count; i++) {
+        BlameLine line = new BlameLine().revision(input.readUTF());
+        boolean hasAuthor = input.readBoolean();
+        String author = input.readUTF();
+        line.author(hasAuthor ? author : null);
+        long date = input.readLong();
+        if (date != -1L) {
+          line.date(new Date(date));
+        }
+        lines.add(line);
+      }
+      return lines;
+    } catch (IOException e) {
+      throw new IllegalStateException("Fail to decode blame", e);
+    }
+  }
+}
@@ -49,14 +49,20 @@ class DefaultBlameOutput implements BlameOutput {
 
   private final BatchReportWriter writer;
   private final ResourceCache componentCache;
+  private final BlameCache blameCache;
   private final Set<InputFile> allFilesToBlame = new HashSet<InputFile>();
   private ProgressReport progressReport;
   private int count;
   private int total;
 
   DefaultBlameOutput(BatchReportWriter writer, ResourceCache componentCache, List<InputFile> filesToBlame) {
+    this(writer, componentCache, filesToBlame, null);
+  }
+
+  DefaultBlameOutput(BatchReportWriter writer, ResourceCache componentCache, List<InputFile> filesToBlame, @Nullable BlameCache blameCache) {
     this.writer = writer;
     this.componentCache = componentCache;
+    this.blameCache = blameCache;
     this.allFilesToBlame.addAll(filesToBlame);
     count = 0;
     total = filesToBlame.size();
@@ -94,6 +100,9 @@ class DefaultBlameOutput implements BlameOutput {
       }
     }
     writer.writeComponentChangesets(scmBuilder.build());
+    if (blameCache != null) {
+      blameCache.put(file, lines);
+    }
     allFilesToBlame.remove(file);
     count++;
     progressReport.message(count + "/" + total + " files analyzed, last one was " + file.absolutePath());
@@ -52,6 +52,12 @@ public final class ScmConfiguration implements BatchComponent, Startable {
 
   public static final String FORCE_RELOAD_KEY = "sonar.scm.forceReloadAll";
 
+  /**
+   * Number of threads used to blame files when the SCM provider supports it. Default is the number of available processors.
+   * @since 5.2
+   */
+  public static final String THREADS_KEY = "sonar.scm.threads";
+
   private final ProjectReactor projectReactor;
   private final Settings settings;
   private final Map<String, ScmProvider> providerPerKey = new LinkedHashMap<String, ScmProvider>();
@@ -143,6 +149,11 @@ public final class ScmConfiguration implements BatchComponent, Startable {
     return settings.getBoolean(FORCE_RELOAD_KEY);
   }
 
+  public int threads() {
+    int threads = settings.getInt(THREADS_KEY);
+    return threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+  }
+
   @Override
   public void stop() {
     // Nothing to do
@@ -19,6 +19,10 @@
  */
 package org.sonar.batch.scm;
 
+import com.google.common.base.Throwables;
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.apache.commons.codec.digest.DigestUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.sonar.api.CoreProperties;
@@ -26,6 +30,8 @@ import org.sonar.api.batch.bootstrap.ProjectDefinition;
 import org.sonar.api.batch.fs.FileSystem;
 import org.sonar.api.batch.fs.InputFile;
 import org.sonar.api.batch.fs.InputFile.Status;
+import org.sonar.api.batch.scm.BlameCommand;
+import org.sonar.api.batch.scm.BlameLine;
 import org.sonar.api.batch.sensor.Sensor;
 import org.sonar.api.batch.sensor.SensorContext;
 import org.sonar.api.batch.sensor.SensorDescriptor;
@@ -34,12 +40,27 @@ import org.sonar.batch.protocol.input.FileData;
 import org.sonar.batch.protocol.input.ProjectRepositories;
 import org.sonar.batch.report.ReportPublisher;
 import org.sonar.batch.scan.filesystem.InputPathCache;
+import org.sonar.home.cache.FileCache;
 
+import java.io.File;
+import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 public final class ScmSensor implements Sensor {
 
+  static final String CACHE_DIR = "_scm";
+
+  /**
+   * Number of partitions per thread, so that threads are still busy when blame of some files is slower
+   */
+  private static final int PARTITIONS_PER_THREAD = 4;
+
   private static final Logger LOG = LoggerFactory.getLogger(ScmSensor.class);
 
   private final ProjectDefinition projectDefinition;
@@ -48,16 +69,18 @@ public final class ScmSensor implements Sensor {
   private final ProjectRepositories projectReferentials;
   private final ResourceCache resourceCache;
   private final ReportPublisher publishReportJob;
+  private final FileCache fileCache;
 
   public ScmSensor(ProjectDefinition projectDefinition, ScmConfiguration configuration,
     ProjectRepositories projectReferentials, FileSystem fs, InputPathCache inputPathCache, ResourceCache resourceCache,
-    ReportPublisher publishReportJob) {
+    ReportPublisher publishReportJob, FileCache fileCache) {
     this.projectDefinition = projectDefinition;
     this.configuration = configuration;
     this.projectReferentials = projectReferentials;
     this.fs = fs;
     this.resourceCache = resourceCache;
     this.publishReportJob = publishReportJob;
+    this.fileCache = fileCache;
   }
 
   @Override
@@ -77,17 +100,83 @@ public final class ScmSensor implements Sensor {
       return;
     }
 
-    List<InputFile> filesToBlame = collectFilesToBlame();
+    BlameCache blameCache = new BlameCache(new File(new File(fileCache.getDir(), CACHE_DIR), DigestUtils.md5Hex(projectDefinition.getKeyWithBranch())));
+    List<InputFile> filesToBlame = collectFilesToBlame(blameCache);
     if (!filesToBlame.isEmpty()) {
       String key = configuration.provider().key();
       LOG.info("SCM provider for this project is: " + key);
-      DefaultBlameOutput output = new DefaultBlameOutput(publishReportJob.getWriter(), resourceCache, filesToBlame);
-      configuration.provider().blameCommand().blame(new DefaultBlameInput(fs, filesToBlame), output);
+      DefaultBlameOutput output = new DefaultBlameOutput(publishReportJob.getWriter(), resourceCache, filesToBlame, blameCache);
+      // forced reloading also ignores the local cache
+      List<InputFile> notCached = configuration.forceReloadAll() ? filesToBlame : reuseCachedBlame(filesToBlame, blameCache, output);
+      blame(configuration.provider().blameCommand(), notCached, output);
       output.finish();
     }
+    blameCache.save();
+  }
+
+  /**
+   * Reports the blame of files that did not change since it was cached
+   * @return the files that are still to be blamed
+   */
+  private static List<InputFile> reuseCachedBlame(List<InputFile> filesToBlame, BlameCache blameCache, DefaultBlameOutput output) {
+    List<InputFile> notCached = new ArrayList<>();
+    for (InputFile f : filesToBlame) {
+      List<BlameLine> lines = blameCache.get(f);
+      if (lines == null) {
+        notCached.add(f);
+      } else {
+        output.blameResult(f, lines);
+      }
+    }
+    return notCached;
+  }
+
+  private void blame(final BlameCommand command, List<InputFile> filesToBlame, final DefaultBlameOutput output) {
+    if (filesToBlame.isEmpty()) {
+      return;
+    }
+    int threads = command.isThreadSafe() ? configuration.threads() : 1;
+    if (threads <= 1 || filesToBlame.size() == 1) {
+      command.blame(new DefaultBlameInput(fs, filesToBlame), output);
+      return;
+    }
+    int partitionSize = (int) Math.ceil((double) filesToBlame.size() / (threads * PARTITIONS_PER_THREAD));
+    ExecutorService executor = Executors.newFixedThreadPool(threads, new ThreadFactoryBuilder()
+      .setNameFormat("SCM blame %d")
+      .setDaemon(true)
+      .build());
+    try {
+      List<Future<Void>> futures = new ArrayList<>();
+      for (final List<InputFile> partition : Lists.partition(filesToBlame, partitionSize)) {
+        futures.add(executor.submit(new Callable<Void>() {
+          @Override
+          public Void call() {
+            command.blame(new DefaultBlameInput(fs, partition), output);
+            return null;
+          }
+        }));
+      }
+      for (Future<Void> future : futures) {
+        await(future);
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private static void await(Future<Void> future) {
+    try {
+      future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted during SCM blame", e);
+    } catch (ExecutionException e) {
+      Throwables.propagateIfPossible(e.getCause());
+      throw new IllegalStateException("Fail to blame files", e.getCause());
+    }
   }
 
-  private List<InputFile> collectFilesToBlame() {
+  private List<InputFile> collectFilesToBlame(BlameCache blameCache) {
     if (configuration.forceReloadAll()) {
       LOG.warn("Forced reloading of SCM data for all files.");
     }
@@ -99,6 +188,8 @@ public final class ScmSensor implements Sensor {
         FileData fileData = projectReferentials.fileData(projectDefinition.getKeyWithBranch(), f.relativePath());
         if (f.status() != Status.SAME || fileData == null || fileData.needBlame()) {
           addIfNotEmpty(filesToBlame, f);
+        } else {
+          blameCache.retain(f);
         }
       }
     }
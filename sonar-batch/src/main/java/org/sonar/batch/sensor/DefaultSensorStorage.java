@@ -197,25 +197,28 @@ public class DefaultSensorStorage implements SensorStorage {
     Preconditions.checkNotNull(toBatchResource, "Unable to find destination resource " + dep.toKey());
     File fromResource = (File) fromBatchResource.resource();
     File toResource = (File) toBatchResource.resource();
-    if (sonarIndex.getEdge(fromResource, toResource) != null) {
-      throw new IllegalStateException("Dependency between " + dep.fromKey() + " and " + dep.toKey() + " was already saved.");
-    }
-    Directory fromParent = fromResource.getParent();
-    Directory toParent = toResource.getParent();
-    Dependency parentDep = null;
-    if (!fromParent.equals(toParent)) {
-      parentDep = sonarIndex.getEdge(fromParent, toParent);
-      if (parentDep != null) {
-        parentDep.setWeight(parentDep.getWeight() + 1);
-      } else {
-        parentDep = new Dependency(fromParent, toParent).setUsage(USES).setWeight(1);
-        parentDep = sonarIndex.addDependency(parentDep);
+    // Sensors may run in parallel. The lock of the index makes the check and the update of edges atomic.
+    synchronized (sonarIndex) {
+      if (sonarIndex.getEdge(fromResource, toResource) != null) {
+        throw new IllegalStateException("Dependency between " + dep.fromKey() + " and " + dep.toKey() + " was already saved.");
+      }
+      Directory fromParent = fromResource.getParent();
+      Directory toParent = toResource.getParent();
+      Dependency parentDep = null;
+      if (!fromParent.equals(toParent)) {
+        parentDep = sonarIndex.getEdge(fromParent, toParent);
+        if (parentDep != null) {
+          parentDep.setWeight(parentDep.getWeight() + 1);
+        } else {
+          parentDep = new Dependency(fromParent, toParent).setUsage(USES).setWeight(1);
+          parentDep = sonarIndex.addDependency(parentDep);
+        }
       }
+      sonarIndex.addDependency(new Dependency(fromResource, toResource)
+        .setUsage(USES)
+        .setWeight(dep.weight())
+        .setParent(parentDep));
     }
-    sonarIndex.addDependency(new Dependency(fromResource, toResource)
-      .setUsage(USES)
-      .setWeight(dep.weight())
-      .setParent(parentDep));
   }
 
   @Override
@@ -22,6 +22,7 @@ package org.sonar.batch.source;
 import org.sonar.api.batch.Phase;
 import org.sonar.api.batch.fs.FileSystem;
 import org.sonar.api.batch.fs.InputFile;
+import org.sonar.api.batch.fs.internal.FileMetadata;
 import org.sonar.api.batch.sensor.Sensor;
 import org.sonar.api.batch.sensor.SensorContext;
 import org.sonar.api.batch.sensor.SensorDescriptor;
@@ -39,11 +40,13 @@ public final class CodeColorizerSensor implements Sensor {
   private final ReportPublisher reportPublisher;
   private final ResourceCache resourceCache;
   private final CodeColorizers codeColorizers;
+  private final FileMetadata fileMetadata;
 
-  public CodeColorizerSensor(ReportPublisher reportPublisher, ResourceCache resourceCache, CodeColorizers codeColorizers) {
+  public CodeColorizerSensor(ReportPublisher reportPublisher, ResourceCache resourceCache, CodeColorizers codeColorizers, FileMetadata fileMetadata) {
     this.reportPublisher = reportPublisher;
     this.resourceCache = resourceCache;
     this.codeColorizers = codeColorizers;
+    this.fileMetadata = fileMetadata;
   }
 
   @Override
@@ -62,7 +65,7 @@ public final class CodeColorizerSensor implements Sensor {
       if (reader.hasSyntaxHighlighting(batchId) || language == null) {
         continue;
       }
-      codeColorizers.toSyntaxHighlighting(f.file(), fs.encoding(), language, context.newHighlighting().onFile(f));
+      codeColorizers.toSyntaxHighlighting(f.file(), fs.encoding(), language, context.newHighlighting().onFile(f), fileMetadata);
     }
   }
 
@@ -20,11 +20,11 @@
 package org.sonar.batch.source;
 
 import com.google.common.collect.Lists;
-import org.apache.commons.io.input.BOMInputStream;
 import org.apache.commons.lang.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.sonar.api.BatchComponent;
+import org.sonar.api.batch.fs.internal.FileMetadata;
 import org.sonar.api.batch.sensor.highlighting.NewHighlighting;
 import org.sonar.api.web.CodeColorizerFormat;
 import org.sonar.colorizer.CodeColorizer;
@@ -63,8 +63,11 @@ public class CodeColorizers implements BatchComponent {
     this(Lists.<CodeColorizerFormat>newArrayList());
   }
 
+  /**
+   * @param fileMetadata provides the content of file, from memory when cached
+   */
   @CheckForNull
-  public void toSyntaxHighlighting(File file, Charset charset, String language, NewHighlighting highlighting) {
+  public void toSyntaxHighlighting(File file, Charset charset, String language, NewHighlighting highlighting, FileMetadata fileMetadata) {
     CodeColorizerFormat format = byLang.get(language);
     List<Tokenizer> tokenizers;
     if (format == null) {
@@ -79,7 +82,7 @@ public class CodeColorizers implements BatchComponent {
     } else {
       tokenizers = format.getTokenizers();
     }
-    try (Reader reader = new BufferedReader(new InputStreamReader(new BOMInputStream(new FileInputStream(file)), charset))) {
+    try (Reader reader = fileMetadata.newReader(file, charset)) {
       new HighlightingRenderer().render(reader, tokenizers, highlighting);
     } catch (Exception e) {
       LOG.warn("Unable to perform colorization of file " + file, e);
@@ -33,6 +33,8 @@ import org.sonar.batch.sensor.SensorOptimizer;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.hasItem;
@@ -295,6 +297,24 @@ public class BatchExtensionDictionnaryTest {
     assertThat(extensions.get(2)).isEqualTo(post);
   }
 
+  @Test
+  public void predecessorsThroughDependenciesAndPhases() {
+    BatchExtension pre = new PreSensor();
+    BatchExtension generates = new GeneratesSomething("foo");
+    BatchExtension dependsUpon = new MethodDependentOf("foo");
+    BatchExtension independent = new FakeSensor();
+    BatchExtension post = new PostSensor();
+
+    BatchExtensionDictionnary selector = newSelector();
+    Map<BatchExtension, Set<BatchExtension>> predecessors = selector.predecessors(Arrays.asList(post, independent, dependsUpon, generates, pre));
+
+    assertThat(predecessors.get(pre)).isEmpty();
+    assertThat(predecessors.get(generates)).containsOnly(pre);
+    assertThat(predecessors.get(dependsUpon)).containsOnly(pre, generates);
+    assertThat(predecessors.get(independent)).containsOnly(pre);
+    assertThat(predecessors.get(post)).containsOnly(pre, generates, dependsUpon, independent);
+  }
+
   @Test
   public void buildStatusCheckersAreExecutedAfterOtherPostJobs() {
     BuildBreaker checker = new BuildBreaker() {
@@ -39,6 +39,7 @@ import javax.servlet.http.HttpServletResponse;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 
 import static javax.servlet.http.HttpServletResponse.SC_OK;
 import static org.apache.commons.io.IOUtils.write;
@@ -146,6 +147,29 @@ public class ServerClientTest {
     newServerClient().request("/foo");
   }
 
+  @Test
+  public void request_if_modified() throws Exception {
+    server = new MockHttpServer();
+    server.start();
+    server.setMockResponseData("this is the content");
+
+    InputStream response = newServerClient().requestIfModified("/foo?hash=1234");
+    try {
+      assertThat(IOUtils.toString(response)).isEqualTo("this is the content");
+    } finally {
+      response.close();
+    }
+  }
+
+  @Test
+  public void request_if_modified_returns_null_if_not_modified() throws Exception {
+    server = new MockHttpServer();
+    server.start();
+    server.setMockResponseStatus(304);
+
+    assertThat(newServerClient().requestIfModified("/foo?hash=1234")).isNull();
+  }
+
   @Test
   public void testEncode() {
     assertThat(ServerClient.encodeForUrl("my value")).isEqualTo("my+value");
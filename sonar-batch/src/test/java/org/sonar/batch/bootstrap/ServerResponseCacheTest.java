@@ -0,0 +1,152 @@
+/*
+ * SonarQube, open source software quality management tool.
+ * Copyright (C) 2008-2014 SonarSource
+ * mailto:contact AT sonarsource DOT com
+ *
+ * SonarQube is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * SonarQube is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.batch.bootstrap;
+
+import com.google.common.io.InputSupplier;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.IOUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.sonar.batch.bootstrapper.EnvironmentInformation;
+import org.sonar.home.cache.FileCache;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ServerResponseCacheTest {
+
+  @Rule
+  public TemporaryFolder temp = new TemporaryFolder();
+
+  ServerClient serverClient = mock(ServerClient.class);
+  FileCache fileCache = mock(FileCache.class);
+  ServerResponseCache cache;
+  ServerClientTest.MockHttpServer server = null;
+
+  @Before
+  public void setUp() throws IOException {
+    when(fileCache.getDir()).thenReturn(temp.newFolder());
+    when(serverClient.getURL()).thenReturn("http://localhost:9000");
+    cache = new ServerResponseCache(serverClient, fileCache);
+  }
+
+  @After
+  public void stopServer() {
+    if (server != null) {
+      server.stop();
+    }
+  }
+
+  @Test
+  public void download_and_cache_response() throws Exception {
+    mockResponse("/batch/global?format=protobuf", "content");
+
+    assertThat(read(cache.request("/batch/global?format=protobuf"))).isEqualTo("content");
+    verify(serverClient).doRequest("/batch/global?format=protobuf", "GET", null);
+  }
+
+  @Test
+  public void read_cache_if_not_modified() throws Exception {
+    mockResponse("/batch/global?format=protobuf", "content");
+    read(cache.request("/batch/global?format=protobuf"));
+
+    when(serverClient.requestIfModified("/batch/global?format=protobuf&hash=" + DigestUtils.md5Hex("content"))).thenReturn(null);
+    assertThat(read(cache.request("/batch/global?format=protobuf"))).isEqualTo("content");
+  }
+
+  @Test
+  public void replace_cache_if_modified() throws Exception {
+    mockResponse("/batch/global", "content");
+    read(cache.request("/batch/global"));
+
+    when(serverClient.requestIfModified("/batch/global?hash=" + DigestUtils.md5Hex("content"))).thenReturn(toStream("new content"));
+    assertThat(read(cache.request("/batch/global"))).isEqualTo("new content");
+
+    when(serverClient.requestIfModified("/batch/global?hash=" + DigestUtils.md5Hex("new content"))).thenReturn(null);
+    assertThat(read(cache.request("/batch/global"))).isEqualTo("new content");
+  }
+
+  @Test
+  public void cache_per_user() throws Exception {
+    mockResponse("/batch/global", "anonymous");
+    read(cache.request("/batch/global"));
+
+    when(serverClient.getLogin()).thenReturn("admin");
+    mockResponse("/batch/global", "admin");
+    assertThat(read(cache.request("/batch/global"))).isEqualTo("admin");
+  }
+
+  @Test
+  public void read_cache_if_http_server_answers_not_modified() throws Exception {
+    server = new ServerClientTest.MockHttpServer();
+    server.start();
+    server.setMockResponseData("content");
+    BootstrapProperties bootstrapProps = mock(BootstrapProperties.class);
+    when(bootstrapProps.property("sonar.host.url")).thenReturn("http://localhost:" + server.getPort());
+    cache = new ServerResponseCache(new ServerClient(bootstrapProps, new EnvironmentInformation("Junit", "4")), fileCache);
+    read(cache.request("/batch/global"));
+
+    server.setMockResponseStatus(304);
+    server.setMockResponseData("");
+    assertThat(read(cache.request("/batch/global"))).isEqualTo("content");
+  }
+
+  @Test
+  public void replace_cache_if_http_server_answers_modified() throws Exception {
+    server = new ServerClientTest.MockHttpServer();
+    server.start();
+    server.setMockResponseData("content");
+    BootstrapProperties bootstrapProps = mock(BootstrapProperties.class);
+    when(bootstrapProps.property("sonar.host.url")).thenReturn("http://localhost:" + server.getPort());
+    cache = new ServerResponseCache(new ServerClient(bootstrapProps, new EnvironmentInformation("Junit", "4")), fileCache);
+    read(cache.request("/batch/global"));
+
+    server.setMockResponseData("new content");
+    assertThat(read(cache.request("/batch/global"))).isEqualTo("new content");
+  }
+
+  private void mockResponse(String path, String content) throws IOException {
+    InputSupplier<InputStream> is = mock(InputSupplier.class);
+    when(is.getInput()).thenReturn(toStream(content));
+    when(serverClient.doRequest(path, "GET", null)).thenReturn(is);
+  }
+
+  private static InputStream toStream(String content) {
+    return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static String read(InputStream input) throws IOException {
+    try {
+      return IOUtils.toString(input, StandardCharsets.UTF_8);
+    } finally {
+      input.close();
+    }
+  }
+}
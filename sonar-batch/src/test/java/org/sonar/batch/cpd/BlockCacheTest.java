@@ -0,0 +1,158 @@
+/*
+ * SonarQube, open source software quality management tool.
+ * Copyright (C) 2008-2014 SonarSource
+ * mailto:contact AT sonarsource DOT com
+ *
+ * SonarQube is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * SonarQube is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.batch.cpd;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.sonar.api.batch.fs.InputFile;
+import org.sonar.api.batch.fs.internal.DeprecatedDefaultInputFile;
+import org.sonar.duplications.block.Block;
+import org.sonar.duplications.block.BlockChunker;
+import org.sonar.duplications.block.ByteArray;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BlockCacheTest {
+
+  @Rule
+  public TemporaryFolder temp = new TemporaryFolder();
+
+  File file;
+  DeprecatedDefaultInputFile foo = (DeprecatedDefaultInputFile) new DeprecatedDefaultInputFile("foo", "src/Foo.java").setHash("h1");
+  DeprecatedDefaultInputFile bar = (DeprecatedDefaultInputFile) new DeprecatedDefaultInputFile("foo", "src/Bar.java").setHash("h2");
+
+  @Before
+  public void setUp() throws Exception {
+    file = new File(temp.newFolder(), "cpd/cache");
+  }
+
+  @Test
+  public void reuse_blocks_of_files_with_same_content() {
+    BlockCache cache = new BlockCache(file, "java:10");
+    assertThat(cache.get(foo)).isNull();
+    cache.put(foo, Arrays.asList(block(foo, 1L, 0), block(foo, 2L, 1)));
+    cache.save();
+
+    cache = new BlockCache(file, "java:10");
+    // same content, other file
+    DeprecatedDefaultInputFile copy = (DeprecatedDefaultInputFile) new DeprecatedDefaultInputFile("foo", "src/Copy.java").setHash("h1");
+    List<Block> blocks = cache.get(copy);
+    assertThat(blocks).hasSize(2);
+    Block block = blocks.get(1);
+    assertThat(block.getResourceId()).isEqualTo(copy.key());
+    assertThat(block.getBlockHash()).isEqualTo(new ByteArray(2L));
+    assertThat(block.getIndexInFile()).isEqualTo(1);
+    assertThat(block.getStartLine()).isEqualTo(2);
+    assertThat(block.getEndLine()).isEqualTo(11);
+    assertThat(block.getStartUnit()).isEqualTo(3);
+    assertThat(block.getEndUnit()).isEqualTo(4);
+    assertThat(cache.get(bar)).isNull();
+    assertThat(cache.hits()).isEqualTo(1);
+  }
+
+  @Test
+  public void keep_only_files_of_last_analysis() {
+    BlockCache cache = new BlockCache(file, "java:10");
+    cache.put(foo, Arrays.asList(block(foo, 1L, 0)));
+    cache.put(bar, Arrays.asList(block(bar, 1L, 0)));
+    cache.save();
+
+    cache = new BlockCache(file, "java:10");
+    assertThat(cache.get(foo)).hasSize(1);
+    cache.save();
+
+    cache = new BlockCache(file, "java:10");
+    assertThat(cache.get(foo)).hasSize(1);
+    assertThat(cache.get(bar)).isNull();
+  }
+
+  @Test
+  public void ignore_cache_of_other_configuration() {
+    BlockCache cache = new BlockCache(file, "java:10");
+    cache.put(foo, Arrays.asList(block(foo, 1L, 0)));
+    cache.save();
+
+    assertThat(new BlockCache(file, "java:20").get(foo)).isNull();
+  }
+
+  @Test
+  public void ignore_corrupted_cache() throws Exception {
+    FileUtils.write(file, "not a cache");
+
+    BlockCache cache = new BlockCache(file, "java:10");
+    assertThat(cache.get(foo)).isNull();
+  }
+
+  @Test
+  public void do_not_cache_files_without_hash() {
+    DeprecatedDefaultInputFile noHash = new DeprecatedDefaultInputFile("foo", "src/NoHash.java");
+    BlockCache cache = new BlockCache(file, "java:10");
+    cache.put(noHash, Arrays.asList(block(noHash, 1L, 0)));
+    cache.save();
+
+    assertThat(new BlockCache(file, "java:10").get(noHash)).isNull();
+  }
+
+  @Test
+  public void chunk_only_files_not_in_cache() {
+    final AtomicInteger chunked = new AtomicInteger();
+    CpdExecutor.Chunker chunker = new CpdExecutor.Chunker() {
+      @Override
+      public List<Block> chunk(InputFile inputFile) {
+        chunked.incrementAndGet();
+        return Arrays.asList(block((DeprecatedDefaultInputFile) inputFile, 1L, 0));
+      }
+    };
+    BlockCache cache = new BlockCache(file, "java:10");
+    cache.wrap(chunker).chunk(foo);
+    cache.save();
+
+    cache = new BlockCache(file, "java:10");
+    assertThat(cache.wrap(chunker).chunk(foo)).hasSize(1);
+    assertThat(cache.wrap(chunker).chunk(bar)).hasSize(1);
+    assertThat(chunked.get()).isEqualTo(2);
+  }
+
+  @Test
+  public void implementation_version_identifies_sonarqube_and_chunkers() {
+    String version = BlockCacheFactory.implementationVersion();
+
+    assertThat(version).contains(BlockCacheFactory.class.getName()).contains(BlockChunker.class.getName());
+    assertThat(version).isEqualTo(BlockCacheFactory.implementationVersion());
+  }
+
+  private static Block block(DeprecatedDefaultInputFile inputFile, long hash, int indexInFile) {
+    return Block.builder()
+      .setResourceId(inputFile.key())
+      .setBlockHash(new ByteArray(hash))
+      .setIndexInFile(indexInFile)
+      .setLines(indexInFile + 1, indexInFile + 10)
+      .setUnit(indexInFile + 2, indexInFile + 3)
+      .build();
+  }
+}
@@ -0,0 +1,195 @@
+/*
+ * SonarQube, open source software quality management tool.
+ * Copyright (C) 2008-2014 SonarSource
+ * mailto:contact AT sonarsource DOT com
+ *
+ * SonarQube is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * SonarQube is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.batch.cpd;
+
+import com.google.common.util.concurrent.Uninterruptibles;
+import org.junit.Test;
+import org.sonar.api.batch.fs.InputFile;
+import org.sonar.api.batch.fs.internal.DeprecatedDefaultInputFile;
+import org.sonar.api.config.Settings;
+import org.sonar.api.utils.SonarException;
+import org.sonar.batch.cpd.index.SonarDuplicationsIndex;
+import org.sonar.duplications.block.Block;
+import org.sonar.duplications.block.ByteArray;
+import org.sonar.duplications.index.CloneGroup;
+
+import javax.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+public class CpdExecutorTest {
+
+  @Test
+  public void default_number_of_threads() {
+    Settings settings = new Settings();
+    assertThat(CpdExecutor.threads(settings)).isEqualTo(Runtime.getRuntime().availableProcessors());
+
+    settings.setProperty(CpdExecutor.THREADS_PROPERTY, 3);
+    assertThat(CpdExecutor.threads(settings)).isEqualTo(3);
+  }
+
+  @Test
+  public void insert_blocks_chunked_concurrently() {
+    SonarDuplicationsIndex index = new SonarDuplicationsIndex();
+    List<InputFile> files = new ArrayList<>();
+    for (int i = 0; i < 50; i++) {
+      files.add(new DeprecatedDefaultInputFile("foo", "src/Foo" + i + ".java"));
+    }
+
+    new CpdExecutor(index, 4).insert(files, new CpdExecutor.Chunker() {
+      @Override
+      public List<Block> chunk(InputFile inputFile) {
+        String key = ((DeprecatedDefaultInputFile) inputFile).key();
+        return Arrays.asList(newBlock(key, 1L, 0), newBlock(key, 2L, 1));
+      }
+    });
+
+    for (InputFile file : files) {
+      assertThat(index.getByInputFile(file, ((DeprecatedDefaultInputFile) file).key())).hasSize(2);
+    }
+    assertThat(index.getBySequenceHash(new ByteArray(1L))).hasSize(50);
+  }
+
+  @Test
+  public void fail_to_insert_if_chunker_fails() {
+    List<InputFile> files = Arrays.<InputFile>asList(new DeprecatedDefaultInputFile("foo", "src/Foo.java"));
+    try {
+      new CpdExecutor(new SonarDuplicationsIndex(), 2).insert(files, new CpdExecutor.Chunker() {
+        @Override
+        public List<Block> chunk(InputFile inputFile) {
+          throw new SonarException("Cannot find file");
+        }
+      });
+      fail();
+    } catch (SonarException e) {
+      assertThat(e).hasMessage("Cannot find file");
+    }
+  }
+
+  @Test
+  public void detect_concurrently_and_return_results_in_order_of_files() {
+    SonarDuplicationsIndex index = new SonarDuplicationsIndex();
+    List<InputFile> files = new ArrayList<>();
+    for (int i = 0; i < 50; i++) {
+      DeprecatedDefaultInputFile file = new DeprecatedDefaultInputFile("foo", "src/Foo" + i + ".java");
+      files.add(file);
+      // every file shares its first blocks with the other files
+      List<Block> blocks = new ArrayList<>();
+      for (int j = 0; j < 5; j++) {
+        long hash = j < 3 ? j : (i * 10 + j);
+        blocks.add(newBlock(file.key(), hash, j));
+      }
+      index.insert(file, blocks);
+    }
+
+    final List<InputFile> detected = Collections.synchronizedList(new ArrayList<InputFile>());
+    new CpdExecutor(index, 4).detect(files, new CpdExecutor.Callback() {
+      @Override
+      public void onDetection(InputFile inputFile, @Nullable List<CloneGroup> clones) {
+        assertThat(clones).hasSize(1);
+        assertThat(clones.get(0).getCloneParts()).hasSize(50);
+        detected.add(inputFile);
+      }
+    });
+
+    assertThat(detected).isEqualTo(files);
+  }
+
+  @Test
+  public void skip_file_on_timeout() {
+    SonarDuplicationsIndex index = new SonarDuplicationsIndex() {
+      @Override
+      public Collection<Block> getBySequenceHash(ByteArray hash) {
+        try {
+          Thread.sleep(60000);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        return super.getBySequenceHash(hash);
+      }
+    };
+    DeprecatedDefaultInputFile file = new DeprecatedDefaultInputFile("foo", "src/Foo.java");
+    index.insert(file, Arrays.asList(newBlock(file.key(), 1L, 0)));
+
+    final List<List<CloneGroup>> results = new ArrayList<>();
+    new CpdExecutor(index, 2, 100L).detect(Arrays.<InputFile>asList(file), new CpdExecutor.Callback() {
+      @Override
+      public void onDetection(InputFile inputFile, @Nullable List<CloneGroup> clones) {
+        results.add(clones);
+      }
+    });
+
+    assertThat(results).hasSize(1);
+    assertThat(results.get(0)).isNull();
+  }
+
+  @Test
+  public void skip_files_queued_behind_stuck_detection() {
+    final CountDownLatch release = new CountDownLatch(1);
+    SonarDuplicationsIndex index = new SonarDuplicationsIndex() {
+      @Override
+      public Collection<Block> getBySequenceHash(ByteArray hash) {
+        // ignores interruptions, so the thread is not freed when detection is cancelled
+        Uninterruptibles.awaitUninterruptibly(release, 60, TimeUnit.SECONDS);
+        return super.getBySequenceHash(hash);
+      }
+    };
+    List<InputFile> files = new ArrayList<>();
+    for (int i = 0; i < 2; i++) {
+      DeprecatedDefaultInputFile file = new DeprecatedDefaultInputFile("foo", "src/Foo" + i + ".java");
+      index.insert(file, Arrays.asList(newBlock(file.key(), 1L, 0)));
+      files.add(file);
+    }
+
+    final List<List<CloneGroup>> results = new ArrayList<>();
+    try {
+      new CpdExecutor(index, 1, 100L).detect(files, new CpdExecutor.Callback() {
+        @Override
+        public void onDetection(InputFile inputFile, @Nullable List<CloneGroup> clones) {
+          results.add(clones);
+        }
+      });
+    } finally {
+      release.countDown();
+    }
+
+    assertThat(results).hasSize(2);
+    assertThat(results.get(0)).isNull();
+    assertThat(results.get(1)).isNull();
+  }
+
+  private static Block newBlock(String resourceId, long hash, int indexInFile) {
+    return Block.builder()
+      .setResourceId(resourceId)
+      .setBlockHash(new ByteArray(hash))
+      .setIndexInFile(indexInFile)
+      .setLines(indexInFile * 10 + 1, indexInFile * 10 + 10)
+      .build();
+  }
+}
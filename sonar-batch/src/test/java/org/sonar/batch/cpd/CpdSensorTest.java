@@ -47,8 +47,8 @@ public class CpdSensorTest {
   @Before
   public void setUp() throws IOException {
     IndexFactory indexFactory = mock(IndexFactory.class);
-    sonarEngine = new JavaCpdEngine(indexFactory, null, null);
-    sonarBridgeEngine = new DefaultCpdEngine(indexFactory, new CpdMappings(), null, null);
+    sonarEngine = new JavaCpdEngine(indexFactory, null, null, null, null);
+    sonarBridgeEngine = new DefaultCpdEngine(indexFactory, null, new CpdMappings(), null, null);
     settings = new Settings(new PropertyDefinitions(CpdComponents.class));
 
     DefaultFileSystem fs = new DefaultFileSystem(temp.newFolder().toPath());
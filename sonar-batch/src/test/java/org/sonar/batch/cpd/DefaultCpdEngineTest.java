@@ -19,6 +19,9 @@
  */
 package org.sonar.batch.cpd;
 
+import net.sourceforge.pmd.cpd.SourceCode;
+import net.sourceforge.pmd.cpd.Tokenizer;
+import net.sourceforge.pmd.cpd.Tokens;
 import org.junit.Before;
 import org.junit.Test;
 import org.slf4j.Logger;
@@ -40,7 +43,7 @@ public class DefaultCpdEngineTest {
   @Before
   public void init() {
     settings = new Settings();
-    engine = new DefaultCpdEngine(null, null, null, settings);
+    engine = new DefaultCpdEngine(null, null, null, null, settings);
   }
 
   @Test
@@ -105,4 +108,14 @@ public class DefaultCpdEngineTest {
   private static Project newProject(String key) {
     return new Project(key).setAnalysisType(Project.AnalysisType.DYNAMIC);
   }
+  @Test
+  public void identify_tokenizer_by_class_and_location() {
+    Tokenizer tokenizer = new Tokenizer() {
+      @Override
+      public void tokenize(SourceCode sourceCode, Tokens tokens) {
+      }
+    };
+    assertThat(DefaultCpdEngine.tokenizerId(tokenizer)).startsWith(tokenizer.getClass().getName() + "@file:");
+  }
+
 }
@@ -19,6 +19,7 @@
  */
 package org.sonar.batch.cpd;
 
+import org.apache.commons.io.FileUtils;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -26,6 +27,7 @@ import org.junit.rules.TemporaryFolder;
 import org.mockito.invocation.InvocationOnMock;
 import org.mockito.stubbing.Answer;
 import org.sonar.api.batch.fs.internal.DeprecatedDefaultInputFile;
+import org.sonar.api.batch.fs.internal.FileMetadata;
 import org.sonar.api.batch.sensor.SensorContext;
 import org.sonar.api.batch.sensor.duplication.NewDuplication;
 import org.sonar.api.batch.sensor.duplication.internal.DefaultDuplication;
@@ -33,14 +35,17 @@ import org.sonar.api.batch.sensor.internal.SensorStorage;
 import org.sonar.api.batch.sensor.measure.Measure;
 import org.sonar.api.batch.sensor.measure.internal.DefaultMeasure;
 import org.sonar.api.measures.CoreMetrics;
+import org.sonar.duplications.block.Block;
 import org.sonar.duplications.index.CloneGroup;
 import org.sonar.duplications.index.ClonePart;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyZeroInteractions;
@@ -149,4 +154,20 @@ public class JavaCpdEngineTest {
     return CloneGroup.builder().setLength(0).setOrigin(parts[0]).setParts(Arrays.asList(parts)).build();
   }
 
+  @Test
+  public void chunk_java_file_into_blocks() throws IOException {
+    StringBuilder source = new StringBuilder("class Foo {\n");
+    for (int i = 0; i < 20; i++) {
+      source.append("  int f").append(i).append("() { return ").append(i).append("; }\n");
+    }
+    source.append("}\n");
+    FileUtils.write(inputFile.file(), source.toString(), StandardCharsets.UTF_8.name());
+
+    List<Block> blocks = new JavaCpdEngine.JavaChunker(new FileMetadata(), StandardCharsets.UTF_8).chunk(inputFile);
+
+    assertThat(blocks).isNotEmpty();
+    assertThat(blocks.get(0).getResourceId()).isEqualTo(inputFile.key());
+    assertThat(blocks.get(0).getStartLine()).isEqualTo(1);
+  }
+
 }
@@ -0,0 +1,143 @@
+/*
+ * SonarQube, open source software quality management tool.
+ * Copyright (C) 2008-2014 SonarSource
+ * mailto:contact AT sonarsource DOT com
+ *
+ * SonarQube is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * SonarQube is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.batch.cpd.index;
+
+import org.apache.ibatis.session.ResultContext;
+import org.apache.ibatis.session.ResultHandler;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.sonar.api.batch.fs.internal.DeprecatedDefaultInputFile;
+import org.sonar.api.database.DatabaseSession;
+import org.sonar.api.database.model.Snapshot;
+import org.sonar.api.resources.File;
+import org.sonar.api.resources.Project;
+import org.sonar.batch.index.ResourceCache;
+import org.sonar.core.duplication.DuplicationDao;
+import org.sonar.core.duplication.DuplicationUnitDto;
+import org.sonar.duplications.block.Block;
+import org.sonar.duplications.block.ByteArray;
+
+import javax.persistence.Query;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyCollectionOf;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class DbDuplicationsIndexTest {
+
+  DuplicationDao dao = mock(DuplicationDao.class);
+  ResourceCache resourceCache = new ResourceCache();
+  DeprecatedDefaultInputFile inputFile = new DeprecatedDefaultInputFile("foo", "src/Foo.java");
+  DbDuplicationsIndex index;
+
+  @Before
+  public void setUp() {
+    DatabaseSession session = mock(DatabaseSession.class);
+    when(session.createQuery(anyString())).thenReturn(mock(Query.class));
+    Snapshot lastSnapshot = new Snapshot();
+    lastSnapshot.setId(7);
+    when(session.getSingleResult(any(Query.class), any())).thenReturn(lastSnapshot);
+
+    Project project = new Project("foo");
+    project.setId(1);
+    project.setEffectiveKey("foo");
+    resourceCache.add(project, null).setSnapshot(snapshot(100));
+    File file = File.create("src/Foo.java");
+    file.setEffectiveKey(inputFile.key());
+    resourceCache.add(file, project).setSnapshot(snapshot(101));
+
+    index = new DbDuplicationsIndex(project, dao, "java", session, resourceCache);
+  }
+
+  @Test
+  public void load_candidates_of_all_hashes_at_once() {
+    doAnswer(new Answer<Void>() {
+      @Override
+      public Void answer(InvocationOnMock invocation) {
+        ResultHandler handler = (ResultHandler) invocation.getArguments()[3];
+        handler.handleResult(result(unit(2, "bar", new ByteArray(1L).toString(), 0)));
+        handler.handleResult(result(unit(2, "bar", new ByteArray(2L).toString(), 1)));
+        handler.handleResult(result(unit(3, "baz", new ByteArray(1L).toString(), 5)));
+        return null;
+      }
+    }).when(dao).selectCandidates(anyCollectionOf(String.class), eq(7), eq("java"), any(ResultHandler.class));
+
+    index.insert(inputFile, Arrays.asList(block(1L, 0), block(2L, 1), block(3L, 2)));
+    index.prepareCache();
+    index.prepareCache();
+
+    verify(dao, times(1)).selectCandidates(anyCollectionOf(String.class), eq(7), eq("java"), any(ResultHandler.class));
+    assertThat(index.getByHash(new ByteArray(1L))).extracting("resourceId").containsOnly("bar", "baz");
+    assertThat(index.getByHash(new ByteArray(2L))).extracting("indexInFile").containsExactly(1);
+    assertThat(index.getByHash(new ByteArray(3L))).isEmpty();
+  }
+
+  @Test
+  public void do_not_query_if_no_blocks() {
+    index.prepareCache();
+
+    verify(dao, times(0)).selectCandidates(anyCollectionOf(String.class), any(Integer.class), anyString(), any(ResultHandler.class));
+    assertThat(index.getByHash(new ByteArray(1L))).isEmpty();
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void fail_if_candidates_are_not_loaded() {
+    index.getByHash(new ByteArray(1L));
+  }
+
+  private Block block(long hash, int indexInFile) {
+    return Block.builder()
+      .setResourceId(inputFile.key())
+      .setBlockHash(new ByteArray(hash))
+      .setIndexInFile(indexInFile)
+      .setLines(indexInFile + 1, indexInFile + 10)
+      .build();
+  }
+
+  private static Snapshot snapshot(int id) {
+    Snapshot snapshot = new Snapshot();
+    snapshot.setId(id);
+    return snapshot;
+  }
+
+  private static DuplicationUnitDto unit(int resourceId, String resourceKey, String hash, int indexInFile) {
+    DuplicationUnitDto unit = new DuplicationUnitDto(1, 2, hash, indexInFile, indexInFile + 1, indexInFile + 10);
+    unit.setResourceId(resourceId);
+    unit.setResourceKey(resourceKey);
+    return unit;
+  }
+
+  private static ResultContext result(final Object object) {
+    ResultContext context = mock(ResultContext.class);
+    when(context.getResultObject()).thenReturn(object);
+    return context;
+  }
+}
@@ -0,0 +1,78 @@
+/*
+ * SonarQube, open source software quality management tool.
+ * Copyright (C) 2008-2014 SonarSource
+ * mailto:contact AT sonarsource DOT com
+ *
+ * SonarQube is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * SonarQube is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.batch.cpd.index;
+
+import org.junit.Test;
+import org.sonar.duplications.block.Block;
+import org.sonar.duplications.block.ByteArray;
+
+import java.util.Collection;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PackedCandidatesTest {
+
+  @Test
+  public void get_by_hash() {
+    PackedCandidates candidates = new PackedCandidates(8);
+    candidates.add(10, "foo", new ByteArray(3L), 0, 1, 10);
+    candidates.add(20, "bar", new ByteArray(1L), 4, 5, 15);
+    candidates.add(10, "foo", new ByteArray(1L), 2, 3, 12);
+    candidates.sort();
+
+    assertThat(candidates.size()).isEqualTo(3);
+    assertThat(candidates.resourceCount()).isEqualTo(2);
+    assertThat(candidates.getByHash(new ByteArray(2L))).isEmpty();
+
+    ByteArray hash = new ByteArray(1L);
+    Collection<Block> blocks = candidates.getByHash(hash);
+    assertThat(blocks).hasSize(2);
+    assertThat(blocks).extracting("resourceId").containsOnly("foo", "bar");
+    for (Block block : blocks) {
+      assertThat(block.getBlockHash()).isSameAs(hash);
+      if ("foo".equals(block.getResourceId())) {
+        assertThat(block.getIndexInFile()).isEqualTo(2);
+        assertThat(block.getStartLine()).isEqualTo(3);
+        assertThat(block.getEndLine()).isEqualTo(12);
+      }
+    }
+  }
+
+  @Test
+  public void increase_capacity() {
+    PackedCandidates candidates = new PackedCandidates(8);
+    for (int i = 0; i < 5000; i++) {
+      candidates.add(i % 10, "file" + (i % 10), new ByteArray((long) (5000 - i)), i, i, i + 10);
+    }
+    candidates.sort();
+
+    assertThat(candidates.size()).isEqualTo(5000);
+    assertThat(candidates.resourceCount()).isEqualTo(10);
+    assertThat(candidates.blockDataBytes()).isEqualTo(5000L * 6 * 4);
+    for (int i = 0; i < 5000; i++) {
+      assertThat(candidates.getByHash(new ByteArray((long) (5000 - i)))).extracting("indexInFile").containsExactly(i);
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void fail_if_hash_has_wrong_size() {
+    new PackedCandidates(8).add(10, "foo", new ByteArray(1), 0, 1, 10);
+  }
+}
@@ -19,16 +19,31 @@
  */
 package org.sonar.batch.index;
 
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
 import org.sonar.batch.index.Cache.Entry;
 
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
+@RunWith(Parameterized.class)
 public class CacheTest {
 
   @Rule
@@ -36,9 +51,23 @@ public class CacheTest {
 
   Caches caches;
 
+  /**
+   * Off-heap memory of caches, "0" to store caches on disk
+   */
+  private final String offHeapMemoryMb;
+
+  public CacheTest(String offHeapMemoryMb) {
+    this.offHeapMemoryMb = offHeapMemoryMb;
+  }
+
+  @Parameters
+  public static Collection<Object[]> storages() {
+    return Arrays.asList(new Object[][] {{"0"}, {"16"}});
+  }
+
   @Before
   public void start() throws Exception {
-    caches = CachesTest.createCacheOnTemp(temp);
+    caches = CachesTest.createCacheOnTemp(temp, ImmutableMap.of(Caches.OFF_HEAP_MEMORY_PROPERTY, offHeapMemoryMb));
     caches.start();
   }
 
@@ -267,4 +296,55 @@ public class CacheTest {
     cache.clear("foo", "bar", "baz");
     cache.clear();
   }
+
+  @Test
+  public void concurrent_access_from_several_threads() throws Exception {
+    final Cache<String> cache = caches.createCache("concurrent");
+    final int threads = 4;
+    final int entriesPerThread = 1000;
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    List<Future<Integer>> futures = Lists.newArrayList();
+    for (int t = 0; t < threads; t++) {
+      final String prefix = "t" + t;
+      futures.add(executor.submit(new Callable<Integer>() {
+        @Override
+        public Integer call() {
+          for (int i = 0; i < entriesPerThread; i++) {
+            cache.put(prefix, i, prefix + "-" + i);
+          }
+          int count = 0;
+          for (String value : cache.values(prefix)) {
+            assertThat(value).startsWith(prefix + "-");
+            count++;
+          }
+          return count;
+        }
+      }));
+    }
+    executor.shutdown();
+    for (Future<Integer> future : futures) {
+      assertThat(future.get(30, TimeUnit.SECONDS)).isEqualTo(entriesPerThread);
+    }
+    assertThat(cache.keySet()).hasSize(threads);
+    assertThat(Iterables.size(cache.values())).isEqualTo(threads * entriesPerThread);
+    assertThat(cache.get("t2", 999)).isEqualTo("t2-999");
+  }
+
+  @Test
+  public void iterable_can_be_consumed_by_another_thread() throws Exception {
+    final Cache<String> cache = caches.createCache("capitals");
+    cache.put("france", "paris");
+    cache.put("italy", "rome");
+    final Iterable<String> values = cache.values();
+
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    Future<List<String>> future = executor.submit(new Callable<List<String>>() {
+      @Override
+      public List<String> call() {
+        return Lists.newArrayList(values);
+      }
+    });
+    executor.shutdown();
+    assertThat(future.get(30, TimeUnit.SECONDS)).containsOnly("paris", "rome");
+  }
 }
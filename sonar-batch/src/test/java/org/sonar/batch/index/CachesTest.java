@@ -20,6 +20,7 @@
 package org.sonar.batch.index;
 
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.ClassRule;
@@ -32,6 +33,14 @@ import org.sonar.batch.bootstrap.TempFolderProvider;
 import java.io.File;
 import java.io.IOException;
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.Assert.fail;
@@ -42,9 +51,15 @@ public class CachesTest {
   public static TemporaryFolder temp = new TemporaryFolder();
 
   public static Caches createCacheOnTemp(TemporaryFolder temp) {
+    return createCacheOnTemp(temp, Collections.<String, String>emptyMap());
+  }
+
+  public static Caches createCacheOnTemp(TemporaryFolder temp, Map<String, String> properties) {
     try {
-      BootstrapProperties bootstrapProps = new BootstrapProperties(ImmutableMap.of(CoreProperties.WORKING_DIRECTORY, temp.newFolder().getAbsolutePath()));
-      return new Caches(new TempFolderProvider().provide(bootstrapProps));
+      Map<String, String> props = Maps.newHashMap(properties);
+      props.put(CoreProperties.WORKING_DIRECTORY, temp.newFolder().getAbsolutePath());
+      BootstrapProperties bootstrapProps = new BootstrapProperties(props);
+      return new Caches(new TempFolderProvider().provide(bootstrapProps), bootstrapProps);
     } catch (IOException e) {
       throw new RuntimeException(e);
     }
@@ -95,6 +110,83 @@ public class CachesTest {
     }
   }
 
+  @Test
+  public void should_create_caches_concurrently() throws Exception {
+    caches.start();
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    List<Future<Cache<Element>>> futures = new ArrayList<>();
+    for (int i = 0; i < 20; i++) {
+      final String name = "cache" + i;
+      futures.add(executor.submit(new Callable<Cache<Element>>() {
+        @Override
+        public Cache<Element> call() {
+          return caches.createCache(name);
+        }
+      }));
+    }
+    for (Future<Cache<Element>> future : futures) {
+      assertThat(future.get()).isNotNull();
+    }
+    executor.shutdown();
+  }
+
+  @Test
+  public void should_size_buffer_pool_from_heap() throws Exception {
+    // 5% of 1Gb
+    assertThat(Caches.bufferCount(1024L * 1024 * 1024, null)).isEqualTo(6553);
+    assertThat(Caches.bufferCount(1024L * 1024, null)).isEqualTo(Caches.MIN_BUFFER_COUNT);
+    assertThat(Caches.bufferCount(100L * 1024 * 1024 * 1024, "")).isEqualTo(Caches.MAX_BUFFER_COUNT);
+    assertThat(caches.bufferCount()).isGreaterThanOrEqualTo(Caches.MIN_BUFFER_COUNT);
+  }
+
+  @Test
+  public void should_override_size_of_buffer_pool() throws Exception {
+    assertThat(Caches.bufferCount(1024L * 1024 * 1024, "16")).isEqualTo(2048);
+    assertThat(Caches.bufferCount(1024L * 1024 * 1024, " 1024 ")).isEqualTo(131072);
+  }
+
+  @Test
+  public void should_fail_if_bad_size_of_buffer_pool() throws Exception {
+    try {
+      Caches.bufferCount(1024L * 1024 * 1024, "abc");
+      fail();
+    } catch (IllegalArgumentException e) {
+      assertThat(e).hasMessage("Property sonar.batch.cache.bufferMemoryMb is not an integer: abc");
+    }
+    try {
+      Caches.bufferCount(1024L * 1024 * 1024, "0");
+      fail();
+    } catch (IllegalArgumentException e) {
+      assertThat(e).hasMessage("Property sonar.batch.cache.bufferMemoryMb must be strictly positive: 0");
+    }
+  }
+
+  @Test
+  public void should_size_off_heap_memory_from_heap() throws Exception {
+    assertThat(Caches.offHeapMemory(1000L * 1024 * 1024, null)).isEqualTo(100L * 1024 * 1024);
+    assertThat(Caches.offHeapMemory(100L * 1024 * 1024 * 1024, null)).isEqualTo(Caches.MAX_DEFAULT_OFF_HEAP_MEMORY);
+    assertThat(Caches.offHeapMemory(1000L * 1024 * 1024, "2")).isEqualTo(2L * 1024 * 1024);
+    assertThat(Caches.offHeapMemory(1000L * 1024 * 1024, "0")).isEqualTo(0L);
+    try {
+      Caches.offHeapMemory(1000L * 1024 * 1024, "-1");
+      fail();
+    } catch (IllegalArgumentException e) {
+      assertThat(e).hasMessage("Property sonar.batch.cache.offHeapMemoryMb must be positive: -1");
+    }
+  }
+
+  @Test
+  public void should_store_caches_on_disk_if_no_off_heap_memory() throws Exception {
+    caches.stop();
+    caches = createCacheOnTemp(temp, ImmutableMap.of(Caches.OFF_HEAP_MEMORY_PROPERTY, "0"));
+    assertThat(caches.createCache("foo").storage()).isInstanceOf(PersistitStorage.class);
+
+    caches.stop();
+    caches = createCacheOnTemp(temp, ImmutableMap.of(Caches.OFF_HEAP_MEMORY_PROPERTY, "16"));
+    assertThat(caches.createCache("foo").storage()).isInstanceOf(SpillableStorage.class);
+    assertThat(caches.offHeapMemory().maxBytes()).isEqualTo(16L * 1024 * 1024);
+  }
+
   static class Element implements Serializable {
 
   }
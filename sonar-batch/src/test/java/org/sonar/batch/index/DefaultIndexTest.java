@@ -20,6 +20,7 @@
 package org.sonar.batch.index;
 
 import org.apache.commons.io.FileUtils;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.rules.TemporaryFolder;
@@ -87,6 +88,30 @@ public class DefaultIndexTest {
     index.doStart(project);
   }
 
+  @After
+  public void unsetCurrentProject() {
+    index.unsetCurrentProject();
+  }
+
+  @Test
+  public void currentProjectIsBoundToThread() throws Exception {
+    Thread thread = new Thread() {
+      @Override
+      public void run() {
+        index.setCurrentProject(moduleA, mock(ModuleIssues.class));
+      }
+    };
+    thread.start();
+    thread.join();
+    assertThat(index.getProject()).isSameAs(project);
+
+    index.setCurrentProject(moduleB, mock(ModuleIssues.class));
+    assertThat(index.getProject()).isSameAs(moduleB);
+    index.unsetCurrentProject();
+    // falls back to root project
+    assertThat(index.getProject()).isSameAs(project);
+  }
+
   @Test
   public void shouldIndexParentOfDeprecatedFiles() {
     File file = File.create("src/org/foo/Bar.java", null, false);
@@ -0,0 +1,215 @@
+/*
+ * SonarQube, open source software quality management tool.
+ * Copyright (C) 2008-2014 SonarSource
+ * mailto:contact AT sonarsource DOT com
+ *
+ * SonarQube is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * SonarQube is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.batch.index;
+
+import com.persistit.Key;
+import com.persistit.Persistit;
+import com.persistit.Value;
+import org.apache.commons.lang.StringUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+public class OffHeapStorageTest {
+
+  @ClassRule
+  public static TemporaryFolder temp = new TemporaryFolder();
+
+  Caches caches;
+  Persistit persistit;
+  OffHeapMemory memory = new OffHeapMemory(3L * OffHeapStorage.SLAB_SIZE);
+  OffHeapStorage storage = new OffHeapStorage(memory);
+
+  @Before
+  public void start() {
+    caches = CachesTest.createCacheOnTemp(temp);
+    persistit = caches.persistit();
+  }
+
+  @After
+  public void stop() {
+    caches.stop();
+  }
+
+  @Test
+  public void put_and_get() {
+    assertThat(storage.get(key("foo"), value(null))).isFalse();
+    assertThat(storage.containsKey(key("foo"))).isFalse();
+
+    storage.put(key("foo"), value("bar"));
+    storage.put(key("foo", "baz"), value("qix"));
+
+    Value value = value(null);
+    assertThat(storage.get(key("foo"), value)).isTrue();
+    assertThat(value.get()).isEqualTo("bar");
+    assertThat(storage.get(key("foo", "baz"), value)).isTrue();
+    assertThat(value.get()).isEqualTo("qix");
+    assertThat(storage.containsKey(key("foo"))).isTrue();
+    assertThat(storage.size()).isEqualTo(2);
+
+    // replace
+    storage.put(key("foo"), value("other"));
+    assertThat(storage.get(key("foo"), value)).isTrue();
+    assertThat(value.get()).isEqualTo("other");
+    assertThat(storage.size()).isEqualTo(2);
+
+    assertThat(storage.remove(key("foo"))).isTrue();
+    assertThat(storage.remove(key("foo"))).isFalse();
+    assertThat(storage.get(key("foo"), value)).isFalse();
+    assertThat(value.isDefined()).isFalse();
+  }
+
+  @Test
+  public void iterate_in_order_of_keys() {
+    storage.put(key("europe", "italy"), value("rome"));
+    storage.put(key("europe", "france"), value("paris"));
+    storage.put(key("europe2", "ukrania"), value("kiev"));
+    storage.put(key("asia", "china"), value("pekin"));
+
+    Key cursor = key("europe");
+    int prefixSize = cursor.getEncodedSize();
+    Value value = value(null);
+    assertThat(storage.next(cursor, prefixSize, value)).isTrue();
+    assertThat(cursor).isEqualTo(key("europe", "france"));
+    assertThat(value.get()).isEqualTo("paris");
+    assertThat(storage.next(cursor, prefixSize, value)).isTrue();
+    assertThat(cursor).isEqualTo(key("europe", "italy"));
+    assertThat(value.get()).isEqualTo("rome");
+    assertThat(storage.next(cursor, prefixSize, null)).isFalse();
+    assertThat(cursor).isEqualTo(key("europe", "italy"));
+
+    cursor = new Key(persistit);
+    assertThat(storage.next(cursor, 0, null)).isTrue();
+    assertThat(cursor).isEqualTo(key("asia", "china"));
+  }
+
+  @Test
+  public void interleave_traversals_in_same_thread() {
+    for (int i = 0; i < 10; i++) {
+      storage.put(key("group", i), value("value" + i));
+    }
+    Key first = key("group");
+    Key second = key("group");
+    int prefixSize = first.getEncodedSize();
+    for (int i = 0; i < 10; i++) {
+      assertThat(storage.next(first, prefixSize, null)).isTrue();
+      assertThat(first).isEqualTo(key("group", i));
+      assertThat(storage.next(second, prefixSize, null)).isTrue();
+      assertThat(second).isEqualTo(key("group", i));
+    }
+    assertThat(storage.next(first, prefixSize, null)).isFalse();
+    assertThat(storage.next(second, prefixSize, null)).isFalse();
+  }
+
+  @Test
+  public void remove_prefix() {
+    storage.put(key("europe"), value("continent"));
+    storage.put(key("europe", "italy"), value("rome"));
+    storage.put(key("europe", "france"), value("paris"));
+    storage.put(key("europe2", "ukrania"), value("kiev"));
+
+    storage.removePrefix(key("europe"));
+
+    assertThat(storage.size()).isEqualTo(1);
+    assertThat(storage.containsKey(key("europe2", "ukrania"))).isTrue();
+  }
+
+  @Test
+  public void fail_if_memory_is_exhausted() {
+    String large = StringUtils.repeat("a", OffHeapStorage.SLAB_SIZE);
+    assertThat(storage.tryPut(key("one"), value(large))).isTrue();
+    assertThat(storage.tryPut(key("two"), value(large))).isTrue();
+    assertThat(storage.tryPut(key("three"), value(large))).isFalse();
+    // small values need a new slab
+    assertThat(storage.tryPut(key("four"), value("small"))).isFalse();
+    try {
+      storage.put(key("three"), value(large));
+      fail();
+    } catch (IllegalStateException e) {
+      assertThat(e).hasMessageStartingWith("Off-heap memory of caches is exhausted");
+    }
+
+    Value value = value(null);
+    assertThat(storage.get(key("two"), value)).isTrue();
+    assertThat(value.get()).isEqualTo(large);
+  }
+
+  @Test
+  public void release_memory_on_remove_all() {
+    storage.put(key("foo"), value("bar"));
+    assertThat(storage.reservedBytes()).isEqualTo(OffHeapStorage.SLAB_SIZE);
+    assertThat(memory.reservedBytes()).isEqualTo(OffHeapStorage.SLAB_SIZE);
+
+    storage.removeAll();
+
+    assertThat(storage.size()).isEqualTo(0);
+    assertThat(storage.reservedBytes()).isEqualTo(0L);
+    assertThat(memory.reservedBytes()).isEqualTo(0L);
+  }
+
+  @Test
+  public void count_space_of_removed_or_replaced_values() {
+    Value bar = value("bar");
+    int size = bar.getEncodedSize();
+    storage.put(key("foo"), bar);
+    storage.put(key("foo"), value("baz"));
+    assertThat(storage.unreclaimedBytes()).isEqualTo(size);
+
+    storage.put(key("group", "one"), value("bar"));
+    storage.put(key("group", "two"), value("bar"));
+    storage.removePrefix(key("group"));
+    storage.remove(key("foo"));
+    assertThat(storage.unreclaimedBytes()).isEqualTo(4L * size);
+    assertThat(memory.unreclaimedBytes()).isEqualTo(4L * size);
+
+    storage.removeAll();
+    assertThat(storage.unreclaimedBytes()).isEqualTo(0L);
+    assertThat(memory.unreclaimedBytes()).isEqualTo(0L);
+  }
+
+  @Test
+  public void keys_are_sorted_as_unsigned_bytes() {
+    assertThat(OffHeapStorage.KEY_COMPARATOR.compare(new byte[] {1, 2}, new byte[] {1, 2})).isEqualTo(0);
+    assertThat(OffHeapStorage.KEY_COMPARATOR.compare(new byte[] {1, 2}, new byte[] {1, 2, 0})).isLessThan(0);
+    assertThat(OffHeapStorage.KEY_COMPARATOR.compare(new byte[] {1, (byte) 0xFF}, new byte[] {1, 2})).isGreaterThan(0);
+  }
+
+  private Key key(Object... parts) {
+    Key key = new Key(persistit);
+    for (Object part : parts) {
+      key.append(part);
+    }
+    return key;
+  }
+
+  private Value value(Object object) {
+    Value value = new Value(persistit);
+    value.setMaximumSize(Value.MAXIMUM_SIZE);
+    if (object != null) {
+      value.put(object);
+    }
+    return value;
+  }
+}
@@ -0,0 +1,107 @@
+/*
+ * SonarQube, open source software quality management tool.
+ * Copyright (C) 2008-2014 SonarSource
+ * mailto:contact AT sonarsource DOT com
+ *
+ * SonarQube is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * SonarQube is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.batch.index;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Iterables;
+import org.apache.commons.lang.StringUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.util.Iterator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SpillableStorageTest {
+
+  @ClassRule
+  public static TemporaryFolder temp = new TemporaryFolder();
+
+  Caches caches;
+
+  @Before
+  public void start() {
+    caches = CachesTest.createCacheOnTemp(temp, ImmutableMap.of(Caches.OFF_HEAP_MEMORY_PROPERTY, "1"));
+  }
+
+  @After
+  public void stop() {
+    caches.stop();
+  }
+
+  @Test
+  public void move_cache_to_disk_when_memory_is_exhausted() {
+    Cache<String> cache = caches.createCache("foo");
+    SpillableStorage storage = (SpillableStorage) cache.storage();
+    String value = StringUtils.repeat("a", 1000);
+
+    for (int i = 0; i < 500; i++) {
+      cache.put("group", i, value + i);
+    }
+    assertThat(storage.isSpilled()).isFalse();
+    assertThat(caches.offHeapMemory().reservedBytes()).isEqualTo(OffHeapStorage.SLAB_SIZE);
+
+    for (int i = 500; i < 2000; i++) {
+      cache.put("group", i, value + i);
+    }
+    assertThat(storage.isSpilled()).isTrue();
+    assertThat(caches.offHeapMemory().reservedBytes()).isEqualTo(0L);
+    assertThat(Iterables.size(cache.values("group"))).isEqualTo(2000);
+    assertThat(cache.get("group", 0)).isEqualTo(value + 0);
+    assertThat(cache.get("group", 1999)).isEqualTo(value + 1999);
+  }
+
+  @Test
+  public void memory_is_released_for_other_caches() {
+    Cache<String> first = caches.createCache("first");
+    Cache<String> second = caches.createCache("second");
+    String value = StringUtils.repeat("a", 1000);
+    for (int i = 0; i < 2000; i++) {
+      first.put(i, value);
+    }
+    second.put("foo", "bar");
+
+    assertThat(((SpillableStorage) first.storage()).isSpilled()).isTrue();
+    assertThat(((SpillableStorage) second.storage()).isSpilled()).isFalse();
+    assertThat(second.get("foo")).isEqualTo("bar");
+  }
+
+  @Test
+  public void iteration_continues_after_cache_is_moved_to_disk() {
+    Cache<String> cache = caches.createCache("foo");
+    SpillableStorage storage = (SpillableStorage) cache.storage();
+    cache.put("group", 1, "one");
+    cache.put("group", 2, "two");
+
+    Iterator<String> values = cache.values("group").iterator();
+    assertThat(values.next()).isEqualTo("one");
+
+    String large = StringUtils.repeat("a", 2 * OffHeapStorage.SLAB_SIZE);
+    cache.put("other", large);
+    assertThat(storage.isSpilled()).isTrue();
+
+    assertThat(values.next()).isEqualTo("two");
+    assertThat(values.hasNext()).isFalse();
+    assertThat(cache.get("other")).isEqualTo(large);
+  }
+}
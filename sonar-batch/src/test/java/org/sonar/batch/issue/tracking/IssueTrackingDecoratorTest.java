@@ -30,6 +30,7 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.ArgumentMatcher;
 import org.sonar.api.batch.DecoratorContext;
 import org.sonar.api.batch.fs.internal.DefaultInputFile;
+import org.sonar.api.batch.fs.internal.FileMetadata;
 import org.sonar.api.component.ResourcePerspectives;
 import org.sonar.api.issue.Issue;
 import org.sonar.api.issue.internal.DefaultIssue;
@@ -94,7 +95,8 @@ public class IssueTrackingDecoratorTest {
       perspectives,
       profile,
       ruleFinder,
-      inputPathCache);
+      inputPathCache,
+      new FileMetadata());
   }
 
   @Test
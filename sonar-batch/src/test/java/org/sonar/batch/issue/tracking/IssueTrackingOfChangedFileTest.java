@@ -0,0 +1,130 @@
+/*
+ * SonarQube, open source software quality management tool.
+ * Copyright (C) 2008-2014 SonarSource
+ * mailto:contact AT sonarsource DOT com
+ *
+ * SonarQube is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * SonarQube is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.batch.issue.tracking;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.junit.Test;
+import org.sonar.api.issue.Issue;
+import org.sonar.api.issue.internal.DefaultIssue;
+import org.sonar.api.rule.RuleKey;
+import org.sonar.core.issue.db.IssueDto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tracks issues of synthetic files, in which lines are inserted, changed and duplicated between the two analyses.
+ * Performance is measured by IssueTrackingBenchmark of microbenchmark-template.
+ */
+public class IssueTrackingOfChangedFileTest {
+
+  IssueTracking tracking = new IssueTracking();
+
+  @Test
+  public void track_issues_of_small_file() {
+    track(10);
+  }
+
+  @Test
+  public void track_issues_of_large_file() {
+    track(20000);
+  }
+
+  private void track(int lines) {
+    List<String> reference = new ArrayList<>();
+    List<String> source = new ArrayList<>();
+    List<ServerIssue> previousIssues = new ArrayList<>();
+    List<DefaultIssue> newIssues = new ArrayList<>();
+    List<ServerIssue> expectedMatches = new ArrayList<>();
+    for (int i = 0; i < lines; i++) {
+      // one line out of 10 is duplicated all over the file
+      String line = i % 10 == 9 ? "}" : ("line " + i);
+      reference.add(line);
+      ServerIssue previousIssue = newPreviousIssue(i, reference.size(), line);
+      previousIssues.add(previousIssue);
+
+      if (i % 50 == 0) {
+        // inserted line, with an issue of a rule that did not exist in previous analysis
+        source.add("inserted " + i);
+        newIssues.add(newIssue(i, source.size(), "inserted " + i, "Inserted", "NewRule"));
+        expectedMatches.add(null);
+      }
+      // one line out of 7 is changed, one message out of 3 is changed
+      String newLine = i % 7 == 3 ? (line + " changed") : line;
+      source.add(newLine);
+      newIssues.add(newIssue(i, source.size(), newLine, i % 3 == 0 ? ("Changed message " + i) : ("Message " + i), "Rule" + (i % 5)));
+      expectedMatches.add(previousIssue);
+    }
+    SourceHashHolder sourceHashHolder = mock(SourceHashHolder.class);
+    when(sourceHashHolder.getHashedReference()).thenReturn(FileHashes.create(hashes(reference)));
+    when(sourceHashHolder.getHashedSource()).thenReturn(FileHashes.create(hashes(source)));
+
+    IssueTrackingResult result = new IssueTrackingResult();
+    tracking.mapIssues(newIssues, previousIssues, sourceHashHolder, result);
+
+    assertThat(result.matched()).hasSize(previousIssues.size());
+    for (int i = 0; i < newIssues.size(); i++) {
+      ServerIssue expected = expectedMatches.get(i);
+      ServerIssue matching = result.matching(newIssues.get(i));
+      if (expected == null) {
+        assertThat(matching).isNull();
+      } else if (expected.checksum().equals(newIssues.get(i).checksum()) && !"}".equals(reference.get(expected.line() - 1))) {
+        assertThat(matching).isSameAs(expected);
+      } else {
+        // issues on duplicated or changed lines can be swapped
+        assertThat(matching.ruleKey()).isEqualTo(expected.ruleKey());
+      }
+    }
+  }
+
+  private static String[] hashes(List<String> lines) {
+    String[] hashes = new String[lines.size()];
+    for (int i = 0; i < hashes.length; i++) {
+      hashes[i] = DigestUtils.md5Hex(lines.get(i));
+    }
+    return hashes;
+  }
+
+  private static ServerIssue newPreviousIssue(int index, int line, String content) {
+    IssueDto dto = new IssueDto();
+    dto.setId((long) index);
+    dto.setKee("issue" + index);
+    dto.setLine(line);
+    dto.setMessage("Message " + index);
+    dto.setRuleKey("squid", "Rule" + (index % 5));
+    dto.setChecksum(DigestUtils.md5Hex(content));
+    dto.setStatus(Issue.STATUS_OPEN);
+    return new ServerIssueFromDb(dto);
+  }
+
+  private static DefaultIssue newIssue(int index, int line, String content, String message, String rule) {
+    return new DefaultIssue()
+      .setKey("new" + index + "-" + line)
+      .setMessage(message)
+      .setLine(line)
+      .setRuleKey(RuleKey.of("squid", rule))
+      .setChecksum(DigestUtils.md5Hex(content))
+      .setStatus(Issue.STATUS_OPEN);
+  }
+}
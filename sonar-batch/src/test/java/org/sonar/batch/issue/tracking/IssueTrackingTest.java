@@ -32,6 +32,7 @@ import org.junit.Test;
 import org.junit.rules.ExpectedException;
 import org.junit.rules.TemporaryFolder;
 import org.sonar.api.batch.fs.internal.DefaultInputFile;
+import org.sonar.api.batch.fs.internal.FileMetadata;
 import org.sonar.api.issue.Issue;
 import org.sonar.api.issue.internal.DefaultIssue;
 import org.sonar.api.resources.Project;
@@ -333,6 +334,38 @@ public class IssueTrackingTest {
     assertThat(result.matching(newIssue5)).isSameAs(referenceIssue1);
   }
 
+  @Test
+  public void should_map_remaining_issues_on_closest_lines() throws Exception {
+    String[] reference = new String[20];
+    String[] source = new String[20];
+    for (int i = 0; i < 20; i++) {
+      reference[i] = DigestUtils.md5Hex("old line " + i);
+      source[i] = DigestUtils.md5Hex("new line " + i);
+    }
+    sourceHashHolder = mock(SourceHashHolder.class);
+    when(sourceHashHolder.getHashedReference()).thenReturn(FileHashes.create(reference));
+    when(sourceHashHolder.getHashedSource()).thenReturn(FileHashes.create(source));
+
+    ServerIssue referenceIssue1 = newReferenceIssue("Old message 1", 5, "squid", "AvoidCycle", reference[4]);
+    ServerIssue referenceIssue2 = newReferenceIssue("Old message 2", 15, "squid", "AvoidCycle", reference[14]);
+    ServerIssue referenceIssue3 = newReferenceIssue("Old message 3", 16, "squid", "NullDeref", reference[15]);
+
+    DefaultIssue newIssue1 = newDefaultIssue("New message 1", 14, RuleKey.of("squid", "AvoidCycle"), source[13]);
+    DefaultIssue newIssue2 = newDefaultIssue("New message 2", 7, RuleKey.of("squid", "AvoidCycle"), source[6]);
+    DefaultIssue newIssue3 = newDefaultIssue("New message 3", 2, RuleKey.of("squid", "NullDeref"), source[1]);
+
+    IssueTrackingResult result = new IssueTrackingResult();
+    tracking.mapIssues(
+      Arrays.asList(newIssue1, newIssue2, newIssue3),
+      Arrays.asList(referenceIssue1, referenceIssue2, referenceIssue3),
+      sourceHashHolder, result);
+
+    assertThat(result.matching(newIssue1)).isSameAs(referenceIssue2);
+    assertThat(result.matching(newIssue2)).isSameAs(referenceIssue1);
+    assertThat(result.matching(newIssue3)).isSameAs(referenceIssue3);
+    assertThat(result.unmatched()).isEmpty();
+  }
+
   @Test
   public void dont_load_checksum_if_no_new_issue() throws Exception {
     sourceHashHolder = mock(SourceHashHolder.class);
@@ -377,7 +410,7 @@ public class IssueTrackingTest {
     FileUtils.write(f, data, Charsets.UTF_8);
     when(inputFile.key()).thenReturn("foo:Action.java");
     when(lastSnapshots.getLineHashes("foo:Action.java")).thenReturn(computeHexHashes(load(reference)));
-    sourceHashHolder = new SourceHashHolder(inputFile, lastSnapshots);
+    sourceHashHolder = new SourceHashHolder(inputFile, lastSnapshots, new FileMetadata());
   }
 
   private String[] computeHexHashes(String source) {
@@ -0,0 +1,121 @@
+/*
+ * SonarQube, open source software quality management tool.
+ * Copyright (C) 2008-2014 SonarSource
+ * mailto:contact AT sonarsource DOT com
+ *
+ * SonarQube is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * SonarQube is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.batch.issue.tracking;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.sonar.api.batch.AnalysisMode;
+import org.sonar.api.batch.fs.internal.DefaultInputFile;
+import org.sonar.api.batch.rule.ActiveRules;
+import org.sonar.api.config.Settings;
+import org.sonar.api.issue.internal.DefaultIssue;
+import org.sonar.api.resources.File;
+import org.sonar.api.resources.Project;
+import org.sonar.batch.index.BatchResource;
+import org.sonar.batch.index.ResourceCache;
+import org.sonar.batch.issue.IssueCache;
+import org.sonar.batch.protocol.input.BatchInput;
+import org.sonar.batch.protocol.input.ProjectRepositories;
+import org.sonar.batch.scan.filesystem.InputPathCache;
+import org.sonar.core.issue.IssueUpdater;
+import org.sonar.core.issue.workflow.IssueWorkflow;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyCollectionOf;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class LocalIssueTrackingTest {
+
+  ResourceCache resourceCache = mock(ResourceCache.class);
+  IssueCache issueCache = mock(IssueCache.class);
+  IssueTracking tracking = mock(IssueTracking.class);
+  InputPathCache inputPathCache = mock(InputPathCache.class);
+  ServerIssueRepository serverIssueRepository = mock(ServerIssueRepository.class);
+  ProjectRepositories projectRepositories = new ProjectRepositories();
+  AnalysisMode analysisMode = mock(AnalysisMode.class);
+  Settings settings = new Settings();
+  List<BatchResource> files = new ArrayList<>();
+
+  LocalIssueTracking sut;
+
+  @Before
+  public void setUp() {
+    Project project = new Project("foo").setAnalysisDate(new Date());
+    BatchResource root = new BatchResource(1, project, null);
+    for (int i = 0; i < 10; i++) {
+      BatchResource file = new BatchResource(i + 2, File.create("src/File" + i + ".java"), root);
+      when(inputPathCache.getInputPath(file)).thenReturn(new DefaultInputFile("foo", "src/File" + i + ".java"));
+      files.add(file);
+    }
+    when(resourceCache.getRoot()).thenReturn(root);
+    when(resourceCache.all()).thenReturn(files);
+    when(issueCache.byComponent(anyString())).thenReturn(Collections.<DefaultIssue>emptyList());
+    when(tracking.track(any(SourceHashHolder.class), anyCollectionOf(ServerIssue.class), anyCollectionOf(DefaultIssue.class))).thenReturn(new IssueTrackingResult());
+    projectRepositories.setLastAnalysisDate(new Date());
+    settings.setProperty(LocalIssueTracking.THREADS_PROPERTY, 4);
+
+    sut = new LocalIssueTracking(resourceCache, issueCache, tracking, mock(ServerLineHashesLoader.class), mock(IssueWorkflow.class), mock(IssueUpdater.class),
+      mock(ActiveRules.class), inputPathCache, serverIssueRepository, projectRepositories, analysisMode, settings);
+  }
+
+  @Test
+  public void load_server_issues_on_calling_thread_in_incremental_mode() {
+    when(analysisMode.isIncremental()).thenReturn(true);
+    final Collection<Thread> loadingThreads = Collections.synchronizedSet(new HashSet<Thread>());
+    when(serverIssueRepository.byComponent(any(BatchResource.class))).thenAnswer(new Answer<Iterable<BatchInput.ServerIssue>>() {
+      @Override
+      public Iterable<BatchInput.ServerIssue> answer(InvocationOnMock invocation) {
+        loadingThreads.add(Thread.currentThread());
+        return Arrays.asList(BatchInput.ServerIssue.newBuilder().setKey("ABCDE").build());
+      }
+    });
+
+    sut.execute();
+
+    assertThat(loadingThreads).containsOnly(Thread.currentThread());
+    verify(serverIssueRepository, times(files.size())).byComponent(any(BatchResource.class));
+    verify(tracking, times(files.size())).track(any(SourceHashHolder.class), anyCollectionOf(ServerIssue.class), anyCollectionOf(DefaultIssue.class));
+  }
+
+  @Test
+  public void do_not_track_if_no_previous_analysis() {
+    projectRepositories.setLastAnalysisDate(null);
+
+    sut.execute();
+
+    verify(serverIssueRepository, times(0)).load();
+    verify(tracking, times(0)).track(any(SourceHashHolder.class), anyCollectionOf(ServerIssue.class), anyCollectionOf(DefaultIssue.class));
+  }
+}
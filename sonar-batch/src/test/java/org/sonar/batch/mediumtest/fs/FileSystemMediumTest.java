@@ -29,6 +29,7 @@ import org.junit.Test;
 import org.junit.rules.ExpectedException;
 import org.junit.rules.TemporaryFolder;
 import org.sonar.api.batch.fs.InputFile;
+import org.sonar.api.batch.fs.internal.DefaultInputFile;
 import org.sonar.api.utils.MessageException;
 import org.sonar.api.utils.System2;
 import org.sonar.batch.mediumtest.BatchMediumTester;
@@ -120,6 +121,32 @@ public class FileSystemMediumTest {
     assertThat(result.inputDirs()).hasSize(1);
   }
 
+  @Test
+  public void scanModulesConcurrently() throws IOException {
+    String[] modules = {"moduleA", "moduleB", "moduleC"};
+    for (String module : modules) {
+      File srcDir = new File(baseDir, module + "/src");
+      srcDir.mkdirs();
+      for (int nb = 1; nb <= 3; nb++) {
+        FileUtils.write(new File(srcDir, module + "Sample" + nb + ".xoo"), "Sample xoo\ncontent");
+      }
+      builder.put(module + ".sonar.sources", "src");
+    }
+
+    TaskResult result = tester.newTask()
+      .properties(builder
+        .put("sonar.modules", StringUtils.join(modules, ","))
+        .put("sonar.batch.modules.threads", "2")
+        .build())
+      .start();
+
+    assertThat(result.inputFiles()).hasSize(9);
+    for (String module : modules) {
+      assertThat(((DefaultInputFile) result.inputFile("src/" + module + "Sample1.xoo")).moduleKey()).isEqualTo("com.foo.project:" + module);
+      assertThat(result.measures("com.foo.project:" + module + ":src/" + module + "Sample1.xoo")).isNotEmpty();
+    }
+  }
+
   @Test
   public void scanProjectWithTestDir() throws IOException {
     File test = new File(baseDir, "test");
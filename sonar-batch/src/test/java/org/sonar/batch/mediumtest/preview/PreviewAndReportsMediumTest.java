@@ -40,7 +40,10 @@ import org.sonar.xoo.XooPlugin;
 import java.io.File;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -151,6 +154,33 @@ public class PreviewAndReportsMediumTest {
     assertThat(resolvedIssue).isEqualTo(2);
   }
 
+  @Test
+  public void testIssueTrackingOnSeveralThreads() throws Exception {
+    File projectDir = new File(PreviewAndReportsMediumTest.class.getResource("/mediumtest/xoo/sample").toURI());
+
+    TaskResult sequential = tester
+      .newScanTask(new File(projectDir, "sonar-project.properties"))
+      .property("sonar.batch.issueTracking.threads", "1")
+      .start();
+    TaskResult concurrent = tester
+      .newScanTask(new File(projectDir, "sonar-project.properties"))
+      .property("sonar.batch.issueTracking.threads", "4")
+      .start();
+
+    // new issues have random keys, so issues are not always returned in the same order
+    assertThat(issueKeys(concurrent)).isEqualTo(issueKeys(sequential));
+    assertThat(issueKeys(concurrent)).contains("xyz", "resolved", "resolved-on-project", "manual");
+  }
+
+  private static List<String> issueKeys(TaskResult result) {
+    List<String> keys = new ArrayList<>();
+    for (Issue issue : result.issues()) {
+      keys.add(issue.isNew() ? (issue.componentKey() + ":" + issue.line() + ":" + issue.message()) : issue.key());
+    }
+    Collections.sort(keys);
+    return keys;
+  }
+
   @Test
   public void testConsoleReport() throws Exception {
     File projectDir = new File(PreviewAndReportsMediumTest.class.getResource("/mediumtest/xoo/sample").toURI());
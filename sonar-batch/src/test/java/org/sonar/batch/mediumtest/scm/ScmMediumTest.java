@@ -20,6 +20,7 @@
 package org.sonar.batch.mediumtest.scm;
 
 import com.google.common.collect.ImmutableMap;
+import com.google.common.io.Files;
 import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.io.FileUtils;
 import org.junit.After;
@@ -57,6 +58,8 @@ public class ScmMediumTest {
     .registerPlugin("xoo", new XooPlugin())
     .addDefaultQProfile("xoo", "Sonar Way")
     .addFileData("com.foo.project", "src/sample2.xoo", new FileData(DigestUtils.md5Hex(SAMPLE_XOO_CONTENT), false))
+    // blame is cached in user home
+    .bootstrapProperties(ImmutableMap.of("sonar.userHome", Files.createTempDir().getAbsolutePath()))
     .build();
 
   @Before
@@ -208,6 +211,61 @@ public class ScmMediumTest {
     assertThat(file2Scm).isNotNull();
   }
 
+  @Test
+  public void reuseBlameOfUnchangedFiles() throws IOException {
+    File baseDir = prepareProject();
+    TaskBuilder taskBuilder = tester.newTask()
+      .properties(ImmutableMap.<String, String>builder()
+        .put("sonar.task", "scan")
+        .put("sonar.projectBaseDir", baseDir.getAbsolutePath())
+        .put("sonar.projectKey", "com.foo.project")
+        .put("sonar.projectName", "Foo Project")
+        .put("sonar.projectVersion", "1.0-SNAPSHOT")
+        .put("sonar.projectDescription", "Description of Foo Project")
+        .put("sonar.sources", "src")
+        .put("sonar.scm.provider", "xoo")
+        .build());
+    taskBuilder.start();
+
+    // provider can not blame the file anymore
+    FileUtils.forceDelete(new File(baseDir, "src/sample.xoo.scm"));
+    taskBuilder.start();
+
+    BatchReport.Changesets fileScm = getChangesets(baseDir, 0);
+    assertThat(fileScm.getChangesetIndexByLineList()).hasSize(5);
+    assertThat(fileScm.getChangeset(fileScm.getChangesetIndexByLine(4)).getAuthor()).isEqualTo("simon");
+  }
+
+  @Test
+  public void blameFilesConcurrently() throws IOException {
+    File baseDir = prepareProject();
+    File srcDir = new File(baseDir, "src");
+    for (int i = 0; i < 10; i++) {
+      FileUtils.write(new File(srcDir, "other" + i + ".xoo"), "Other xoo\ncontent " + i);
+      FileUtils.write(new File(srcDir, "other" + i + ".xoo.scm"), "1,julien,2013-01-04\n2,simon,2013-01-05\n");
+    }
+
+    tester.newTask()
+      .properties(ImmutableMap.<String, String>builder()
+        .put("sonar.task", "scan")
+        .put("sonar.projectBaseDir", baseDir.getAbsolutePath())
+        .put("sonar.projectKey", "com.foo.project")
+        .put("sonar.projectName", "Foo Project")
+        .put("sonar.projectVersion", "1.0-SNAPSHOT")
+        .put("sonar.projectDescription", "Description of Foo Project")
+        .put("sonar.sources", "src")
+        .put("sonar.scm.provider", "xoo")
+        .put("sonar.scm.threads", "3")
+        .build())
+      .start();
+
+    int blamedLines = 0;
+    for (int i = 0; i < 11; i++) {
+      blamedLines += getChangesets(baseDir, i).getChangesetIndexByLineCount();
+    }
+    assertThat(blamedLines).isEqualTo(10 * 2 + 5);
+  }
+
   @Test
   public void configureUsingScmURL() throws IOException {
 
@@ -0,0 +1,155 @@
+/*
+ * SonarQube, open source software quality management tool.
+ * Copyright (C) 2008-2014 SonarSource
+ * mailto:contact AT sonarsource DOT com
+ *
+ * SonarQube is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * SonarQube is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.batch.mediumtest.sensors;
+
+import com.google.common.collect.ImmutableMap;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang.StringUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.sonar.api.SonarPlugin;
+import org.sonar.api.batch.fs.InputFile;
+import org.sonar.api.batch.sensor.Sensor;
+import org.sonar.api.batch.sensor.SensorContext;
+import org.sonar.api.batch.sensor.SensorDescriptor;
+import org.sonar.api.issue.Issue;
+import org.sonar.api.measures.CoreMetrics;
+import org.sonar.api.rule.RuleKey;
+import org.sonar.batch.mediumtest.BatchMediumTester;
+import org.sonar.batch.mediumtest.TaskResult;
+import org.sonar.batch.phases.SensorsExecutor;
+import org.sonar.batch.protocol.input.ActiveRule;
+import org.sonar.xoo.Xoo;
+import org.sonar.xoo.XooPlugin;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+public class ConcurrentSensorsMediumTest {
+
+  private static final String ISSUE_MESSAGE = "Issue created by a concurrent sensor";
+
+  @Rule
+  public TemporaryFolder temp = new TemporaryFolder();
+
+  public BatchMediumTester tester = BatchMediumTester.builder()
+    .registerPlugin("xoo", new XooPlugin())
+    .registerPlugin("concurrent", new ConcurrentSensorsPlugin())
+    .addDefaultQProfile("xoo", "Sonar Way")
+    .activateRule(new ActiveRule("xoo", "OneIssuePerLine", null, "One issue per line", "MAJOR", "OneIssuePerLine.internal", "xoo"))
+    .build();
+
+  @Before
+  public void prepare() {
+    tester.start();
+  }
+
+  @After
+  public void stop() {
+    tester.stop();
+  }
+
+  @Test
+  public void save_measures_and_issues_on_the_module_of_concurrent_sensors() throws IOException {
+    File baseDir = temp.newFolder();
+    String[] modules = {"moduleA", "moduleB", "moduleC"};
+    ImmutableMap.Builder<String, String> properties = ImmutableMap.<String, String>builder()
+      .put("sonar.task", "scan")
+      .put("sonar.projectBaseDir", baseDir.getAbsolutePath())
+      .put("sonar.projectKey", "com.foo.project")
+      .put("sonar.projectName", "Foo Project")
+      .put("sonar.projectVersion", "1.0-SNAPSHOT")
+      .put("sonar.modules", StringUtils.join(modules, ","))
+      .put("sonar.batch.modules.threads", "2")
+      .put(SensorsExecutor.THREADS_PROPERTY, "4");
+    for (String module : modules) {
+      File srcDir = new File(baseDir, module + "/src");
+      srcDir.mkdirs();
+      for (int nb = 1; nb <= 3; nb++) {
+        FileUtils.write(new File(srcDir, module + "Sample" + nb + ".xoo"), "Sample xoo\ncontent");
+      }
+      properties.put(module + ".sonar.sources", "src");
+    }
+
+    TaskResult result = tester.newTask()
+      .properties(properties.build())
+      .start();
+
+    int concurrentIssues = 0;
+    for (Issue issue : result.issues()) {
+      if (ISSUE_MESSAGE.equals(issue.message())) {
+        concurrentIssues++;
+        String module = StringUtils.substringBetween(issue.componentKey(), "com.foo.project:", ":");
+        assertThat(issue.componentKey()).startsWith("com.foo.project:" + module + ":src/" + module + "Sample");
+      }
+    }
+    assertThat(concurrentIssues).isEqualTo(9);
+    for (String module : modules) {
+      for (int nb = 1; nb <= 3; nb++) {
+        assertThat(result.measures("com.foo.project:" + module + ":src/" + module + "Sample" + nb + ".xoo"))
+          .extracting("metric.key", "value")
+          .contains(tuple(CoreMetrics.FUNCTIONS_KEY, 1));
+      }
+    }
+  }
+
+  public static class ConcurrentSensorsPlugin extends SonarPlugin {
+    @Override
+    public List getExtensions() {
+      return Arrays.asList(ConcurrentMeasureSensor.class, ConcurrentIssueSensor.class);
+    }
+  }
+
+  public static class ConcurrentMeasureSensor implements Sensor {
+    @Override
+    public void describe(SensorDescriptor descriptor) {
+      descriptor.name("Concurrent measures").onlyOnLanguages(Xoo.KEY).threadSafe();
+    }
+
+    @Override
+    public void execute(SensorContext context) {
+      for (InputFile file : context.fileSystem().inputFiles(context.fileSystem().predicates().hasLanguages(Xoo.KEY))) {
+        context.<Integer>newMeasure().onFile(file).forMetric(CoreMetrics.FUNCTIONS).withValue(1).save();
+      }
+    }
+  }
+
+  public static class ConcurrentIssueSensor implements Sensor {
+    @Override
+    public void describe(SensorDescriptor descriptor) {
+      descriptor.name("Concurrent issues").onlyOnLanguages(Xoo.KEY).threadSafe();
+    }
+
+    @Override
+    public void execute(SensorContext context) {
+      for (InputFile file : context.fileSystem().inputFiles(context.fileSystem().predicates().hasLanguages(Xoo.KEY))) {
+        context.newIssue().forRule(RuleKey.of("xoo", "OneIssuePerLine")).onFile(file).atLine(1).message(ISSUE_MESSAGE).save();
+      }
+    }
+  }
+}
@@ -0,0 +1,218 @@
+/*
+ * SonarQube, open source software quality management tool.
+ * Copyright (C) 2008-2014 SonarSource
+ * mailto:contact AT sonarsource DOT com
+ *
+ * SonarQube is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * SonarQube is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.batch.phases;
+
+import com.google.common.collect.ImmutableMap;
+import org.junit.Test;
+import org.sonar.api.batch.Sensor;
+import org.sonar.api.batch.SensorContext;
+import org.sonar.api.batch.sensor.SensorDescriptor;
+import org.sonar.api.config.Settings;
+import org.sonar.api.resources.Project;
+import org.sonar.batch.bootstrap.BatchExtensionDictionnary;
+import org.sonar.batch.events.EventBus;
+import org.sonar.batch.index.DefaultIndex;
+import org.sonar.batch.issue.ModuleIssues;
+import org.sonar.batch.sensor.SensorOptimizer;
+import org.sonar.batch.sensor.SensorWrapper;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyCollection;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class SensorsExecutorTest {
+
+  Project project = new Project("project");
+  BatchExtensionDictionnary selector = mock(BatchExtensionDictionnary.class);
+  SensorContext context = mock(SensorContext.class);
+  Settings settings = new Settings();
+  DefaultIndex index = mock(DefaultIndex.class);
+  ModuleIssues moduleIssues = mock(ModuleIssues.class);
+  List<String> executions = new CopyOnWriteArrayList<>();
+
+  @Test
+  public void execute_sensors_serially_by_default() {
+    Sensor sensor1 = mock(Sensor.class);
+    Sensor sensor2 = mock(Sensor.class);
+    when(selector.select(eq(Sensor.class), eq(project), eq(true), any(SensorMatcher.class))).thenReturn(Arrays.asList(sensor1, sensor2));
+
+    newExecutor().execute(context);
+
+    org.mockito.InOrder inOrder = inOrder(sensor1, sensor2);
+    inOrder.verify(sensor1).analyse(project, context);
+    inOrder.verify(sensor2).analyse(project, context);
+    verify(selector, never()).predecessors(anyCollection());
+  }
+
+  @Test
+  public void execute_thread_safe_sensors_concurrently() {
+    settings.setProperty(SensorsExecutor.THREADS_PROPERTY, 4);
+    final CountDownLatch bothStarted = new CountDownLatch(2);
+    Runnable waitForOther = new Runnable() {
+      @Override
+      public void run() {
+        bothStarted.countDown();
+        await(bothStarted);
+      }
+    };
+    Sensor a = newSensor("a", true, waitForOther);
+    Sensor b = newSensor("b", true, waitForOther);
+    Sensor notThreadSafe = newSensor("c", false, null);
+    Sensor last = newSensor("d", true, null);
+    mockSensors(ImmutableMap.<Sensor, Set<Sensor>>of(
+      a, Collections.<Sensor>emptySet(),
+      b, Collections.<Sensor>emptySet(),
+      notThreadSafe, Collections.<Sensor>emptySet(),
+      last, Collections.<Sensor>emptySet()));
+
+    newExecutor().execute(context);
+
+    assertThat(executions).hasSize(4);
+    assertThat(executions.subList(0, 2)).containsOnly("a", "b");
+    // a sensor that is not thread-safe is executed alone, on the calling thread
+    assertThat(executions.subList(2, 4)).containsExactly("c:" + Thread.currentThread().getName(), "d");
+  }
+
+  @Test
+  public void execute_thread_safe_sensors_after_their_predecessors() {
+    settings.setProperty(SensorsExecutor.THREADS_PROPERTY, 4);
+    Sensor slow = newSensor("slow", true, new Runnable() {
+      @Override
+      public void run() {
+        sleep(200);
+      }
+    });
+    Sensor dependent = newSensor("dependent", true, null);
+    Sensor independent = newSensor("independent", true, null);
+    mockSensors(ImmutableMap.<Sensor, Set<Sensor>>of(
+      slow, Collections.<Sensor>emptySet(),
+      dependent, Collections.singleton(slow),
+      independent, Collections.<Sensor>emptySet()));
+
+    newExecutor().execute(context);
+
+    assertThat(executions).containsExactly("independent", "slow", "dependent");
+  }
+
+  @Test
+  public void bind_module_to_threads_of_concurrent_sensors() {
+    settings.setProperty(SensorsExecutor.THREADS_PROPERTY, 2);
+    index = new DefaultIndex(null, null, null, null, null, null);
+    final List<Project> currentProjects = new CopyOnWriteArrayList<>();
+    Sensor sensor = newSensor("sensor", true, new Runnable() {
+      @Override
+      public void run() {
+        currentProjects.add(index.getProject());
+      }
+    });
+    mockSensors(ImmutableMap.<Sensor, Set<Sensor>>of(sensor, Collections.<Sensor>emptySet()));
+
+    newExecutor().execute(context);
+
+    assertThat(currentProjects).containsExactly(project);
+  }
+
+  @Test
+  public void fail_if_a_concurrent_sensor_fails() {
+    settings.setProperty(SensorsExecutor.THREADS_PROPERTY, 2);
+    Sensor failing = newSensor("failing", true, new Runnable() {
+      @Override
+      public void run() {
+        throw new IllegalStateException("Boom");
+      }
+    });
+    Sensor next = newSensor("next", false, null);
+    mockSensors(ImmutableMap.<Sensor, Set<Sensor>>of(
+      failing, Collections.<Sensor>emptySet(),
+      next, Collections.<Sensor>emptySet()));
+
+    try {
+      newExecutor().execute(context);
+      fail();
+    } catch (IllegalStateException e) {
+      assertThat(e).hasMessage("Boom");
+    }
+    assertThat(executions).isEmpty();
+  }
+
+  private SensorsExecutor newExecutor() {
+    return new SensorsExecutor(selector, project, mock(EventBus.class), mock(SensorMatcher.class), index, moduleIssues, settings);
+  }
+
+  private void mockSensors(Map<Sensor, Set<Sensor>> predecessors) {
+    List<Sensor> sensors = Arrays.asList(predecessors.keySet().toArray(new Sensor[predecessors.size()]));
+    when(selector.select(eq(Sensor.class), eq(project), eq(true), any(SensorMatcher.class))).thenReturn(sensors);
+    when(selector.predecessors(sensors)).thenReturn(predecessors);
+  }
+
+  private Sensor newSensor(final String name, final boolean threadSafe, final Runnable action) {
+    return new SensorWrapper(new org.sonar.api.batch.sensor.Sensor() {
+      @Override
+      public void describe(SensorDescriptor descriptor) {
+        descriptor.name(name);
+        if (threadSafe) {
+          descriptor.threadSafe();
+        }
+      }
+
+      @Override
+      public void execute(org.sonar.api.batch.sensor.SensorContext context) {
+        if (action != null) {
+          action.run();
+        }
+        executions.add(threadSafe ? name : (name + ":" + Thread.currentThread().getName()));
+      }
+    }, mock(org.sonar.api.batch.sensor.SensorContext.class), mock(SensorOptimizer.class));
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      if (!latch.await(10, TimeUnit.SECONDS)) {
+        throw new IllegalStateException("Sensors are not executed concurrently");
+      }
+    } catch (InterruptedException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static void sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
@@ -107,6 +107,29 @@ public class PhasesSumUpTimeProfilerTest {
     assertThat(profiler.totalProfiling.getProfilingPerPhase(Phase.POSTJOB).getProfilingPerItem(new FakePostJob()).totalTime()).isEqualTo(90L);
   }
 
+  @Test
+  public void measureCpuTimeOfSensors() throws Exception {
+    Map<String, String> props = Maps.newHashMap();
+    props.put(CoreProperties.WORKING_DIRECTORY, temp.newFolder().getAbsolutePath());
+    profiler = new PhasesSumUpTimeProfiler(clock, new BootstrapProperties(props)) {
+      @Override
+      long currentThreadCpuTime() {
+        // half of the wall-clock time
+        return clock.now() / 2;
+      }
+    };
+    final Project project = mockProject("my:project", true);
+    when(project.getModules()).thenReturn(Collections.<Project>emptyList());
+
+    fakeAnalysis(profiler, project);
+
+    PhaseProfiling sensorProfiling = profiler.currentModuleProfiling.getProfilingPerPhase(Phase.SENSOR);
+    assertThat(sensorProfiling.getProfilingPerItem(new FakeSensor()).totalTime()).isEqualTo(10L);
+    assertThat(sensorProfiling.getProfilingPerItem(new FakeSensor()).cpuTime()).isEqualTo(5L);
+    assertThat(sensorProfiling.cpuTime()).isEqualTo(5L);
+    assertThat(profiler.totalProfiling.getProfilingPerPhase(Phase.SENSOR).getProfilingPerItem(new FakeSensor()).cpuTime()).isEqualTo(5L);
+  }
+
   @Test
   public void testDisplayTimings() {
     AbstractTimeProfiling profiling = new AbstractTimeProfiling(System2.INSTANCE) {
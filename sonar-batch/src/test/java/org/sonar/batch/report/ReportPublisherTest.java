@@ -19,20 +19,37 @@
  */
 package org.sonar.batch.report;
 
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.eclipse.jetty.server.Request;
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.handler.AbstractHandler;
+import org.junit.After;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.slf4j.Logger;
 import org.sonar.api.CoreProperties;
 import org.sonar.api.batch.bootstrap.ProjectDefinition;
 import org.sonar.api.batch.bootstrap.ProjectReactor;
 import org.sonar.api.config.Settings;
-import org.sonar.api.platform.Server;
-import org.sonar.api.utils.TempFolder;
+import org.sonar.api.utils.ZipUtils;
 import org.sonar.batch.bootstrap.DefaultAnalysisMode;
 import org.sonar.batch.bootstrap.ServerClient;
 import org.sonar.batch.index.ResourceCache;
 import org.sonar.jpa.test.AbstractDbUnitTestCase;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -45,6 +62,13 @@ public class ReportPublisherTest extends AbstractDbUnitTestCase {
 
   private ProjectReactor reactor;
 
+  @Rule
+  public TemporaryFolder temp = new TemporaryFolder();
+
+  private Server server;
+  private String uploadContentType;
+  private byte[] uploadBody;
+
   @Before
   public void setUp() {
     mode = mock(DefaultAnalysisMode.class);
@@ -52,11 +76,63 @@ public class ReportPublisherTest extends AbstractDbUnitTestCase {
     when(reactor.getRoot()).thenReturn(ProjectDefinition.create().setKey("struts"));
   }
 
+  @After
+  public void stopServer() throws Exception {
+    if (server != null) {
+      server.stop();
+    }
+  }
+
+  @Test
+  public void should_upload_compressed_report_and_its_hash() throws Exception {
+    startServer();
+    File workDir = temp.newFolder();
+    when(reactor.getRoot()).thenReturn(ProjectDefinition.create().setKey("struts").setWorkDir(workDir));
+    ServerClient serverClient = mock(ServerClient.class);
+    when(serverClient.getURL()).thenReturn("http://localhost:" + server.getConnectors()[0].getLocalPort());
+    ReportPublisher job = new ReportPublisher(new Settings(), serverClient, mock(org.sonar.api.platform.Server.class), reactor, mode, new ReportPublisherStep[0]);
+    job.start();
+    FileUtils.write(new File(job.getReportDir(), "metadata.pb"), "metadata");
+
+    job.uploadMultiPartReport();
+
+    String boundary = uploadContentType.substring(uploadContentType.indexOf("boundary=") + "boundary=".length());
+    byte[] report = part(uploadBody, boundary, "report");
+    File unzipDir = ZipUtils.unzip(new ByteArrayInputStream(report), temp.newFolder());
+    assertThat(new File(unzipDir, "metadata.pb")).hasContent("metadata");
+    assertThat(new String(part(uploadBody, boundary, "reportMd5"), StandardCharsets.UTF_8)).isEqualTo(DigestUtils.md5Hex(report));
+  }
+
+  private void startServer() throws Exception {
+    server = new Server(0);
+    server.setHandler(new AbstractHandler() {
+      @Override
+      public void handle(String target, Request baseRequest, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        uploadContentType = request.getContentType();
+        uploadBody = IOUtils.toByteArray(request.getInputStream());
+        response.setStatus(HttpServletResponse.SC_OK);
+        baseRequest.setHandled(true);
+      }
+    });
+    server.start();
+  }
+
+  /**
+   * Content of a part of multipart body
+   */
+  private static byte[] part(byte[] body, String boundary, String name) {
+    // ISO-8859-1 maps each byte to one char
+    String content = new String(body, StandardCharsets.ISO_8859_1);
+    int start = content.indexOf("\r\n\r\n", content.indexOf("name=\"" + name + "\"")) + 4;
+    int end = content.indexOf("\r\n--" + boundary, start);
+    return content.substring(start, end).getBytes(StandardCharsets.ISO_8859_1);
+  }
+
   @Test
   public void should_log_successful_analysis() throws Exception {
     Settings settings = new Settings();
     settings.setProperty(CoreProperties.SERVER_BASE_URL, "http://myserver/");
-    ReportPublisher job = new ReportPublisher(settings, mock(ServerClient.class), mock(Server.class), reactor, mode, mock(TempFolder.class), new ReportPublisherStep[0]);
+    ReportPublisher job = new ReportPublisher(settings, mock(ServerClient.class), mock(org.sonar.api.platform.Server.class), reactor, mode, new ReportPublisherStep[0]);
 
     Logger logger = mock(Logger.class);
     job.logSuccess(logger);
@@ -69,7 +145,7 @@ public class ReportPublisherTest extends AbstractDbUnitTestCase {
   public void should_log_successful_preview_analysis() throws Exception {
     Settings settings = new Settings();
     when(mode.isPreview()).thenReturn(true);
-    ReportPublisher job = new ReportPublisher(settings, mock(ServerClient.class), mock(Server.class), reactor, mode, mock(TempFolder.class), new ReportPublisherStep[0]);
+    ReportPublisher job = new ReportPublisher(settings, mock(ServerClient.class), mock(org.sonar.api.platform.Server.class), reactor, mode, new ReportPublisherStep[0]);
 
     Logger logger = mock(Logger.class);
     job.logSuccess(logger);
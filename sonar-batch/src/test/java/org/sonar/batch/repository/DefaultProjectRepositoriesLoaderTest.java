@@ -26,9 +26,18 @@ import org.sonar.api.batch.bootstrap.ProjectDefinition;
 import org.sonar.api.batch.bootstrap.ProjectReactor;
 import org.sonar.batch.bootstrap.DefaultAnalysisMode;
 import org.sonar.batch.bootstrap.ServerClient;
+import org.sonar.batch.bootstrap.ServerResponseCache;
 import org.sonar.batch.bootstrap.TaskProperties;
+import org.sonar.batch.protocol.input.FileData;
+import org.sonar.batch.protocol.input.ProjectRepositories;
 import org.sonar.batch.rule.ModuleQProfiles;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.spy;
@@ -39,45 +48,75 @@ public class DefaultProjectRepositoriesLoaderTest {
 
   private DefaultProjectRepositoriesLoader loader;
   private ServerClient serverClient;
+  private ServerResponseCache responseCache;
   private DefaultAnalysisMode analysisMode;
   private ProjectReactor reactor;
   private TaskProperties taskProperties;
 
   @Before
-  public void prepare() {
+  public void prepare() throws IOException {
     serverClient = mock(ServerClient.class);
+    responseCache = mock(ServerResponseCache.class);
     analysisMode = mock(DefaultAnalysisMode.class);
-    loader = new DefaultProjectRepositoriesLoader(serverClient, analysisMode);
+    loader = new DefaultProjectRepositoriesLoader(serverClient, responseCache, analysisMode);
     loader = spy(loader);
-    when(serverClient.request(anyString())).thenReturn("{}");
+    mockResponse("{}".getBytes(StandardCharsets.UTF_8));
     taskProperties = new TaskProperties(Maps.<String, String>newHashMap(), "");
   }
 
   @Test
-  public void passPreviewParameter() {
+  public void passPreviewParameter() throws IOException {
     reactor = new ProjectReactor(ProjectDefinition.create().setKey("foo"));
     when(analysisMode.isPreview()).thenReturn(false);
     loader.load(reactor, taskProperties);
-    verify(serverClient).request("/batch/project?key=foo&preview=false");
+    verify(responseCache).request("/batch/project?key=foo&preview=false&format=protobuf");
 
     when(analysisMode.isPreview()).thenReturn(true);
     loader.load(reactor, taskProperties);
-    verify(serverClient).request("/batch/project?key=foo&preview=true");
+    verify(responseCache).request("/batch/project?key=foo&preview=true&format=protobuf");
   }
 
   @Test
-  public void passAndEncodeProjectKeyParameter() {
+  public void passAndEncodeProjectKeyParameter() throws IOException {
     reactor = new ProjectReactor(ProjectDefinition.create().setKey("foo bàr"));
     loader.load(reactor, taskProperties);
-    verify(serverClient).request("/batch/project?key=foo+b%C3%A0r&preview=false");
+    verify(responseCache).request("/batch/project?key=foo+b%C3%A0r&preview=false&format=protobuf");
   }
 
   @Test
-  public void passAndEncodeProfileParameter() {
+  public void passAndEncodeProfileParameter() throws IOException {
     reactor = new ProjectReactor(ProjectDefinition.create().setKey("foo"));
     taskProperties.properties().put(ModuleQProfiles.SONAR_PROFILE_PROP, "my-profile#2");
     loader.load(reactor, taskProperties);
-    verify(serverClient).request("/batch/project?key=foo&profile=my-profile%232&preview=false");
+    verify(responseCache).request("/batch/project?key=foo&profile=my-profile%232&preview=false&format=protobuf");
+  }
+
+  @Test
+  public void readBinaryResponse() throws IOException {
+    ProjectRepositories ref = new ProjectRepositories();
+    ref.addFileData("foo", "src/Foo.java", new FileData("xyz", true));
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    ref.writeTo(output);
+    mockResponse(output.toByteArray());
+
+    reactor = new ProjectReactor(ProjectDefinition.create().setKey("foo"));
+    ProjectRepositories loaded = loader.load(reactor, taskProperties);
+
+    assertThat(loaded.fileData("foo", "src/Foo.java").hash()).isEqualTo("xyz");
+  }
+
+  @Test
+  public void readJsonResponseOfOldServers() throws IOException {
+    mockResponse("{settingsByModule:{foo:{prop:value}}}".getBytes(StandardCharsets.UTF_8));
+
+    reactor = new ProjectReactor(ProjectDefinition.create().setKey("foo"));
+    ProjectRepositories loaded = loader.load(reactor, taskProperties);
+
+    assertThat(loaded.settings("foo")).containsEntry("prop", "value");
+  }
+
+  private void mockResponse(byte[] response) throws IOException {
+    when(responseCache.request(anyString())).thenReturn(new ByteArrayInputStream(response));
   }
 
 }
@@ -0,0 +1,115 @@
+/*
+ * SonarQube, open source software quality management tool.
+ * Copyright (C) 2008-2014 SonarSource
+ * mailto:contact AT sonarsource DOT com
+ *
+ * SonarQube is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * SonarQube is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.batch.scan;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.sonar.api.resources.Project;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+
+public class ConcurrentModuleScannerTest {
+
+  ProjectScanContainer container = mock(ProjectScanContainer.class);
+  List<String> scanned = Collections.synchronizedList(new ArrayList<String>());
+  List<String> threads = Collections.synchronizedList(new ArrayList<String>());
+
+  Project root = new Project("root");
+  Project a = new Project("a").setParent(root);
+  Project a1 = new Project("a1").setParent(a);
+  Project a2 = new Project("a2").setParent(a);
+  Project b = new Project("b").setParent(root);
+
+  @Before
+  public void prepare() {
+    for (Project project : new Project[] {root, a, a1, a2, b}) {
+      project.setName(project.getKey());
+    }
+  }
+
+  @Test
+  public void scan_sub_modules_before_their_parent_and_root_last_on_calling_thread() {
+    doAnswer(new Answer<Void>() {
+      @Override
+      public Void answer(InvocationOnMock invocation) {
+        scanned.add(((Project) invocation.getArguments()[0]).getKey());
+        threads.add(Thread.currentThread().getName());
+        return null;
+      }
+    }).when(container).scan(any(Project.class));
+
+    new ConcurrentModuleScanner(container, 2).scan(root);
+
+    assertThat(scanned).containsOnly("root", "a", "a1", "a2", "b");
+    assertThat(scanned.indexOf("a")).isGreaterThan(scanned.indexOf("a1")).isGreaterThan(scanned.indexOf("a2"));
+    assertThat(scanned.get(4)).isEqualTo("root");
+    assertThat(threads.get(4)).isEqualTo(Thread.currentThread().getName());
+    assertThat(threads.subList(0, 4)).doesNotContain(Thread.currentThread().getName());
+  }
+
+  @Test
+  public void scan_independent_modules_concurrently() {
+    // the three leaves wait for each other, so they must run at the same time
+    final CountDownLatch leaves = new CountDownLatch(3);
+    doAnswer(new Answer<Void>() {
+      @Override
+      public Void answer(InvocationOnMock invocation) throws InterruptedException {
+        Project module = (Project) invocation.getArguments()[0];
+        if (module.getModules().isEmpty()) {
+          leaves.countDown();
+          if (!leaves.await(10, TimeUnit.SECONDS)) {
+            fail("Leaf modules are not scanned concurrently");
+          }
+        }
+        scanned.add(module.getKey());
+        return null;
+      }
+    }).when(container).scan(any(Project.class));
+
+    new ConcurrentModuleScanner(container, 3).scan(root);
+
+    assertThat(scanned).hasSize(5);
+  }
+
+  @Test
+  public void fail_if_module_scan_fails() {
+    doThrow(new IllegalStateException("Boom")).when(container).scan(a1);
+
+    try {
+      new ConcurrentModuleScanner(container, 2).scan(root);
+      fail();
+    } catch (IllegalStateException e) {
+      assertThat(e).hasMessage("Boom");
+    }
+  }
+}
@@ -0,0 +1,128 @@
+/*
+ * SonarQube, open source software quality management tool.
+ * Copyright (C) 2008-2014 SonarSource
+ * mailto:contact AT sonarsource DOT com
+ *
+ * SonarQube is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * SonarQube is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.batch.scm;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.sonar.api.batch.fs.internal.DefaultInputFile;
+import org.sonar.api.batch.scm.BlameLine;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BlameCacheTest {
+
+  @Rule
+  public TemporaryFolder temp = new TemporaryFolder();
+
+  File file;
+  DefaultInputFile foo = new DefaultInputFile("foo", "src/Foo.java").setHash("h1");
+  DefaultInputFile bar = new DefaultInputFile("foo", "src/Bar.java").setHash("h2");
+
+  @Before
+  public void setUp() throws Exception {
+    file = new File(temp.newFolder(), "scm/cache");
+  }
+
+  @Test
+  public void reuse_blame_of_files_with_same_path_and_content() {
+    BlameCache cache = new BlameCache(file);
+    assertThat(cache.get(foo)).isNull();
+    cache.put(foo, Arrays.asList(
+      new BlameLine().revision("r1").author("julien").date(new Date(1000L)),
+      new BlameLine().revision("r2")));
+    cache.save();
+
+    cache = new BlameCache(file);
+    List<BlameLine> lines = cache.get(foo);
+    assertThat(lines).containsExactly(
+      new BlameLine().revision("r1").author("julien").date(new Date(1000L)),
+      new BlameLine().revision("r2"));
+    assertThat(lines.get(1).author()).isNull();
+    assertThat(lines.get(1).date()).isNull();
+    // same content, other file
+    assertThat(cache.get(new DefaultInputFile("foo", "src/Copy.java").setHash("h1"))).isNull();
+    // same file, other content
+    assertThat(cache.get(new DefaultInputFile("foo", "src/Foo.java").setHash("h3"))).isNull();
+    assertThat(cache.hits()).isEqualTo(1);
+  }
+
+  @Test
+  public void do_not_cache_uncommitted_lines() {
+    BlameCache cache = new BlameCache(file);
+    cache.put(foo, Arrays.asList(new BlameLine().revision("r1"), new BlameLine().author("julien")));
+    cache.save();
+
+    assertThat(new BlameCache(file).get(foo)).isNull();
+  }
+
+  @Test
+  public void keep_only_files_of_last_analysis() {
+    BlameCache cache = new BlameCache(file);
+    cache.put(foo, Arrays.asList(new BlameLine().revision("r1")));
+    cache.put(bar, Arrays.asList(new BlameLine().revision("r1")));
+    cache.save();
+
+    cache = new BlameCache(file);
+    assertThat(cache.get(foo)).hasSize(1);
+    cache.save();
+
+    cache = new BlameCache(file);
+    assertThat(cache.get(foo)).hasSize(1);
+    assertThat(cache.get(bar)).isNull();
+  }
+
+  @Test
+  public void retain_files_not_blamed_by_last_analysis() {
+    BlameCache cache = new BlameCache(file);
+    cache.put(foo, Arrays.asList(new BlameLine().revision("r1")));
+    cache.save();
+
+    cache = new BlameCache(file);
+    cache.retain(foo);
+    cache.save();
+
+    assertThat(new BlameCache(file).get(foo)).hasSize(1);
+  }
+
+  @Test
+  public void ignore_corrupted_cache() throws Exception {
+    FileUtils.write(file, "not a cache");
+
+    assertThat(new BlameCache(file).get(foo)).isNull();
+  }
+
+  @Test
+  public void do_not_cache_files_without_hash() {
+    DefaultInputFile noHash = new DefaultInputFile("foo", "src/NoHash.java");
+    BlameCache cache = new BlameCache(file);
+    cache.put(noHash, Arrays.asList(new BlameLine().revision("r1")));
+    cache.save();
+
+    assertThat(new BlameCache(file).get(noHash)).isNull();
+  }
+}
@@ -25,6 +25,7 @@ import org.apache.commons.io.FileUtils;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TemporaryFolder;
+import org.sonar.api.batch.fs.internal.FileMetadata;
 import org.sonar.api.batch.sensor.highlighting.NewHighlighting;
 import org.sonar.api.batch.sensor.highlighting.TypeOfText;
 import org.sonar.api.web.CodeColorizerFormat;
@@ -48,7 +49,7 @@ public class CodeColorizersTest {
     File jsFile = new File(this.getClass().getResource("CodeColorizersTest/Person.js").toURI());
     NewHighlighting highlighting = mock(NewHighlighting.class);
 
-    codeColorizers.toSyntaxHighlighting(jsFile, Charsets.UTF_8, "js", highlighting);
+    codeColorizers.toSyntaxHighlighting(jsFile, Charsets.UTF_8, "js", highlighting, new FileMetadata());
 
     verifyForJs(highlighting);
   }
@@ -76,7 +77,7 @@ public class CodeColorizersTest {
     FileUtils.write(fileWithBom, FileUtils.readFileToString(jsFile), "UTF-8", true);
 
     NewHighlighting highlighting = mock(NewHighlighting.class);
-    codeColorizers.toSyntaxHighlighting(fileWithBom, Charsets.UTF_8, "js", highlighting);
+    codeColorizers.toSyntaxHighlighting(fileWithBom, Charsets.UTF_8, "js", highlighting, new FileMetadata());
 
     verifyForJs(highlighting);
   }
@@ -88,7 +89,7 @@ public class CodeColorizersTest {
     File javaFile = new File(this.getClass().getResource("CodeColorizersTest/Person.java").toURI());
 
     NewHighlighting highlighting = mock(NewHighlighting.class);
-    codeColorizers.toSyntaxHighlighting(javaFile, Charsets.UTF_8, "java", highlighting);
+    codeColorizers.toSyntaxHighlighting(javaFile, Charsets.UTF_8, "java", highlighting, new FileMetadata());
 
     verify(highlighting).highlight(0, 4, TypeOfText.STRUCTURED_COMMENT);
     verify(highlighting).highlight(5, 11, TypeOfText.STRUCTURED_COMMENT);
@@ -30,6 +30,8 @@ public interface ComponentLinkMapper {
 
   void insert(ComponentLinkDto dto);
 
+  void batchInsert(ComponentLinkDto dto);
+
   void update(ComponentLinkDto dto);
 
   void delete(long id);
@@ -19,28 +19,45 @@
  */
 package org.sonar.core.duplication;
 
+import com.google.common.collect.Iterables;
+import org.apache.ibatis.session.ResultHandler;
 import org.apache.ibatis.session.SqlSession;
 import org.sonar.api.BatchComponent;
 import org.sonar.api.ServerComponent;
 import org.sonar.core.persistence.DbSession;
 import org.sonar.core.persistence.MyBatis;
 
+import javax.annotation.Nullable;
+
 import java.util.Collection;
 import java.util.List;
 
 public class DuplicationDao implements BatchComponent, ServerComponent {
 
+  /**
+   * Max number of elements of the SQL clause "IN", as supported by Oracle
+   */
+  public static final int MAX_HASHES_PER_QUERY = 1000;
+
   private final MyBatis mybatis;
 
   public DuplicationDao(MyBatis mybatis) {
     this.mybatis = mybatis;
   }
 
-  public List<DuplicationUnitDto> selectCandidates(int resourceSnapshotId, Integer lastSnapshotId, String language) {
+  /**
+   * Streams the blocks of the last snapshots of other projects having one of the given hashes. Hashes are
+   * partitioned so that one query is executed per {@link #MAX_HASHES_PER_QUERY} hashes.
+   *
+   * @since 5.2
+   */
+  public void selectCandidates(Collection<String> hashes, @Nullable Integer lastSnapshotId, String language, ResultHandler handler) {
     SqlSession session = mybatis.openSession(false);
     try {
       DuplicationMapper mapper = session.getMapper(DuplicationMapper.class);
-      return mapper.selectCandidates(resourceSnapshotId, lastSnapshotId, language);
+      for (List<String> partition : Iterables.partition(hashes, MAX_HASHES_PER_QUERY)) {
+        mapper.selectCandidatesByHashes(partition, lastSnapshotId, language, handler);
+      }
     } finally {
       MyBatis.closeQuietly(session);
     }
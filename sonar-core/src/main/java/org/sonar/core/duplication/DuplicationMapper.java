@@ -20,15 +20,17 @@
 package org.sonar.core.duplication;
 
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.session.ResultHandler;
 
 import java.util.List;
 
 public interface DuplicationMapper {
 
-  List<DuplicationUnitDto> selectCandidates(
-      @Param("resource_snapshot_id") int resourceSnapshotId,
+  void selectCandidatesByHashes(
+      @Param("hashes") List<String> hashes,
       @Param("last_project_snapshot_id") Integer lastSnapshotId,
-      @Param("language") String language);
+      @Param("language") String language,
+      ResultHandler resultHandler);
 
   void batchInsert(DuplicationUnitDto unit);
 
@@ -35,6 +35,7 @@ public final class DuplicationUnitDto {
   private int endLine;
 
   private String resourceKey;
+  private Integer resourceId;
 
   public DuplicationUnitDto() {
   }
@@ -113,4 +114,12 @@ public final class DuplicationUnitDto {
     this.resourceKey = resourceKey;
   }
 
+  public Integer getResourceId() {
+    return resourceId;
+  }
+
+  public void setResourceId(Integer resourceId) {
+    this.resourceId = resourceId;
+  }
+
 }
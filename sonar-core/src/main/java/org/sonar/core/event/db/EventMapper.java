@@ -33,6 +33,8 @@ public interface EventMapper {
 
   void insert(EventDto dto);
 
+  void batchInsert(EventDto dto);
+
   void delete(long id);
 
   /**
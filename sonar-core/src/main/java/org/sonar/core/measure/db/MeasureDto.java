@@ -95,6 +95,22 @@ public class MeasureDto {
     return this;
   }
 
+  /**
+   * Data, when shorter than 4000 characters
+   */
+  @CheckForNull
+  public String getTextValue() {
+    return textValue;
+  }
+
+  /**
+   * UTF-8 data, when longer than 4000 characters
+   */
+  @CheckForNull
+  public byte[] getDataValue() {
+    return dataValue;
+  }
+
   @CheckForNull
   public Double getVariation(int index) {
     switch (index) {
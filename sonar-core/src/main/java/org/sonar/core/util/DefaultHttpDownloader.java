@@ -41,6 +41,7 @@ import org.sonar.api.utils.log.Loggers;
 import javax.annotation.Nullable;
 
 import java.io.File;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.Authenticator;
@@ -272,7 +273,7 @@ public class DefaultHttpDownloader extends HttpDownloader {
       }
 
       @Override
-      public InputStream getInput() throws IOException {
+      public HttpResponseStream getInput() throws IOException {
         Loggers.get(getClass()).debug("Download: " + uri + " (" + getProxySynthesis(uri, ProxySelector.getDefault()) + ")");
 
         HttpURLConnection connection = (HttpURLConnection) uri.toURL().openConnection();
@@ -320,7 +321,25 @@ public class DefaultHttpDownloader extends HttpDownloader {
         } else {
           resultingInputStream = connection.getInputStream();
         }
-        return resultingInputStream;
+        return new HttpResponseStream(resultingInputStream, responseCode);
+      }
+    }
+
+    /**
+     * Content of a HTTP response, along with its status code. Content is empty when status is 304 Not Modified.
+     *
+     * @since 5.2
+     */
+    public static class HttpResponseStream extends FilterInputStream {
+      private final int responseCode;
+
+      HttpResponseStream(InputStream in, int responseCode) {
+        super(in);
+        this.responseCode = responseCode;
+      }
+
+      public int getResponseCode() {
+        return responseCode;
       }
     }
 
@@ -19,6 +19,9 @@
  */
 package org.sonar.core.duplication;
 
+import com.google.common.collect.Lists;
+import org.apache.ibatis.session.ResultContext;
+import org.apache.ibatis.session.ResultHandler;
 import org.junit.Before;
 import org.junit.Test;
 import org.sonar.core.persistence.AbstractDaoTestCase;
@@ -39,22 +42,47 @@ public class DuplicationDaoTest extends AbstractDaoTestCase {
   }
 
   @Test
-  public void shouldGetByHash() throws Exception {
+  public void select_candidates_by_hashes() throws Exception {
     setupData("shouldGetByHash");
 
-    List<DuplicationUnitDto> blocks = dao.selectCandidates(10, 7, "java");
+    List<DuplicationUnitDto> blocks = selectCandidates(Arrays.asList("aa", "bb"), 7);
     assertThat(blocks.size(), is(1));
 
     DuplicationUnitDto block = blocks.get(0);
-    assertThat("block resourceId", block.getResourceKey(), is("bar-last"));
+    assertThat("block resourceId", block.getResourceId(), is(2));
+    assertThat("block resourceKey", block.getResourceKey(), is("bar-last"));
     assertThat("block hash", block.getHash(), is("aa"));
     assertThat("block index in file", block.getIndexInFile(), is(0));
     assertThat("block start line", block.getStartLine(), is(1));
     assertThat("block end line", block.getEndLine(), is(2));
 
     // check null for lastSnapshotId
-    blocks = dao.selectCandidates(10, null, "java");
-    assertThat(blocks.size(), is(2));
+    assertThat(selectCandidates(Arrays.asList("aa"), null).size(), is(2));
+    assertThat(selectCandidates(Arrays.asList("bb"), null).size(), is(0));
+  }
+
+  @Test
+  public void select_candidates_of_many_hashes() throws Exception {
+    setupData("shouldGetByHash");
+
+    List<String> hashes = Lists.newArrayList();
+    for (int i = 0; i < DuplicationDao.MAX_HASHES_PER_QUERY + 10; i++) {
+      hashes.add("ff" + i);
+    }
+    hashes.add("aa");
+
+    assertThat(selectCandidates(hashes, 7).size(), is(1));
+  }
+
+  private List<DuplicationUnitDto> selectCandidates(List<String> hashes, Integer lastSnapshotId) {
+    final List<DuplicationUnitDto> result = Lists.newArrayList();
+    dao.selectCandidates(hashes, lastSnapshotId, "java", new ResultHandler() {
+      @Override
+      public void handleResult(ResultContext context) {
+        result.add((DuplicationUnitDto) context.getResultObject());
+      }
+    });
+    return result;
   }
 
   @Test
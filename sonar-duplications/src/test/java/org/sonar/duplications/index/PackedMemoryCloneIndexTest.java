@@ -24,7 +24,14 @@ import org.junit.Test;
 import org.sonar.duplications.block.Block;
 import org.sonar.duplications.block.ByteArray;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.sameInstance;
@@ -109,6 +116,40 @@ public class PackedMemoryCloneIndexTest {
     index.getBySequenceHash(new ByteArray(1L));
   }
 
+  /**
+   * Given: index with many blocks, not sorted yet.
+   * Expected: concurrent queries return the same results as sequential ones.
+   */
+  @Test
+  public void should_support_concurrent_queries() throws Exception {
+    final int resources = 500;
+    final int blocksPerResource = 20;
+    for (int i = 0; i < resources; i++) {
+      for (int j = 0; j < blocksPerResource; j++) {
+        index.insert(newBlock("resource" + i, j));
+      }
+    }
+
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    List<Future<Boolean>> futures = new ArrayList<Future<Boolean>>();
+    for (int t = 0; t < 4; t++) {
+      futures.add(executor.submit(new Callable<Boolean>() {
+        @Override
+        public Boolean call() {
+          for (int i = 0; i < resources; i++) {
+            assertThat(index.getByResourceId("resource" + i).size(), is(blocksPerResource));
+            assertThat(index.getBySequenceHash(new ByteArray((long) (i % blocksPerResource))).size(), is(resources));
+          }
+          return true;
+        }
+      }));
+    }
+    executor.shutdown();
+    for (Future<Boolean> future : futures) {
+      assertThat(future.get(1, TimeUnit.MINUTES), is(true));
+    }
+  }
+
   private static Block newBlock(String resourceId, long hash) {
     return Block.builder()
         .setResourceId(resourceId)
@@ -19,12 +19,16 @@
  */
 package org.sonar.api.batch.fs.internal;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Charsets;
+import com.google.common.collect.Maps;
 import com.google.common.primitives.Ints;
 import org.apache.commons.codec.binary.Hex;
 import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.io.ByteOrderMark;
+import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.input.BOMInputStream;
+import org.picocontainer.Startable;
 import org.sonar.api.BatchComponent;
 import org.sonar.api.CoreProperties;
 import org.sonar.api.utils.log.Logger;
@@ -34,22 +38,76 @@ import javax.annotation.CheckForNull;
 import javax.annotation.Nullable;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
 import java.nio.charset.Charset;
+import java.nio.charset.CodingErrorAction;
 import java.security.MessageDigest;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Computes hash of files. Ends of Lines are ignored, so files with
  * same content but different EOL encoding have the same hash.
+ * <p/>
+ * Files are decoded in a single pass. Decoded content and hashes of lines are kept in memory until the end
+ * of module scan, as long as they fit in the budget defined by {@link #CACHE_MEMORY_PROPERTY}, so that sensors
+ * and issue tracking do not read the files again. Files that can not be cached are streamed.
  */
-public class FileMetadata implements BatchComponent {
+public class FileMetadata implements BatchComponent, Startable {
+
+  /**
+   * Memory in MB used to keep the content of files, shared by the modules scanned at the same time. By default 5% of
+   * max heap is used, up to 64 MB.
+   * Files larger than 1/16 of this memory are not cached. Value 0 disables the cache.
+   * @since 5.2
+   */
+  public static final String CACHE_MEMORY_PROPERTY = "sonar.batch.sourceCache.memoryMb";
 
   private static final Logger LOG = Loggers.get(FileMetadata.class);
 
   private static final char LINE_FEED = '\n';
   private static final char CARRIAGE_RETURN = '\r';
 
+  // longest first, as BOMInputStream does
+  private static final ByteOrderMark[] BOMS = {ByteOrderMark.UTF_32LE, ByteOrderMark.UTF_32BE, ByteOrderMark.UTF_8,
+    ByteOrderMark.UTF_16LE, ByteOrderMark.UTF_16BE};
+
+  private final ConcurrentMap<File, Content> cache = Maps.newConcurrentMap();
+  private final SourceCacheMemory memory;
+  // memory reserved by this instance, released on stop
+  private final AtomicLong reservedMemory = new AtomicLong();
+
+  /**
+   * Content of files is not cached
+   */
+  public FileMetadata() {
+    this(new SourceCacheMemory(0L));
+  }
+
+  /**
+   * @since 5.2
+   */
+  public FileMetadata(SourceCacheMemory memory) {
+    this.memory = memory;
+  }
+
+  @Override
+  public void start() {
+    // nothing to do
+  }
+
+  /**
+   * Releases cached content, and its memory for the next modules
+   */
+  @Override
+  public void stop() {
+    cache.clear();
+    memory.release(reservedMemory.getAndSet(0L));
+  }
+
   public abstract static class CharHandler {
 
     protected void handleAll(char c) {
@@ -224,11 +282,78 @@ public class FileMetadata implements BatchComponent {
     LineCounter lineCounter = new LineCounter(file, encoding);
     FileHashComputer fileHashComputer = new FileHashComputer();
     LineOffsetCounter lineOffsetCounter = new LineOffsetCounter();
-    readFile(file, encoding, lineCounter, fileHashComputer, lineOffsetCounter);
+    long length = file.length();
+    if (length >= memory.maxFileSize() || memory.available() < 2L * length) {
+      // content can not be cached, so it is not decoded in memory
+      readFile(file, encoding, lineCounter, fileHashComputer, lineOffsetCounter);
+    } else {
+      char[] chars = decode(file, encoding);
+      // hashes of lines are computed in the same pass, as they are needed by issue tracking
+      final List<byte[]> lineHashes = new ArrayList<>();
+      read(chars, lineCounter, fileHashComputer, lineOffsetCounter, new LineHashComputer(new LineHashConsumer() {
+        @Override
+        public void consume(int lineIdx, @Nullable byte[] hash) {
+          lineHashes.add(hash);
+        }
+      }));
+      cache(file, new Content(encoding, chars, lineHashes.toArray(new byte[lineHashes.size()][])));
+    }
     return new Metadata(lineCounter.lines(), lineCounter.nonBlankLines(), fileHashComputer.getHash(), lineOffsetCounter.getOriginalLineOffsets(),
       lineOffsetCounter.getLastValidOffset());
   }
 
+  private void cache(File file, Content content) {
+    long size = content.memory();
+    if (memory.tryReserve(size)) {
+      reservedMemory.addAndGet(size);
+      Content previous = cache.put(file, content);
+      if (previous != null) {
+        reservedMemory.addAndGet(-previous.memory());
+        memory.release(previous.memory());
+      }
+    }
+  }
+
+  @CheckForNull
+  private Content cached(File file, Charset encoding) {
+    Content content = cache.get(file);
+    return content != null && content.encoding.equals(encoding) ? content : null;
+  }
+
+  /**
+   * Reader of file content, without BOM. Content is read from memory when cached by {@link #readMetadata(File, Charset)}.
+   * @since 5.2
+   */
+  public Reader newReader(File file, Charset encoding) throws IOException {
+    Content content = cached(file, encoding);
+    if (content != null) {
+      return new CharArrayReader(content.chars);
+    }
+    return newFileReader(file, encoding);
+  }
+
+  private static Reader newFileReader(File file, Charset encoding) throws IOException {
+    BOMInputStream bomIn = new BOMInputStream(new FileInputStream(file),
+      ByteOrderMark.UTF_8, ByteOrderMark.UTF_16LE, ByteOrderMark.UTF_16BE, ByteOrderMark.UTF_32LE, ByteOrderMark.UTF_32BE);
+    return new BufferedReader(new InputStreamReader(bomIn, encoding));
+  }
+
+  /**
+   * Compute a MD5 hash of each line of the file after removing of all blank chars. Hashes are read from
+   * memory when cached by {@link #readMetadata(File, Charset)}.
+   * @since 5.2
+   */
+  public void computeLineHashes(DefaultInputFile f, LineHashConsumer consumer) {
+    Content content = cached(f.file(), f.charset());
+    if (content == null) {
+      computeLineHashesForIssueTracking(f, consumer);
+      return;
+    }
+    for (int i = 0; i < content.lineHashes.length; i++) {
+      consumer.consume(i + 1, content.lineHashes[i]);
+    }
+  }
+
   /**
    * For testing purpose
    */
@@ -246,21 +371,117 @@ public class FileMetadata implements BatchComponent {
   }
 
   public static void readFile(File file, Charset encoding, CharHandler... handlers) {
-    try (BOMInputStream bomIn = new BOMInputStream(new FileInputStream(file),
-      ByteOrderMark.UTF_8, ByteOrderMark.UTF_16LE, ByteOrderMark.UTF_16BE, ByteOrderMark.UTF_32LE, ByteOrderMark.UTF_32BE);
-      Reader reader = new BufferedReader(new InputStreamReader(bomIn, encoding))) {
+    try (Reader reader = newFileReader(file, encoding)) {
       read(reader, handlers);
     } catch (IOException e) {
       throw new IllegalStateException(String.format("Fail to read file '%s' with encoding '%s'", file.getAbsolutePath(), encoding), e);
     }
   }
 
+  /**
+   * Content of file, without BOM, for files small enough to be cached. Bytes are widened to chars without decoder
+   * as long as they are ASCII in UTF-8 or US-ASCII, and always in ISO-8859-1. Others are decoded at once.
+   */
+  @VisibleForTesting
+  static char[] decode(File file, Charset encoding) {
+    try {
+      ByteBuffer bytes = ByteBuffer.wrap(FileUtils.readFileToByteArray(file));
+      skipBom(bytes);
+      return toChars(bytes, encoding);
+    } catch (IOException e) {
+      throw new IllegalStateException(String.format("Fail to read file '%s' with encoding '%s'", file.getAbsolutePath(), encoding), e);
+    }
+  }
+
+  private static void skipBom(ByteBuffer bytes) {
+    for (ByteOrderMark bom : BOMS) {
+      if (bytes.remaining() >= bom.length() && startsWith(bytes, bom)) {
+        bytes.position(bytes.position() + bom.length());
+        return;
+      }
+    }
+  }
+
+  private static boolean startsWith(ByteBuffer bytes, ByteOrderMark bom) {
+    for (int i = 0; i < bom.length(); i++) {
+      if ((bytes.get(bytes.position() + i) & 0xFF) != bom.get(i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static char[] toChars(ByteBuffer bytes, Charset encoding) {
+    boolean latin1 = Charsets.ISO_8859_1.equals(encoding);
+    if (!latin1 && !Charsets.UTF_8.equals(encoding) && !Charsets.US_ASCII.equals(encoding)) {
+      return decode(bytes, encoding);
+    }
+    int start = bytes.position();
+    char[] chars = new char[bytes.remaining()];
+    for (int i = 0; i < chars.length; i++) {
+      byte b = bytes.get(start + i);
+      if (b < 0 && !latin1) {
+        // first non-ASCII char: previous bytes are complete chars, the remaining ones are decoded
+        bytes.position(start + i);
+        char[] remaining = decode(bytes, encoding);
+        char[] result = new char[i + remaining.length];
+        System.arraycopy(chars, 0, result, 0, i);
+        System.arraycopy(remaining, 0, result, i, remaining.length);
+        return result;
+      }
+      chars[i] = (char) (b & 0xFF);
+    }
+    return chars;
+  }
+
+  private static char[] decode(ByteBuffer bytes, Charset encoding) {
+    try {
+      // malformed input is replaced, as done by InputStreamReader
+      CharBuffer decoded = encoding.newDecoder()
+        .onMalformedInput(CodingErrorAction.REPLACE)
+        .onUnmappableCharacter(CodingErrorAction.REPLACE)
+        .decode(bytes);
+      char[] chars = new char[decoded.remaining()];
+      decoded.get(chars);
+      return chars;
+    } catch (IOException e) {
+      throw new IllegalStateException("Fail to decode content with encoding " + encoding, e);
+    }
+  }
+
+  private static void read(char[] chars, CharHandler... handlers) {
+    EolDispatcher dispatcher = new EolDispatcher(handlers);
+    for (char c : chars) {
+      dispatcher.handle(c);
+    }
+    dispatcher.eof();
+  }
+
   private static void read(Reader reader, CharHandler... handlers) throws IOException {
-    char c = (char) 0;
-    int i = reader.read();
-    boolean afterCR = false;
-    while (i != -1) {
-      c = (char) i;
+    EolDispatcher dispatcher = new EolDispatcher(handlers);
+    char[] buffer = new char[8192];
+    int read = reader.read(buffer);
+    while (read != -1) {
+      for (int i = 0; i < read; i++) {
+        dispatcher.handle(buffer[i]);
+      }
+      read = reader.read(buffer);
+    }
+    dispatcher.eof();
+  }
+
+  /**
+   * Notifies handlers of chars and ends of lines
+   */
+  private static class EolDispatcher {
+    private final CharHandler[] handlers;
+    private boolean afterCR = false;
+
+    EolDispatcher(CharHandler[] handlers) {
+      this.handlers = handlers;
+    }
+
+    void handle(char c) {
       if (afterCR) {
         for (CharHandler handler : handlers) {
           if (c != CARRIAGE_RETURN && c != LINE_FEED) {
@@ -286,10 +507,12 @@ public class FileMetadata implements BatchComponent {
           handler.handleAll(c);
         }
       }
-      i = reader.read();
     }
-    for (CharHandler handler : handlers) {
-      handler.eof();
+
+    void eof() {
+      for (CharHandler handler : handlers) {
+        handler.eof();
+      }
     }
   }
 
@@ -309,6 +532,29 @@ public class FileMetadata implements BatchComponent {
     }
   }
 
+  /**
+   * Decoded content and hashes of lines of a file
+   */
+  private static class Content {
+    private final Charset encoding;
+    private final char[] chars;
+    private final byte[][] lineHashes;
+
+    Content(Charset encoding, char[] chars, byte[][] lineHashes) {
+      this.encoding = encoding;
+      this.chars = chars;
+      this.lineHashes = lineHashes;
+    }
+
+    /**
+     * Approximate memory in bytes
+     */
+    long memory() {
+      // a hash is an array of 16 bytes, ie 32 bytes with its header, plus the reference
+      return 2L * chars.length + 40L * lineHashes.length;
+    }
+  }
+
   public interface LineHashConsumer {
 
     void consume(int lineIdx, @Nullable byte[] hash);
@@ -0,0 +1,94 @@
+/*
+ * SonarQube, open source software quality management tool.
+ * Copyright (C) 2008-2014 SonarSource
+ * mailto:contact AT sonarsource DOT com
+ *
+ * SonarQube is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * SonarQube is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.api.batch.fs.internal;
+
+import com.google.common.annotations.VisibleForTesting;
+import org.sonar.api.BatchComponent;
+import org.sonar.api.config.Settings;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Memory budget of the file contents cached by {@link FileMetadata}. It is shared by all the modules of the project,
+ * so that modules scanned concurrently do not get a budget each. The memory reserved by a module is released at the
+ * end of its scan.
+ *
+ * @since 5.2
+ */
+public class SourceCacheMemory implements BatchComponent {
+
+  static final long MAX_DEFAULT_CACHE_MEMORY = 64L * 1024 * 1024;
+
+  /**
+   * A single file can not take more than this fraction of the memory budget, ie 4 MB by default.
+   * Larger files are streamed through a {@link java.io.Reader} rather than decoded at once.
+   */
+  static final int MAX_CACHED_FILE_RATIO = 16;
+
+  private final AtomicLong available;
+  private final long maxFileSize;
+
+  public SourceCacheMemory(Settings settings) {
+    this(cacheMemory(Runtime.getRuntime().maxMemory(), settings));
+  }
+
+  @VisibleForTesting
+  SourceCacheMemory(long bytes) {
+    this.available = new AtomicLong(bytes);
+    this.maxFileSize = bytes / MAX_CACHED_FILE_RATIO;
+  }
+
+  @VisibleForTesting
+  static long cacheMemory(long maxHeap, Settings settings) {
+    if (settings.hasKey(FileMetadata.CACHE_MEMORY_PROPERTY)) {
+      return Math.max(0L, settings.getInt(FileMetadata.CACHE_MEMORY_PROPERTY) * 1024L * 1024L);
+    }
+    return Math.min(MAX_DEFAULT_CACHE_MEMORY, maxHeap / 20);
+  }
+
+  /**
+   * Files of at least this size are not cached
+   */
+  long maxFileSize() {
+    return maxFileSize;
+  }
+
+  long available() {
+    return available.get();
+  }
+
+  /**
+   * @return false if the remaining budget is lower than the requested bytes
+   */
+  boolean tryReserve(long bytes) {
+    long current = available.get();
+    while (current >= bytes) {
+      if (available.compareAndSet(current, current - bytes)) {
+        return true;
+      }
+      current = available.get();
+    }
+    return false;
+  }
+
+  void release(long bytes) {
+    available.addAndGet(bytes);
+  }
+}
@@ -41,6 +41,15 @@ public abstract class BlameCommand implements BatchComponent {
    */
   public abstract void blame(BlameInput input, BlameOutput output);
 
+  /**
+   * Can {@link #blame(BlameInput, BlameOutput)} be called concurrently? In this case files to blame are
+   * partitioned and each partition is blamed by a distinct call. Default is false.
+   * @since 5.2
+   */
+  public boolean isThreadSafe() {
+    return false;
+  }
+
   /**
    * Callback for the provider to report results of blame per file.
    */
@@ -86,4 +86,12 @@ public interface SensorDescriptor {
    */
   SensorDescriptor disabledInPreview();
 
+  /**
+   * Declare that this {@link Sensor} can be executed at the same time as other thread-safe sensors, when
+   * concurrent execution of sensors is enabled. Ordering defined by {@link org.sonar.api.batch.DependsUpon} and
+   * {@link org.sonar.api.batch.DependedUpon} is still respected. Default is to execute the sensor alone.
+   * @since 5.2
+   */
+  SensorDescriptor threadSafe();
+
 }
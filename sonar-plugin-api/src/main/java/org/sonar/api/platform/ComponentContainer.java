@@ -131,7 +131,7 @@ public class ComponentContainer implements BatchComponent, ServerComponent {
     } finally {
       removeChild();
       if (parent != null) {
-        parent.removeChild();
+        parent.removeChild(this);
       }
     }
     return this;
@@ -222,7 +222,7 @@ public class ComponentContainer implements BatchComponent, ServerComponent {
     return pico.getComponents(tClass);
   }
 
-  public ComponentContainer removeChild() {
+  public synchronized ComponentContainer removeChild() {
     if (child != null) {
       pico.removeChildContainer(child.pico);
       child = null;
@@ -230,7 +230,20 @@ public class ComponentContainer implements BatchComponent, ServerComponent {
     return this;
   }
 
-  public ComponentContainer createChild() {
+  /**
+   * Removes the given child container. Unlike {@link #removeChild()}, it does not
+   * affect the other children that may have been created concurrently.
+   * @since 5.2
+   */
+  public synchronized ComponentContainer removeChild(ComponentContainer childToBeRemoved) {
+    pico.removeChildContainer(childToBeRemoved.pico);
+    if (child == childToBeRemoved) {
+      child = null;
+    }
+    return this;
+  }
+
+  public synchronized ComponentContainer createChild() {
     return new ComponentContainer(this);
   }
 
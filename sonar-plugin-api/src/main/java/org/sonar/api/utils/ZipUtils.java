@@ -150,18 +150,27 @@ public final class ZipUtils {
 
   public static void zipDir(File dir, File zip) throws IOException {
     OutputStream out = null;
-    ZipOutputStream zout = null;
     try {
       out = FileUtils.openOutputStream(zip);
-      zout = new ZipOutputStream(out);
-      doZipDir(dir, zout);
+      zipDir(dir, out);
 
     } finally {
-      IOUtils.closeQuietly(zout);
       IOUtils.closeQuietly(out);
     }
   }
 
+  /**
+   * Writes the content of directory to a stream, for example to send it without creating a zip file.
+   * The stream is not closed.
+   *
+   * @since 5.2
+   */
+  public static void zipDir(File dir, OutputStream out) throws IOException {
+    ZipOutputStream zout = new ZipOutputStream(out);
+    doZipDir(dir, zout);
+    zout.finish();
+  }
+
   private static void doZip(String entryName, InputStream in, ZipOutputStream out) throws IOException {
     ZipEntry entry = new ZipEntry(entryName);
     out.putNextEntry(entry);
@@ -22,6 +22,8 @@ package org.sonar.api.batch.fs.internal;
 import com.google.common.base.Charsets;
 import org.apache.commons.codec.binary.Hex;
 import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang.StringUtils;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
@@ -33,7 +35,10 @@ import org.sonar.api.utils.log.LoggerLevel;
 import javax.annotation.Nullable;
 
 import java.io.File;
+import java.io.FileNotFoundException;
 import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.apache.commons.codec.digest.DigestUtils.md5Hex;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -293,4 +298,120 @@ public class FileMetadataTest {
       "glyphicons-halflings-regular.woff at line 1 for encoding UTF-8. Please fix file content or configure the encoding to be used using property 'sonar.sourceEncoding'.");
   }
 
+  @Test
+  public void latin1_and_large_files_are_decoded_as_by_reader() throws Exception {
+    StringBuilder sb = new StringBuilder();
+    while (sb.length() < 256 * 1024) {
+      sb.append("foo bar\r\n");
+    }
+    // non-ASCII char at the end of a large file
+    sb.append("bàz\n");
+    String content = sb.toString();
+    File utf8 = temp.newFile();
+    FileUtils.write(utf8, content, Charsets.UTF_8);
+    File latin1 = temp.newFile();
+    FileUtils.write(latin1, "café\n", Charsets.ISO_8859_1);
+
+    assertThat(FileMetadata.decode(utf8, Charsets.UTF_8)).isEqualTo(content.toCharArray());
+    assertThat(FileMetadata.decode(latin1, Charsets.ISO_8859_1)).isEqualTo("café\n".toCharArray());
+    assertThat(FileMetadata.decode(latin1, Charsets.US_ASCII)).isEqualTo("caf\ufffd\n".toCharArray());
+  }
+
+  @Test
+  public void cache_content_and_line_hashes() throws Exception {
+    File tempFile = temp.newFile();
+    FileUtils.write(tempFile, "\uFEFF foo\nb ar\r\n", Charsets.UTF_8, true);
+    DefaultInputFile f = new DefaultInputFile("foo", tempFile.getName());
+    f.setModuleBaseDir(tempFile.getParentFile().toPath());
+    f.setCharset(Charsets.UTF_8);
+
+    FileMetadata fileMetadata = new FileMetadata(new SourceCacheMemory(1024L));
+    fileMetadata.readMetadata(tempFile, Charsets.UTF_8);
+    final List<String> hashes = new ArrayList<>();
+    FileMetadata.computeLineHashesForIssueTracking(f, new LineHashConsumer() {
+      @Override
+      public void consume(int lineIdx, @Nullable byte[] hash) {
+        hashes.add(lineIdx + ":" + (hash == null ? null : Hex.encodeHexString(hash)));
+      }
+    });
+    // file is not read anymore
+    FileUtils.forceDelete(tempFile);
+
+    assertThat(IOUtils.toString(fileMetadata.newReader(tempFile, Charsets.UTF_8))).isEqualTo(" foo\nb ar\r\n");
+    final List<String> cachedHashes = new ArrayList<>();
+    fileMetadata.computeLineHashes(f, new LineHashConsumer() {
+      @Override
+      public void consume(int lineIdx, @Nullable byte[] hash) {
+        cachedHashes.add(lineIdx + ":" + (hash == null ? null : Hex.encodeHexString(hash)));
+      }
+    });
+    assertThat(cachedHashes).isEqualTo(hashes).containsExactly("1:" + md5Hex("foo"), "2:" + md5Hex("bar"), "3:null");
+  }
+
+  @Test
+  public void do_not_cache_content_beyond_memory_budget() throws Exception {
+    File tempFile = temp.newFile();
+    FileUtils.write(tempFile, "foo\nbar\n", Charsets.UTF_8, true);
+
+    FileMetadata fileMetadata = new FileMetadata(new SourceCacheMemory(10L));
+    fileMetadata.readMetadata(tempFile, Charsets.UTF_8);
+    FileUtils.forceDelete(tempFile);
+
+    thrown.expect(FileNotFoundException.class);
+    fileMetadata.newReader(tempFile, Charsets.UTF_8);
+  }
+
+  @Test
+  public void stream_files_too_large_to_be_cached() throws Exception {
+    File tempFile = temp.newFile();
+    FileUtils.write(tempFile, StringUtils.repeat("foo\n", 20) + "bar", Charsets.UTF_8, true);
+
+    // at most 64 bytes per file
+    FileMetadata fileMetadata = new FileMetadata(new SourceCacheMemory(1024L));
+    FileMetadata.Metadata metadata = fileMetadata.readMetadata(tempFile, Charsets.UTF_8);
+    assertThat(metadata.lines).isEqualTo(21);
+    assertThat(metadata.nonBlankLines).isEqualTo(21);
+    assertThat(metadata.hash).isEqualTo(md5Hex(StringUtils.repeat("foo\n", 20) + "bar"));
+    FileUtils.forceDelete(tempFile);
+
+    thrown.expect(FileNotFoundException.class);
+    fileMetadata.newReader(tempFile, Charsets.UTF_8);
+  }
+
+  @Test
+  public void release_memory_of_cached_content_on_stop() throws Exception {
+    File tempFile = temp.newFile();
+    FileUtils.write(tempFile, "foo\nbar\n", Charsets.UTF_8, true);
+    SourceCacheMemory memory = new SourceCacheMemory(1024L);
+
+    FileMetadata fileMetadata = new FileMetadata(memory);
+    fileMetadata.readMetadata(tempFile, Charsets.UTF_8);
+    assertThat(memory.available()).isLessThan(1024L);
+
+    fileMetadata.stop();
+    assertThat(memory.available()).isEqualTo(1024L);
+    FileUtils.forceDelete(tempFile);
+    thrown.expect(FileNotFoundException.class);
+    fileMetadata.newReader(tempFile, Charsets.UTF_8);
+  }
+
+  @Test
+  public void memory_is_shared_by_modules() throws Exception {
+    File tempFile = temp.newFile();
+    FileUtils.write(tempFile, "foo\nbar\n", Charsets.UTF_8, true);
+    // enough for a single copy of the content, which takes 136 bytes
+    SourceCacheMemory memory = new SourceCacheMemory(200L);
+    FileMetadata module1 = new FileMetadata(memory);
+    FileMetadata module2 = new FileMetadata(memory);
+
+    module1.readMetadata(tempFile, Charsets.UTF_8);
+    module2.readMetadata(tempFile, Charsets.UTF_8);
+    FileUtils.forceDelete(tempFile);
+
+    assertThat(IOUtils.toString(module1.newReader(tempFile, Charsets.UTF_8))).isEqualTo("foo\nbar\n");
+    thrown.expect(FileNotFoundException.class);
+    module2.newReader(tempFile, Charsets.UTF_8);
+  }
+
+
 }
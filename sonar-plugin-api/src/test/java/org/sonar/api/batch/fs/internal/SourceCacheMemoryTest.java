@@ -0,0 +1,53 @@
+/*
+ * SonarQube, open source software quality management tool.
+ * Copyright (C) 2008-2014 SonarSource
+ * mailto:contact AT sonarsource DOT com
+ *
+ * SonarQube is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * SonarQube is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.api.batch.fs.internal;
+
+import org.junit.Test;
+import org.sonar.api.config.Settings;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SourceCacheMemoryTest {
+
+  @Test
+  public void cache_memory_from_settings_or_heap() {
+    Settings settings = new Settings();
+    assertThat(SourceCacheMemory.cacheMemory(100L * 1024 * 1024, settings)).isEqualTo(5L * 1024 * 1024);
+    assertThat(SourceCacheMemory.cacheMemory(10L * 1024 * 1024 * 1024, settings)).isEqualTo(SourceCacheMemory.MAX_DEFAULT_CACHE_MEMORY);
+
+    settings.setProperty(FileMetadata.CACHE_MEMORY_PROPERTY, "0");
+    assertThat(SourceCacheMemory.cacheMemory(100L * 1024 * 1024, settings)).isEqualTo(0L);
+    settings.setProperty(FileMetadata.CACHE_MEMORY_PROPERTY, "12");
+    assertThat(SourceCacheMemory.cacheMemory(100L * 1024 * 1024, settings)).isEqualTo(12L * 1024 * 1024);
+  }
+
+  @Test
+  public void reserve_and_release() {
+    SourceCacheMemory memory = new SourceCacheMemory(1600L);
+    assertThat(memory.maxFileSize()).isEqualTo(100L);
+
+    assertThat(memory.tryReserve(1000L)).isTrue();
+    assertThat(memory.tryReserve(1000L)).isFalse();
+    assertThat(memory.available()).isEqualTo(600L);
+
+    memory.release(1000L);
+    assertThat(memory.tryReserve(1000L)).isTrue();
+  }
+}
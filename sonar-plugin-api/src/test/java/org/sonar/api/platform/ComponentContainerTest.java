@@ -136,6 +136,36 @@ public class ComponentContainerTest {
     assertThat(parent.getChild()).isNull();
   }
 
+  @Test
+  public void remove_given_child_does_not_affect_other_children() {
+    ComponentContainer parent = new ComponentContainer();
+    parent.startComponents();
+
+    ComponentContainer child1 = parent.createChild();
+    ComponentContainer child2 = parent.createChild();
+    assertThat(parent.getChild()).isSameAs(child2);
+
+    parent.removeChild(child1);
+    assertThat(parent.getChild()).isSameAs(child2);
+
+    parent.removeChild(child2);
+    assertThat(parent.getChild()).isNull();
+  }
+
+  @Test
+  public void stopping_child_removes_only_itself_from_parent() {
+    ComponentContainer parent = new ComponentContainer();
+    parent.startComponents();
+
+    ComponentContainer child1 = parent.createChild();
+    ComponentContainer child2 = parent.createChild();
+    child1.startComponents();
+    child2.startComponents();
+
+    child1.stopComponents();
+    assertThat(parent.getChild()).isSameAs(child2);
+  }
+
   @Test
   public void shouldForwardStartAndStopToDescendants() {
     ComponentContainer grandParent = new ComponentContainer();